@@ -0,0 +1,94 @@
+package com.safetynet.AppSafetyNet.cache;
+
+import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Réponse HTTP déjà sérialisée, prête à être écrite telle quelle sur le flux de sortie.
+ * <p>
+ * La version compressée (gzip) est calculée au premier client qui l'accepte puis conservée :
+ * sérialisation et compression ne sont payées qu'une fois par version des données.
+ * Les corps trop petits ne sont jamais compressés.
+ * </p>
+ * <p>
+ * Les en-têtes calculés avec le corps (par exemple la résolution d'une adresse saisie) sont conservés
+ * avec lui et renvoyés à chaque accès au cache.
+ * </p>
+ */
+public final class CachedResponse {
+
+    private final byte[] body;
+    private final MediaType contentType;
+    private final boolean compressible;
+    private final HttpHeaders headers;
+    private volatile byte[] gzipped;
+
+    CachedResponse(byte[] body, MediaType contentType, boolean compressible, HttpHeaders headers) {
+        this.body = body;
+        this.contentType = contentType;
+        this.compressible = compressible;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Construit la réponse HTTP 200 avec ses en-têtes en cache, compressée si le client l'accepte
+     * et si le corps est assez gros.
+     *
+     * @param acceptEncoding valeur de l'en-tête Accept-Encoding de la requête (peut être null).
+     * @return la réponse contenant les octets en cache.
+     */
+    public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers);
+
+        if (compressible && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipped());
+        }
+        return builder.body(body);
+    }
+
+    private byte[] gzipped() {
+        byte[] result = gzipped;
+        if (result == null) {
+            // course bénigne : deux threads peuvent compresser en même temps, le résultat est identique
+            result = gzip(body);
+            gzipped = result;
+        }
+        return result;
+    }
+
+    /**
+     * Indique si un client accepte les réponses compressées en gzip.
+     * @param acceptEncoding valeur de l'en-tête Accept-Encoding (peut être null).
+     * @return {@code true} si gzip fait partie des encodages acceptés.
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new ErrorSystemException("An error is occurred : " + e.getMessage());
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,32 @@
+package com.safetynet.AppSafetyNet.cache;
+
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fournit une version des données utilisable comme clé de validité pour les réponses calculées.
+ * <p>
+ * La version combine le numéro de version du {@link DataStorage} (modifié à chaque écriture)
+ * et le jour courant fourni par {@link AgeClock} : les réponses contiennent des âges, elles changent
+ * donc aussi à minuit sans qu'aucune donnée n'ait été modifiée. Elle est préfixée par l'identifiant
+ * de l'exécution : la version repartant de 1 à chaque démarrage, une version émise avant un redémarrage
+ * ne doit jamais correspondre à une version émise après.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class DataVersion {
+
+    private final DataStorage dataStorage;
+    private final AgeClock ageClock;
+
+    /**
+     * Retourne la version courante des données.
+     * @return une chaîne de la forme {@code <exécution>-<version>-<jour>}, identique tant que rien n'a changé.
+     */
+    public String current() {
+        return dataStorage.getEpoch() + "-" + dataStorage.getVersion() + "-" + ageClock.todayEpochDay();
+    }
+}
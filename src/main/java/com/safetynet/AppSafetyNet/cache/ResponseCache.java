@@ -0,0 +1,209 @@
+package com.safetynet.AppSafetyNet.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache des réponses des endpoints de lecture (alertes).
+ * <p>
+ * Les réponses sont conservées déjà sérialisées en JSON ({@link CachedResponse}) : un accès au cache
+ * n'exécute ni la requête métier ni la sérialisation Jackson, les octets sont écrits tels quels.
+ * </p>
+ * <p>
+ * Chaque entrée est identifiée par l'endpoint et ses paramètres normalisés, et porte la
+ * {@link DataVersion} avec laquelle elle a été calculée. Dès qu'un repository modifie les données,
+ * la version change et toutes les entrées deviennent invalides : elles sont purgées au premier accès suivant.
+ * </p>
+ * <p>
+ * Le cache est borné ({@code application.cache.max-entries}) et évince l'entrée la moins récemment utilisée.
+ * Les exceptions levées pendant le calcul ne sont jamais mises en cache.
+ * </p>
+ * <p>
+ * En cas d'absence, les requêtes identiques arrivant simultanément (même clé, même version des données)
+ * partagent un seul calcul grâce à un {@link SingleFlight} : lors d'un incident, des dizaines de consoles
+ * interrogeant la même adresse ne déclenchent qu'une seule requête métier.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final DataVersion dataVersion;
+    private final ObjectMapper mapper;
+    private final Map<String, CachedResponse> entries;
+    private String entriesVersion;
+    private final SingleFlight<String, CachedResponse> singleFlight = new SingleFlight<>();
+    private final Duration coalescingTimeout;
+    private final int gzipMinSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseCache(DataVersion dataVersion,
+                         ObjectMapper mapper,
+                         @Value("${application.cache.max-entries:1000}") int maxEntries,
+                         @Value("${application.cache.coalescing-timeout-ms:5000}") long coalescingTimeoutMs,
+                         @Value("${application.cache.gzip-min-size:1024}") int gzipMinSize) {
+        Assert.isTrue(maxEntries > 0, "Cache max entries must be positive");
+        this.dataVersion = dataVersion;
+        this.mapper = mapper;
+        this.coalescingTimeout = Duration.ofMillis(coalescingTimeoutMs);
+        this.gzipMinSize = gzipMinSize;
+        // LinkedHashMap en ordre d'accès : l'entrée la plus ancienne est la moins récemment utilisée
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Retourne la réponse en cache pour cet endpoint et ces paramètres, ou la calcule si elle est
+     * absente ou calculée sur une version antérieure des données.
+     *
+     * @param endpoint chemin de l'endpoint (ex. : "/childAlert").
+     * @param params paramètres normalisés (voir {@link #key(String)} et {@link #key(List)}).
+     * @param loader calcul du corps de la réponse en cas d'absence : un objet sérialisé en JSON,
+     *               ou une chaîne renvoyée telle quelle en texte brut ; un {@link Body} y ajoute des en-têtes.
+     * @return la réponse sérialisée, en cache ou fraîchement calculée.
+     */
+    public CachedResponse get(String endpoint, String params, Supplier<?> loader) {
+        String key = endpoint + "?" + params;
+        // la version doit être lue AVANT le calcul : une écriture concurrente rendra l'entrée obsolète
+        String version = dataVersion.current();
+
+        synchronized (entries) {
+            purgeIfStale(version);
+            CachedResponse cached = entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                log.debug("Cache HIT {}", key);
+                return cached;
+            }
+        }
+
+        misses.increment();
+        log.debug("Cache MISS {} (version {})", key, version);
+        // la version fait partie de la clé : une requête arrivée après une écriture n'attend pas un calcul antérieur
+        CachedResponse value = singleFlight.execute(version + "|" + key, () -> serialize(loader.get()), coalescingTimeout);
+
+        // si les données ont changé pendant le calcul, la réponse est renvoyée mais pas conservée
+        if (version.equals(dataVersion.current())) {
+            synchronized (entries) {
+                purgeIfStale(version);
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Vide entièrement le cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            entriesVersion = null;
+        }
+        log.info("Cache des réponses vidé");
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Normalise un paramètre texte. Les recherches par adresse, ville ou nom sont insensibles
+     * à la casse dans les repositories : deux paramètres ne différant que par la casse partagent la même entrée.
+     */
+    public static String key(String param) {
+        return param == null ? "" : param.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalise une liste de numéros de station : les doublons sont retirés, l'ordre est conservé
+     * car il détermine l'ordre des adresses dans la réponse.
+     */
+    public static String key(List<Integer> params) {
+        return new LinkedHashSet<>(params).stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * Complète les paramètres normalisés d'une requête paginée : le curseur est opaque et
+     * sensible à la casse, il est donc conservé tel quel.
+     */
+    public static String pageKey(String params, String cursor, int limit) {
+        return params + "&cursor=" + (cursor == null ? "" : cursor) + "&limit=" + limit;
+    }
+
+    /**
+     * Corps d'une réponse accompagné d'en-têtes calculés avec lui, mis en cache ensemble.
+     *
+     * @param content corps de la réponse (objet sérialisé en JSON, ou chaîne renvoyée en texte brut).
+     * @param headers en-têtes à renvoyer avec le corps.
+     */
+    public record Body(Object content, HttpHeaders headers) {
+    }
+
+    private CachedResponse serialize(Object body) {
+        HttpHeaders headers = HttpHeaders.EMPTY;
+        if (body instanceof Body withHeaders) {
+            body = withHeaders.content();
+            headers = withHeaders.headers();
+        }
+        if (body instanceof String text) {
+            return new CachedResponse(text.getBytes(StandardCharsets.UTF_8), TEXT_UTF8, false, headers);
+        }
+        try {
+            byte[] json = mapper.writeValueAsBytes(body);
+            return new CachedResponse(json, MediaType.APPLICATION_JSON, json.length >= gzipMinSize, headers);
+        } catch (JsonProcessingException e) {
+            log.error("Echec de la sérialisation de la réponse : {}", e.getMessage(), e);
+            throw new ErrorSystemException("An error is occurred : " + e.getOriginalMessage());
+        }
+    }
+
+    // appelé sous le verrou de entries
+    private void purgeIfStale(String version) {
+        if (entriesVersion == null || !entriesVersion.equals(version)) {
+            if (!entries.isEmpty()) {
+                log.debug("Données modifiées ({} -> {}), {} entrées invalidées", entriesVersion, version, entries.size());
+            }
+            entries.clear();
+            entriesVersion = version;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.safetynet.AppSafetyNet.cache;
+
+import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Regroupe les calculs identiques exécutés en même temps.
+ * <p>
+ * Le premier appelant pour une clé exécute le calcul ; les appelants suivants arrivés pendant ce calcul
+ * attendent son résultat (ou son exception) au lieu de le refaire. Une fois le calcul terminé, la clé est
+ * libérée : un nouvel appel relancera un nouveau calcul.
+ * </p>
+ * <p>
+ * Chaque attente est bornée : si le calcul en cours dépasse le délai, l'appelant abandonne l'attente
+ * et effectue le calcul lui-même plutôt que de rester bloqué.
+ * </p>
+ *
+ * @param <K> type de la clé identifiant un calcul.
+ * @param <V> type du résultat.
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Exécute le calcul pour cette clé, ou attend celui déjà en cours.
+     *
+     * @param key clé du calcul.
+     * @param loader calcul à exécuter.
+     * @param timeout attente maximale d'un calcul déjà en cours.
+     * @return le résultat du calcul.
+     */
+    public V execute(K key, Supplier<V> loader, Duration timeout) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+
+        if (running == null) {
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                call.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+
+        log.debug("Calcul déjà en cours pour {}, attente du résultat", key);
+        try {
+            return running.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Calcul en cours pour {} trop long (> {} ms), calcul indépendant", key, timeout.toMillis());
+            return loader.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new ErrorSystemException("An error is occurred : " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ErrorSystemException("Request interrupted while waiting for " + key);
+        }
+    }
+
+    /**
+     * @return le nombre de calculs actuellement en cours.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.safetynet.AppSafetyNet.config;
+
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Configuration de l'horloge de l'application.
+ * <p>
+ * Par défaut l'horloge système est utilisée. La propriété {@code application.clock.fixed-date}
+ * (format {@code aaaa-mm-jj}) permet de figer la date du jour, par exemple pour rendre les âges
+ * calculés reproductibles dans les tests.
+ * </p>
+ */
+@Slf4j
+@Configuration
+public class ClockConfig {
+
+    /**
+     * Crée l'horloge de l'application.
+     *
+     * @param fixedDate date à figer, ou vide pour utiliser l'horloge système.
+     * @return l'horloge de l'application.
+     */
+    @Bean
+    public Clock clock(@Value("${application.clock.fixed-date:}") String fixedDate) {
+        Clock clock;
+        if (fixedDate.isBlank()) {
+            clock = Clock.systemDefaultZone();
+        } else {
+            ZoneId zone = ZoneId.systemDefault();
+            clock = Clock.fixed(LocalDate.parse(fixedDate).atStartOfDay(zone).toInstant(), zone);
+            log.info("Date du jour figée au {}", fixedDate);
+        }
+        return clock;
+    }
+
+    /**
+     * Crée l'horloge utilisée pour le calcul des âges, dont la date du jour est relue à minuit
+     * par le planificateur.
+     *
+     * @param clock horloge de l'application.
+     * @return l'horloge des âges.
+     */
+    @Bean
+    public AgeClock ageClock(Clock clock) {
+        return new AgeClock(clock);
+    }
+}
@@ -0,0 +1,155 @@
+package com.safetynet.AppSafetyNet.config;
+
+import com.safetynet.AppSafetyNet.cache.CachedResponse;
+import com.safetynet.AppSafetyNet.cache.DataVersion;
+import com.safetynet.AppSafetyNet.controller.StreamingFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Gère les requêtes GET conditionnelles (ETag / If-None-Match).
+ * <p>
+ * L'ETag d'une réponse est dérivé de la {@link DataVersion} : tant que les données n'ont pas changé,
+ * une même URL produit exactement la même réponse. Si le client présente un ETag encore valide,
+ * la requête est interrompue avant le contrôleur avec un 304 (Not Modified) : ni la requête métier
+ * ni la sérialisation ne sont exécutées.
+ * </p>
+ * <p>
+ * Sinon, l'ETag n'est ajouté qu'au moment d'écrire une réponse en succès (2xx) : une erreur ne dépend
+ * pas seulement de la version des données et ne doit pas être revalidée comme une réponse.
+ * </p>
+ * <p>
+ * Un ETag fort désigne une suite d'octets unique : la représentation compressée reçoit le suffixe
+ * {@code -gzip}, ajouté seulement si la réponse porte effectivement {@code Content-Encoding: gzip}
+ * (les réponses en flux et les petites réponses ne sont jamais compressées).
+ * </p>
+ */
+@Slf4j
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    /** Attribut de la requête portant l'ETag de la réponse non compressée, ajouté si elle réussit. */
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+
+    private final DataVersion dataVersion;
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        boolean isRead = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        if (!(handler instanceof HandlerMethod) || !isRead) {
+            return true;
+        }
+
+        // les réponses en flux (NDJSON, SSE) ont leur propre ETag
+        Optional<StreamingFormat> streaming = StreamingFormat.fromAccept(request.getHeader(HttpHeaders.ACCEPT));
+        String format = streaming.map(f -> "-" + f.name().toLowerCase(Locale.ROOT)).orElse("");
+        String etag = quote(dataVersion.current() + format);
+        // le client doit revalider à chaque fois : la réponse n'est valable que pour cette version des données
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        // le client peut présenter l'ETag de l'une ou l'autre représentation (compressée ou non)
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        boolean mayBeCompressed = streaming.isEmpty() && CachedResponse.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String matched = matches(ifNoneMatch, etag) ? etag
+                : mayBeCompressed && matches(ifNoneMatch, gzip(etag)) ? gzip(etag) : null;
+        if (matched != null) {
+            log.debug("Requête GET {} non modifiée (ETag {}), 304 retourné", request.getRequestURI(), matched);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, matched);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        return true;
+    }
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse
+                && servletRequest.getServletRequest().getAttribute(ETAG_ATTRIBUTE) instanceof String etag
+                && isSuccessful(servletResponse.getServletResponse().getStatus())) {
+            boolean compressed = "gzip".equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            response.getHeaders().setETag(compressed ? gzip(etag) : etag);
+        }
+        return body;
+    }
+
+    /**
+     * Ajoute l'ETag de la requête en cours à une réponse écrite directement sur la réponse servlet
+     * (réponses en flux), qui ne passe pas par {@link #beforeBodyWrite}.
+     *
+     * @param response la réponse servlet, dont le statut est déjà fixé.
+     */
+    public static void applyEtag(HttpServletResponse response) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes
+                && servletAttributes.getRequest().getAttribute(ETAG_ATTRIBUTE) instanceof String etag
+                && isSuccessful(response.getStatus())) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    // "v" devient "v-gzip"
+    private static String gzip(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gzip\"";
+    }
+
+    private static boolean isSuccessful(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    /**
+     * @param ifNoneMatch valeur de l'en-tête If-None-Match (peut être null).
+     * @param etag ETag de la réponse.
+     * @return {@code true} si le client présente cet ETag (comparaison faible) ou {@code *}.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.safetynet.AppSafetyNet.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration Spring MVC de l'application.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // un flux (changements, abonnements) dépend des prochaines modifications, pas seulement de la version actuelle
+        registry.addInterceptor(conditionalGetInterceptor).excludePathPatterns("/changes/stream", "/alerts/subscribe");
+    }
+}
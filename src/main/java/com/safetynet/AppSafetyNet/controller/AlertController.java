@@ -1,34 +1,66 @@
 package com.safetynet.AppSafetyNet.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.cache.CachedResponse;
+import com.safetynet.AppSafetyNet.cache.ResponseCache;
 import com.safetynet.AppSafetyNet.model.dto.ChildAlertDTO;
 import com.safetynet.AppSafetyNet.model.dto.FloodResponseDTO;
+import com.safetynet.AppSafetyNet.model.dto.PageDTO;
 import com.safetynet.AppSafetyNet.model.dto.PersonInfosLastNameDTO;
-import com.safetynet.AppSafetyNet.model.dto.ResponseFireDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResolvedAddressDTO;
+import com.safetynet.AppSafetyNet.repository.index.PageCursor;
 import com.safetynet.AppSafetyNet.service.PersonService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Contrôleur REST pour gérer les alertes relatives aux enfants et aux numéros de téléphone
  * selon des critères d'adresse ou de numéro de caserne de pompiers.
+ * <p>
+ * Les réponses sont servies par le {@link ResponseCache} : tant que les données ne changent pas,
+ * une même requête n'est calculée et sérialisée qu'une seule fois, puis les octets en cache
+ * (compressés en gzip si le client l'accepte) sont renvoyés directement.
+ * </p>
+ * <p>
+ * Les adresses saisies pour /childAlert et /fire sont d'abord résolues vers l'adresse connue la plus
+ * proche, ce qui tolère les fautes de frappe ; l'adresse retenue et la confiance sont renvoyées en en-tête.
+ * La résolution n'a lieu qu'au calcul de la réponse : ses en-têtes sont mis en cache avec elle, sous l'adresse saisie.
+ * </p>
  */
 @Slf4j
 @RestController
 public class AlertController {
 
+    /** En-tête portant l'adresse connue à laquelle l'adresse saisie a été résolue. */
+    public static final String RESOLVED_ADDRESS_HEADER = "X-Resolved-Address";
+    /** En-tête portant la confiance de cette résolution (1.00 pour une correspondance exacte). */
+    public static final String ADDRESS_CONFIDENCE_HEADER = "X-Address-Confidence";
+
     private final PersonService personService;
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructeur avec injection du service PersonService.
      *
      * @param personService service métier pour gérer les personnes.
+     * @param responseCache cache des réponses calculées.
+     * @param objectMapper sérialiseur JSON des réponses en flux.
      */
-    public AlertController(PersonService personService) {
+    public AlertController(PersonService personService, ResponseCache responseCache, ObjectMapper objectMapper) {
         this.personService = personService;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -36,49 +68,83 @@ public class AlertController {
      * accompagnés des autres membres du foyer.
      *
      * @param address L’adresse postale à interroger (ex. : "1509 Culver St").
+     * @param acceptEncoding encodages acceptés par le client (gzip).
      * @return HTTP 200 avec une liste de {@link ChildAlertDTO}, ou chaîne vide si aucun enfant.
      */
     @GetMapping("/childAlert")
-    public ResponseEntity<?> getChildrenAtAddress(@RequestParam String address) {
+    public ResponseEntity<byte[]> getChildrenAtAddress(@RequestParam String address,
+                                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Requête GET /childAlert reçue avec address={}", address);
-        var children = personService.getChildrenByAddress(address);
-        if (children.isEmpty()) {
-            log.info("Aucun enfant trouvé pour l'adresse {}", address);
-            return ResponseEntity.ok("");
-        }
-        log.info("Enfants trouvés pour l'adresse {} : {}", address, children.size());
-        return ResponseEntity.ok(children);
+        // l'adresse saisie est la clé : un accès au cache évite aussi la résolution de l'adresse
+        CachedResponse response = responseCache.get("/childAlert", ResponseCache.key(address), () -> {
+            ResolvedAddressDTO resolved = personService.resolveAddress(address).orElse(null);
+            String knownAddress = resolved == null ? address : resolved.address();
+            List<ChildAlertDTO> children = personService.getChildrenByAddress(knownAddress);
+            if (children.isEmpty()) {
+                log.info("Aucun enfant trouvé pour l'adresse {}", knownAddress);
+                return new ResponseCache.Body("", resolutionHeaders(resolved));
+            }
+            log.info("Enfants trouvés pour l'adresse {} : {}", knownAddress, children.size());
+            return new ResponseCache.Body(children, resolutionHeaders(resolved));
+        });
+        return response.toResponseEntity(acceptEncoding);
     }
 
     /**
      * Récupère les numéros de téléphone des personnes couvertes par une station de pompiers.
      *
      * @param numberFireStation Le numéro de la station (ex. : 3).
+     * @param acceptEncoding encodages acceptés par le client (gzip).
      * @return HTTP 200 avec une liste de numéros, ou chaîne vide si aucune correspondance.
      */
     @GetMapping("/phoneAlert")
-    public ResponseEntity<?> getPhoneAtAddress(@RequestParam Integer numberFireStation) {
+    public ResponseEntity<byte[]> getPhoneAtAddress(@RequestParam Integer numberFireStation,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Requête GET /phoneAlert reçue avec numberFireStation={}", numberFireStation);
-        List<String> listOfPhone= personService.getPhoneNumbersByFireStation(numberFireStation);
-        if (listOfPhone.isEmpty()) {
-            return ResponseEntity.ok("");
-        }
-        log.info("Liste de {} numéros de téléphone retournée pour la station {}", listOfPhone.size(), numberFireStation);
-        return ResponseEntity.ok(listOfPhone);
+        CachedResponse response = responseCache.get("/phoneAlert", String.valueOf(numberFireStation), () -> {
+            List<String> listOfPhone = personService.getPhoneNumbersByFireStation(numberFireStation);
+            if (listOfPhone.isEmpty()) {
+                return "";
+            }
+            log.info("Liste de {} numéros de téléphone retournée pour la station {}", listOfPhone.size(), numberFireStation);
+            return listOfPhone;
+        });
+        return response.toResponseEntity(acceptEncoding);
     }
 
     /**
      * Récupère une liste de personnes (nom, prénom, adresse et téléphone + medicament et allergies)
      * par adresse ainsi que le numéro de la FireStation couvrant cette adresse
      * @param address une adresse postale
+     * @param acceptEncoding encodages acceptés par le client (gzip).
      * @return une réponse HTTP 200 avec la liste des personnes et le numéro de station.
      */
     @GetMapping("/fire")
-    public ResponseEntity<?> getFireAtAddress(@RequestParam String address) {
+    public ResponseEntity<byte[]> getFireAtAddress(@RequestParam String address,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Requête GET /fire reçue avec address={}", address);
-        Optional<ResponseFireDTO> response = personService.getPersonnesAndStationNumberByAddress(address);
+        CachedResponse response = responseCache.get("/fire", ResponseCache.key(address), () -> {
+            ResolvedAddressDTO resolved = personService.resolveAddress(address).orElse(null);
+            String knownAddress = resolved == null ? address : resolved.address();
+            return new ResponseCache.Body(personService.getPersonnesAndStationNumberByAddress(knownAddress), resolutionHeaders(resolved));
+        });
         log.info("Réponse fire retournée pour address={}", address);
-        return ResponseEntity.ok(response);
+        return response.toResponseEntity(acceptEncoding);
+    }
+
+    /**
+     * En-têtes indiquant l'adresse connue utilisée pour répondre et la confiance de sa résolution.
+     *
+     * @param resolved la résolution de l'adresse saisie, ou null si elle n'a pas été résolue.
+     * @return les en-têtes {@value #RESOLVED_ADDRESS_HEADER} et {@value #ADDRESS_CONFIDENCE_HEADER}.
+     */
+    private static HttpHeaders resolutionHeaders(ResolvedAddressDTO resolved) {
+        HttpHeaders headers = new HttpHeaders();
+        if (resolved != null) {
+            headers.set(RESOLVED_ADDRESS_HEADER, resolved.address());
+            headers.set(ADDRESS_CONFIDENCE_HEADER, String.format(Locale.ROOT, "%.2f", resolved.confidence()));
+        }
+        return headers;
     }
 
     /**
@@ -92,43 +158,108 @@ public class AlertController {
      * </ul>
      * </p>
      *
+     * <p>
+     * Avec {@code Accept: application/x-ndjson} ou {@code text/event-stream}, chaque foyer est envoyé
+     * dès qu'il est construit (voir {@link StreamingFormat}), sans passer par le cache des réponses.
+     * </p>
+     *
      * @param stationNumber Liste des numéros de casernes à interroger (ex. : [1, 2]).
+     * @param accept types de réponse acceptés par le client.
+     * @param acceptEncoding encodages acceptés par le client (gzip).
+     * @param servletResponse réponse servlet, écrite directement en flux.
      * @return HTTP 200 avec une liste de {@link FloodResponseDTO}.
      */
     @GetMapping("/flood/stations")
-    public ResponseEntity<?> getFloodAtAddress(@RequestParam List<Integer> stationNumber) {
+    public ResponseEntity<byte[]> getFloodAtAddress(@RequestParam List<Integer> stationNumber,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                    @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                    HttpServletResponse servletResponse) throws IOException {
         log.info("Requête GET /flood/stations reçue avec stationNumber={}", stationNumber);
-        List<FloodResponseDTO> response = personService.getPersonnesAndAddressByNumberFireStation(stationNumber);
-        log.info("Réponse flood retournée avec {} entrées", response.size());
-        return ResponseEntity.ok(response);
+        Optional<StreamingFormat> streaming = StreamingFormat.fromAccept(accept);
+        if (streaming.isPresent()) {
+            Stream<FloodResponseDTO> floods = personService.streamPersonnesAndAddressByNumberFireStation(stationNumber);
+            streaming.get().respond(servletResponse, objectMapper, sink -> {
+                for (Iterator<FloodResponseDTO> it = floods.iterator(); it.hasNext(); ) {
+                    sink.send("household", it.next());
+                }
+            });
+            return null;
+        }
+        CachedResponse response = responseCache.get("/flood/stations", ResponseCache.key(stationNumber), () -> {
+            List<FloodResponseDTO> floods = personService.getPersonnesAndAddressByNumberFireStation(stationNumber);
+            log.info("Réponse flood calculée avec {} entrées", floods.size());
+            return floods;
+        });
+        log.info("Réponse flood retournée pour stationNumber={}", stationNumber);
+        return response.toResponseEntity(acceptEncoding);
     }
 
     /**
      * Récupère les informations détaillées (adresse, email, téléphone, âge, traitements)
      * des personnes partageant un même nom de famille.
      *
+     * <p>
+     * Avec {@code cursor} ou {@code limit}, la réponse est une {@link PageDTO} lue dans l'index page par page.
+     * </p>
+     *
      * @param lastName Le nom de famille (ex. : "Boyd").
-     * @return HTTP 200 avec une liste de {@link PersonInfosLastNameDTO}.
+     * @param cursor curseur renvoyé par la page précédente (optionnel).
+     * @param limit taille de la page (optionnel, {@value PageCursor#DEFAULT_PAGE_SIZE} par défaut).
+     * @param acceptEncoding encodages acceptés par le client (gzip).
+     * @return HTTP 200 avec une liste de {@link PersonInfosLastNameDTO}, ou une page si la pagination est demandée.
      */
     @GetMapping("/personInfoLastName")
-    public ResponseEntity<?> getPersonInfoLastName(@RequestParam String lastName) {
+    public ResponseEntity<byte[]> getPersonInfoLastName(@RequestParam String lastName,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Requête GET /personInfoLastName reçue avec lastName={}", lastName);
-        List<PersonInfosLastNameDTO> response = personService.getPersonsByLastName(lastName);
-        log.info("Liste des personnes avec nom {} retournée ({} entrées)", lastName, response.size());
-        return ResponseEntity.ok(response);
+        if (cursor != null || limit != null) {
+            int size = limit == null ? PageCursor.DEFAULT_PAGE_SIZE : limit;
+            CachedResponse page = responseCache.get("/personInfoLastName", ResponseCache.pageKey(ResponseCache.key(lastName), cursor, size),
+                    () -> personService.getPersonsByLastName(lastName, cursor, size));
+            return page.toResponseEntity(acceptEncoding);
+        }
+        CachedResponse response = responseCache.get("/personInfoLastName", ResponseCache.key(lastName), () -> {
+            List<PersonInfosLastNameDTO> persons = personService.getPersonsByLastName(lastName);
+            log.info("Liste des personnes avec nom {} calculée ({} entrées)", lastName, persons.size());
+            return persons;
+        });
+        log.info("Liste des personnes avec nom {} retournée", lastName);
+        return response.toResponseEntity(acceptEncoding);
     }
 
     /**
      * Récupère les emails uniques de toutes les personnes résidant dans une ville donnée.
      *
+     * <p>
+     * Avec {@code cursor} ou {@code limit}, la réponse est une {@link PageDTO} lue dans l'index page par page.
+     * </p>
+     *
      * @param city Le nom de la ville (ex. : "Culver").
-     * @return HTTP 200 avec une liste d’emails.
+     * @param cursor curseur renvoyé par la page précédente (optionnel).
+     * @param limit taille de la page (optionnel, {@value PageCursor#DEFAULT_PAGE_SIZE} par défaut).
+     * @param acceptEncoding encodages acceptés par le client (gzip).
+     * @return HTTP 200 avec une liste d’emails, ou une page si la pagination est demandée.
      */
     @GetMapping("/communityEmail")
-    public ResponseEntity<?> getCommunityEmailByCity(@RequestParam String city) {
+    public ResponseEntity<byte[]> getCommunityEmailByCity(@RequestParam String city,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         log.info("Requête GET /communityEmail reçue avec city={}", city);
-        List<String> emails = personService.getMailByCity(city);
-        log.info("Liste des emails retournée pour la ville {} ({} emails)", city, emails.size());
-        return ResponseEntity.ok(emails);
+        if (cursor != null || limit != null) {
+            int size = limit == null ? PageCursor.DEFAULT_PAGE_SIZE : limit;
+            CachedResponse page = responseCache.get("/communityEmail", ResponseCache.pageKey(ResponseCache.key(city), cursor, size),
+                    () -> personService.getMailByCity(city, cursor, size));
+            return page.toResponseEntity(acceptEncoding);
+        }
+        CachedResponse response = responseCache.get("/communityEmail", ResponseCache.key(city), () -> {
+            List<String> emails = personService.getMailByCity(city);
+            log.info("Liste des emails calculée pour la ville {} ({} emails)", city, emails.size());
+            return emails;
+        });
+        log.info("Liste des emails retournée pour la ville {}", city);
+        return response.toResponseEntity(acceptEncoding);
     }
 }
@@ -0,0 +1,104 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.dto.AlertQueryDTO;
+import com.safetynet.AppSafetyNet.model.dto.AlertUpdateDTO;
+import com.safetynet.AppSafetyNet.service.AlertSubscriptionService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Contrôleur REST des abonnements aux alertes : une console de dispatch suit ses requêtes
+ * ({@code /phoneAlert}, {@code /fire}, {@code /flood/stations}, {@code /firestation}) sans les interroger en boucle.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/alerts")
+public class AlertSubscriptionController {
+
+    private final AlertSubscriptionService alertSubscriptionService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructeur avec injection du service AlertSubscriptionService.
+     *
+     * @param alertSubscriptionService service d'abonnement aux alertes.
+     * @param objectMapper mapper JSON, pour écrire les mises à jour.
+     */
+    public AlertSubscriptionController(AlertSubscriptionService alertSubscriptionService, ObjectMapper objectMapper) {
+        this.alertSubscriptionService = alertSubscriptionService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Suit des requêtes d'alerte et publie leurs résultats en flux : un événement {@code snapshot} par requête
+     * (le résultat complet), puis un événement {@code diff} lorsqu'une modification des données change un résultat
+     * (lignes ajoutées ou modifiées, clés des lignes retirées, résumé s'il a changé).
+     * Exemple : {@code /alerts/subscribe?phoneAlert=3&fire=1509 Culver St&flood=1,2}.
+     * <p>
+     * Chaque paramètre peut être répété pour suivre plusieurs requêtes ; une valeur de {@code flood} est une liste
+     * de stations séparées par des virgules, suivie comme une seule requête. Server-Sent Events par défaut,
+     * NDJSON avec {@code Accept: application/x-ndjson}. Après une déconnexion, le client se réabonne et reçoit
+     * de nouveaux {@code snapshot}.
+     * </p>
+     *
+     * @param params requêtes suivies : {@code phoneAlert}, {@code fire}, {@code flood} et {@code firestation}
+     *               (mêmes valeurs que les endpoints correspondants), et {@code limit}, le nombre de mises à jour
+     *               après lequel le flux se termine (optionnel, flux sans fin par défaut).
+     * @param accept types de réponse acceptés par le client.
+     * @param servletResponse réponse HTTP, écrite au fil des mises à jour.
+     * @throws IllegalArgumentException si aucune requête n'est fournie ou si un paramètre est invalide.
+     * @throws IOException si l'écriture de la réponse échoue.
+     */
+    @GetMapping("/subscribe")
+    public void subscribe(@RequestParam MultiValueMap<String, String> params,
+                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                          HttpServletResponse servletResponse) throws IOException {
+        log.info("Requête GET /alerts/subscribe reçue ({})", params);
+        List<AlertQueryDTO> queries = new ArrayList<>();
+        params.getOrDefault("phoneAlert", List.of()).forEach(value -> queries.add(AlertQueryDTO.phoneAlert(parseStationNumber(value))));
+        params.getOrDefault("fire", List.of()).forEach(value -> queries.add(AlertQueryDTO.fire(value)));
+        params.getOrDefault("flood", List.of()).forEach(value -> queries.add(AlertQueryDTO.flood(
+                Arrays.stream(value.split(",")).map(AlertSubscriptionController::parseStationNumber).toList())));
+        params.getOrDefault("firestation", List.of()).forEach(value -> queries.add(AlertQueryDTO.fireStation(parseStationNumber(value))));
+        String limit = params.getFirst("limit");
+        Stream<AlertUpdateDTO> updates = alertSubscriptionService.subscribe(queries, limit != null ? parseInteger(limit, "Invalid limit: ") : null);
+
+        StreamingFormat.fromAccept(accept).orElse(StreamingFormat.SSE).respond(servletResponse, objectMapper, sink -> {
+            for (Iterator<AlertUpdateDTO> it = updates.iterator(); it.hasNext(); ) {
+                AlertUpdateDTO update = it.next();
+                if (update.type() == AlertUpdateDTO.Type.HEARTBEAT) {
+                    sink.keepAlive();
+                } else {
+                    sink.send(update.type().getName(), update);
+                }
+            }
+        });
+    }
+
+    private static Integer parseStationNumber(String value) {
+        return parseInteger(value, "Invalid station number: ");
+    }
+
+    private static Integer parseInteger(String value, String message) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(message + value);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.model.dto.BatchOperationDTO;
+import com.safetynet.AppSafetyNet.model.dto.BatchResultDTO;
+import com.safetynet.AppSafetyNet.service.BatchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST appliquant plusieurs opérations sur les personnes, dossiers médicaux et casernes
+ * en une seule transaction.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/batch")
+public class BatchController {
+
+    private final BatchService batchService;
+
+    /**
+     * Constructeur avec injection du service BatchService.
+     *
+     * @param batchService service appliquant les lots transactionnels.
+     */
+    public BatchController(BatchService batchService) {
+        this.batchService = batchService;
+    }
+
+    /**
+     * Applique une liste d'opérations dans l'ordre, toutes ou aucune.
+     * <p>
+     * Exemple, créer un résident complet :
+     * {@code [{"op":"create","type":"person","data":{...}}, {"op":"create","type":"medicalrecord","data":{...}}]}.
+     * Les données ne sont écrites qu'une fois et les index mis à jour une seule fois, à la fin du lot.
+     * </p>
+     *
+     * @param operations les opérations à appliquer.
+     * @return une réponse HTTP 200 (OK) avec le nombre d'opérations appliquées et la nouvelle version des données.
+     * @throws IllegalArgumentException si le lot ou une opération est invalide (400).
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si une opération vise une entité inexistante (404).
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si une opération crée une entité déjà existante (409).
+     */
+    @PostMapping
+    public ResponseEntity<BatchResultDTO> applyBatch(@RequestBody List<BatchOperationDTO> operations) {
+        log.info("Requête POST /batch reçue avec {} opérations", operations == null ? 0 : operations.size());
+        BatchResultDTO result = batchService.apply(operations);
+        log.info("Lot appliqué avec succès : {} opérations", result.applied());
+        return ResponseEntity.ok(result);
+    }
+}
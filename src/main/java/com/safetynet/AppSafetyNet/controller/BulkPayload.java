@@ -0,0 +1,51 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Lecture du corps d'une requête d'import en masse et construction de la réponse.
+ * <p>
+ * Le corps est soit un tableau JSON ({@code application/json}), soit un objet JSON par ligne
+ * ({@code application/x-ndjson}) : dans les deux cas les éléments sont lus un à un depuis le flux
+ * de la requête, sans passer par une chaîne intermédiaire.
+ * </p>
+ */
+final class BulkPayload {
+
+    private BulkPayload() {
+    }
+
+    /**
+     * Lit les éléments du corps de la requête.
+     *
+     * @param objectMapper le mapper JSON de l'application.
+     * @param body le corps de la requête.
+     * @param type le type des éléments.
+     * @return les éléments lus, dans l'ordre du corps.
+     * @throws IllegalArgumentException si le corps n'est pas un JSON ou un NDJSON valide.
+     * @throws IOException si la lecture de la requête échoue.
+     */
+    static <T> List<T> read(ObjectMapper objectMapper, InputStream body, Class<T> type) throws IOException {
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            return items.readAll();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid bulk payload: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * @param result le résultat de l'import.
+     * @return une réponse 200 si le lot a été enregistré, 400 sinon ; le détail par élément est toujours renvoyé.
+     */
+    static ResponseEntity<BulkImportDTO> toResponse(BulkImportDTO result) {
+        return result.applied() ? ResponseEntity.ok(result) : ResponseEntity.badRequest().body(result);
+    }
+}
@@ -0,0 +1,117 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO.Op;
+import com.safetynet.AppSafetyNet.model.dto.ChangesDTO;
+import com.safetynet.AppSafetyNet.service.ChangeService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Contrôleur REST publiant les changements des données (personnes, dossiers médicaux, casernes),
+ * pour les systèmes qui tiennent leur propre copie des données.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/changes")
+public class ChangeController {
+
+    /** En-tête envoyé par un client SSE qui se reconnecte, avec l'identifiant du dernier événement reçu. */
+    static final String LAST_EVENT_ID = "Last-Event-ID";
+    /** En-tête donnant l'identifiant de l'exécution, préfixe des positions dans le flux des changements. */
+    public static final String CHANGE_EPOCH_HEADER = "X-Change-Epoch";
+
+    private final ChangeService changeService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructeur avec injection du service ChangeService.
+     *
+     * @param changeService service de suivi des changements.
+     * @param objectMapper mapper JSON, pour écrire les changements.
+     */
+    public ChangeController(ChangeService changeService, ObjectMapper objectMapper) {
+        this.changeService = changeService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Renvoie les changements des données depuis la version connue du client (synchronisation différentielle) :
+     * le dernier état ({@code upsert}) ou la suppression ({@code delete}) de chaque entité modifiée.
+     * Exemple : {@code /changes?since=0}, puis {@code /changes?since=<version de la réponse>}.
+     * <p>
+     * Les versions sont de la forme {@code <exécution>-<version>}. Si la version est trop ancienne, ou a été émise
+     * avant un redémarrage, la réponse indique {@code resyncRequired} :
+     * le client recharge toutes les données puis reprend avec la version renvoyée. La réponse ne dépend que de
+     * {@code since} et de la version des données : un client à jour reçoit un 304 en présentant son ETag.
+     * </p>
+     *
+     * @param since version des données connue du client ({@code <exécution>-<version>}, ou {@code 0} la première fois).
+     * @param limit nombre de changements par page (optionnel, {@value ChangeService#DEFAULT_PAGE_SIZE} par défaut).
+     * @return HTTP 200 avec les changements et la version atteinte ({@code hasMore} si d'autres pages suivent).
+     * @throws IllegalArgumentException si le numéro de {@code since} est invalide ou si {@code limit} est invalide.
+     */
+    @GetMapping
+    public ResponseEntity<ChangesDTO> getChanges(@RequestParam String since,
+                                                 @RequestParam(required = false) Integer limit) {
+        log.info("Requête GET /changes reçue (since={}, limit={})", since, limit);
+        ChangesDTO changes = changeService.changesSince(since, limit);
+        log.info("Changements renvoyés : {} (version {})", changes.changes().size(), changes.version());
+        return ResponseEntity.ok(changes);
+    }
+
+    /**
+     * Publie en flux chaque changement des données, dans l'ordre : événements {@code upsert} (avec l'état
+     * de l'entité) et {@code delete}, identifiés par leur position {@code <exécution>-<séquence>}.
+     * <p>
+     * Server-Sent Events par défaut (la position est l'{@code id} de l'événement), NDJSON avec
+     * {@code Accept: application/x-ndjson} (la position est formée de l'en-tête {@value #CHANGE_EPOCH_HEADER}
+     * et de la séquence). Pour reprendre après une déconnexion, le client renvoie la dernière position reçue
+     * ({@code after}, ou l'en-tête {@code Last-Event-ID} envoyé automatiquement par un client SSE). Si ces
+     * changements ne sont plus disponibles, ou si la position a été émise avant un redémarrage, un événement
+     * {@code resync} demande de recharger toutes les données avant de continuer.
+     * </p>
+     *
+     * @param after dernière position reçue (optionnel : sans reprise, seuls les prochains changements sont envoyés).
+     * @param limit nombre de changements après lequel le flux se termine (optionnel, flux sans fin par défaut).
+     * @param lastEventId dernière position reçue, envoyée par un client SSE qui se reconnecte.
+     * @param accept types de réponse acceptés par le client.
+     * @param servletResponse réponse HTTP, écrite au fil des changements.
+     * @throws IllegalArgumentException si la séquence de {@code after} est invalide ou si {@code limit} n'est pas positif.
+     * @throws IOException si l'écriture de la réponse échoue.
+     */
+    @GetMapping("/stream")
+    public void streamChanges(@RequestParam(required = false) String after,
+                              @RequestParam(required = false) Integer limit,
+                              @RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId,
+                              @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                              HttpServletResponse servletResponse) throws IOException {
+        String from = after != null ? after : lastEventId;
+        log.info("Requête GET /changes/stream reçue (after={}, limit={})", from, limit);
+        Stream<ChangeEventDTO> changes = changeService.follow(from, limit);
+        servletResponse.setHeader(CHANGE_EPOCH_HEADER, changeService.epoch());
+
+        StreamingFormat.fromAccept(accept).orElse(StreamingFormat.SSE).respond(servletResponse, objectMapper, sink -> {
+            for (Iterator<ChangeEventDTO> it = changes.iterator(); it.hasNext(); ) {
+                ChangeEventDTO change = it.next();
+                if (change.op() == Op.HEARTBEAT) {
+                    sink.keepAlive();
+                } else {
+                    sink.send(change.op().getName(), changeService.cursor(change.sequence()), change);
+                }
+            }
+        });
+    }
+}
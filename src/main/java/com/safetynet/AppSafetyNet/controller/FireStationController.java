@@ -1,13 +1,31 @@
 package com.safetynet.AppSafetyNet.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.cache.CachedResponse;
+import com.safetynet.AppSafetyNet.cache.ResponseCache;
 import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.PageDTO;
 import com.safetynet.AppSafetyNet.model.dto.PersonCoveredDTO;
+import com.safetynet.AppSafetyNet.repository.index.AgeIndex;
+import com.safetynet.AppSafetyNet.repository.index.PageCursor;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
 import com.safetynet.AppSafetyNet.service.FireStationService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * Contrôleur REST pour gérer les opérations CRUD sur les casernes de pompiers
  * et récupérer les personnes couvertes par une station donnée.
@@ -18,14 +36,24 @@ import org.springframework.web.bind.annotation.*;
 public class FireStationController {
 
     private final FireStationService fireStationService;
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+    private final AgeIndex ageIndex;
 
     /**
      * Constructeur avec injection du service FireStationService.
      *
      * @param fireStationService service métier pour gérer les casernes de pompiers.
+     * @param responseCache cache des réponses calculées.
+     * @param objectMapper sérialiseur JSON des réponses en flux.
+     * @param ageIndex partition mineurs / majeurs, pour distinguer adultes et enfants comme la réponse JSON.
      */
-    public FireStationController(FireStationService fireStationService) {
+    public FireStationController(FireStationService fireStationService, ResponseCache responseCache, ObjectMapper objectMapper,
+                                 AgeIndex ageIndex) {
         this.fireStationService = fireStationService;
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        this.ageIndex = ageIndex;
     }
 
     /**
@@ -44,6 +72,25 @@ public class FireStationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(fs);
     }
 
+    /**
+     * Importe un lot de casernes en une seule sauvegarde (création ou remplacement de l'association adresse/station).
+     * <p>
+     * Le corps est un tableau JSON ou un flux NDJSON. Si un élément est invalide, aucun élément
+     * n'est enregistré et le détail des erreurs est renvoyé.
+     * </p>
+     *
+     * @param body le corps de la requête.
+     * @return une réponse HTTP 200 (OK) si le lot a été enregistré, 400 (Bad Request) sinon,
+     *         avec le résultat de chaque élément.
+     * @throws IllegalArgumentException si le corps n'est pas un JSON ou un NDJSON valide.
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportDTO> addFireStationBulk(InputStream body) throws IOException {
+        List<FireStation> fireStations = BulkPayload.read(objectMapper, body, FireStation.class);
+        log.info("Requête POST /firestation/bulk reçue avec {} éléments", fireStations.size());
+        return BulkPayload.toResponse(fireStationService.importFireStations(fireStations));
+    }
+
     /**
      * Met à jour une caserne de pompiers existante à partir de son adresse.
      *
@@ -81,18 +128,64 @@ public class FireStationController {
      * <p>
      * Cette méthode retourne un DTO contenant la liste des personnes desservies par
      * la station ainsi que le nombre d’adultes et d’enfants.
+     * La réponse sérialisée est conservée dans le {@link ResponseCache} jusqu'au prochain changement des données.
+     * </p>
+     * <p>
+     * Avec {@code Accept: application/x-ndjson} ou {@code text/event-stream}, la réponse est envoyée en flux
+     * (voir {@link StreamingFormat}) : une {@link PersonCoveredDTO.PersonInfoDTO} par personne (événement
+     * {@code person}), puis le décompte {@link PersonCoveredDTO.Summary} (événement {@code summary}).
+     * </p>
+     * <p>
+     * Avec {@code cursor} ou {@code limit}, la réponse est une {@link PageDTO} de personnes lue dans l'index
+     * page par page, sans le décompte adultes/enfants.
      * </p>
      *
      * @param stationNumber Numéro de la station (passé en paramètre de requête).
+     * @param cursor curseur renvoyé par la page précédente (optionnel).
+     * @param limit taille de la page (optionnel, {@value PageCursor#DEFAULT_PAGE_SIZE} par défaut).
+     * @param accept types de réponse acceptés par le client.
+     * @param acceptEncoding encodages acceptés par le client (gzip).
+     * @param servletResponse réponse servlet, écrite directement en flux.
      * @return Une réponse HTTP 200 avec un {@link PersonCoveredDTO} contenant les données demandées.
      * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si aucune adresse n'est associée à cette station.
      * @throws com.safetynet.AppSafetyNet.exception.ErrorSystemException si un dossier médical est introuvable.
      */
     @GetMapping
-    public ResponseEntity<?> getFireStation(@RequestParam Integer stationNumber) {
+    public ResponseEntity<byte[]> getFireStation(@RequestParam Integer stationNumber,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                 HttpServletResponse servletResponse) throws IOException {
         log.info("Requête GET /firestation reçue pour stationNumber : {}", stationNumber);
-        PersonCoveredDTO response = fireStationService.getPersonCoveredByNumberStation(stationNumber);
+        Optional<StreamingFormat> streaming = StreamingFormat.fromAccept(accept);
+        if (streaming.isPresent()) {
+            Stream<ResidentMatch> residents = fireStationService.streamPersonCoveredByNumberStation(stationNumber);
+            streaming.get().respond(servletResponse, objectMapper, sink -> {
+                long adults = 0;
+                long children = 0;
+                for (Iterator<ResidentMatch> it = residents.iterator(); it.hasNext(); ) {
+                    ResidentMatch resident = it.next();
+                    sink.send("person", new PersonCoveredDTO.PersonInfoDTO(resident.person()));
+                    if (ageIndex.isMinor(resident.person().getFirstName(), resident.person().getLastName())) {
+                        children++;
+                    } else {
+                        adults++;
+                    }
+                }
+                sink.send("summary", new PersonCoveredDTO.Summary(adults, children));
+            });
+            return null;
+        }
+        if (cursor != null || limit != null) {
+            int size = limit == null ? PageCursor.DEFAULT_PAGE_SIZE : limit;
+            CachedResponse page = responseCache.get("/firestation", ResponseCache.pageKey(String.valueOf(stationNumber), cursor, size),
+                    () -> fireStationService.getPersonCoveredByNumberStation(stationNumber, cursor, size));
+            return page.toResponseEntity(acceptEncoding);
+        }
+        CachedResponse response = responseCache.get("/firestation", String.valueOf(stationNumber),
+                () -> fireStationService.getPersonCoveredByNumberStation(stationNumber));
         log.info("Liste des personnes couvertes retournée avec succès pour la station : {}", stationNumber);
-        return ResponseEntity.ok(response);
+        return response.toResponseEntity(acceptEncoding);
     }
 }
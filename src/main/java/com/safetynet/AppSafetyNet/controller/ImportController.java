@@ -0,0 +1,87 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.dto.ImportProgressDTO;
+import com.safetynet.AppSafetyNet.service.ImportService;
+import com.safetynet.AppSafetyNet.service.ImportService.Format;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Contrôleur d'administration pour l'import de fichiers de données volumineux (CSV ou NDJSON).
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/import")
+public class ImportController {
+
+    /** Type de contenu d'un fichier CSV. */
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ImportService importService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructeur avec injection du service ImportService.
+     *
+     * @param importService service d'import de fichiers.
+     * @param objectMapper mapper JSON, pour écrire la progression.
+     */
+    public ImportController(ImportService importService, ObjectMapper objectMapper) {
+        this.importService = importService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Importe un fichier de personnes, dossiers médicaux ou casernes, lu au fil de la requête
+     * et appliqué par lots.
+     * <p>
+     * La progression est envoyée en flux après chaque lot (NDJSON, ou Server-Sent Events avec
+     * {@code Accept: text/event-stream}) : événements {@code progress}, puis {@code done}. Si la connexion
+     * est interrompue, renvoyer le fichier avec {@code skip} égal au dernier {@code checkpoint} reçu.
+     * </p>
+     *
+     * @param target type des éléments : {@code person}, {@code medicalrecord} ou {@code firestation}.
+     * @param skip nombre de lignes de données déjà importées (optionnel, 0 par défaut).
+     * @param batchSize nombre de lignes par lot (optionnel, {@value ImportService#DEFAULT_BATCH_SIZE} par défaut).
+     * @param contentType {@code text/csv} ou {@code application/x-ndjson}.
+     * @param accept types de réponse acceptés par le client.
+     * @param body le fichier importé.
+     * @param servletResponse réponse HTTP, écrite au fil de l'import.
+     * @throws IllegalArgumentException si le type, {@code skip} ou {@code batchSize} est invalide.
+     * @throws IOException si l'écriture de la réponse échoue.
+     */
+    @PostMapping(path = "/{target}", consumes = {TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void importFile(@PathVariable String target,
+                           @RequestParam(defaultValue = "0") long skip,
+                           @RequestParam(defaultValue = "" + ImportService.DEFAULT_BATCH_SIZE) int batchSize,
+                           @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                           InputStream body,
+                           HttpServletResponse servletResponse) throws IOException {
+        log.info("Requête POST /admin/import/{} reçue (skip={}, batchSize={})", target, skip, batchSize);
+        Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(contentType))
+                ? Format.NDJSON : Format.CSV;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Stream<ImportProgressDTO> progress = importService.importFile(EntityType.fromName(target), format, reader, skip, batchSize);
+
+        StreamingFormat.fromAccept(accept).orElse(StreamingFormat.NDJSON).respond(servletResponse, objectMapper, sink -> {
+            for (Iterator<ImportProgressDTO> it = progress.iterator(); it.hasNext(); ) {
+                ImportProgressDTO batch = it.next();
+                sink.send(batch.done() ? "done" : "progress", batch);
+            }
+        });
+    }
+}
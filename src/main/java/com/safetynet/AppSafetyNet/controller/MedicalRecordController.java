@@ -1,12 +1,19 @@
 package com.safetynet.AppSafetyNet.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
 import com.safetynet.AppSafetyNet.service.MedicalRecordService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * Contrôleur REST pour gérer les opérations CRUD sur les dossiers médicaux.
  */
@@ -16,14 +23,17 @@ import org.springframework.web.bind.annotation.*;
 public class MedicalRecordController {
 
     private final MedicalRecordService medicalRecordService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructeur avec injection du service MedicalRecordService.
      *
      * @param medicalRecordService service métier pour gérer les dossiers médicaux.
+     * @param objectMapper mapper JSON, pour lire les imports en masse.
      */
-    public MedicalRecordController(MedicalRecordService medicalRecordService) {
+    public MedicalRecordController(MedicalRecordService medicalRecordService, ObjectMapper objectMapper) {
         this.medicalRecordService = medicalRecordService;
+        this.objectMapper = objectMapper;
     }
 
 
@@ -44,6 +54,25 @@ public class MedicalRecordController {
         return ResponseEntity.status(HttpStatus.CREATED).body(medicalRecord);
     }
 
+    /**
+     * Importe un lot de dossiers médicaux en une seule sauvegarde (création ou remplacement).
+     * <p>
+     * Le corps est un tableau JSON ou un flux NDJSON. Si un élément est invalide, aucun élément
+     * n'est enregistré et le détail des erreurs est renvoyé.
+     * </p>
+     *
+     * @param body le corps de la requête.
+     * @return une réponse HTTP 200 (OK) si le lot a été enregistré, 400 (Bad Request) sinon,
+     *         avec le résultat de chaque élément.
+     * @throws IllegalArgumentException si le corps n'est pas un JSON ou un NDJSON valide.
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportDTO> addMedicalRecordBulk(InputStream body) throws IOException {
+        List<MedicalRecord> medicalRecords = BulkPayload.read(objectMapper, body, MedicalRecord.class);
+        log.info("Requête POST /medicalrecord/bulk reçue avec {} éléments", medicalRecords.size());
+        return BulkPayload.toResponse(medicalRecordService.importMedicalRecords(medicalRecords));
+    }
+
 
     /**
      * Met à jour un dossier médical existant identifié par le prénom et le nom.
@@ -1,14 +1,23 @@
 package com.safetynet.AppSafetyNet.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.safetynet.AppSafetyNet.exception.ConflictException;
 import com.safetynet.AppSafetyNet.exception.NotFoundException;
 import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentIdDTO;
 import com.safetynet.AppSafetyNet.service.PersonService;
+import com.safetynet.AppSafetyNet.service.ResidentService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * Contrôleur REST pour gérer les opérations CRUD sur les personnes.
  */
@@ -18,14 +27,20 @@ import org.springframework.web.bind.annotation.*;
 public class PersonController {
 
     private final PersonService personService;
+    private final ResidentService residentService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructeur avec injection du service PersonService.
      *
      * @param personService service métier pour gérer les personnes.
+     * @param residentService service des résidents, pour les suppressions en cascade.
+     * @param objectMapper mapper JSON, pour lire les imports en masse.
      */
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, ResidentService residentService, ObjectMapper objectMapper) {
         this.personService = personService;
+        this.residentService = residentService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -46,6 +61,25 @@ public class PersonController {
         return ResponseEntity.status(HttpStatus.CREATED).body(person);
     }
 
+    /**
+     * Importe un lot de personnes en une seule sauvegarde (création ou remplacement).
+     * <p>
+     * Le corps est un tableau JSON ou un flux NDJSON. Si un élément est invalide, aucun élément
+     * n'est enregistré et le détail des erreurs est renvoyé.
+     * </p>
+     *
+     * @param body le corps de la requête.
+     * @return une réponse HTTP 200 (OK) si le lot a été enregistré, 400 (Bad Request) sinon,
+     *         avec le résultat de chaque élément.
+     * @throws IllegalArgumentException si le corps n'est pas un JSON ou un NDJSON valide.
+     */
+    @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportDTO> addPersonBulk(InputStream body) throws IOException {
+        List<Person> persons = BulkPayload.read(objectMapper, body, Person.class);
+        log.info("Requête POST /person/bulk reçue avec {} éléments", persons.size());
+        return BulkPayload.toResponse(personService.importPersons(persons));
+    }
+
     /**
      * Met à jour une personne existante à partir de son prénom et nom.
      * <p>
@@ -66,16 +100,23 @@ public class PersonController {
 
     /**
      * Supprime une personne identifiée par son prénom et son nom.
+     * Avec {@code cascade=true}, son dossier médical est supprimé dans la même écriture des données.
      *
      * @param firstName le prénom de la personne à supprimer (ex. : "John").
      * @param lastName le nom de la personne à supprimer (ex. : "Doe").
+     * @param cascade supprime aussi le dossier médical de la personne (false par défaut).
      * @return une réponse HTTP 204 (No Content) si la suppression est réussie, même si la personne n'existait pas.
      */
     @DeleteMapping()
-    // /person?firstName=xxx&lastName=YYY
-    public ResponseEntity<?> deletePerson(@RequestParam  String firstName, @RequestParam  String lastName) {
-        log.info("Requête DELETE /person reçue pour {} {}", firstName, lastName);
-        personService.removePerson(firstName, lastName);
+    // /person?firstName=xxx&lastName=YYY[&cascade=true]
+    public ResponseEntity<?> deletePerson(@RequestParam  String firstName, @RequestParam  String lastName,
+                                          @RequestParam(defaultValue = "false") boolean cascade) {
+        log.info("Requête DELETE /person reçue pour {} {} (cascade={})", firstName, lastName, cascade);
+        if (cascade) {
+            residentService.removeResidents(List.of(new ResidentIdDTO(firstName, lastName)));
+        } else {
+            personService.removePerson(firstName, lastName);
+        }
         log.info("Personne supprimée avec succès : {} {}", firstName, lastName);
         return ResponseEntity.noContent().build();
     }
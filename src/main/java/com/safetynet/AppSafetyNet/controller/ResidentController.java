@@ -0,0 +1,126 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.model.dto.ResidentDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentIdDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentRemovalDTO;
+import com.safetynet.AppSafetyNet.repository.index.ResidentQuery;
+import com.safetynet.AppSafetyNet.service.ResidentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST de recherche des résidents selon plusieurs critères combinés
+ * (station, adresse, ville, âge, traitements...) et de recherche par médicament ou allergie.
+ * Permet aussi de supprimer des résidents : personne et dossier médical ensemble.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/residents")
+public class ResidentController {
+
+    private final ResidentService residentService;
+
+    /**
+     * Constructeur avec injection du service ResidentService.
+     *
+     * @param residentService service de recherche et de suppression des résidents.
+     */
+    public ResidentController(ResidentService residentService) {
+        this.residentService = residentService;
+    }
+
+    /**
+     * Recherche les résidents correspondant à tous les critères fournis (ET logique).
+     * Exemple : {@code /residents/search?stationNumber=3&minAge=70&allergy=peanut&city=Culver}.
+     *
+     * @param stationNumber numéro de la station couvrant l'adresse.
+     * @param address adresse.
+     * @param city ville.
+     * @param zip code postal.
+     * @param lastName nom de famille.
+     * @param minAge âge minimum (inclus).
+     * @param maxAge âge maximum (inclus).
+     * @param medication nom d'un médicament (sans posologie).
+     * @param allergy allergie.
+     * @return HTTP 200 avec la liste des {@link ResidentDTO} trouvés.
+     * @throws IllegalArgumentException si aucun critère n'est fourni ou si la tranche d'âge est invalide.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ResidentDTO>> search(@RequestParam(required = false) Integer stationNumber,
+                                                    @RequestParam(required = false) String address,
+                                                    @RequestParam(required = false) String city,
+                                                    @RequestParam(required = false) String zip,
+                                                    @RequestParam(required = false) String lastName,
+                                                    @RequestParam(required = false) Integer minAge,
+                                                    @RequestParam(required = false) Integer maxAge,
+                                                    @RequestParam(required = false) String medication,
+                                                    @RequestParam(required = false) String allergy) {
+        ResidentQuery query = new ResidentQuery(stationNumber, address, city, zip, lastName, minAge, maxAge, medication, allergy);
+        log.info("Requête GET /residents/search reçue avec {}", query);
+        List<ResidentDTO> residents = residentService.search(query);
+        log.info("Résidents trouvés : {}", residents.size());
+        return ResponseEntity.ok(residents);
+    }
+
+    /**
+     * Liste les résidents suivant un traitement ou présentant une allergie, éventuellement pour une seule station.
+     * Exemple : {@code /residents/medical?medication=insulin&stationNumber=3}.
+     *
+     * @param medication nom d'un médicament (sans posologie).
+     * @param allergy allergie.
+     * @param stationNumber numéro de la station couvrant l'adresse (optionnel).
+     * @return HTTP 200 avec la liste des {@link ResidentDTO} trouvés.
+     * @throws IllegalArgumentException si ni médicament ni allergie ne sont fournis.
+     */
+    @GetMapping("/medical")
+    public ResponseEntity<List<ResidentDTO>> getByMedicalTerm(@RequestParam(required = false) String medication,
+                                                              @RequestParam(required = false) String allergy,
+                                                              @RequestParam(required = false) Integer stationNumber) {
+        log.info("Requête GET /residents/medical reçue avec medication={}, allergy={}, stationNumber={}", medication, allergy, stationNumber);
+        List<ResidentDTO> residents = residentService.getResidentsByMedicalTerm(medication, allergy, stationNumber);
+        log.info("Résidents trouvés : {}", residents.size());
+        return ResponseEntity.ok(residents);
+    }
+
+    /**
+     * Supprime un résident : sa personne et son dossier médical, en une seule écriture des données.
+     * Exemple : {@code DELETE /residents?firstName=John&lastName=Boyd}.
+     *
+     * @param firstName prénom du résident.
+     * @param lastName nom du résident.
+     * @return HTTP 204 (No Content), même si le résident n'existait pas.
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> deleteResident(@RequestParam String firstName, @RequestParam String lastName) {
+        log.info("Requête DELETE /residents reçue pour {} {}", firstName, lastName);
+        residentService.removeResidents(List.of(new ResidentIdDTO(firstName, lastName)));
+        log.info("Résident supprimé avec succès : {} {}", firstName, lastName);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Supprime un lot de résidents (ex. : départ de tout un immeuble) : personnes et dossiers médicaux
+     * en une seule transaction, avec une seule écriture des données et une seule mise à jour des index.
+     * Exemple : {@code POST /residents/delete} avec {@code [{"firstName":"John","lastName":"Boyd"}, ...]}.
+     *
+     * @param residents prénom et nom des résidents à supprimer ; les résidents inconnus sont ignorés.
+     * @return HTTP 200 avec le nombre de personnes et de dossiers supprimés, et la nouvelle version des données.
+     * @throws IllegalArgumentException si la liste est vide, trop longue, ou si un prénom ou un nom manque.
+     */
+    @PostMapping("/delete")
+    public ResponseEntity<ResidentRemovalDTO> deleteResidents(@RequestBody List<ResidentIdDTO> residents) {
+        log.info("Requête POST /residents/delete reçue avec {} résidents", residents == null ? 0 : residents.size());
+        ResidentRemovalDTO result = residentService.removeResidents(residents);
+        log.info("Résidents supprimés : {}", result);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,48 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.model.dto.StationStatsDTO;
+import com.safetynet.AppSafetyNet.service.StatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST exposant des statistiques de population par station de pompiers.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final StatsService statsService;
+
+    /**
+     * Constructeur avec injection du service StatsService.
+     *
+     * @param statsService service fournissant les statistiques.
+     */
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    /**
+     * Retourne, pour chaque station, le nombre de résidents couverts par tranche d'âge
+     * (0-5, 6-12, 13-18, 19-64, 65+), globalement et par adresse.
+     *
+     * @param stationNumber numéros des stations à retourner (optionnel, toutes par défaut).
+     * @return HTTP 200 avec une liste de {@link StationStatsDTO}.
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si une station demandée n'existe pas.
+     */
+    @GetMapping("/stations")
+    public ResponseEntity<List<StationStatsDTO>> getStationStats(@RequestParam(required = false) List<Integer> stationNumber) {
+        log.info("Requête GET /stats/stations reçue avec stationNumber={}", stationNumber);
+        List<StationStatsDTO> stats = statsService.getStationStats(stationNumber);
+        log.info("Statistiques retournées pour {} station(s)", stats.size());
+        return ResponseEntity.ok(stats);
+    }
+}
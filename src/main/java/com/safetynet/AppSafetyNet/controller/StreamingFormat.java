@@ -0,0 +1,174 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.config.ConditionalGetInterceptor;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Formats de réponse en flux, choisis par l'en-tête {@code Accept} : NDJSON (un objet JSON par ligne)
+ * ou Server-Sent Events (un événement par objet).
+ * <p>
+ * Chaque élément est sérialisé et envoyé dès qu'il est produit : la réponse complète n'est jamais
+ * construite en mémoire et le premier octet part immédiatement. Une erreur survenant en cours de flux
+ * ne peut plus changer le statut HTTP ; elle est transmise comme dernier élément ({@code {"error": ...}}).
+ * </p>
+ */
+@Slf4j
+public enum StreamingFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    SSE(MediaType.TEXT_EVENT_STREAM);
+
+    private final MediaType mediaType;
+
+    StreamingFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Reçoit les éléments d'une réponse en flux.
+     */
+    @FunctionalInterface
+    public interface ItemSink {
+
+        /**
+         * Envoie un élément.
+         * @param event nom de l'événement (utilisé par SSE uniquement).
+         * @param item l'élément à sérialiser.
+         * @throws IOException si le client s'est déconnecté.
+         */
+        void send(String event, Object item) throws IOException;
+
+        /**
+         * Envoie un élément identifié : avec SSE, l'identifiant est renvoyé par le client dans l'en-tête
+         * {@code Last-Event-ID} lorsqu'il se reconnecte.
+         * @param event nom de l'événement (utilisé par SSE uniquement).
+         * @param id identifiant de l'élément (utilisé par SSE uniquement).
+         * @param item l'élément à sérialiser.
+         * @throws IOException si le client s'est déconnecté.
+         */
+        default void send(String event, String id, Object item) throws IOException {
+            send(event, item);
+        }
+
+        /**
+         * Envoie un signal de maintien de la connexion, ignoré par le client
+         * (commentaire SSE, ligne vide en NDJSON) : une déconnexion est ainsi détectée même sans élément à envoyer.
+         * @throws IOException si le client s'est déconnecté.
+         */
+        default void keepAlive() throws IOException {
+        }
+    }
+
+    /**
+     * Produit les éléments d'une réponse en flux.
+     */
+    @FunctionalInterface
+    public interface ItemProducer {
+
+        void produce(ItemSink sink) throws IOException;
+    }
+
+    /**
+     * Détermine le format en flux demandé par le client.
+     *
+     * @param accept valeur de l'en-tête Accept (peut être null).
+     * @return le format demandé en premier, ou vide si le client attend une réponse JSON classique.
+     */
+    public static Optional<StreamingFormat> fromAccept(String accept) {
+        if (accept == null) {
+            return Optional.empty();
+        }
+        try {
+            // seul le type préféré (le premier listé) compte : "application/json, application/x-ndjson" reste du JSON
+            List<MediaType> requested = MediaType.parseMediaTypes(accept);
+            for (StreamingFormat format : values()) {
+                if (!requested.isEmpty() && format.mediaType.equalsTypeAndSubtype(requested.getFirst())) {
+                    return Optional.of(format);
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            log.debug("En-tête Accept invalide : {}", accept);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Écrit la réponse HTTP 200 au fil de la production des éléments, directement sur la réponse servlet.
+     * <p>
+     * L'écriture est synchrone, sur le thread de la requête : le contrôleur garde une seule méthode par
+     * route (la négociation se fait sur l'en-tête Accept) et renvoie ensuite {@code null}, la réponse
+     * étant déjà écrite.
+     * </p>
+     *
+     * @param response la réponse HTTP.
+     * @param objectMapper sérialiseur JSON.
+     * @param producer producteur des éléments.
+     * @throws IOException si l'écriture échoue avant le premier élément.
+     */
+    public void respond(HttpServletResponse response, ObjectMapper objectMapper, ItemProducer producer) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(mediaType.toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        ConditionalGetInterceptor.applyEtag(response);
+        OutputStream out = response.getOutputStream();
+        ItemSink sink = new ItemSink() {
+            @Override
+            public void send(String event, Object item) throws IOException {
+                send(event, null, item);
+            }
+
+            @Override
+            public void send(String event, String id, Object item) throws IOException {
+                write(out, event, id, objectMapper.writeValueAsBytes(item));
+            }
+
+            @Override
+            public void keepAlive() throws IOException {
+                writeKeepAlive(out);
+            }
+        };
+        try {
+            producer.produce(sink);
+        } catch (IOException e) {
+            log.debug("Flux interrompu par le client : {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Erreur pendant l'écriture d'une réponse en flux", e);
+            sink.send("error", Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    private void write(OutputStream out, String event, String id, byte[] json) throws IOException {
+        if (this == SSE) {
+            String fields = (id == null ? "" : "id: " + id + "\n") + "event: " + event + "\ndata: ";
+            out.write(fields.getBytes(StandardCharsets.UTF_8));
+            out.write(json);
+            out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.write(json);
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private void writeKeepAlive(OutputStream out) throws IOException {
+        if (this == SSE) {
+            out.write(":\n\n".getBytes(StandardCharsets.UTF_8));
+        } else {
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,76 @@
+package com.safetynet.AppSafetyNet.model;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Calcul des clés canoniques des adresses et des villes.
+ * <p>
+ * La clé est calculée une seule fois, à l'écriture de l'entité ({@link Person}, {@link FireStation}) :
+ * les recherches et jointures par adresse comparent ensuite des clés déjà normalisées au lieu de
+ * replier la casse de chaque valeur à chaque requête.
+ * </p>
+ * <p>
+ * La normalisation ignore la casse, la ponctuation et les espaces superflus ; pour les adresses, les
+ * types de voie sont ramenés à leur abréviation ({@code "Street"} et {@code "St."} donnent {@code "st"}).
+ * </p>
+ */
+public final class AddressNormalizer {
+
+    private static final Map<String, String> STREET_TYPES = Map.ofEntries(
+            Map.entry("street", "st"),
+            Map.entry("avenue", "ave"),
+            Map.entry("av", "ave"),
+            Map.entry("road", "rd"),
+            Map.entry("drive", "dr"),
+            Map.entry("court", "ct"),
+            Map.entry("lane", "ln"),
+            Map.entry("place", "pl"),
+            Map.entry("boulevard", "blvd"),
+            Map.entry("parkway", "pkwy"),
+            Map.entry("highway", "hwy"),
+            Map.entry("circle", "cir"),
+            Map.entry("terrace", "ter"),
+            Map.entry("square", "sq"));
+
+    private AddressNormalizer() {
+    }
+
+    /**
+     * @param address adresse saisie (peut être null).
+     * @return la clé canonique de l'adresse, ou null si {@code address} est null.
+     */
+    public static String addressKey(String address) {
+        return normalize(address, true);
+    }
+
+    /**
+     * @param city ville saisie (peut être null).
+     * @return la clé canonique de la ville, ou null si {@code city} est null.
+     */
+    public static String cityKey(String city) {
+        return normalize(city, false);
+    }
+
+    private static String normalize(String value, boolean streetTypes) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(value.length());
+        int start = -1;
+        for (int i = 0; i <= value.length(); i++) {
+            boolean letterOrDigit = i < value.length() && Character.isLetterOrDigit(value.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                String word = value.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!key.isEmpty()) {
+                    key.append(' ');
+                }
+                key.append(streetTypes ? STREET_TYPES.getOrDefault(word, word) : word);
+                start = -1;
+            }
+        }
+        return key.toString();
+    }
+}
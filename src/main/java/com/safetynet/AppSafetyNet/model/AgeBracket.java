@@ -0,0 +1,47 @@
+package com.safetynet.AppSafetyNet.model;
+
+/**
+ * Tranches d'âge utilisées pour les statistiques de population.
+ * <p>
+ * La limite entre {@link #TEENAGERS} et {@link #ADULTS} correspond à {@link MedicalRecord#isMajor(AgeClock)}.
+ * </p>
+ */
+public enum AgeBracket {
+    INFANTS(0, "0-5"),
+    CHILDREN(6, "6-12"),
+    TEENAGERS(13, "13-18"),
+    ADULTS(19, "19-64"),
+    SENIORS(65, "65+");
+
+    private static final AgeBracket[] VALUES = values();
+
+    private final int minAge;
+    private final String label;
+
+    AgeBracket(int minAge, String label) {
+        this.minAge = minAge;
+        this.label = label;
+    }
+
+    public int getMinAge() {
+        return minAge;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Retourne la tranche correspondant à un âge.
+     * @param age âge en années (un âge négatif est rattaché à la première tranche).
+     * @return la tranche d'âge.
+     */
+    public static AgeBracket of(int age) {
+        for (int i = VALUES.length - 1; i > 0; i--) {
+            if (age >= VALUES[i].minAge) {
+                return VALUES[i];
+            }
+        }
+        return INFANTS;
+    }
+}
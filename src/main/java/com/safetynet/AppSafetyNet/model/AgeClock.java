@@ -0,0 +1,101 @@
+package com.safetynet.AppSafetyNet.model;
+
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Horloge utilisée pour le calcul des âges.
+ * <p>
+ * La date du jour est conservée sous forme d'entier {@code aaaammjj}, lue une fois à la création
+ * puis à chaque changement de jour par le planificateur ({@link #refresh()}) : un âge se calcule alors
+ * par une simple soustraction suivie d'une division entière, sans lire l'horloge système ni allouer
+ * de {@link java.time.Period}.
+ * </p>
+ * <p>
+ * Une instance est créée par la configuration Spring à partir de l'horloge de l'application ;
+ * les tests en construisent une sur une horloge fixe.
+ * </p>
+ */
+public final class AgeClock {
+
+    private final Clock clock;
+    private volatile Today today;
+
+    /**
+     * @param clock horloge fournissant la date du jour.
+     */
+    public AgeClock(Clock clock) {
+        Assert.notNull(clock, "Clock must not be null");
+        this.clock = clock;
+        this.today = compute(clock);
+    }
+
+    /**
+     * @return l'horloge utilisée.
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Relit la date du jour sur l'horloge, au changement de jour.
+     * @return la nouvelle date du jour au format {@code aaaammjj}.
+     */
+    public int refresh() {
+        Today current = compute(clock);
+        today = current;
+        return current.packed();
+    }
+
+    /**
+     * @return la date du jour au format {@code aaaammjj}.
+     */
+    public int today() {
+        return today.packed();
+    }
+
+    /**
+     * @return la date du jour en nombre de jours depuis le 01/01/1970.
+     */
+    public long todayEpochDay() {
+        return today.epochDay();
+    }
+
+    /**
+     * Calcule l'âge en années révolues d'une personne née à la date donnée.
+     * @param packedBirthDate date de naissance au format {@code aaaammjj}.
+     * @return l'âge en années.
+     */
+    public int age(int packedBirthDate) {
+        return age(packedBirthDate, today());
+    }
+
+    /**
+     * Calcule l'âge en années révolues à un jour donné.
+     * @param packedBirthDate date de naissance au format {@code aaaammjj}.
+     * @param day le jour de référence au format {@code aaaammjj}.
+     * @return l'âge en années.
+     */
+    public static int age(int packedBirthDate, int day) {
+        return (day - packedBirthDate) / 10000;
+    }
+
+    /**
+     * Convertit une date au format entier {@code aaaammjj}.
+     * @param date la date à convertir.
+     * @return la date sous forme d'entier, dont l'ordre est celui des dates.
+     */
+    public static int pack(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    private static Today compute(Clock clock) {
+        LocalDate date = LocalDate.now(clock);
+        return new Today(pack(date), date.toEpochDay());
+    }
+
+    private record Today(int packed, long epochDay) {
+    }
+}
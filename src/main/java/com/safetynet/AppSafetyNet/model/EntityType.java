@@ -0,0 +1,38 @@
+package com.safetynet.AppSafetyNet.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+/**
+ * Types d'entités gérés par l'application, désignés dans les URL et les corps de requête
+ * par leur nom en minuscules ({@code person}, {@code medicalrecord}, {@code firestation}).
+ */
+public enum EntityType {
+    PERSON,
+    MEDICALRECORD,
+    FIRESTATION;
+
+    /**
+     * @param name le nom du type, sans distinction de casse (ex. : "person").
+     * @return le type correspondant.
+     * @throws IllegalArgumentException si le type est inconnu.
+     */
+    @JsonCreator
+    public static EntityType fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unknown entity type: " + name);
+        }
+    }
+
+    /**
+     * @return le nom du type en minuscules.
+     */
+    @JsonValue
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
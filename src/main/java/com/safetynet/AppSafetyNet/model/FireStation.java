@@ -1,11 +1,18 @@
 package com.safetynet.AppSafetyNet.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Représente une affectation d'adresse à une caserne de pompiers.
  * Utilisée pour déterminer les zones couvertes par chaque station.
+ * L'adresse est partagée via le {@link StringPool} avec celle des personnes qui y résident ;
+ * sa clé canonique ({@link AddressNormalizer}) est calculée à l'écriture.
  */
 @Data
 public class FireStation {
@@ -13,6 +20,17 @@ public class FireStation {
     @JsonProperty("address")
     private String address;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String addressKey;
+
     @JsonProperty("station")
     private Integer station;
+
+    public void setAddress(String address) {
+        this.address = StringPool.canonical(address);
+        this.addressKey = StringPool.canonical(AddressNormalizer.addressKey(address));
+    }
 }
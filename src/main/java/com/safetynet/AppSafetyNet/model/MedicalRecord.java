@@ -3,12 +3,15 @@ package com.safetynet.AppSafetyNet.model;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.util.Assert;
 
 import java.time.LocalDate;
-import java.time.Period;
 import java.util.List;
 
 /**
@@ -16,6 +19,11 @@ import java.util.List;
  * Contient les informations personnelles, la date de naissance, les médicaments et allergies.
  * <p>
  * Fournit également des méthodes utilitaires pour connaître l'âge ou la majorité de la personne.
+ * La date de naissance est aussi conservée au format entier {@code aaaammjj} : l'âge est obtenu
+ * par calcul entier à partir de la date du jour fournie par l'{@link AgeClock} de l'application.
+ * </p>
+ * <p>
+ * Le nom, les médicaments et les allergies sont partagés via le {@link StringPool}.
  * </p>
  */
 @Slf4j
@@ -32,35 +40,62 @@ public class MedicalRecord implements UniqueEntity {
     @JsonProperty("birthdate")
     private LocalDate birthDate;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private int packedBirthDate;
+
     @JsonProperty("medications")
     private List<String> medications;
 
     @JsonProperty("allergies")
     private List<String> allergies;
 
+    public void setLastName(String lastName) {
+        this.lastName = StringPool.canonical(lastName);
+    }
+
+    public void setMedications(List<String> medications) {
+        this.medications = StringPool.canonical(medications);
+    }
+
+    public void setAllergies(List<String> allergies) {
+        this.allergies = StringPool.canonical(allergies);
+    }
+
+    /**
+     * Modifie la date de naissance et sa forme entière utilisée pour le calcul de l'âge.
+     *
+     * @param birthDate la date de naissance.
+     */
+    public void setBirthDate(LocalDate birthDate) {
+        this.birthDate = birthDate;
+        this.packedBirthDate = birthDate != null ? AgeClock.pack(birthDate) : 0;
+    }
+
     /**
      * Indique si la personne est majeure (plus de 18 ans).
      *
+     * @param ageClock horloge fournissant la date du jour.
      * @return {@code true} si l'âge est supérieur à 18 ans, sinon {@code false}.
      */
-    @JsonIgnore
-    public boolean isMajor() {
-        return  getAge() > 18 ;
+    public boolean isMajor(AgeClock ageClock) {
+        return  getAge(ageClock) > 18 ;
     }
 
-    @JsonIgnore
-    public boolean isMinor() {
-        return !isMajor();
+    public boolean isMinor(AgeClock ageClock) {
+        return !isMajor(ageClock);
     }
 
     /**
      * Calcule l'âge de la personne à partir de la date de naissance.
      *
-     * @return l'âge en années, ou zéro si la date est invalide.
+     * @param ageClock horloge fournissant la date du jour.
+     * @return l'âge en années.
      */
-    @JsonIgnore
-    public int getAge() {
+    public int getAge(AgeClock ageClock) {
         Assert.notNull(birthDate, "Birthdate must not be null");
-        return Period.between(birthDate, LocalDate.now()).getYears();
+        return ageClock.age(packedBirthDate);
     }
 }
@@ -0,0 +1,92 @@
+package com.safetynet.AppSafetyNet.model;
+
+import org.springframework.util.Assert;
+
+/**
+ * Encodage compact des numéros de téléphone et codes postaux dans un entier.
+ * <p>
+ * Chaque caractère est codé sur 4 bits dans l'alphabet {@code 0-9 - . espace + ( )} et la longueur
+ * occupe les 4 bits de poids fort : {@code "841-874-6512"} tient dans un {@code long}, {@code "97451"}
+ * dans un {@code int}. L'encodage est sans perte (le format d'origine est restitué à l'identique) ;
+ * une valeur hors alphabet ou trop longue n'est pas encodable et reste une chaîne.
+ * </p>
+ */
+public final class PackedText {
+
+    /** Valeur retournée pour un numéro de téléphone non encodable ; ce n'est jamais un code valide. */
+    public static final long NOT_PACKED = -1L;
+    /** Valeur retournée pour un code postal non encodable ; ce n'est jamais un code valide. */
+    public static final int NOT_PACKED_ZIP = -1;
+
+    private static final String ALPHABET = "0123456789-. +()";
+    private static final int PHONE_CAPACITY = 15;
+    private static final int ZIP_CAPACITY = 7;
+    // une longueur de 15 est interdite : NOT_PACKED (tous les bits à 1) ne peut pas être un code valide
+    private static final int MAX_LENGTH = 14;
+
+    private PackedText() {
+    }
+
+    /**
+     * @param phone numéro de téléphone (peut être null).
+     * @return le numéro encodé, ou {@link #NOT_PACKED} s'il n'est pas encodable.
+     */
+    public static long packPhone(String phone) {
+        return pack(phone, PHONE_CAPACITY);
+    }
+
+    /**
+     * @param code numéro encodé par {@link #packPhone(String)}.
+     * @return le numéro dans son format d'origine.
+     * @throws IllegalArgumentException si {@code code} n'est pas un numéro encodé.
+     */
+    public static String unpackPhone(long code) {
+        return unpack(code, PHONE_CAPACITY);
+    }
+
+    /**
+     * @param zip code postal (peut être null).
+     * @return le code encodé, ou {@link #NOT_PACKED_ZIP} s'il n'est pas encodable.
+     */
+    public static int packZip(String zip) {
+        long code = pack(zip, ZIP_CAPACITY);
+        return code == NOT_PACKED ? NOT_PACKED_ZIP : (int) code;
+    }
+
+    /**
+     * @param code code postal encodé par {@link #packZip(String)}.
+     * @return le code postal dans son format d'origine.
+     * @throws IllegalArgumentException si {@code code} n'est pas un code postal encodé.
+     */
+    public static String unpackZip(int code) {
+        return unpack(Integer.toUnsignedLong(code), ZIP_CAPACITY);
+    }
+
+    private static long pack(String value, int capacity) {
+        if (value == null || value.length() > Math.min(capacity, MAX_LENGTH)) {
+            return NOT_PACKED;
+        }
+        long code = (long) value.length() << (4 * capacity);
+        for (int i = 0; i < value.length(); i++) {
+            int symbol = ALPHABET.indexOf(value.charAt(i));
+            if (symbol < 0) {
+                return NOT_PACKED;
+            }
+            code |= (long) symbol << (4 * i);
+        }
+        return code;
+    }
+
+    private static String unpack(long code, int capacity) {
+        int length = (int) (code >>> (4 * capacity)) & 0xF;
+        // seuls la longueur et les caractères utilisés peuvent être renseignés
+        long used = (0xFL << (4 * capacity)) | ((1L << (4 * length)) - 1);
+        boolean valid = length <= Math.min(capacity, MAX_LENGTH) && (code & ~used) == 0;
+        Assert.isTrue(valid, "Invalid packed value: " + code);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET.charAt((int) (code >>> (4 * i)) & 0xF);
+        }
+        return new String(chars);
+    }
+}
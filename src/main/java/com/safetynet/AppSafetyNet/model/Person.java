@@ -1,11 +1,29 @@
 package com.safetynet.AppSafetyNet.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Représente une personne avec ses informations personnelles.
  * Utilisée dans le cadre des opérations de gestion de la sécurité.
+ * <p>
+ * Le nom, l'adresse, la ville et le code postal, très répétés d'une personne à l'autre,
+ * sont partagés via le {@link StringPool}.
+ * </p>
+ * <p>
+ * Le téléphone est conservé encodé dans un entier ({@link PackedText}) et ne redevient une chaîne
+ * qu'à la lecture ; seuls les numéros non encodables restent des chaînes. Le code postal, partagé par
+ * de nombreuses personnes, reste l'instance du dictionnaire, obtenue une fois à l'écriture.
+ * </p>
+ * <p>
+ * Les clés canoniques de l'adresse et de la ville ({@link AddressNormalizer}) sont calculées à l'écriture
+ * et servent à toutes les recherches et jointures par adresse.
+ * </p>
  */
 @Data
 public class Person implements UniqueEntity {
@@ -22,17 +40,62 @@ public class Person implements UniqueEntity {
     @JsonProperty("city")
     private String city;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String addressKey;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String cityKey;
+
     @JsonProperty("zip")
     private String zip;
 
     @JsonProperty("phone")
     private String phone;
 
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private long packedPhone = PackedText.NOT_PACKED;
+
     @JsonProperty("email")
     private String email;
 
+    public void setLastName(String lastName) {
+        this.lastName = StringPool.canonical(lastName);
+    }
+
+    public void setAddress(String address) {
+        this.address = StringPool.canonical(address);
+        this.addressKey = StringPool.canonical(AddressNormalizer.addressKey(address));
+    }
+
+    public void setCity(String city) {
+        this.city = StringPool.canonical(city);
+        this.cityKey = StringPool.canonical(AddressNormalizer.cityKey(city));
+    }
+
+    public void setZip(String zip) {
+        this.zip = StringPool.canonical(zip);
+    }
+
+    public String getPhone() {
+        return packedPhone != PackedText.NOT_PACKED ? PackedText.unpackPhone(packedPhone) : phone;
+    }
+
+    public void setPhone(String phone) {
+        this.packedPhone = PackedText.packPhone(phone);
+        this.phone = packedPhone != PackedText.NOT_PACKED ? null : phone;
+    }
+
     public String getAddressComplete() {
-        return (address + " " + zip + " " + city);
+        return (address + " " + getZip() + " " + city);
     }
 
 }
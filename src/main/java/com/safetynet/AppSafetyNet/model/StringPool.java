@@ -0,0 +1,96 @@
+package com.safetynet.AppSafetyNet.model;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Dictionnaire des valeurs très répétées des entités (ville, code postal, adresse, nom, médicaments, allergies).
+ * <p>
+ * Les setters des entités remplacent chaque valeur par son instance canonique : des milliers de résidents
+ * d'une même ville partagent alors une seule chaîne au lieu d'une copie chacun, au chargement comme lors
+ * des écritures. Deux valeurs canoniques égales étant la même instance, {@link String#equals(Object)}
+ * s'arrête dès la comparaison des références.
+ * </p>
+ * <p>
+ * Le dictionnaire ne retient pas ses valeurs : une valeur qui n'est plus utilisée par aucune entité
+ * (après une suppression ou un rechargement des données) est libérée par le ramasse-miettes et disparaît
+ * du dictionnaire. Il est découpé en segments verrouillés séparément, choisis par le hash de la valeur.
+ * </p>
+ */
+public final class StringPool {
+
+    private static final int SEGMENTS = 16;
+
+    private static final Segment[] POOL = new Segment[SEGMENTS];
+
+    static {
+        for (int i = 0; i < SEGMENTS; i++) {
+            POOL[i] = new Segment();
+        }
+    }
+
+    private StringPool() {
+    }
+
+    /**
+     * Retourne l'instance canonique d'une valeur.
+     * @param value la valeur (peut être null).
+     * @return l'instance partagée égale à {@code value}.
+     */
+    public static String canonical(String value) {
+        if (value == null) {
+            return null;
+        }
+        Segment segment = POOL[(value.hashCode() & 0x7fffffff) % SEGMENTS];
+        synchronized (segment) {
+            WeakReference<String> reference = segment.values.get(value);
+            String pooled = reference != null ? reference.get() : null;
+            if (pooled != null) {
+                return pooled;
+            }
+            // la valeur est aussi la clé : seule une référence faible vers elle est conservée
+            segment.values.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * Retourne une copie de la liste dont chaque élément est remplacé par son instance canonique.
+     * @param values la liste (peut être null).
+     * @return une nouvelle liste modifiable, ou null si {@code values} est null.
+     */
+    public static List<String> canonical(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (String value : values) {
+            result.add(canonical(value));
+        }
+        return result;
+    }
+
+    /**
+     * @return le nombre de valeurs distinctes encore utilisées dans le dictionnaire.
+     */
+    public static int size() {
+        int size = 0;
+        for (Segment segment : POOL) {
+            synchronized (segment) {
+                size += segment.values.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Un segment du dictionnaire, verrouillé séparément des autres.
+     */
+    private static final class Segment {
+
+        private final Map<String, WeakReference<String>> values = new WeakHashMap<>();
+    }
+}
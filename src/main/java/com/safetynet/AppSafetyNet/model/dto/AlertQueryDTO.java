@@ -0,0 +1,62 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * DTO représentant une requête d'alerte suivie par un abonnement : son résultat est recalculé
+ * et les différences poussées au client à chaque modification des données qui le concerne.
+ *
+ * @param endpoint l'alerte suivie.
+ * @param stationNumbers numéros des stations (toutes les alertes sauf {@code /fire}).
+ * @param address adresse (alerte {@code /fire} uniquement).
+ */
+public record AlertQueryDTO(
+        Endpoint endpoint,
+        List<Integer> stationNumbers,
+        String address
+) {
+
+    /**
+     * Alertes pouvant être suivies, désignées par le nom de l'endpoint correspondant.
+     */
+    public enum Endpoint {
+        /** Numéros de téléphone couverts par une station ({@code /phoneAlert}). */
+        PHONE_ALERT,
+        /** Habitants d'une adresse et station qui la couvre ({@code /fire}). */
+        FIRE,
+        /** Foyers couverts par une ou plusieurs stations ({@code /flood/stations}). */
+        FLOOD,
+        /** Personnes couvertes par une station, adultes et enfants ({@code /firestation}). */
+        FIRESTATION
+    }
+
+    public static AlertQueryDTO phoneAlert(Integer stationNumber) {
+        return new AlertQueryDTO(Endpoint.PHONE_ALERT, List.of(stationNumber), null);
+    }
+
+    public static AlertQueryDTO fire(String address) {
+        return new AlertQueryDTO(Endpoint.FIRE, null, address);
+    }
+
+    public static AlertQueryDTO flood(List<Integer> stationNumbers) {
+        return new AlertQueryDTO(Endpoint.FLOOD, List.copyOf(stationNumbers), null);
+    }
+
+    public static AlertQueryDTO fireStation(Integer stationNumber) {
+        return new AlertQueryDTO(Endpoint.FIRESTATION, List.of(stationNumber), null);
+    }
+
+    /**
+     * @return l'URL de la requête GET équivalente, qui identifie la requête dans les mises à jour
+     *         (ex. : {@code /phoneAlert?numberFireStation=3}).
+     */
+    public String describe() {
+        return switch (endpoint) {
+            case PHONE_ALERT -> "/phoneAlert?numberFireStation=" + stationNumbers.getFirst();
+            case FIRE -> "/fire?address=" + address;
+            case FLOOD -> "/flood/stations?stationNumber=" + stationNumbers.stream().map(String::valueOf).collect(Collectors.joining(","));
+            case FIRESTATION -> "/firestation?stationNumber=" + stationNumbers.getFirst();
+        };
+    }
+}
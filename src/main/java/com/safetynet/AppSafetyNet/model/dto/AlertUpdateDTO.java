@@ -0,0 +1,57 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * DTO représentant une mise à jour poussée à un abonné d'une requête d'alerte.
+ * <p>
+ * Le résultat d'une requête est vu comme un ensemble de lignes identifiées par une clé (numéro de téléphone,
+ * prénom et nom en minuscules, adresse d'un foyer) et un résumé (numéro de station, nombre d'adultes et d'enfants).
+ * Un {@code snapshot} contient toutes les lignes ; un {@code diff} seulement les lignes ajoutées ou modifiées,
+ * les clés des lignes retirées, et le résumé s'il a changé.
+ * </p>
+ *
+ * @param type type de mise à jour.
+ * @param query la requête concernée (URL de la requête GET équivalente).
+ * @param version version des données du résultat, préfixée par l'identifiant de l'exécution
+ *                ({@code <exécution>-<numéro>}) : un changement de préfixe signale un redémarrage.
+ * @param upserted lignes ajoutées ou modifiées, par clé.
+ * @param removed clés des lignes retirées.
+ * @param summary résumé du résultat (absent s'il est inchangé ou si la requête n'en a pas).
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record AlertUpdateDTO(
+        Type type,
+        String query,
+        String version,
+        Map<String, JsonNode> upserted,
+        List<String> removed,
+        JsonNode summary
+) {
+
+    /**
+     * Type de mise à jour.
+     */
+    public enum Type {
+        /** Résultat complet, envoyé à l'abonnement. */
+        SNAPSHOT,
+        /** Différences depuis la mise à jour précédente. */
+        DIFF,
+        /** Aucune mise à jour pendant l'intervalle de maintien : la connexion est toujours ouverte. */
+        HEARTBEAT;
+
+        /**
+         * @return le nom du type en minuscules.
+         */
+        @JsonValue
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.safetynet.AppSafetyNet.model.EntityType;
+
+import java.util.Locale;
+
+/**
+ * DTO représentant une opération d'un lot transactionnel ({@code POST /batch}).
+ * <p>
+ * Exemple : {@code {"op": "create", "type": "medicalrecord", "data": {"firstName": "John", ...}}}.
+ * Pour une suppression, {@code data} ne contient que l'identifiant : prénom et nom, ou adresse.
+ * </p>
+ *
+ * @param op l'opération à effectuer.
+ * @param type le type de l'entité concernée.
+ * @param data l'entité, au format JSON de l'API correspondante.
+ */
+public record BatchOperationDTO(
+        Op op,
+        EntityType type,
+        JsonNode data
+) {
+
+    /**
+     * Opération sur une entité, avec la même sémantique que l'appel unitaire correspondant
+     * (POST, PUT ou DELETE).
+     */
+    public enum Op {
+        CREATE,
+        UPDATE,
+        DELETE;
+
+        @JsonCreator
+        public static Op fromName(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unknown operation: " + name);
+            }
+        }
+    }
+}
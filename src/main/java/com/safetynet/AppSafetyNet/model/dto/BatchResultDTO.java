@@ -0,0 +1,13 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+/**
+ * DTO représentant le résultat d'un lot transactionnel appliqué.
+ *
+ * @param applied nombre d'opérations appliquées.
+ * @param version version des données après le lot ({@code <exécution>-<version>}), utilisable comme {@code since} pour {@code /changes}.
+ */
+public record BatchResultDTO(
+        int applied,
+        String version
+) {
+}
@@ -0,0 +1,53 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * DTO représentant le résultat d'un import en masse.
+ * <p>
+ * Le lot est appliqué entièrement ou pas du tout : si un élément est invalide, aucun élément n'est
+ * enregistré ({@code applied = false}) et les éléments valides sont signalés {@link Status#VALID}.
+ * </p>
+ *
+ * @param received nombre d'éléments reçus.
+ * @param applied {@code true} si le lot a été enregistré.
+ * @param created nombre d'éléments créés.
+ * @param updated nombre d'éléments existants remplacés.
+ * @param invalid nombre d'éléments refusés.
+ * @param items le résultat de chaque élément, dans l'ordre de réception.
+ */
+public record BulkImportDTO(
+        int received,
+        boolean applied,
+        long created,
+        long updated,
+        long invalid,
+        List<ItemResult> items
+) {
+
+    /**
+     * Issue d'un élément du lot.
+     */
+    public enum Status {
+        CREATED,
+        UPDATED,
+        /** élément valide, non enregistré car le lot contient des éléments invalides. */
+        VALID,
+        INVALID
+    }
+
+    /**
+     * Résultat d'un élément du lot.
+     *
+     * @param index position de l'élément dans le lot (à partir de 0).
+     * @param id identifiant de l'élément (prénom et nom, ou adresse), s'il est connu.
+     * @param status issue de l'élément.
+     * @param error motif du refus, pour un élément invalide.
+     * @param duplicateOf position du premier élément de même identifiant, pour un doublon interne au lot.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(int index, String id, Status status, String error, Integer duplicateOf) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.safetynet.AppSafetyNet.model.EntityType;
+
+import java.util.Locale;
+
+/**
+ * DTO représentant un changement des données, numéroté dans l'ordre où il a été enregistré.
+ * <p>
+ * Les changements sont idempotents : un consommateur peut les appliquer à sa copie des données
+ * (création ou remplacement par identifiant, suppression par identifiant) même s'ils sont déjà pris en compte.
+ * </p>
+ *
+ * @param sequence numéro d'ordre du changement, croissant depuis le démarrage de l'application (il repart de 1 au démarrage suivant).
+ * @param version version des données après le changement.
+ * @param op type de changement.
+ * @param type type de l'entité modifiée (absent pour {@code resync}).
+ * @param id identifiant de l'entité : prénom et nom en minuscules, ou clé canonique de l'adresse d'une caserne.
+ * @param data état de l'entité après le changement (absent pour une suppression).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEventDTO(
+        long sequence,
+        long version,
+        Op op,
+        EntityType type,
+        String id,
+        JsonNode data
+) {
+
+    /**
+     * Type de changement.
+     */
+    public enum Op {
+        /** Création ou remplacement de l'entité. */
+        UPSERT,
+        /** Suppression de l'entité. */
+        DELETE,
+        /**
+         * Les changements demandés ne sont plus disponibles : le consommateur doit recharger toutes les données,
+         * puis continuer à partir de la séquence de cet événement.
+         */
+        RESYNC,
+        /** Aucun changement pendant l'intervalle de maintien : la connexion est toujours ouverte. */
+        HEARTBEAT;
+
+        /**
+         * @return le nom du type en minuscules.
+         */
+        @JsonValue
+        public String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
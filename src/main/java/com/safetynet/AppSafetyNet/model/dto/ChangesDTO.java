@@ -0,0 +1,30 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import java.util.List;
+
+/**
+ * DTO représentant les changements des données depuis une version connue du client (synchronisation différentielle).
+ * <p>
+ * Seul le dernier changement de chaque entité est renvoyé : un état ({@code upsert}) ou une suppression
+ * ({@code delete}). Si {@code resyncRequired} est vrai, ces changements ne sont plus connus : le client doit
+ * recharger toutes les données, puis reprendre avec {@code since} égal à {@code version}.
+ * </p>
+ * <p>
+ * Les versions sont de la forme {@code <exécution>-<version>} ({@link com.safetynet.AppSafetyNet.repository.data.DataStorage#versionToken(long)}) :
+ * les numéros de version repartant de 1 à chaque démarrage, une version émise avant un redémarrage demande un rechargement.
+ * </p>
+ *
+ * @param since version fournie par le client.
+ * @param version version atteinte avec ces changements, à renvoyer comme {@code since} à l'appel suivant.
+ * @param resyncRequired {@code true} si la version du client est trop ancienne, d'une autre exécution ou inconnue.
+ * @param hasMore {@code true} si d'autres changements suivent : rappeler immédiatement avec {@code since=version}.
+ * @param changes les changements, dans l'ordre où ils ont été enregistrés.
+ */
+public record ChangesDTO(
+        String since,
+        String version,
+        boolean resyncRequired,
+        boolean hasMore,
+        List<ChangeEventDTO> changes
+) {
+}
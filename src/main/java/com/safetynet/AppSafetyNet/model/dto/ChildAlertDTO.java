@@ -1,5 +1,6 @@
 package com.safetynet.AppSafetyNet.model.dto;
 
+import com.safetynet.AppSafetyNet.model.AgeClock;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.model.Person;
 import com.safetynet.AppSafetyNet.model.UniqueEntity;
@@ -17,10 +18,10 @@ public record ChildAlertDTO(
         int age,
         List<String> personsInSameHouse
 ){
-    public ChildAlertDTO(Person child, List<Person> personsAtAddress, MedicalRecord mr) {
+    public ChildAlertDTO(Person child, List<Person> personsAtAddress, MedicalRecord mr, AgeClock ageClock) {
         this(child.getFirstName(),
                 child.getLastName(),
-                mr != null ? mr.getAge() : 0,
+                mr != null ? mr.getAge(ageClock) : 0,
                 personsAtAddress.stream()
                         .filter(p -> p.getLastName().equals(child.getLastName()) && !p.getFirstName().equals(child.getFirstName()))
                         .map(UniqueEntity::getId)
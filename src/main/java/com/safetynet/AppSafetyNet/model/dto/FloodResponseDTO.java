@@ -1,5 +1,6 @@
 package com.safetynet.AppSafetyNet.model.dto;
 
+import com.safetynet.AppSafetyNet.model.AgeClock;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.model.Person;
 import java.util.List;
@@ -14,7 +15,7 @@ public record FloodResponseDTO(
             String numberPhone,
             int age
     ){
-        public PersonInfoDTO(Person person, MedicalRecord mr) {
+        public PersonInfoDTO(Person person, MedicalRecord mr, AgeClock ageClock) {
             this(
                     List.of(
                             person.getFirstName(),
@@ -23,7 +24,7 @@ public record FloodResponseDTO(
                             "Allergies: " + String.join(", ", mr.getAllergies())
                     ),
             person.getPhone(),
-            mr.getAge()
+            mr.getAge(ageClock)
             );
         }
     }
@@ -0,0 +1,37 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import java.util.List;
+
+/**
+ * DTO représentant la progression d'un import de fichier, publié après chaque point de reprise.
+ * <p>
+ * Les lignes invalides sont ignorées et signalées dans {@code errors} ; les lignes valides du même lot
+ * sont enregistrées. Pour reprendre un import interrompu, renvoyer le fichier avec
+ * {@code skip = checkpoint} du dernier message reçu.
+ * </p>
+ *
+ * @param checkpoint nombre de lignes de données traitées depuis le début du fichier (lignes ignorées comprises).
+ * @param created nombre d'éléments créés depuis le début de l'import.
+ * @param updated nombre d'éléments existants remplacés depuis le début de l'import.
+ * @param invalid nombre de lignes refusées depuis le début de l'import.
+ * @param done {@code true} pour le dernier message, une fois le fichier entièrement lu.
+ * @param errors les lignes refusées depuis le point de reprise précédent.
+ */
+public record ImportProgressDTO(
+        long checkpoint,
+        long created,
+        long updated,
+        long invalid,
+        boolean done,
+        List<RowError> errors
+) {
+
+    /**
+     * Ligne refusée.
+     *
+     * @param row numéro de la ligne de données (à partir de 1, en-tête CSV exclu).
+     * @param error motif du refus.
+     */
+    public record RowError(long row, String error) {
+    }
+}
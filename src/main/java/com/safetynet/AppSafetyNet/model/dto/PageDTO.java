@@ -0,0 +1,33 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * DTO représentant une page d'une liste paginée par curseur.
+ * <p>
+ * Le client renvoie {@code nextCursor} tel quel pour obtenir la page suivante ; il vaut {@code null}
+ * sur la dernière page.
+ * </p>
+ *
+ * @param items les éléments de la page.
+ * @param nextCursor le curseur opaque de la page suivante, ou {@code null}.
+ * @param <T> type des éléments.
+ */
+public record PageDTO<T>(
+        List<T> items,
+        String nextCursor
+) {
+
+    /**
+     * Construit une page en convertissant chaque élément.
+     *
+     * @param items les éléments à convertir.
+     * @param mapper la conversion d'un élément.
+     * @param nextCursor le curseur de la page suivante, ou {@code null}.
+     * @return la page convertie.
+     */
+    public static <S, T> PageDTO<T> of(List<S> items, Function<S, T> mapper, String nextCursor) {
+        return new PageDTO<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -1,6 +1,5 @@
 package com.safetynet.AppSafetyNet.model.dto;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.model.Person;
 
 import java.util.List;
@@ -20,10 +19,8 @@ public record PersonCoveredDTO (
         ){
 
 
-    public PersonCoveredDTO(List<Person> personList , List<MedicalRecord>  medicalRecords) {
-       this(personList.stream().map(PersonInfoDTO::new).toList(),
-            medicalRecords.stream().filter(MedicalRecord::isMajor).count(),
-               medicalRecords.size() -  medicalRecords.stream().filter(MedicalRecord::isMajor).count());
+    public PersonCoveredDTO(List<Person> personList, long children) {
+       this(personList.stream().map(PersonInfoDTO::new).toList(), personList.size() - children, children);
     }
 
 
@@ -34,6 +31,15 @@ public record PersonCoveredDTO (
     }
 
 
+    /**
+     * Décompte final d'une réponse en flux, envoyé après la dernière personne.
+     *
+     * @param adults nombre d'adultes.
+     * @param children nombre d'enfants.
+     */
+    public record Summary(long adults, long children) {
+    }
+
     @JsonInclude(JsonInclude.Include.NON_NULL)
     public record PersonInfoDTO
             (String firstName,
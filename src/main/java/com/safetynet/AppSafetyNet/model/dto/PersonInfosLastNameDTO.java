@@ -1,5 +1,6 @@
 package com.safetynet.AppSafetyNet.model.dto;
 
+import com.safetynet.AppSafetyNet.model.AgeClock;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.model.Person;
 
@@ -14,12 +15,12 @@ public record PersonInfosLastNameDTO(
         List<String> medications,
         List<String> allergies
 ) {
-    public PersonInfosLastNameDTO(Person person, MedicalRecord mr) {
+    public PersonInfosLastNameDTO(Person person, MedicalRecord mr, AgeClock ageClock) {
         this(
                 person.getFirstName(),
                 person.getLastName(),
                 person.getAddressComplete(),
-                mr.getAge(),
+                mr.getAge(ageClock),
                 person.getEmail(),
                 mr.getMedications(),
                 mr.getAllergies()
@@ -0,0 +1,44 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+
+import java.util.List;
+
+/**
+ * DTO représentant un résident trouvé par une recherche : coordonnées, âge, antécédents médicaux
+ * et stations couvrant son adresse.
+ * <p>
+ * L'âge, les médicaments et les allergies sont absents si la personne n'a pas de dossier médical.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResidentDTO(
+        String firstName,
+        String lastName,
+        String address,
+        String city,
+        String zip,
+        String phone,
+        String email,
+        Integer age,
+        List<String> medications,
+        List<String> allergies,
+        List<Integer> stations
+) {
+
+    public ResidentDTO(Person person, MedicalRecord mr, List<Integer> stations, AgeClock ageClock) {
+        this(person.getFirstName(),
+                person.getLastName(),
+                person.getAddress(),
+                person.getCity(),
+                person.getZip(),
+                person.getPhone(),
+                person.getEmail(),
+                mr != null && mr.getBirthDate() != null ? mr.getAge(ageClock) : null,
+                mr != null ? mr.getMedications() : null,
+                mr != null ? mr.getAllergies() : null,
+                stations);
+    }
+}
@@ -0,0 +1,13 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+/**
+ * DTO identifiant un résident (personne et dossier médical) par son prénom et son nom.
+ *
+ * @param firstName prénom du résident.
+ * @param lastName nom du résident.
+ */
+public record ResidentIdDTO(
+        String firstName,
+        String lastName
+) {
+}
@@ -0,0 +1,17 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+/**
+ * DTO représentant le résultat d'une suppression de résidents.
+ *
+ * @param requested nombre de résidents distincts demandés.
+ * @param persons nombre de personnes supprimées.
+ * @param medicalRecords nombre de dossiers médicaux supprimés.
+ * @param version version des données après la suppression ({@code <exécution>-<version>}), utilisable comme {@code since} pour {@code /changes}.
+ */
+public record ResidentRemovalDTO(
+        int requested,
+        int persons,
+        int medicalRecords,
+        String version
+) {
+}
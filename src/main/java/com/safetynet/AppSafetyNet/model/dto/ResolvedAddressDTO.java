@@ -0,0 +1,13 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+/**
+ * DTO décrivant la résolution d'une adresse saisie vers une adresse connue.
+ *
+ * @param address l'adresse connue, dans l'écriture des données.
+ * @param confidence la confiance de la résolution, de 0.75 à 1 (correspondance exacte).
+ */
+public record ResolvedAddressDTO(
+        String address,
+        double confidence
+) {
+}
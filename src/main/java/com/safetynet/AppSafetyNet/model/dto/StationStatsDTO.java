@@ -0,0 +1,57 @@
+package com.safetynet.AppSafetyNet.model.dto;
+
+import com.safetynet.AppSafetyNet.model.AgeBracket;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO exposant la répartition par tranche d'âge des résidents couverts par une station,
+ * globalement et pour chacune de ses adresses.
+ */
+public record StationStatsDTO(
+        int station,
+        AgeHistogramDTO residents,
+        List<AddressStatsDTO> addresses
+) {
+
+    public record AddressStatsDTO(
+            String address,
+            AgeHistogramDTO residents
+    ) {
+    }
+
+    /**
+     * Nombre de résidents par tranche d'âge ; {@code unknown} compte les résidents sans dossier médical.
+     */
+    public record AgeHistogramDTO(
+            Map<String, Integer> brackets,
+            int unknown,
+            int total
+    ) {
+
+        /**
+         * @param counts un compteur par {@link AgeBracket}, suivi du nombre de résidents sans dossier médical.
+         */
+        public AgeHistogramDTO(int[] counts) {
+            this(toBrackets(counts), counts[AgeBracket.values().length], sum(counts));
+        }
+
+        private static Map<String, Integer> toBrackets(int[] counts) {
+            Map<String, Integer> brackets = new LinkedHashMap<>();
+            for (AgeBracket bracket : AgeBracket.values()) {
+                brackets.put(bracket.getLabel(), counts[bracket.ordinal()]);
+            }
+            return brackets;
+        }
+
+        private static int sum(int[] counts) {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.safetynet.AppSafetyNet.model.FireStation;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface définissant les opérations de persistance pour l'entité FireStation.
@@ -31,6 +32,13 @@ public interface FireStationRepository {
      */
     void saveFireStation(FireStation fs);
 
+    /**
+     * Enregistre ou remplace un lot d'associations adresse/caserne en une seule sauvegarde des données.
+     * @param fireStations les casernes à enregistrer, d'adresses distinctes.
+     * @return les clés canoniques des adresses déjà associées, remplacées par le lot.
+     */
+    Set<String> saveAll(List<FireStation> fireStations);
+
     /**
      * Supprime une association adresse/caserne.
      * @param fs l'objet FireStation à supprimer.
@@ -1,15 +1,20 @@
 package com.safetynet.AppSafetyNet.repository.Impl;
 
+import com.safetynet.AppSafetyNet.model.AddressNormalizer;
 import com.safetynet.AppSafetyNet.model.FireStation;
 import com.safetynet.AppSafetyNet.repository.FireStationRepository;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -34,14 +39,15 @@ public class FireStationRepositoryImpl implements FireStationRepository {
     }
 
     /**
-     * Recherche une caserne à une adresse donnée.
+     * Recherche une caserne à une adresse donnée, comparée sur sa clé canonique.
      */
     @Override
     public Optional<FireStation> findByAddress(String address) {
         Assert.notNull(address, "Address of FireStation must not be null");
+        String addressKey = AddressNormalizer.addressKey(address);
         return dataStorage.getFireStations()
                 .stream()
-                .filter(s -> s.getAddress().equalsIgnoreCase(address))
+                .filter(s -> addressKey.equals(s.getAddressKey()))
                 .findFirst();
     }
 
@@ -51,20 +57,52 @@ public class FireStationRepositoryImpl implements FireStationRepository {
     @Override
     public void saveFireStation(FireStation fs) {
         Assert.notNull(fs, "FireStation must not be null");
-        dataStorage.getFireStations().removeIf(f -> f.getAddress().equals(fs.getAddress()));
-        dataStorage.getFireStations().add(fs);
-        dataStorage.saveData();
+        dataStorage.inTransaction(() -> {
+            dataStorage.getFireStations().removeIf(f -> Objects.equals(f.getAddressKey(), fs.getAddressKey()));
+            dataStorage.getFireStations().add(fs);
+            dataStorage.recordChange(EntityChange.saved(fs));
+            dataStorage.saveData();
+            return null;
+        });
         log.info("FireStation saved : {} {}", fs.getAddress(), fs.getStation());
     }
 
+    /**
+     * Enregistre ou remplace un lot de casernes en un seul parcours de la liste et une seule sauvegarde.
+     */
+    @Override
+    public Set<String> saveAll(List<FireStation> fireStations) {
+        Assert.notNull(fireStations, "FireStations must not be null");
+        Set<String> addressKeys = fireStations.stream().map(FireStation::getAddressKey).collect(Collectors.toSet());
+        return dataStorage.inTransaction(() -> {
+            Set<String> replaced = new HashSet<>();
+            dataStorage.getFireStations().removeIf(f -> {
+                boolean match = addressKeys.contains(f.getAddressKey());
+                if (match) {
+                    replaced.add(f.getAddressKey());
+                }
+                return match;
+            });
+            dataStorage.getFireStations().addAll(fireStations);
+            fireStations.forEach(fs -> dataStorage.recordChange(EntityChange.saved(fs)));
+            dataStorage.saveData();
+            log.info("{} FireStations saved in one batch ({} replaced)", fireStations.size(), replaced.size());
+            return replaced;
+        });
+    }
+
     /**
      * Supprime une association adresse/station.
      */
     @Override
     public void deleteFireStation(FireStation fs) {
         Assert.notNull(fs, "FireStation must not be null");
-        dataStorage.getFireStations().remove(fs);
-        dataStorage.saveData();
+        dataStorage.inTransaction(() -> {
+            dataStorage.getFireStations().remove(fs);
+            dataStorage.recordChange(EntityChange.deleted(fs));
+            dataStorage.saveData();
+            return null;
+        });
         log.info("FireStation deleted : {} {}", fs.getAddress(), fs.getStation());
     }
 
@@ -3,11 +3,18 @@ package com.safetynet.AppSafetyNet.repository.Impl;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Implémentation concrète du MedicalRecordRepository.
@@ -48,23 +55,82 @@ public class MedicalRecordRepositoryImpl implements MedicalRecordRepository {
     @Override
     public void saveOrUpdateMedicalRecord(MedicalRecord medicalRecord) {
         Assert.notNull(medicalRecord, "Medical Record must not be null");
-        dataStorageService.getMedicalRecords().removeIf(m -> m.getId().equalsIgnoreCase(medicalRecord.getId()));
-        dataStorageService.getMedicalRecords().add(medicalRecord);
-        dataStorageService.saveData();
+        dataStorageService.inTransaction(() -> {
+            dataStorageService.getMedicalRecords().removeIf(m -> m.getId().equalsIgnoreCase(medicalRecord.getId()));
+            dataStorageService.getMedicalRecords().add(medicalRecord);
+            dataStorageService.recordChange(EntityChange.saved(medicalRecord));
+            dataStorageService.saveData();
+            return null;
+        });
         log.info("Medical Record saved successfully: {}", medicalRecord);
     }
 
+    /**
+     * Sauvegarde ou met à jour un lot de dossiers médicaux en un seul parcours de la liste
+     * et une seule sauvegarde.
+     */
+    @Override
+    public Set<String> saveAll(List<MedicalRecord> medicalRecords) {
+        Assert.notNull(medicalRecords, "Medical Records must not be null");
+        Set<String> ids = medicalRecords.stream().map(m -> m.getId().toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        return dataStorageService.inTransaction(() -> {
+            Set<String> replaced = new HashSet<>();
+            dataStorageService.getMedicalRecords().removeIf(m -> {
+                String id = m.getId().toLowerCase(Locale.ROOT);
+                boolean match = ids.contains(id);
+                if (match) {
+                    replaced.add(id);
+                }
+                return match;
+            });
+            dataStorageService.getMedicalRecords().addAll(medicalRecords);
+            medicalRecords.forEach(m -> dataStorageService.recordChange(EntityChange.saved(m)));
+            dataStorageService.saveData();
+            log.info("{} Medical Records saved in one batch ({} replaced)", medicalRecords.size(), replaced.size());
+            return replaced;
+        });
+    }
+
     /**
      * Supprime un dossier médical existant.
      */
     @Override
     public void deleteMedicalRecord(MedicalRecord medicalRecord) {
         Assert.notNull(medicalRecord, "Medical Record must not be null");
-        dataStorageService.getMedicalRecords().remove(medicalRecord);
-        dataStorageService.saveData();
+        dataStorageService.inTransaction(() -> {
+            dataStorageService.getMedicalRecords().remove(medicalRecord);
+            dataStorageService.recordChange(EntityChange.deleted(medicalRecord));
+            dataStorageService.saveData();
+            return null;
+        });
         log.info("Medical Record deleted successfully : {}", medicalRecord);
     }
 
+    /**
+     * Supprime les dossiers médicaux dont l'identifiant figure dans le lot, puis sauvegarde une seule fois.
+     */
+    @Override
+    public int deleteAllById(Set<String> ids) {
+        Assert.notNull(ids, "Ids must not be null");
+        return dataStorageService.inTransaction(() -> {
+            List<MedicalRecord> removed = new ArrayList<>();
+            dataStorageService.getMedicalRecords().removeIf(m -> {
+                boolean match = ids.contains(m.getId().toLowerCase(Locale.ROOT));
+                if (match) {
+                    removed.add(m);
+                }
+                return match;
+            });
+            if (removed.isEmpty()) {
+                return 0;
+            }
+            removed.forEach(m -> dataStorageService.recordChange(EntityChange.deleted(m)));
+            dataStorageService.saveData();
+            log.info("{} Medical Records deleted in one batch", removed.size());
+            return removed.size();
+        });
+    }
+
     /**
      * Récupère un dossier médical de manière obligatoire.
      * Leve une exception s'il n'existe pas.
@@ -1,15 +1,21 @@
 package com.safetynet.AppSafetyNet.repository.Impl;
 
+import com.safetynet.AppSafetyNet.model.AddressNormalizer;
 import com.safetynet.AppSafetyNet.model.Person;
 import com.safetynet.AppSafetyNet.repository.PersonRepository;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -57,6 +63,15 @@ public class PersonRepositoryImpl implements PersonRepository {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<Person> findAllByCity(String city) {
+        Assert.notNull(city, "City must not be null");
+        String cityKey = AddressNormalizer.cityKey(city);
+        return dataStorageService.getPersons()
+                .stream()
+                .filter(p -> cityKey.equals(p.getCityKey()))
+                .collect(Collectors.toList());
+    }
 
     /**
      * Sauvegarde (ou mise à jour) d'une personne.
@@ -64,35 +79,95 @@ public class PersonRepositoryImpl implements PersonRepository {
      */
     @Override
     public void save(Person person) {
-        dataStorageService.getPersons().removeIf(p -> p.getId().equalsIgnoreCase(person.getId()));
-        dataStorageService.getPersons().add(person);
-        dataStorageService.saveData();
+        dataStorageService.inTransaction(() -> {
+            dataStorageService.getPersons().removeIf(p -> p.getId().equalsIgnoreCase(person.getId()));
+            dataStorageService.getPersons().add(person);
+            dataStorageService.recordChange(EntityChange.saved(person));
+            dataStorageService.saveData();
+            return null;
+        });
         log.info("Person saved/updated: {} {}", person.getFirstName(), person.getLastName());
     }
 
+    /**
+     * Sauvegarde (ou mise à jour) d'un lot de personnes : les personnes remplacées sont retirées
+     * en un seul parcours de la liste, puis une seule sauvegarde publie toutes les modifications.
+     */
+    @Override
+    public Set<String> saveAll(List<Person> persons) {
+        Assert.notNull(persons, "Persons must not be null");
+        Set<String> ids = persons.stream().map(p -> p.getId().toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+        return dataStorageService.inTransaction(() -> {
+            Set<String> replaced = new HashSet<>();
+            dataStorageService.getPersons().removeIf(p -> {
+                String id = p.getId().toLowerCase(Locale.ROOT);
+                boolean match = ids.contains(id);
+                if (match) {
+                    replaced.add(id);
+                }
+                return match;
+            });
+            dataStorageService.getPersons().addAll(persons);
+            persons.forEach(p -> dataStorageService.recordChange(EntityChange.saved(p)));
+            dataStorageService.saveData();
+            log.info("{} persons saved/updated in one batch ({} replaced)", persons.size(), replaced.size());
+            return replaced;
+        });
+    }
+
     /**
      * Supprime une personne.
      */
     @Override
     public void delete(Person person) {
-        dataStorageService.getPersons().remove(person);
-        dataStorageService.saveData();
+        dataStorageService.inTransaction(() -> {
+            dataStorageService.getPersons().remove(person);
+            dataStorageService.recordChange(EntityChange.deleted(person));
+            dataStorageService.saveData();
+            return null;
+        });
         log.info("Person deleted: {}", person.getId());
     }
 
     /**
-     * Recherche toutes les personnes vivant dans l'une des adresses données. (gère la casse)
+     * Supprime les personnes dont l'identifiant figure dans le lot, puis sauvegarde une seule fois.
+     */
+    @Override
+    public int deleteAllById(Set<String> ids) {
+        Assert.notNull(ids, "Ids must not be null");
+        return dataStorageService.inTransaction(() -> {
+            List<Person> removed = new ArrayList<>();
+            dataStorageService.getPersons().removeIf(p -> {
+                boolean match = ids.contains(p.getId().toLowerCase(Locale.ROOT));
+                if (match) {
+                    removed.add(p);
+                }
+                return match;
+            });
+            if (removed.isEmpty()) {
+                return 0;
+            }
+            removed.forEach(p -> dataStorageService.recordChange(EntityChange.deleted(p)));
+            dataStorageService.saveData();
+            log.info("{} persons deleted in one batch", removed.size());
+            return removed.size();
+        });
+    }
+
+    /**
+     * Recherche toutes les personnes vivant dans l'une des adresses données,
+     * comparées sur leur clé canonique (casse, ponctuation et type de voie ignorés).
      */
     @Override
     public List<Person> findByAddresses(List<String> addresses) {
 
-        List<String> lowerCaseAddresses = addresses.stream()
-                .map(String::toLowerCase)
-                .toList();
+        Set<String> addressKeys = addresses.stream()
+                .map(AddressNormalizer::addressKey)
+                .collect(Collectors.toSet());
 
         return dataStorageService.getPersons()
                 .stream()
-                .filter(p -> lowerCaseAddresses.contains(p.getAddress().toLowerCase()))
+                .filter(p -> addressKeys.contains(p.getAddressKey()))
                 .toList();
     }
 
@@ -2,7 +2,9 @@ package com.safetynet.AppSafetyNet.repository;
 
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface de persistance pour les dossiers médicaux (MedicalRecord).
@@ -23,12 +25,26 @@ public interface MedicalRecordRepository {
      */
     void saveOrUpdateMedicalRecord(MedicalRecord medicalRecord);
 
+    /**
+     * Enregistre ou met à jour un lot de dossiers médicaux en une seule sauvegarde des données.
+     * @param medicalRecords les dossiers à enregistrer, d'identifiants distincts.
+     * @return les identifiants (en minuscules) des dossiers déjà présents, remplacés par le lot.
+     */
+    Set<String> saveAll(List<MedicalRecord> medicalRecords);
+
     /**
      * Supprime un dossier médical existant.
      * @param medicalRecord L'objet MedicalRecord à supprimer.
      */
     void deleteMedicalRecord(MedicalRecord medicalRecord);
 
+    /**
+     * Supprime un lot de dossiers médicaux en une seule sauvegarde des données.
+     * @param ids identifiants (prénom et nom, en minuscules) des dossiers à supprimer.
+     * @return le nombre de dossiers supprimés (les identifiants inconnus sont ignorés).
+     */
+    int deleteAllById(Set<String> ids);
+
 
     /**
      * Récupère un dossier médical de manière obligatoire (erreur si non trouvée.).
@@ -4,6 +4,7 @@ import com.safetynet.AppSafetyNet.model.Person;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Interface définissant les opérations de persistance pour l'entité Person.
@@ -32,12 +33,26 @@ public interface PersonRepository {
      */
     void save(Person person);
 
+    /**
+     * Enregistre ou met à jour un lot de personnes en une seule sauvegarde des données.
+     * @param persons les personnes à enregistrer, d'identifiants distincts.
+     * @return les identifiants (en minuscules) des personnes déjà présentes, remplacées par le lot.
+     */
+    Set<String> saveAll(List<Person> persons);
+
     /**
      * Supprime une personne du système.
      * @param person l'objet Person à supprimer.
      */
     void delete(Person person);
 
+    /**
+     * Supprime un lot de personnes en une seule sauvegarde des données.
+     * @param ids identifiants (prénom et nom, en minuscules) des personnes à supprimer.
+     * @return le nombre de personnes supprimées (les identifiants inconnus sont ignorés).
+     */
+    int deleteAllById(Set<String> ids);
+
     /**
      * Recherche les personnes habitant à une ou plusieurs adresses.
      * @param address liste d'adresses.
@@ -54,4 +69,11 @@ public interface PersonRepository {
 
     List<Person> findAllByLastName(String lastName);
 
+    /**
+     * Recherche les personnes habitant dans une ville (sans tenir compte de la casse).
+     * @param city nom de la ville.
+     * @return liste des personnes de cette ville.
+     */
+    List<Person> findAllByCity(String city);
+
 }
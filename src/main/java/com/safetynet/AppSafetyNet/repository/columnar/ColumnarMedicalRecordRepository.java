@@ -0,0 +1,69 @@
+package com.safetynet.AppSafetyNet.repository.columnar;
+
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.repository.Impl.MedicalRecordRepositoryImpl;
+import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.columnar.MedicalRecordColumns;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Vue de {@link MedicalRecordRepository} sur les dossiers médicaux stockés en colonnes ({@link MedicalRecordColumns}).
+ * Les écritures, et les recherches faites dans une transaction, sont déléguées au {@link MedicalRecordRepositoryImpl}.
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.storage.columnar", havingValue = "true")
+public class ColumnarMedicalRecordRepository implements MedicalRecordRepository {
+
+    private final MedicalRecordRepositoryImpl delegate;
+    private final DataStorage dataStorage;
+
+    @Override
+    public Optional<MedicalRecord> findByFirstNameAndLastName(String firstName, String lastName) {
+        Assert.notNull(firstName, "firstName must not be null");
+        Assert.notNull(lastName, "lastName must not be null");
+        if (dataStorage.getMedicalRecords() instanceof MedicalRecordColumns columns) {
+            return columns.findByKey((firstName + " " + lastName).toLowerCase(Locale.ROOT));
+        }
+        return delegate.findByFirstNameAndLastName(firstName, lastName);
+    }
+
+    @Override
+    public void saveOrUpdateMedicalRecord(MedicalRecord medicalRecord) {
+        delegate.saveOrUpdateMedicalRecord(medicalRecord);
+    }
+
+    @Override
+    public Set<String> saveAll(List<MedicalRecord> medicalRecords) {
+        return delegate.saveAll(medicalRecords);
+    }
+
+    @Override
+    public void deleteMedicalRecord(MedicalRecord medicalRecord) {
+        delegate.deleteMedicalRecord(medicalRecord);
+    }
+
+    @Override
+    public int deleteAllById(Set<String> ids) {
+        return delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public MedicalRecord getMedicalRecordByPerson(String firstName, String lastName) {
+        Assert.notNull(firstName, "First name must not be null");
+        Assert.notNull(lastName, "Last name must not be null");
+        return findByFirstNameAndLastName(firstName, lastName)
+                .orElseThrow(() -> new IllegalStateException("Medical record for this person does not exist"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.safetynet.AppSafetyNet.repository.columnar;
+
+import com.safetynet.AppSafetyNet.model.AddressNormalizer;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.Impl.PersonRepositoryImpl;
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.columnar.PersonColumns;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Vue de {@link PersonRepository} sur les personnes stockées en colonnes ({@link PersonColumns}).
+ * <p>
+ * Les recherches parcourent une colonne d'entiers de la liste publiée et ne matérialisent que les personnes
+ * retenues. Dans une transaction, la liste est le journal de la transaction : les recherches, comme les
+ * écritures et {@link #getAll()}, sont alors déléguées au {@link PersonRepositoryImpl}.
+ * </p>
+ */
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.storage.columnar", havingValue = "true")
+public class ColumnarPersonRepository implements PersonRepository {
+
+    private final PersonRepositoryImpl delegate;
+    private final DataStorage dataStorage;
+
+    @Override
+    public List<Person> getAll() {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Optional<Person> findByFirstNameAndLastName(String firstName, String lastName) {
+        Assert.notNull(firstName,  "First name must not be null");
+        Assert.notNull(lastName,  "Last name must not be null");
+        if (dataStorage.getPersons() instanceof PersonColumns columns) {
+            return columns.findByKey((firstName + " " + lastName).toLowerCase(Locale.ROOT));
+        }
+        return delegate.findByFirstNameAndLastName(firstName, lastName);
+    }
+
+    @Override
+    public void save(Person person) {
+        delegate.save(person);
+    }
+
+    @Override
+    public Set<String> saveAll(List<Person> persons) {
+        return delegate.saveAll(persons);
+    }
+
+    @Override
+    public void delete(Person person) {
+        delegate.delete(person);
+    }
+
+    @Override
+    public int deleteAllById(Set<String> ids) {
+        return delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public List<Person> findByAddresses(List<String> addresses) {
+        if (dataStorage.getPersons() instanceof PersonColumns columns) {
+            Set<String> addressKeys = addresses.stream()
+                    .map(AddressNormalizer::addressKey)
+                    .collect(Collectors.toSet());
+            return columns.findAllByAddressKeys(addressKeys);
+        }
+        return delegate.findByAddresses(addresses);
+    }
+
+    @Override
+    public List<Person> findByAddress(String address) {
+        return findByAddresses(List.of(address));
+    }
+
+    @Override
+    public List<Person> findAllByLastName(String lastName) {
+        Assert.notNull(lastName, "Last name must not be null");
+        if (dataStorage.getPersons() instanceof PersonColumns columns) {
+            return columns.findAllByLastName(lastName);
+        }
+        return delegate.findAllByLastName(lastName);
+    }
+
+    @Override
+    public List<Person> findAllByCity(String city) {
+        Assert.notNull(city, "City must not be null");
+        if (dataStorage.getPersons() instanceof PersonColumns columns) {
+            return columns.findAllByCityKey(AddressNormalizer.cityKey(city));
+        }
+        return delegate.findAllByCity(city);
+    }
+}
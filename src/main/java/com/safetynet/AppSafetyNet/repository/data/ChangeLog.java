@@ -0,0 +1,260 @@
+package com.safetynet.AppSafetyNet.repository.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO.Op;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal des changements des données, alimenté par les {@link DataChangedEvent} du {@link DataStorage}.
+ * <p>
+ * Chaque modification d'une personne, d'un dossier médical ou d'une caserne reçoit un numéro de séquence
+ * croissant, dans l'ordre des écritures. L'état de l'entité est copié en JSON au moment de l'événement :
+ * les entités étant modifiées sur place, une référence ne suffirait pas à restituer l'état d'alors.
+ * </p>
+ * <p>
+ * Seuls les {@code application.changes.retention} derniers changements sont conservés. Un lecteur dont la
+ * séquence n'est plus disponible (trop ancienne, ou antérieure à un rechargement complet des données) reçoit
+ * un événement {@code resync} : il doit recharger toutes les données, puis continuer à partir de la séquence
+ * de cet événement. Les séquences repartent de 1 à chaque démarrage : c'est au service de refuser les
+ * séquences d'une exécution précédente (voir {@link DataStorage#getEpoch()}).
+ * </p>
+ * <p>
+ * Le journal est aussi compacté par entité : seul le dernier changement de chaque entité (état ou suppression)
+ * est gardé, pour au plus {@code application.changes.max-entities} entités. Un client qui se reconnecte reçoit
+ * ainsi chaque entité modifiée une seule fois, quel que soit le nombre de modifications, tant que sa version
+ * des données n'est pas antérieure au plus ancien changement évincé.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ChangeLog {
+
+    private final ObjectMapper mapper;
+    private final int retention;
+    private final int maxEntities;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    // tampon circulaire : le changement de séquence s est à la position s % retention
+    private final ChangeEventDTO[] events;
+    private long firstRetained = 1;
+    private long lastSequence;
+    private long resyncSequence;
+    private long version;
+    // dernier changement de chaque entité, dans l'ordre des changements (donc des versions)
+    private final LinkedHashMap<String, ChangeEventDTO> latest = new LinkedHashMap<>();
+    private long compactedVersion;
+
+    public ChangeLog(ObjectMapper mapper,
+                     @Value("${application.changes.retention:10000}") int retention,
+                     @Value("${application.changes.max-entities:100000}") int maxEntities) {
+        Assert.isTrue(retention > 0, "Change log retention must be positive");
+        Assert.isTrue(maxEntities > 0, "Change log max entities must be positive");
+        this.mapper = mapper;
+        this.retention = retention;
+        this.maxEntities = maxEntities;
+        this.events = new ChangeEventDTO[retention];
+    }
+
+    /**
+     * Enregistre les modifications publiées par le {@link DataStorage}.
+     * <p>
+     * Un rechargement complet vide le journal : les modifications qu'il apporte ne sont pas connues.
+     * Les modifications d'un lot plus grand que la rétention et que le nombre d'entités conservées,
+     * qui seraient évincées aussitôt, sont numérotées sans être copiées.
+     * </p>
+     * @param event l'événement de modification des données.
+     */
+    @EventListener
+    public void onDataChanged(DataChangedEvent event) {
+        lock.lock();
+        try {
+            version = event.version();
+            if (event.reload()) {
+                resyncSequence = ++lastSequence;
+                firstRetained = lastSequence + 1;
+                Arrays.fill(events, null);
+                latest.clear();
+                compactedVersion = event.version();
+                log.debug("Données rechargées : journal des changements vidé (séquence {})", resyncSequence);
+            } else {
+                List<EntityChange> changes = event.changes();
+                int skipped = Math.max(0, changes.size() - Math.max(retention, maxEntities));
+                if (skipped > 0) {
+                    // cette version n'est plus connue en entier : seuls les clients qui l'ont déjà sont servis
+                    lastSequence += skipped;
+                    latest.clear();
+                    compactedVersion = event.version();
+                }
+                for (EntityChange change : changes.subList(skipped, changes.size())) {
+                    ChangeEventDTO changeEvent = toEvent(lastSequence + 1, event.version(), change);
+                    if (changeEvent != null) {
+                        lastSequence = changeEvent.sequence();
+                        events[(int) (lastSequence % retention)] = changeEvent;
+                        compact(changeEvent);
+                    }
+                }
+                firstRetained = Math.max(firstRetained, lastSequence - retention + 1);
+            }
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return la séquence du dernier changement enregistré.
+     */
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lit les changements suivant une séquence, sans attendre.
+     * @param after dernière séquence reçue par le lecteur.
+     * @param max nombre maximum de changements renvoyés.
+     * @return les changements suivants dans l'ordre (vide si le lecteur est à jour),
+     *         ou un unique événement {@code resync} si ces changements ne sont plus disponibles.
+     */
+    public List<ChangeEventDTO> read(long after, int max) {
+        Assert.isTrue(max > 0, "Max must be positive");
+        lock.lock();
+        try {
+            return readLocked(after, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lit les changements suivant une séquence, en attendant le prochain changement si le lecteur est à jour.
+     * @param after dernière séquence reçue par le lecteur.
+     * @param max nombre maximum de changements renvoyés.
+     * @param timeout attente maximale.
+     * @return comme {@link #read(long, int)} ; vide si aucun changement n'est arrivé pendant l'attente.
+     * @throws InterruptedException si le thread est interrompu pendant l'attente.
+     */
+    public List<ChangeEventDTO> await(long after, int max, Duration timeout) throws InterruptedException {
+        Assert.isTrue(max > 0, "Max must be positive");
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (after == lastSequence && nanos > 0) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            return readLocked(after, max);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Renvoie le dernier changement de chaque entité modifiée depuis une version des données.
+     * <p>
+     * Une page s'arrête toujours à la fin d'une version : le client reprend avec la version atteinte
+     * sans perdre ni dupliquer de changement, même lorsqu'un lot modifie plus d'entités que la page n'en contient.
+     * </p>
+     * @param since version des données connue du client.
+     * @param max nombre de changements par page (dépassé seulement pour terminer une version).
+     * @return les changements, ou une réponse {@code resyncRequired} si la version est trop ancienne ou inconnue.
+     */
+    public Changes changesSince(long since, int max) {
+        Assert.isTrue(max > 0, "Max must be positive");
+        lock.lock();
+        try {
+            if (since < compactedVersion || since > version) {
+                return new Changes(version, true, false, List.of());
+            }
+            List<ChangeEventDTO> newer = new ArrayList<>();
+            for (ChangeEventDTO change : latest.sequencedValues().reversed()) {
+                if (change.version() <= since) {
+                    break;
+                }
+                newer.add(change);
+            }
+            Collections.reverse(newer);
+
+            int end = Math.min(max, newer.size());
+            while (end > 0 && end < newer.size() && newer.get(end).version() == newer.get(end - 1).version()) {
+                end++;
+            }
+            boolean hasMore = end < newer.size();
+            long reached = hasMore ? newer.get(end - 1).version() : version;
+            return new Changes(reached, false, hasMore, List.copyOf(newer.subList(0, end)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Changements depuis une version des données ({@link #changesSince(long, int)}).
+     *
+     * @param version version atteinte avec ces changements.
+     * @param resyncRequired {@code true} si la version demandée est trop ancienne ou inconnue.
+     * @param hasMore {@code true} si d'autres changements suivent.
+     * @param changes le dernier changement de chaque entité, dans l'ordre.
+     */
+    public record Changes(long version, boolean resyncRequired, boolean hasMore, List<ChangeEventDTO> changes) {
+    }
+
+    private void compact(ChangeEventDTO change) {
+        latest.putLast(change.type().getName() + ":" + change.id(), change);
+        if (latest.size() > maxEntities) {
+            ChangeEventDTO evicted = latest.pollFirstEntry().getValue();
+            compactedVersion = Math.max(compactedVersion, evicted.version());
+        }
+    }
+
+    private List<ChangeEventDTO> readLocked(long after, int max) {
+        if (after > lastSequence || after < resyncSequence || after + 1 < firstRetained) {
+            return List.of(new ChangeEventDTO(lastSequence, version, Op.RESYNC, null, null, null));
+        }
+        long last = Math.min(lastSequence, after + max);
+        List<ChangeEventDTO> result = new ArrayList<>((int) (last - after));
+        for (long sequence = after + 1; sequence <= last; sequence++) {
+            result.add(events[(int) (sequence % retention)]);
+        }
+        return result;
+    }
+
+    /**
+     * @return le changement numéroté, ou null si l'entité n'est pas d'un type publié.
+     */
+    private ChangeEventDTO toEvent(long sequence, long version, EntityChange change) {
+        boolean saved = change.operation() == EntityChange.Operation.SAVE;
+        Op op = saved ? Op.UPSERT : Op.DELETE;
+        return switch (change.entity()) {
+            case Person person -> new ChangeEventDTO(sequence, version, op, EntityType.PERSON,
+                    person.getId().toLowerCase(Locale.ROOT), saved ? mapper.valueToTree(person) : null);
+            case MedicalRecord medicalRecord -> new ChangeEventDTO(sequence, version, op, EntityType.MEDICALRECORD,
+                    medicalRecord.getId().toLowerCase(Locale.ROOT), saved ? mapper.valueToTree(medicalRecord) : null);
+            case FireStation fireStation -> new ChangeEventDTO(sequence, version, op, EntityType.FIRESTATION,
+                    fireStation.getAddressKey(), saved ? mapper.valueToTree(fireStation) : null);
+            default -> null;
+        };
+    }
+}
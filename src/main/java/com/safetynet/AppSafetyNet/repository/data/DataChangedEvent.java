@@ -0,0 +1,21 @@
+package com.safetynet.AppSafetyNet.repository.data;
+
+import java.util.List;
+
+/**
+ * Événement Spring publié par le {@link DataStorage} après chaque sauvegarde ou chargement des données.
+ * <p>
+ * Lors d'un chargement complet ({@code reload}), la liste des modifications est vide : les index
+ * doivent alors être entièrement reconstruits.
+ * </p>
+ *
+ * @param version version des données après la modification.
+ * @param changes modifications enregistrées depuis la sauvegarde précédente.
+ * @param reload {@code true} si les données ont été entièrement rechargées.
+ */
+public record DataChangedEvent(long version, List<EntityChange> changes, boolean reload) {
+
+    public DataChangedEvent {
+        changes = List.copyOf(changes);
+    }
+}
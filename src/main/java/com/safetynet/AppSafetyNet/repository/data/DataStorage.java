@@ -6,6 +6,7 @@ import com.safetynet.AppSafetyNet.model.Person;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Interface définissant les opérations de persistance sur les données de l'application.
@@ -27,17 +28,53 @@ public interface DataStorage {
 
     /**
      * Sauvegarde les données actuelles en mémoire dans le fichier JSON local.
+     * Publie ensuite un {@link DataChangedEvent} contenant les modifications enregistrées
+     * via {@link #recordChange(EntityChange)} depuis la sauvegarde précédente.
+     * <p>
+     * Appelée dans une transaction ({@link #inTransaction(Supplier)}), la sauvegarde est différée
+     * jusqu'à la fin de la transaction.
+     * </p>
      */
     void saveData();
 
+    /**
+     * Exécute plusieurs modifications comme une seule : les sauvegardes demandées pendant la transaction
+     * sont regroupées en une seule écriture du fichier et un seul {@link DataChangedEvent}, publiés à la fin.
+     * <p>
+     * Pendant la transaction, son thread lit et modifie ses propres listes ; les autres lectures ne voient
+     * ces modifications qu'à la fin de la transaction, toutes ensemble. Si le traitement lève une exception,
+     * elles sont abandonnées puis l'exception est propagée : les données partagées et leur version restent
+     * inchangées. Les transactions et les sauvegardes sont exécutées l'une après l'autre ; une transaction
+     * ouverte dans une transaction s'exécute dans celle-ci.
+     * </p>
+     * <p>
+     * Toute modification des données passe par une transaction, et une entité enregistrée n'est jamais
+     * modifiée sur place : sa modification enregistre une nouvelle instance à sa place.
+     * </p>
+     *
+     * @param work les modifications à appliquer.
+     * @return le résultat du traitement.
+     * @param <T> type du résultat.
+     */
+    <T> T inTransaction(Supplier<T> work);
+
+    /**
+     * Enregistre une modification d'entité, publiée avec la prochaine sauvegarde.
+     * @param change la modification effectuée en mémoire.
+     * @throws IllegalStateException hors d'une transaction.
+     */
+    void recordChange(EntityChange change);
+
     /**
      * Retourne la liste des personnes connues dans le système.
+     * Hors transaction, la liste est en lecture seule.
      * @return Liste d'objets Person.
      */
     List<Person> getPersons();
 
     /**
      * Retourne la liste des casernes associées à une adresse.
+     * Hors transaction, la liste est en lecture seule.
      * @return Liste d'objets FireStation.
      */
     List<FireStation>  getFireStations();
@@ -45,7 +82,34 @@ public interface DataStorage {
 
     /**
      * Retourne la liste des dossiers médicaux.
+     * Hors transaction, la liste est en lecture seule.
      * @return Liste d'objets MedicalRecord.
      */
     List<MedicalRecord> getMedicalRecords();
+
+    /**
+     * Retourne la version courante des données en mémoire.
+     * Elle est incrémentée à chaque chargement et à chaque sauvegarde : deux lectures
+     * retournant la même version ont donc vu exactement les mêmes données.
+     * @return numéro de version des données.
+     */
+    long getVersion();
+
+    /**
+     * Retourne l'identifiant de cette exécution de l'application, tiré au hasard au démarrage.
+     * La version repartant de 1 à chaque démarrage, un numéro de version n'identifie les données
+     * qu'accompagné de cet identifiant.
+     * @return identifiant de l'exécution.
+     */
+    String getEpoch();
+
+    /**
+     * Identifie une version des données de cette exécution, à présenter aux clients : seul un numéro préfixé
+     * par l'identifiant de l'exécution distingue une version de la même version d'une exécution précédente.
+     * @param version numéro de version des données.
+     * @return une chaîne de la forme {@code <exécution>-<version>}.
+     */
+    default String versionToken(long version) {
+        return getEpoch() + "-" + version;
+    }
 }
@@ -0,0 +1,39 @@
+package com.safetynet.AppSafetyNet.repository.data;
+
+import org.springframework.util.Assert;
+
+/**
+ * Décrit une modification d'une entité (Person, FireStation ou MedicalRecord) en mémoire.
+ * <p>
+ * Seul l'état après la modification est transmis : les index qui en dépendent conservent eux-mêmes
+ * l'ancien état nécessaire à leur mise à jour.
+ * </p>
+ *
+ * @param operation type de modification.
+ * @param entity entité enregistrée ou supprimée.
+ */
+public record EntityChange(Operation operation, Object entity) {
+
+    public EntityChange {
+        Assert.notNull(operation, "Operation must not be null");
+        Assert.notNull(entity, "Entity must not be null");
+    }
+
+    /**
+     * Type de modification d'une entité.
+     */
+    public enum Operation {
+        /** Création ou remplacement de l'entité. */
+        SAVE,
+        /** Suppression de l'entité. */
+        DELETE
+    }
+
+    public static EntityChange saved(Object entity) {
+        return new EntityChange(Operation.SAVE, entity);
+    }
+
+    public static EntityChange deleted(Object entity) {
+        return new EntityChange(Operation.DELETE, entity);
+    }
+}
@@ -4,12 +4,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.safetynet.AppSafetyNet.model.FireStation;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
 import com.safetynet.AppSafetyNet.repository.data.DataWrapper;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import com.safetynet.AppSafetyNet.repository.data.columnar.ColumnarList;
+import com.safetynet.AppSafetyNet.repository.data.columnar.MedicalRecordColumns;
+import com.safetynet.AppSafetyNet.repository.data.columnar.PersonColumns;
+import com.safetynet.AppSafetyNet.repository.data.offheap.EntityCodecs;
+import com.safetynet.AppSafetyNet.repository.data.offheap.OffHeapList;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -18,36 +26,83 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Implémentation de DataStorage utilisant Jackson pour lire/écrire dans un fichier JSON.
  * Cette classe agit comme une base de données en mémoire persisté par un fichier.
+ * <p>
+ * Chaque chargement et chaque sauvegarde publient un {@link DataChangedEvent}, utilisé
+ * par les index pour se tenir à jour.
+ * </p>
+ * <p>
+ * Avec {@code application.storage.off-heap=true}, les personnes et dossiers médicaux chargés sont
+ * transférés dans des {@link OffHeapList} : leur contenu est conservé hors tas et chaque lecture
+ * décode une nouvelle instance.
+ * </p>
+ * <p>
+ * Avec {@code application.storage.columnar=true}, ils sont stockés en colonnes d'entiers
+ * ({@link PersonColumns}, {@link MedicalRecordColumns}) ; les repositories y font leurs recherches
+ * sans matérialiser les lignes écartées. Les deux modes sont exclusifs.
+ * </p>
+ * <p>
+ * Les listes publiées ne sont jamais modifiées et les entités qu'elles contiennent jamais modifiées sur place :
+ * toute écriture passe par une transaction, qui journalise ses ajouts et suppressions au-dessus des listes
+ * publiées ({@link TransactionList}). À la validation, les listes suivantes sont construites puis publiées
+ * ensemble par un seul remplacement de référence : une lecture, qui ne prend aucun verrou, voit soit toutes
+ * les modifications d'une transaction, soit aucune.
+ * </p>
  */
 @Slf4j
 @Service
 public class JsonDataStorageImpl implements InitializingBean, DataStorage {
 
     private final ObjectMapper mapper;
-    private DataWrapper dataWrapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private static final Function<Person, String> PERSON_KEY = p -> p.getId().toLowerCase(Locale.ROOT);
+    private static final Function<MedicalRecord, String> MEDICAL_RECORD_KEY = m -> m.getId().toLowerCase(Locale.ROOT);
+
+    // données publiées, remplacées d'un bloc à chaque chargement et à chaque transaction validée
+    private volatile DataWrapper dataWrapper;
+    private final AtomicLong version = new AtomicLong();
+    private final String epoch = Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36);
+    // protège le chargement, l'écriture du fichier et les transactions
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ThreadLocal<Transaction> transaction = new ThreadLocal<>();
     @Value("${application.file-path-to-persiste-data}")
     private String persistedDataFile;
 
     @Value("${application.base-data}")
     private String baseData;
 
+    @Value("${application.storage.off-heap:false}")
+    private boolean offHeap;
+
+    @Value("${application.storage.columnar:false}")
+    private boolean columnar;
+
     /**
      * Appelé automatiquement après l'injection des dépendances par Spring.
      * Initialise le fichier de données puis les charge en mémoire.
      */
     @Override
     public void afterPropertiesSet() throws Exception {
+        Assert.state(!(offHeap && columnar), "Off-heap and columnar storage cannot be enabled together");
         initializeDataFile();
         loadData();
     }
 
-    public JsonDataStorageImpl(ObjectMapper mapper) {
+    public JsonDataStorageImpl(ObjectMapper mapper, ApplicationEventPublisher eventPublisher) {
         this.mapper = mapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -64,14 +119,57 @@ public class JsonDataStorageImpl implements InitializingBean, DataStorage {
 
     @Override
     public void loadData() throws IOException {
+        writeLock.lock();
+        try {
             File dataFile = new File(persistedDataFile);
-            dataWrapper = mapper.readValue(dataFile, DataWrapper.class);
+            DataWrapper loaded = mapper.readValue(dataFile, DataWrapper.class);
+            if (offHeap) {
+                moveOffHeap(loaded);
+            } else if (columnar) {
+                loaded.setPersons(new PersonColumns(loaded.getPersons()));
+                loaded.setMedicalrecords(new MedicalRecordColumns(loaded.getMedicalrecords()));
+            } else {
+                loaded.setPersons(Collections.unmodifiableList(loaded.getPersons()));
+                loaded.setMedicalrecords(Collections.unmodifiableList(loaded.getMedicalrecords()));
+            }
+            loaded.setFirestations(Collections.unmodifiableList(loaded.getFirestations()));
+            dataWrapper = loaded;
+            long current = version.incrementAndGet();
             log.debug("Raw datas loaded : {} ", dataWrapper);
             log.info("Loading data from file :  {}", dataFile.getAbsolutePath());
+            eventPublisher.publishEvent(new DataChangedEvent(current, List.of(), true));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void moveOffHeap(DataWrapper data) {
+        OffHeapList<Person> persons = new OffHeapList<>(EntityCodecs.PERSON, OffHeapList.DEFAULT_CHUNK_SIZE, data.getPersons());
+        OffHeapList<MedicalRecord> medicalRecords = new OffHeapList<>(EntityCodecs.MEDICAL_RECORD, OffHeapList.DEFAULT_CHUNK_SIZE, data.getMedicalrecords());
+        data.setPersons(persons);
+        data.setMedicalrecords(medicalRecords);
+        log.info("Personnes et dossiers médicaux stockés hors tas : {} octets réservés",
+                persons.offHeapBytes() + medicalRecords.offHeapBytes());
     }
 
     @Override
     public void saveData() {
+        Transaction current = transaction.get();
+        if (current != null) {
+            current.saveRequested = true;
+            return;
+        }
+        writeLock.lock();
+        try {
+            write(List.of());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void write(List<EntityChange> changes) {
+        // les nouvelles listes sont déjà publiées : la version change même si l'écriture échoue
+        long current = version.incrementAndGet();
         try {
             File dataFile = new File(persistedDataFile);
             mapper.writerWithDefaultPrettyPrinter().writeValue(dataFile, dataWrapper);
@@ -80,26 +178,138 @@ public class JsonDataStorageImpl implements InitializingBean, DataStorage {
         } catch (IOException e) {
             log.error("Failed to save data to file {}: {}", persistedDataFile, e.getMessage(), e);
             throw new IllegalStateException("Failed to save datafile in data/data.json " + persistedDataFile, e);
+        } finally {
+            eventPublisher.publishEvent(new DataChangedEvent(current, changes, false));
+        }
+    }
+
+    /**
+     * La transaction ne copie pas les données : chaque liste est remplacée, pour son seul thread, par
+     * le journal de ses modifications au-dessus de la liste publiée. En cas d'échec, le journal est
+     * simplement abandonné : les données publiées et la version ne sont pas touchées et aucun événement
+     * n'est publié.
+     */
+    @Override
+    public <T> T inTransaction(Supplier<T> work) {
+        Assert.notNull(work, "Transaction must not be null");
+        Transaction enclosing = transaction.get();
+        if (enclosing != null) {
+            // transaction imbriquée : elle fait partie de la transaction englobante
+            return work.get();
+        }
+        writeLock.lock();
+        try {
+            Transaction current = new Transaction(dataWrapper);
+            T result;
+            transaction.set(current);
+            try {
+                result = work.get();
+            } catch (RuntimeException | Error e) {
+                log.warn("Transaction annulée : {} modification(s) abandonnée(s)", current.changes.size());
+                throw e;
+            } finally {
+                transaction.remove();
+            }
+            if (current.saveRequested || !current.changes.isEmpty()) {
+                publish(current);
+                write(current.changes);
+            }
+            return result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Construit les listes suivantes à partir des journaux de la transaction, puis les publie ensemble
+     * en remplaçant la référence aux données. Les listes que la transaction n'a pas modifiées sont reprises telles quelles.
+     */
+    private void publish(Transaction committed) {
+        DataWrapper next = new DataWrapper();
+        next.setPersons(nextList(committed.persons));
+        next.setFirestations(nextList(committed.fireStations));
+        next.setMedicalrecords(nextList(committed.medicalRecords));
+        dataWrapper = next;
+        if (next.getPersons() instanceof OffHeapList<Person> persons) {
+            persons.publish();
+        }
+        if (next.getMedicalrecords() instanceof OffHeapList<MedicalRecord> medicalRecords) {
+            medicalRecords.publish();
+        }
+    }
+
+    private static <T> List<T> nextList(TransactionList<T> changes) {
+        if (!changes.isModified()) {
+            return changes.base();
+        }
+        if (changes.base() instanceof OffHeapList<T> offHeapList) {
+            return offHeapList.derive(changes.removedKeys(), changes.added());
+        }
+        if (changes.base() instanceof ColumnarList<T> columnarList) {
+            return columnarList.derive(changes.removedKeys(), changes.added());
+        }
+        return Collections.unmodifiableList(new ArrayList<>(changes));
+    }
+
+    @Override
+    public void recordChange(EntityChange change) {
+        Assert.notNull(change, "Change must not be null");
+        Transaction current = transaction.get();
+        if (current == null) {
+            throw new IllegalStateException("Changes must be recorded within a transaction");
         }
+        current.changes.add(change);
     }
 
     @Override
     public List<Person> getPersons() {
-        log.debug("Récupération de la liste des personnes ({} entrées)", dataWrapper.getPersons().size());
-        return dataWrapper.getPersons();
+        Transaction current = transaction.get();
+        List<Person> persons = current == null ? dataWrapper.getPersons() : current.persons;
+        log.debug("Récupération de la liste des personnes ({} entrées)", persons.size());
+        return persons;
     }
 
 
     @Override
     public List<FireStation>  getFireStations() {
-        log.debug("Récupération de la liste des casernes ({} entrées)", dataWrapper.getFirestations().size());
-        return dataWrapper.getFirestations();
+        Transaction current = transaction.get();
+        List<FireStation> fireStations = current == null ? dataWrapper.getFirestations() : current.fireStations;
+        log.debug("Récupération de la liste des casernes ({} entrées)", fireStations.size());
+        return fireStations;
     }
 
     @Override
     public List<MedicalRecord> getMedicalRecords() {
-        log.debug("Récupération de la liste des dossiers médicaux ({} entrées)", dataWrapper.getMedicalrecords().size());
-        return dataWrapper.getMedicalrecords();
+        Transaction current = transaction.get();
+        List<MedicalRecord> medicalRecords = current == null ? dataWrapper.getMedicalrecords() : current.medicalRecords;
+        log.debug("Récupération de la liste des dossiers médicaux ({} entrées)", medicalRecords.size());
+        return medicalRecords;
     }
 
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Journal des listes et modifications enregistrées d'une transaction en cours.
+     */
+    private static final class Transaction {
+        private final TransactionList<Person> persons;
+        private final TransactionList<FireStation> fireStations;
+        private final TransactionList<MedicalRecord> medicalRecords;
+        private final List<EntityChange> changes = new ArrayList<>();
+        private boolean saveRequested;
+
+        private Transaction(DataWrapper published) {
+            this.persons = new TransactionList<>(published.getPersons(), PERSON_KEY);
+            this.fireStations = new TransactionList<>(published.getFirestations(), FireStation::getAddressKey);
+            this.medicalRecords = new TransactionList<>(published.getMedicalrecords(), MEDICAL_RECORD_KEY);
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package com.safetynet.AppSafetyNet.repository.data.Impl;
+
+import org.springframework.util.Assert;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Vue modifiable d'une liste d'entités publiée, propre à une transaction.
+ * <p>
+ * La liste publiée n'est jamais modifiée : la vue tient seulement le journal de ses modifications,
+ * les clés des entités publiées qu'elle retire et les entités qu'elle ajoute. Le coût d'une transaction
+ * dépend ainsi du nombre d'entités modifiées et non de la taille des données ; la liste publiée suivante
+ * n'est construite qu'une fois, à la validation.
+ * </p>
+ * <p>
+ * Les clés de la liste publiée sont supposées uniques, comme le garantissent les repositories.
+ * Les ajouts se font en fin de liste ; les modifications par position ne sont pas supportées.
+ * </p>
+ *
+ * @param <T> type des entités.
+ */
+final class TransactionList<T> extends AbstractList<T> {
+
+    private final List<T> base;
+    private final Function<T, String> key;
+    private final Set<String> removed = new HashSet<>();
+    private final List<T> added = new ArrayList<>();
+    // contenu dans l'ordre de la liste, calculé seulement pour un accès par position
+    private List<T> snapshot;
+
+    /**
+     * @param base la liste publiée, jamais modifiée par la vue.
+     * @param key clé d'une entité.
+     */
+    TransactionList(List<T> base, Function<T, String> key) {
+        this.base = base;
+        this.key = key;
+    }
+
+    /**
+     * @return la liste publiée sur laquelle porte la vue.
+     */
+    List<T> base() {
+        return base;
+    }
+
+    /**
+     * @return les clés des entités de la liste publiée retirées par la transaction.
+     */
+    Set<String> removedKeys() {
+        return removed;
+    }
+
+    /**
+     * @return les entités ajoutées par la transaction, dans l'ordre.
+     */
+    List<T> added() {
+        return added;
+    }
+
+    /**
+     * @return {@code true} si la transaction a modifié la liste.
+     */
+    boolean isModified() {
+        return !removed.isEmpty() || !added.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return base.size() - removed.size() + added.size();
+    }
+
+    @Override
+    public T get(int index) {
+        if (removed.isEmpty()) {
+            return index < base.size() ? base.get(index) : added.get(index - base.size());
+        }
+        if (snapshot == null) {
+            snapshot = new ArrayList<>(this);
+        }
+        return snapshot.get(index);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return stream().iterator();
+    }
+
+    @Override
+    public Stream<T> stream() {
+        Stream<T> kept = removed.isEmpty() ? base.stream() : base.stream().filter(e -> !isRemoved(e));
+        return Stream.concat(kept, added.stream());
+    }
+
+    @Override
+    public boolean add(T element) {
+        Assert.notNull(element, "Element must not be null");
+        added.add(element);
+        changed();
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        for (T candidate : base) {
+            if (Objects.equals(candidate, element) && removed.add(key.apply(candidate))) {
+                changed();
+                return true;
+            }
+        }
+        if (added.remove(element)) {
+            changed();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Comme pour une ArrayList, le filtre n'est évalué qu'une fois par élément encore présent.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        boolean changed = false;
+        for (T candidate : base) {
+            if (!isRemoved(candidate) && filter.test(candidate)) {
+                removed.add(key.apply(candidate));
+                changed = true;
+            }
+        }
+        changed |= added.removeIf(filter);
+        if (changed) {
+            changed();
+        }
+        return changed;
+    }
+
+    @Override
+    public void clear() {
+        removeIf(e -> true);
+    }
+
+    private boolean isRemoved(T element) {
+        return !removed.isEmpty() && removed.contains(key.apply(element));
+    }
+
+    private void changed() {
+        snapshot = null;
+        modCount++;
+    }
+}
@@ -0,0 +1,175 @@
+package com.safetynet.AppSafetyNet.repository.data.columnar;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Liste en lecture seule stockant ses entités en colonnes : chaque champ est un tableau d'entiers indexé
+ * par le rang de l'entité, contenant un code de dictionnaire ou directement une valeur primitive.
+ * <p>
+ * Aucune entité n'est conservée : chaque lecture en matérialise une nouvelle instance. Les recherches
+ * parcourent une seule colonne d'entiers, séquentiellement, et ne matérialisent que les lignes retenues.
+ * </p>
+ * <p>
+ * La liste n'est jamais modifiée après sa construction : une transaction validée en dérive une nouvelle
+ * ({@link #derive(Set, Collection)}), qui partage les dictionnaires de celle-ci.
+ * </p>
+ *
+ * @param <T> type des entités.
+ */
+public abstract class ColumnarList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final int[][] columns;
+    private int size;
+
+    /**
+     * @param columnCount nombre de colonnes.
+     * @param capacity nombre maximal de lignes.
+     */
+    protected ColumnarList(int columnCount, int capacity) {
+        this.columns = new int[columnCount][capacity];
+    }
+
+    /**
+     * Écrit les colonnes d'une entité à la ligne donnée.
+     */
+    protected abstract void encode(T entity, int row);
+
+    /**
+     * @return une nouvelle instance de l'entité de la ligne donnée.
+     */
+    protected abstract T materialize(int row);
+
+    /**
+     * @return la colonne contenant le code de la clé (identifiant en minuscules) de chaque ligne.
+     */
+    protected abstract int keyColumn();
+
+    /**
+     * @return le code de la clé, ou {@link Dictionary#NULL} si aucune ligne ne l'a jamais portée.
+     */
+    protected abstract int keyCode(String key);
+
+    /**
+     * @return une liste vide de même type, partageant les dictionnaires de celle-ci.
+     */
+    protected abstract ColumnarList<T> newList(int capacity);
+
+    /**
+     * Ajoute une entité en fin de liste ; réservé à la construction.
+     */
+    protected final void append(T entity) {
+        encode(entity, size);
+        size++;
+    }
+
+    protected final void set(int column, int row, int value) {
+        columns[column][row] = value;
+    }
+
+    protected final int value(int column, int row) {
+        return columns[column][row];
+    }
+
+    /**
+     * Parcourt une colonne et matérialise, dans l'ordre de la liste, les lignes dont le code est demandé.
+     */
+    protected final List<T> scan(int column, BitSet wanted) {
+        List<T> result = new ArrayList<>();
+        if (wanted.isEmpty()) {
+            return result;
+        }
+        int[] codes = columns[column];
+        for (int row = 0; row < size; row++) {
+            int code = codes[row];
+            if (code != Dictionary.NULL && wanted.get(code)) {
+                result.add(materialize(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return l'entité de la première ligne portant ce code dans la colonne.
+     */
+    protected final Optional<T> first(int column, int code) {
+        if (code == Dictionary.NULL) {
+            return Optional.empty();
+        }
+        int[] codes = columns[column];
+        for (int row = 0; row < size; row++) {
+            if (codes[row] == code) {
+                return Optional.of(materialize(row));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Recherche une entité par sa clé.
+     *
+     * @param key identifiant en minuscules.
+     * @return l'entité si elle est présente.
+     */
+    public Optional<T> findByKey(String key) {
+        return first(keyColumn(), keyCode(key));
+    }
+
+    /**
+     * Construit la liste suivante sans modifier celle-ci : les lignes conservées sont recopiées colonne
+     * par colonne, sans être matérialisées, puis les entités ajoutées sont encodées à la suite.
+     *
+     * @param removedKeys clés des entités à retirer.
+     * @param added entités à ajouter en fin de liste.
+     * @return la nouvelle liste.
+     */
+    public ColumnarList<T> derive(Set<String> removedKeys, Collection<? extends T> added) {
+        BitSet removedCodes = new BitSet();
+        for (String key : removedKeys) {
+            int code = keyCode(key);
+            if (code != Dictionary.NULL) {
+                removedCodes.set(code);
+            }
+        }
+        int[] keys = columns[keyColumn()];
+        BitSet kept = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            if (keys[row] == Dictionary.NULL || !removedCodes.get(keys[row])) {
+                kept.set(row);
+            }
+        }
+        ColumnarList<T> next = newList(kept.cardinality() + added.size());
+        for (int column = 0; column < columns.length; column++) {
+            int[] source = columns[column];
+            int[] target = next.columns[column];
+            int count = 0;
+            for (int row = kept.nextSetBit(0); row >= 0; row = kept.nextSetBit(row + 1)) {
+                target[count++] = source[row];
+            }
+        }
+        next.size = kept.cardinality();
+        for (T entity : added) {
+            next.append(entity);
+        }
+        return next;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return materialize(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,101 @@
+package com.safetynet.AppSafetyNet.repository.data.columnar;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Dictionnaire d'une colonne : associe chaque valeur distincte à un code entier.
+ * <p>
+ * Le dictionnaire ne fait que grandir et il est partagé par les versions successives d'une liste en colonnes ;
+ * les valeurs des entités supprimées y restent jusqu'au prochain chargement des données. Les codes ne sont
+ * attribués que sous le verrou d'écriture du stockage, et un code figurant dans une liste publiée est
+ * toujours lisible sans verrou.
+ * </p>
+ *
+ * @param <V> type des valeurs.
+ */
+final class Dictionary<V> {
+
+    /** Code de la valeur null. */
+    static final int NULL = -1;
+
+    private final Map<V, Integer> codes = new ConcurrentHashMap<>();
+    private volatile Object[] values = new Object[16];
+    private volatile int size;
+
+    /**
+     * Retourne le code de la valeur, en l'ajoutant au dictionnaire si elle est nouvelle.
+     */
+    synchronized int encode(V value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        int next = size;
+        if (next == values.length) {
+            values = Arrays.copyOf(values, next * 2);
+        }
+        values[next] = value;
+        size = next + 1;
+        codes.put(value, next);
+        return next;
+    }
+
+    /**
+     * @return la valeur du code, ou null pour {@link #NULL}.
+     */
+    @SuppressWarnings("unchecked")
+    V decode(int code) {
+        return code == NULL ? null : (V) values[code];
+    }
+
+    /**
+     * @return le code de la valeur, ou {@link #NULL} si elle n'est pas dans le dictionnaire.
+     */
+    int lookup(V value) {
+        if (value == null) {
+            return NULL;
+        }
+        Integer code = codes.get(value);
+        return code == null ? NULL : code;
+    }
+
+    /**
+     * @return les codes des valeurs connues parmi celles données.
+     */
+    BitSet lookupAll(Collection<? extends V> wanted) {
+        BitSet result = new BitSet();
+        for (V value : wanted) {
+            int code = lookup(value);
+            if (code != NULL) {
+                result.set(code);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parcourt les valeurs distinctes, et non les lignes, pour trouver celles vérifiant le filtre.
+     *
+     * @return les codes des valeurs retenues.
+     */
+    @SuppressWarnings("unchecked")
+    BitSet matching(Predicate<? super V> filter) {
+        int count = size;
+        Object[] current = values;
+        BitSet result = new BitSet(count);
+        for (int code = 0; code < count; code++) {
+            if (filter.test((V) current[code])) {
+                result.set(code);
+            }
+        }
+        return result;
+    }
+}
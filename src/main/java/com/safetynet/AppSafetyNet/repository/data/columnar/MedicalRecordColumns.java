@@ -0,0 +1,96 @@
+package com.safetynet.AppSafetyNet.repository.data.columnar;
+
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Dossiers médicaux stockés en colonnes.
+ * <p>
+ * La date de naissance est conservée directement en jours depuis l'époque. Les listes de médicaments
+ * et d'allergies, très répétées d'un dossier à l'autre, sont codées par dictionnaire comme des valeurs
+ * entières : le dictionnaire en garde une copie non modifiable.
+ * </p>
+ */
+public final class MedicalRecordColumns extends ColumnarList<MedicalRecord> {
+
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int KEY = 2;
+    private static final int BIRTH_DATE = 3;
+    private static final int MEDICATIONS = 4;
+    private static final int ALLERGIES = 5;
+    private static final int COLUMNS = 6;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private final Dictionary<String> firstNames;
+    private final Dictionary<String> lastNames;
+    private final Dictionary<String> keys;
+    private final Dictionary<List<String>> terms;
+
+    /**
+     * @param medicalRecords les dossiers à stocker, dans l'ordre.
+     */
+    public MedicalRecordColumns(Collection<? extends MedicalRecord> medicalRecords) {
+        super(COLUMNS, medicalRecords.size());
+        this.firstNames = new Dictionary<>();
+        this.lastNames = new Dictionary<>();
+        this.keys = new Dictionary<>();
+        this.terms = new Dictionary<>();
+        medicalRecords.forEach(this::append);
+    }
+
+    private MedicalRecordColumns(MedicalRecordColumns source, int capacity) {
+        super(COLUMNS, capacity);
+        this.firstNames = source.firstNames;
+        this.lastNames = source.lastNames;
+        this.keys = source.keys;
+        this.terms = source.terms;
+    }
+
+    @Override
+    protected void encode(MedicalRecord medicalRecord, int row) {
+        set(FIRST_NAME, row, firstNames.encode(medicalRecord.getFirstName()));
+        set(LAST_NAME, row, lastNames.encode(medicalRecord.getLastName()));
+        set(KEY, row, keys.encode(medicalRecord.getId().toLowerCase(Locale.ROOT)));
+        set(BIRTH_DATE, row, medicalRecord.getBirthDate() == null ? NO_DATE : Math.toIntExact(medicalRecord.getBirthDate().toEpochDay()));
+        set(MEDICATIONS, row, terms.encode(copyOf(medicalRecord.getMedications())));
+        set(ALLERGIES, row, terms.encode(copyOf(medicalRecord.getAllergies())));
+    }
+
+    @Override
+    protected MedicalRecord materialize(int row) {
+        MedicalRecord medicalRecord = new MedicalRecord();
+        medicalRecord.setFirstName(firstNames.decode(value(FIRST_NAME, row)));
+        medicalRecord.setLastName(lastNames.decode(value(LAST_NAME, row)));
+        int birthDate = value(BIRTH_DATE, row);
+        medicalRecord.setBirthDate(birthDate == NO_DATE ? null : LocalDate.ofEpochDay(birthDate));
+        medicalRecord.setMedications(terms.decode(value(MEDICATIONS, row)));
+        medicalRecord.setAllergies(terms.decode(value(ALLERGIES, row)));
+        return medicalRecord;
+    }
+
+    @Override
+    protected int keyColumn() {
+        return KEY;
+    }
+
+    @Override
+    protected int keyCode(String key) {
+        return keys.lookup(key);
+    }
+
+    @Override
+    protected ColumnarList<MedicalRecord> newList(int capacity) {
+        return new MedicalRecordColumns(this, capacity);
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values == null ? null : Collections.unmodifiableList(new ArrayList<>(values));
+    }
+}
@@ -0,0 +1,122 @@
+package com.safetynet.AppSafetyNet.repository.data.columnar;
+
+import com.safetynet.AppSafetyNet.model.AddressNormalizer;
+import com.safetynet.AppSafetyNet.model.Person;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Personnes stockées en colonnes codées par dictionnaire.
+ * <p>
+ * Outre les champs de la personne, la liste conserve les colonnes sur lesquelles portent les recherches :
+ * l'identifiant en minuscules et les clés canoniques de l'adresse et de la ville.
+ * </p>
+ */
+public final class PersonColumns extends ColumnarList<Person> {
+
+    private static final int FIRST_NAME = 0;
+    private static final int LAST_NAME = 1;
+    private static final int ADDRESS = 2;
+    private static final int CITY = 3;
+    private static final int ZIP = 4;
+    private static final int PHONE = 5;
+    private static final int EMAIL = 6;
+    private static final int KEY = 7;
+    private static final int ADDRESS_KEY = 8;
+    private static final int CITY_KEY = 9;
+    private static final int COLUMNS = 10;
+
+    private final Dictionary<String>[] dictionaries;
+
+    /**
+     * @param persons les personnes à stocker, dans l'ordre.
+     */
+    @SuppressWarnings("unchecked")
+    public PersonColumns(Collection<? extends Person> persons) {
+        super(COLUMNS, persons.size());
+        this.dictionaries = new Dictionary[COLUMNS];
+        for (int column = 0; column < COLUMNS; column++) {
+            dictionaries[column] = new Dictionary<>();
+        }
+        persons.forEach(this::append);
+    }
+
+    private PersonColumns(PersonColumns source, int capacity) {
+        super(COLUMNS, capacity);
+        this.dictionaries = source.dictionaries;
+    }
+
+    /**
+     * Recherche les personnes dont le nom correspond, sans tenir compte de la casse : le filtre porte
+     * sur les noms distincts du dictionnaire, puis une seule colonne est parcourue.
+     */
+    public List<Person> findAllByLastName(String lastName) {
+        return scan(LAST_NAME, dictionaries[LAST_NAME].matching(name -> name.equalsIgnoreCase(lastName)));
+    }
+
+    /**
+     * @param cityKey clé canonique de la ville.
+     */
+    public List<Person> findAllByCityKey(String cityKey) {
+        return scan(CITY_KEY, dictionaries[CITY_KEY].lookupAll(List.of(cityKey)));
+    }
+
+    /**
+     * @param addressKeys clés canoniques des adresses.
+     */
+    public List<Person> findAllByAddressKeys(Collection<String> addressKeys) {
+        return scan(ADDRESS_KEY, dictionaries[ADDRESS_KEY].lookupAll(addressKeys));
+    }
+
+    @Override
+    protected void encode(Person person, int row) {
+        put(FIRST_NAME, row, person.getFirstName());
+        put(LAST_NAME, row, person.getLastName());
+        put(ADDRESS, row, person.getAddress());
+        put(CITY, row, person.getCity());
+        put(ZIP, row, person.getZip());
+        put(PHONE, row, person.getPhone());
+        put(EMAIL, row, person.getEmail());
+        put(KEY, row, person.getId().toLowerCase(Locale.ROOT));
+        put(ADDRESS_KEY, row, person.getAddressKey());
+        put(CITY_KEY, row, person.getCityKey());
+    }
+
+    @Override
+    protected Person materialize(int row) {
+        Person person = new Person();
+        person.setFirstName(get(FIRST_NAME, row));
+        person.setLastName(get(LAST_NAME, row));
+        person.setAddress(get(ADDRESS, row));
+        person.setCity(get(CITY, row));
+        person.setZip(get(ZIP, row));
+        person.setPhone(get(PHONE, row));
+        person.setEmail(get(EMAIL, row));
+        return person;
+    }
+
+    @Override
+    protected int keyColumn() {
+        return KEY;
+    }
+
+    @Override
+    protected int keyCode(String key) {
+        return dictionaries[KEY].lookup(key);
+    }
+
+    @Override
+    protected ColumnarList<Person> newList(int capacity) {
+        return new PersonColumns(this, capacity);
+    }
+
+    private void put(int column, int row, String value) {
+        set(column, row, dictionaries[column].encode(value));
+    }
+
+    private String get(int column, int row) {
+        return dictionaries[column].decode(value(column, row));
+    }
+}
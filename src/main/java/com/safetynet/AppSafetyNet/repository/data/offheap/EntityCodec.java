@@ -0,0 +1,34 @@
+package com.safetynet.AppSafetyNet.repository.data.offheap;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodage binaire d'une entité stockée hors tas.
+ *
+ * @param <T> type de l'entité.
+ */
+public interface EntityCodec<T> {
+
+    /**
+     * Écrit l'entité.
+     * @param value l'entité à encoder (non null).
+     * @param out flux de sortie.
+     * @throws IOException en cas d'erreur d'écriture.
+     */
+    void encode(T value, DataOutput out) throws IOException;
+
+    /**
+     * Reconstruit une nouvelle instance de l'entité.
+     * @param in contenu d'un enregistrement écrit par {@link #encode(Object, DataOutput)}.
+     * @return l'entité décodée.
+     */
+    T decode(ByteBuffer in);
+
+    /**
+     * @param value l'entité (non null).
+     * @return la clé par laquelle l'entité peut être relue ({@link OffHeapList#getByKey(String)}).
+     */
+    String key(T value);
+}
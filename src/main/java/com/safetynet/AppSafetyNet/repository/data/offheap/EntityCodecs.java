@@ -0,0 +1,161 @@
+package com.safetynet.AppSafetyNet.repository.data.offheap;
+
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.PackedText;
+import com.safetynet.AppSafetyNet.model.Person;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encodages binaires des personnes et des dossiers médicaux.
+ * <p>
+ * Les chaînes sont écrites en UTF-8 précédées de leur longueur ({@code -1} pour null). Le code postal et
+ * le téléphone sont écrits sous leur forme encodée ({@link PackedText}) lorsque c'est possible, sinon
+ * la valeur encodée invalide est suivie de la chaîne d'origine. Les entités
+ * décodées passent par leurs setters et partagent donc les valeurs répétées via le
+ * {@link com.safetynet.AppSafetyNet.model.StringPool}.
+ * </p>
+ */
+public final class EntityCodecs {
+
+    private static final int NULL = -1;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    public static final EntityCodec<Person> PERSON = new EntityCodec<>() {
+        @Override
+        public void encode(Person person, DataOutput out) throws IOException {
+            writeString(out, person.getFirstName());
+            writeString(out, person.getLastName());
+            writeString(out, person.getAddress());
+            writeString(out, person.getCity());
+            writeZip(out, person.getZip());
+            writePhone(out, person);
+            writeString(out, person.getEmail());
+        }
+
+        @Override
+        public Person decode(ByteBuffer in) {
+            Person person = new Person();
+            person.setFirstName(readString(in));
+            person.setLastName(readString(in));
+            person.setAddress(readString(in));
+            person.setCity(readString(in));
+            person.setZip(readZip(in));
+            person.setPhone(readPhone(in));
+            person.setEmail(readString(in));
+            return person;
+        }
+
+        @Override
+        public String key(Person person) {
+            return person.getId().toLowerCase(Locale.ROOT);
+        }
+    };
+
+    public static final EntityCodec<MedicalRecord> MEDICAL_RECORD = new EntityCodec<>() {
+        @Override
+        public void encode(MedicalRecord medicalRecord, DataOutput out) throws IOException {
+            writeString(out, medicalRecord.getFirstName());
+            writeString(out, medicalRecord.getLastName());
+            out.writeLong(medicalRecord.getBirthDate() == null ? NO_DATE : medicalRecord.getBirthDate().toEpochDay());
+            writeStrings(out, medicalRecord.getMedications());
+            writeStrings(out, medicalRecord.getAllergies());
+        }
+
+        @Override
+        public MedicalRecord decode(ByteBuffer in) {
+            MedicalRecord medicalRecord = new MedicalRecord();
+            medicalRecord.setFirstName(readString(in));
+            medicalRecord.setLastName(readString(in));
+            long birthDate = in.getLong();
+            medicalRecord.setBirthDate(birthDate == NO_DATE ? null : LocalDate.ofEpochDay(birthDate));
+            medicalRecord.setMedications(readStrings(in));
+            medicalRecord.setAllergies(readStrings(in));
+            return medicalRecord;
+        }
+
+        @Override
+        public String key(MedicalRecord medicalRecord) {
+            return medicalRecord.getId().toLowerCase(Locale.ROOT);
+        }
+    };
+
+    private EntityCodecs() {
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeZip(DataOutput out, String zip) throws IOException {
+        int packed = PackedText.packZip(zip);
+        out.writeInt(packed);
+        if (packed == PackedText.NOT_PACKED_ZIP) {
+            writeString(out, zip);
+        }
+    }
+
+    private static String readZip(ByteBuffer in) {
+        int packed = in.getInt();
+        return packed == PackedText.NOT_PACKED_ZIP ? readString(in) : PackedText.unpackZip(packed);
+    }
+
+    private static void writePhone(DataOutput out, Person person) throws IOException {
+        long packed = person.getPackedPhone();
+        out.writeLong(packed);
+        if (packed == PackedText.NOT_PACKED) {
+            writeString(out, person.getPhone());
+        }
+    }
+
+    private static String readPhone(ByteBuffer in) {
+        long packed = in.getLong();
+        return packed == PackedText.NOT_PACKED ? readString(in) : PackedText.unpackPhone(packed);
+    }
+
+    private static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int size = in.getInt();
+        if (size == NULL) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+}
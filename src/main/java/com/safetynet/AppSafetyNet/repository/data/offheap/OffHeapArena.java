@@ -0,0 +1,70 @@
+package com.safetynet.AppSafetyNet.repository.data.offheap;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Zone mémoire hors tas, découpée en blocs de {@link ByteBuffer} directs, dans laquelle les
+ * enregistrements sont écrits les uns à la suite des autres (longueur puis contenu).
+ * <p>
+ * Un enregistrement est désigné par une référence {@code long} : numéro de bloc sur les 32 bits
+ * de poids fort, position dans le bloc sur les 32 bits de poids faible. Rien n'est jamais écrasé :
+ * la place des enregistrements remplacés n'est récupérée qu'en recopiant les enregistrements
+ * vivants dans une nouvelle zone.
+ * </p>
+ */
+final class OffHeapArena {
+
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private ByteBuffer current;
+    private long capacity;
+
+    OffHeapArena(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Écrit un enregistrement.
+     * @param bytes tableau contenant l'enregistrement.
+     * @param length nombre d'octets à écrire depuis le début du tableau.
+     * @return la référence de l'enregistrement.
+     */
+    long append(byte[] bytes, int length) {
+        int needed = Integer.BYTES + length;
+        if (current == null || current.remaining() < needed) {
+            current = ByteBuffer.allocateDirect(Math.max(chunkSize, needed));
+            chunks.add(current);
+            capacity += current.capacity();
+        }
+        int position = current.position();
+        current.putInt(length).put(bytes, 0, length);
+        return ((long) (chunks.size() - 1) << 32) | position;
+    }
+
+    /**
+     * @param ref référence d'un enregistrement.
+     * @return une vue en lecture de son contenu, sans copie.
+     */
+    ByteBuffer read(long ref) {
+        ByteBuffer chunk = chunks.get((int) (ref >>> 32));
+        int position = (int) ref;
+        return chunk.slice(position + Integer.BYTES, chunk.getInt(position)).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param ref référence d'un enregistrement.
+     * @return la place occupée par l'enregistrement, en-tête compris.
+     */
+    int sizeOf(long ref) {
+        return Integer.BYTES + chunks.get((int) (ref >>> 32)).getInt((int) ref);
+    }
+
+    /**
+     * @return le nombre d'octets réservés hors tas.
+     */
+    long capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,385 @@
+package com.safetynet.AppSafetyNet.repository.data.offheap;
+
+import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
+import org.springframework.util.Assert;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Liste d'entités dont le contenu est stocké hors tas, dans une {@link OffHeapArena}.
+ * <p>
+ * Seuls des tableaux d'entiers restent sur le tas : chaque lecture décode une nouvelle instance de
+ * l'entité, qui n'existe que le temps de son utilisation. Une entité lue puis modifiée doit donc être
+ * réenregistrée (ce que font les repositories via {@code save}).
+ * </p>
+ * <p>
+ * Chaque élément occupe un emplacement stable, qui ne change pas quand les éléments qui le précèdent
+ * sont supprimés ; les emplacements sont retrouvés par la clé des entités ({@link EntityCodec#key(Object)}).
+ * Les index conservent ainsi un accès à l'entité ({@link #refTo(List, Object)}) plutôt qu'une instance décodée.
+ * </p>
+ * <p>
+ * Les remplacements et suppressions laissent de la place perdue dans la zone ; elle est récupérée
+ * en recopiant les enregistrements vivants dès qu'elle dépasse la place utile. La nouvelle zone et
+ * les nouvelles références sont publiées ensemble : une lecture voit soit l'ancienne zone et ses
+ * références, soit la nouvelle.
+ * </p>
+ * <p>
+ * Comme une {@link java.util.ArrayList}, cette liste n'est pas synchronisée. Pour être partagée entre threads,
+ * elle n'est plus modifiée une fois publiée : la version suivante est construite à part ({@link #derive}),
+ * puis publiée ({@link #publish()}).
+ * </p>
+ *
+ * @param <T> type des entités.
+ */
+public final class OffHeapList<T> extends AbstractList<T> implements RandomAccess {
+
+    /** Taille par défaut d'un bloc de mémoire hors tas. */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final EntityCodec<T> codec;
+    private final int chunkSize;
+    private final Encoder encoder = new Encoder();
+    private final Map<String, Integer> slotByKey = new HashMap<>();
+    private final Lineage<T> lineage;
+    private volatile Store store;
+    // emplacement de chaque élément, dans l'ordre de la liste
+    private int[] slots = new int[16];
+    private int size;
+    private int slotCount;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private long liveBytes;
+    private long garbageBytes;
+
+    /**
+     * @param codec encodage des entités.
+     * @param chunkSize taille d'un bloc de mémoire hors tas.
+     * @param values contenu initial de la liste.
+     */
+    public OffHeapList(EntityCodec<T> codec, int chunkSize, Collection<? extends T> values) {
+        this(codec, chunkSize, new Lineage<>());
+        lineage.current = this;
+        if (values != null) {
+            addAll(values);
+        }
+    }
+
+    private OffHeapList(EntityCodec<T> codec, int chunkSize, Lineage<T> lineage) {
+        Assert.notNull(codec, "Codec must not be null");
+        Assert.isTrue(chunkSize > 0, "Chunk size must be positive");
+        this.codec = codec;
+        this.chunkSize = chunkSize;
+        this.lineage = lineage;
+        this.store = new Store(new OffHeapArena(chunkSize), new long[16]);
+    }
+
+    /**
+     * Retourne un accès à un élément d'une liste d'entités, à conserver à la place de l'élément lui-même.
+     * <p>
+     * Pour une {@link OffHeapList}, l'accès relit l'entité par sa clé à chaque appel, dans la dernière liste
+     * publiée qui en est dérivée ; pour une autre liste, il retourne l'élément, qui est déjà sur le tas.
+     * </p>
+     *
+     * @param list la liste contenant l'élément.
+     * @param element l'élément.
+     * @return l'accès à l'élément ; hors tas, il retourne {@code null} une fois l'élément supprimé.
+     * @param <T> type des entités.
+     */
+    public static <T> Supplier<T> refTo(List<T> list, T element) {
+        if (list instanceof OffHeapList<T> offHeap) {
+            String key = offHeap.codec.key(element);
+            Lineage<T> lineage = offHeap.lineage;
+            return () -> lineage.current.getByKey(key);
+        }
+        return () -> element;
+    }
+
+    @Override
+    public T get(int index) {
+        checkIndex(index, size);
+        return decode(slots[index]);
+    }
+
+    /**
+     * @param key clé de l'entité ({@link EntityCodec#key(Object)}).
+     * @return l'entité portant cette clé, ou {@code null} si elle n'est pas dans la liste.
+     */
+    public T getByKey(String key) {
+        Integer slot = slotByKey.get(key);
+        return slot == null ? null : decode(slot);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T set(int index, T element) {
+        checkIndex(index, size);
+        T previous = get(index);
+        int slot = slots[index];
+        long ref = write(element);
+        long[] refs = store.refs();
+        release(refs[slot]);
+        refs[slot] = ref;
+        slotByKey.remove(codec.key(previous), slot);
+        slotByKey.put(codec.key(element), slot);
+        compactIfNeeded();
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T element) {
+        checkIndex(index, size + 1);
+        int slot = allocateSlot(write(element));
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        System.arraycopy(slots, index, slots, index + 1, size - index);
+        slots[index] = slot;
+        slotByKey.put(codec.key(element), slot);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        checkIndex(index, size);
+        T previous = get(index);
+        freeSlot(slots[index], previous);
+        System.arraycopy(slots, index + 1, slots, index, size - index - 1);
+        size--;
+        modCount++;
+        compactIfNeeded();
+        return previous;
+    }
+
+    /**
+     * Supprime en un seul parcours les éléments vérifiant le filtre (la suppression élément par élément
+     * décalerait la liste à chaque fois).
+     */
+    @Override
+    public boolean removeIf(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        // le filtre est évalué sur tous les éléments avant toute modification, comme pour une ArrayList
+        BitSet removed = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (filter.test(decode(slots[i]))) {
+                removed.set(i);
+            }
+        }
+        if (removed.isEmpty()) {
+            return false;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed.get(i)) {
+                freeSlot(slots[i], decode(slots[i]));
+            } else {
+                slots[kept++] = slots[i];
+            }
+        }
+        size = kept;
+        modCount++;
+        compactIfNeeded();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        store = new Store(new OffHeapArena(chunkSize), new long[16]);
+        slotByKey.clear();
+        size = 0;
+        slotCount = 0;
+        freeCount = 0;
+        liveBytes = 0;
+        garbageBytes = 0;
+        modCount++;
+    }
+
+    /**
+     * Construit la version suivante de la liste sans modifier celle-ci : les enregistrements conservés
+     * sont recopiés tels quels (sans être décodés) dans une nouvelle zone, puis les éléments ajoutés y sont encodés.
+     *
+     * @param removedKeys clés des éléments à retirer.
+     * @param added éléments à ajouter en fin de liste.
+     * @return la nouvelle liste, qui ne devient la cible des accès ({@link #refTo}) qu'une fois publiée.
+     */
+    public OffHeapList<T> derive(Set<String> removedKeys, Collection<? extends T> added) {
+        Assert.notNull(removedKeys, "Removed keys must not be null");
+        Assert.notNull(added, "Added elements must not be null");
+        OffHeapList<T> derived = new OffHeapList<>(codec, chunkSize, lineage);
+        BitSet removedSlots = new BitSet(slotCount);
+        for (String key : removedKeys) {
+            Integer slot = slotByKey.get(key);
+            if (slot != null) {
+                removedSlots.set(slot);
+            }
+        }
+        Store current = store;
+        int[] derivedSlots = new int[slotCount];
+        byte[] buffer = new byte[256];
+        for (int i = 0; i < size; i++) {
+            int slot = slots[i];
+            if (removedSlots.get(slot)) {
+                continue;
+            }
+            var record = current.arena().read(current.refs()[slot]);
+            int length = record.remaining();
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            record.get(buffer, 0, length);
+            derivedSlots[slot] = derived.appendRecord(buffer, length);
+        }
+        slotByKey.forEach((key, slot) -> {
+            if (!removedSlots.get(slot)) {
+                derived.slotByKey.put(key, derivedSlots[slot]);
+            }
+        });
+        derived.addAll(added);
+        return derived;
+    }
+
+    /**
+     * Désigne cette liste comme la version courante : les accès obtenus par {@link #refTo} sur
+     * les versions dont elle est dérivée lisent désormais dans celle-ci.
+     */
+    public void publish() {
+        lineage.current = this;
+    }
+
+    /**
+     * @return le nombre d'octets réservés hors tas par cette liste.
+     */
+    public long offHeapBytes() {
+        return store.arena().capacity();
+    }
+
+    private T decode(int slot) {
+        Store current = store;
+        return codec.decode(current.arena().read(current.refs()[slot]));
+    }
+
+    private long write(T element) {
+        Assert.notNull(element, "Element must not be null");
+        long ref = encoder.append(element);
+        liveBytes += store.arena().sizeOf(ref);
+        return ref;
+    }
+
+    // ajoute en fin de liste un enregistrement déjà encodé
+    private int appendRecord(byte[] record, int length) {
+        long ref = store.arena().append(record, length);
+        liveBytes += store.arena().sizeOf(ref);
+        int slot = allocateSlot(ref);
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size * 2);
+        }
+        slots[size++] = slot;
+        modCount++;
+        return slot;
+    }
+
+    private void release(long ref) {
+        int recordSize = store.arena().sizeOf(ref);
+        liveBytes -= recordSize;
+        garbageBytes += recordSize;
+    }
+
+    private int allocateSlot(long ref) {
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        Store current = store;
+        if (slot >= current.refs().length) {
+            current = new Store(current.arena(), Arrays.copyOf(current.refs(), current.refs().length * 2));
+            store = current;
+        }
+        current.refs()[slot] = ref;
+        return slot;
+    }
+
+    private void freeSlot(int slot, T element) {
+        release(store.refs()[slot]);
+        slotByKey.remove(codec.key(element), slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // recopie les enregistrements vivants (sans les décoder) dans une nouvelle zone
+    private void compactIfNeeded() {
+        if (garbageBytes <= Math.max(liveBytes, chunkSize)) {
+            return;
+        }
+        Store current = store;
+        OffHeapArena compacted = new OffHeapArena(chunkSize);
+        long[] refs = new long[current.refs().length];
+        byte[] buffer = new byte[256];
+        for (int i = 0; i < size; i++) {
+            int slot = slots[i];
+            var record = current.arena().read(current.refs()[slot]);
+            int length = record.remaining();
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            record.get(buffer, 0, length);
+            refs[slot] = compacted.append(buffer, length);
+        }
+        store = new Store(compacted, refs);
+        garbageBytes = 0;
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Zone mémoire et références de chaque emplacement, remplacées ensemble lors d'un compactage.
+     */
+    private record Store(OffHeapArena arena, long[] refs) {
+    }
+
+    /**
+     * Version courante d'une liste, partagée par toutes les versions qui en dérivent.
+     */
+    private static final class Lineage<T> {
+        private volatile OffHeapList<T> current;
+    }
+
+    /**
+     * Tampon d'encodage réutilisé d'une écriture à l'autre.
+     */
+    private final class Encoder extends ByteArrayOutputStream {
+
+        private final DataOutputStream out = new DataOutputStream(this);
+
+        private long append(T element) {
+            reset();
+            try {
+                codec.encode(element, out);
+                out.flush();
+            } catch (IOException e) {
+                throw new ErrorSystemException("An error is occurred : " + e.getMessage());
+            }
+            return store.arena().append(buf, count);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.model.AddressNormalizer;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Résolution tolérante aux fautes de frappe des adresses connues (personnes et casernes).
+ * <p>
+ * Une adresse dont la clé canonique ({@link AddressNormalizer}) est connue est résolue directement.
+ * Sinon, un index de trigrammes fournit les adresses partageant le plus de trigrammes avec la saisie,
+ * sans parcourir toutes les adresses : seuls les trigrammes les plus rares sont consultés, et la
+ * distance d'édition n'est calculée que pour les meilleurs candidats. Les nombres de l'adresse (numéro
+ * dans la voie, numéro de la voie) ne sont pas corrigés : seules les adresses portant exactement les mêmes nombres
+ * sont candidates, « 1510 Culver St » n'est donc jamais résolue en « 1509 Culver St ». La confiance d'une résolution
+ * vaut {@code 1 - distance / longueur} ; en dessous de {@link #MIN_CONFIDENCE}, l'adresse n'est pas résolue.
+ * </p>
+ * <p>
+ * L'index est tenu à jour par les {@link DataChangedEvent} : une adresse y reste tant qu'une personne
+ * y habite ou qu'une caserne la couvre. Une adresse retirée n'est pas effacée des listes de trigrammes :
+ * elle y est ignorée jusqu'à la prochaine reconstruction, déclenchée dès que la moitié des adresses est retirée.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AddressResolver {
+
+    /** Confiance minimale d'une résolution approchée. */
+    public static final double MIN_CONFIDENCE = 0.75;
+
+    /** Nombre de candidats dont la distance d'édition est calculée. */
+    private static final int MAX_CANDIDATES = 16;
+    /** Nombre maximal d'identifiants lus dans les listes de trigrammes pour une recherche. */
+    private static final int SCAN_BUDGET = 16384;
+    /** Nombre minimal d'identifiants avant d'envisager un compactage. */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    private final DataStorage dataStorage;
+
+    private final Map<String, Address> byKey = new HashMap<>();
+    private final List<Address> addresses = new ArrayList<>();
+    private final Map<String, Postings> byTrigram = new HashMap<>();
+    private final Map<String, String> addressKeyByPersonId = new HashMap<>();
+    // compteurs de trigrammes communs par identifiant, remis à zéro après chaque recherche
+    private int[] shared = new int[0];
+
+    /**
+     * Adresse résolue.
+     *
+     * @param address l'adresse connue, dans l'écriture des données.
+     * @param confidence la confiance de la résolution, de {@link #MIN_CONFIDENCE} à 1 (correspondance exacte).
+     */
+    public record AddressMatch(String address, double confidence) {
+    }
+
+    /**
+     * Construit l'index à partir des données chargées.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        byKey.clear();
+        addresses.clear();
+        byTrigram.clear();
+        addressKeyByPersonId.clear();
+        dataStorage.getPersons().forEach(this::addPerson);
+        dataStorage.getFireStations().forEach(fs -> refreshStation(fs.getAddressKey(), fs.getAddress()));
+        log.info("Index des adresses construit : {} adresses, {} trigrammes", byKey.size(), byTrigram.size());
+    }
+
+    /**
+     * Applique les modifications publiées par le {@link DataStorage}.
+     * @param event l'événement de modification des données.
+     */
+    @EventListener
+    public synchronized void onDataChanged(DataChangedEvent event) {
+        if (event.reload()) {
+            rebuild();
+            return;
+        }
+        for (EntityChange change : event.changes()) {
+            boolean saved = change.operation() == EntityChange.Operation.SAVE;
+            switch (change.entity()) {
+                case Person person -> {
+                    removePerson(person.getId());
+                    if (saved) {
+                        addPerson(person);
+                    }
+                }
+                case FireStation fireStation -> refreshStation(fireStation.getAddressKey(), fireStation.getAddress());
+                default -> { }
+            }
+        }
+        if (addresses.size() > COMPACTION_THRESHOLD && byKey.size() < addresses.size() / 2) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Résout une adresse saisie vers l'adresse connue la plus proche.
+     *
+     * @param address l'adresse saisie.
+     * @return l'adresse connue et la confiance de la résolution, ou vide si aucune n'est assez proche.
+     */
+    public synchronized Optional<AddressMatch> resolve(String address) {
+        Assert.notNull(address, "Address must not be null");
+        String key = AddressNormalizer.addressKey(address);
+        Address exact = byKey.get(key);
+        if (exact != null) {
+            return Optional.of(new AddressMatch(exact.label, 1.0));
+        }
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Address best = null;
+        double bestConfidence = 0;
+        for (Address candidate : candidates(key, numbers(key))) {
+            int length = Math.max(key.length(), candidate.key.length());
+            double confidence = 1.0 - (double) distance(key, candidate.key) / length;
+            if (confidence > bestConfidence) {
+                best = candidate;
+                bestConfidence = confidence;
+            }
+        }
+        if (best == null || bestConfidence < MIN_CONFIDENCE) {
+            log.debug("Adresse non résolue : {}", address);
+            return Optional.empty();
+        }
+        log.debug("Adresse {} résolue en {} (confiance {})", address, best.label, bestConfidence);
+        return Optional.of(new AddressMatch(best.label, bestConfidence));
+    }
+
+    /**
+     * Sélectionne les adresses partageant le plus de trigrammes avec la clé. Les listes de trigrammes
+     * sont parcourues de la plus rare à la plus fréquente, dans la limite de {@link #SCAN_BUDGET}
+     * identifiants : les trigrammes très répandus (type de voie, nom de ville) ne sont pas lus.
+     */
+    private List<Address> candidates(String key, String numbers) {
+        List<Postings> postings = new ArrayList<>();
+        for (String trigram : trigrams(key)) {
+            Postings ids = byTrigram.get(trigram);
+            if (ids != null) {
+                postings.add(ids);
+            }
+        }
+        postings.sort(Comparator.comparingInt(p -> p.size));
+        if (shared.length < addresses.size()) {
+            shared = new int[Math.max(addresses.size(), shared.length * 2)];
+        }
+
+        Postings touched = new Postings();
+        int scanned = 0;
+        for (Postings ids : postings) {
+            if (scanned > 0 && scanned + ids.size > SCAN_BUDGET) {
+                break;
+            }
+            for (int i = 0; i < ids.size; i++) {
+                if (shared[ids.ids[i]]++ == 0) {
+                    touched.add(ids.ids[i]);
+                }
+            }
+            scanned += ids.size;
+        }
+
+        // meilleurs candidats : mêmes nombres, plus de trigrammes communs, puis longueur la plus proche
+        int[] best = new int[Math.min(MAX_CANDIDATES, touched.size)];
+        int count = 0;
+        for (int i = 0; i < touched.size; i++) {
+            int id = touched.ids[i];
+            Address address = addresses.get(id);
+            if (address.released || !address.numbers.equals(numbers)) {
+                continue;
+            }
+            if (count == best.length && !closer(id, best[count - 1], key)) {
+                continue;
+            }
+            int position = count == best.length ? count - 1 : count++;
+            while (position > 0 && closer(id, best[position - 1], key)) {
+                best[position] = best[position - 1];
+                position--;
+            }
+            best[position] = id;
+        }
+        for (int i = 0; i < touched.size; i++) {
+            shared[touched.ids[i]] = 0;
+        }
+
+        List<Address> candidates = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            candidates.add(addresses.get(best[i]));
+        }
+        return candidates;
+    }
+
+    private boolean closer(int id, int other, String key) {
+        if (shared[id] != shared[other]) {
+            return shared[id] > shared[other];
+        }
+        return Math.abs(addresses.get(id).key.length() - key.length())
+                < Math.abs(addresses.get(other).key.length() - key.length());
+    }
+
+    private void addPerson(Person person) {
+        if (person.getAddressKey() == null) {
+            return;
+        }
+        addressKeyByPersonId.put(person.getId().toLowerCase(Locale.ROOT), person.getAddressKey());
+        acquire(person.getAddressKey(), person.getAddress()).persons++;
+    }
+
+    private void removePerson(String id) {
+        String key = addressKeyByPersonId.remove(id.toLowerCase(Locale.ROOT));
+        Address address = key == null ? null : byKey.get(key);
+        if (address != null) {
+            address.persons--;
+            releaseIfUnused(address);
+        }
+    }
+
+    // une caserne est identifiée par son adresse : on vérifie si une caserne la couvre encore
+    private void refreshStation(String key, String label) {
+        if (key == null) {
+            return;
+        }
+        boolean covered = dataStorage.getFireStations().stream().anyMatch(fs -> key.equals(fs.getAddressKey()));
+        if (covered) {
+            acquire(key, label).covered = true;
+        } else {
+            Address address = byKey.get(key);
+            if (address != null) {
+                address.covered = false;
+                releaseIfUnused(address);
+            }
+        }
+    }
+
+    private Address acquire(String key, String label) {
+        Address address = byKey.get(key);
+        if (address == null) {
+            address = new Address(addresses.size(), key, numbers(key), label);
+            addresses.add(address);
+            byKey.put(key, address);
+            for (String trigram : trigrams(key)) {
+                byTrigram.computeIfAbsent(trigram, t -> new Postings()).add(address.id);
+            }
+        }
+        return address;
+    }
+
+    private void releaseIfUnused(Address address) {
+        if (address.persons > 0 || address.covered) {
+            return;
+        }
+        byKey.remove(address.key);
+        address.released = true;
+    }
+
+    /**
+     * Nombres de la clé (suites de chiffres, sans les suffixes ordinaux comme dans « 15th »), dans l'ordre.
+     */
+    private static String numbers(String key) {
+        StringBuilder numbers = new StringBuilder();
+        boolean inNumber = false;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            boolean digit = Character.isDigit(c);
+            if (digit && !inNumber && !numbers.isEmpty()) {
+                numbers.append(' ');
+            }
+            if (digit) {
+                numbers.append(c);
+            }
+            inNumber = digit;
+        }
+        return numbers.toString();
+    }
+
+    /**
+     * Trigrammes distincts de la clé, complétée de deux espaces en tête et d'un en fin
+     * pour que le début et la fin de l'adresse pèsent autant que le milieu.
+     */
+    private static Set<String> trigrams(String key) {
+        String padded = "  " + key + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Distance de Levenshtein entre deux chaînes, sur deux lignes de la matrice.
+     */
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Adresse connue : identifiant dense, clé canonique et ses nombres, écriture d'origine et références.
+     */
+    private static final class Address {
+        private final int id;
+        private final String key;
+        private final String numbers;
+        private final String label;
+        private int persons;
+        private boolean covered;
+        private boolean released;
+
+        private Address(int id, String key, String numbers, String label) {
+            this.id = id;
+            this.key = key;
+            this.numbers = numbers;
+            this.label = label;
+        }
+    }
+
+    /**
+     * Identifiants d'adresses portant un trigramme, dans un tableau d'entiers.
+     */
+    private static final class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.model.AgeBracket;
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Index maintenant, par adresse et par station, le nombre de résidents dans chaque {@link AgeBracket}.
+ * <p>
+ * Les compteurs sont mis à jour au fil des {@link DataChangedEvent} (personnes, dossiers médicaux,
+ * casernes) et au changement de jour, où seuls les résidents ayant franchi une limite de tranche
+ * sont déplacés. La lecture des compteurs d'une station ne parcourt donc jamais les résidents.
+ * </p>
+ * <p>
+ * Les entités étant modifiées sur place par les services, l'index conserve lui-même l'adresse
+ * et la date de naissance connues de chaque résident pour pouvoir retirer l'ancienne contribution.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AgeHistogramIndex implements BirthdayRolloverListener {
+
+    private static final AgeBracket[] BRACKETS = AgeBracket.values();
+    /** Case des résidents sans dossier médical. */
+    private static final int UNKNOWN = BRACKETS.length;
+    private static final int SLOTS = BRACKETS.length + 1;
+
+    private final DataStorage dataStorage;
+    private final AgeClock ageClock;
+
+    private final Map<String, Resident> residents = new HashMap<>();
+    private final Map<String, Integer> birthDateById = new HashMap<>();
+    private final NavigableMap<Integer, Set<String>> idsByBirthDate = new TreeMap<>();
+    private final Map<String, int[]> countsByAddress = new HashMap<>();
+    private final Map<String, String> addressLabels = new HashMap<>();
+    private final Map<String, Set<Integer>> stationsByAddress = new HashMap<>();
+    private final Map<Integer, Set<String>> addressesByStation = new TreeMap<>();
+    private final Map<Integer, int[]> countsByStation = new TreeMap<>();
+    private int histogramDay;
+
+    /**
+     * Compteurs d'une station et de chacune de ses adresses.
+     *
+     * @param station numéro de la station.
+     * @param counts un compteur par tranche d'âge, suivi du nombre de résidents sans dossier médical.
+     * @param addresses compteurs de chaque adresse couverte, triés par adresse.
+     */
+    public record StationCounts(int station, int[] counts, Map<String, int[]> addresses) {
+    }
+
+    /**
+     * Construit l'index à partir des données chargées.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        residents.clear();
+        birthDateById.clear();
+        idsByBirthDate.clear();
+        countsByAddress.clear();
+        addressLabels.clear();
+        stationsByAddress.clear();
+        addressesByStation.clear();
+        countsByStation.clear();
+        histogramDay = ageClock.today();
+
+        dataStorage.getMedicalRecords().forEach(this::putBirthDate);
+        dataStorage.getFireStations().forEach(fs -> refreshStations(fs.getAddressKey()));
+        dataStorage.getPersons().forEach(this::addResident);
+        log.info("Index des tranches d'âge construit : {} résidents, {} stations", residents.size(), countsByStation.size());
+    }
+
+    /**
+     * Applique les modifications publiées par le {@link DataStorage}.
+     * @param event l'événement de modification des données.
+     */
+    @EventListener
+    public synchronized void onDataChanged(DataChangedEvent event) {
+        if (event.reload()) {
+            rebuild();
+            return;
+        }
+        for (EntityChange change : event.changes()) {
+            boolean saved = change.operation() == EntityChange.Operation.SAVE;
+            switch (change.entity()) {
+                case Person person -> {
+                    removeResident(key(person.getId()));
+                    if (saved) {
+                        addResident(person);
+                    }
+                }
+                case MedicalRecord medicalRecord -> updateBirthDate(medicalRecord, saved);
+                case FireStation fireStation -> refreshStations(fireStation.getAddressKey());
+                default -> { }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onBirthdayRollover(int today) {
+        if (today == histogramDay) {
+            return;
+        }
+        if (today < histogramDay) {
+            rebuild();
+            return;
+        }
+        Set<String> crossed = new HashSet<>();
+        for (int i = 1; i < BRACKETS.length; i++) {
+            int offset = BRACKETS[i].getMinAge() * 10000;
+            idsByBirthDate.subMap(histogramDay - offset, false, today - offset, true)
+                    .values()
+                    .forEach(crossed::addAll);
+        }
+        histogramDay = today;
+        int moved = 0;
+        for (String id : crossed) {
+            Resident resident = residents.get(id);
+            if (resident != null && moveToSlot(resident, slotOf(birthDateById.get(id)))) {
+                moved++;
+            }
+        }
+        log.info("Changement de jour ({}) : {} résident(s) changé(s) de tranche d'âge", today, moved);
+    }
+
+    /**
+     * @return les numéros des stations connues, triés.
+     */
+    public synchronized List<Integer> getStations() {
+        catchUp();
+        return List.copyOf(countsByStation.keySet());
+    }
+
+    /**
+     * Retourne une copie des compteurs d'une station.
+     * @param station numéro de la station.
+     * @return les compteurs, ou vide si aucune adresse n'est rattachée à cette station.
+     */
+    public synchronized Optional<StationCounts> getStationCounts(int station) {
+        catchUp();
+        int[] counts = countsByStation.get(station);
+        if (counts == null) {
+            return Optional.empty();
+        }
+        Map<String, int[]> addresses = new LinkedHashMap<>();
+        new TreeSet<>(addressesByStation.get(station))
+                .forEach(address -> addresses.put(addressLabels.get(address), countsOf(address).clone()));
+        return Optional.of(new StationCounts(station, counts.clone(), addresses));
+    }
+
+    // filet de sécurité si le changement de jour n'a pas encore été traité par le planificateur
+    private void catchUp() {
+        onBirthdayRollover(ageClock.today());
+    }
+
+    private void addResident(Person person) {
+        String id = key(person.getId());
+        String address = canonical(person.getAddressKey());
+        addressLabels.putIfAbsent(address, person.getAddress());
+        Resident resident = new Resident(address, slotOf(birthDateById.get(id)));
+        residents.put(id, resident);
+        add(address, resident.slot, 1);
+    }
+
+    private void removeResident(String id) {
+        Resident resident = residents.remove(id);
+        if (resident != null) {
+            add(resident.address, resident.slot, -1);
+        }
+    }
+
+    private void updateBirthDate(MedicalRecord medicalRecord, boolean saved) {
+        String id = key(medicalRecord.getId());
+        removeBirthDate(id);
+        if (saved) {
+            putBirthDate(medicalRecord);
+        }
+        Resident resident = residents.get(id);
+        if (resident != null) {
+            moveToSlot(resident, slotOf(birthDateById.get(id)));
+        }
+    }
+
+    private void putBirthDate(MedicalRecord medicalRecord) {
+        if (medicalRecord.getBirthDate() == null) {
+            return;
+        }
+        String id = key(medicalRecord.getId());
+        birthDateById.put(id, medicalRecord.getPackedBirthDate());
+        idsByBirthDate.computeIfAbsent(medicalRecord.getPackedBirthDate(), b -> new HashSet<>()).add(id);
+    }
+
+    private void removeBirthDate(String id) {
+        Integer birthDate = birthDateById.remove(id);
+        if (birthDate == null) {
+            return;
+        }
+        Set<String> ids = idsByBirthDate.get(birthDate);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            idsByBirthDate.remove(birthDate);
+        }
+    }
+
+    private boolean moveToSlot(Resident resident, int slot) {
+        if (resident.slot == slot) {
+            return false;
+        }
+        add(resident.address, resident.slot, -1);
+        resident.slot = slot;
+        add(resident.address, slot, 1);
+        return true;
+    }
+
+    // recalcule les stations d'une adresse : une caserne peut être modifiée sur place
+    private void refreshStations(String addressKey) {
+        String key = canonical(addressKey);
+        Set<Integer> stations = new HashSet<>();
+        for (FireStation fs : dataStorage.getFireStations()) {
+            if (key.equals(canonical(fs.getAddressKey())) && fs.getStation() != null) {
+                stations.add(fs.getStation());
+                addressLabels.put(key, fs.getAddress());
+            }
+        }
+        Set<Integer> previous = stationsByAddress.getOrDefault(key, Set.of());
+        int[] counts = countsOf(key);
+        for (Integer station : previous) {
+            if (!stations.contains(station)) {
+                detach(station, key, counts);
+            }
+        }
+        for (Integer station : stations) {
+            if (!previous.contains(station)) {
+                attach(station, key, counts);
+            }
+        }
+        if (stations.isEmpty()) {
+            stationsByAddress.remove(key);
+        } else {
+            stationsByAddress.put(key, stations);
+        }
+    }
+
+    private void attach(int station, String address, int[] counts) {
+        addressesByStation.computeIfAbsent(station, s -> new HashSet<>()).add(address);
+        int[] stationCounts = countsByStation.computeIfAbsent(station, s -> new int[SLOTS]);
+        for (int i = 0; i < SLOTS; i++) {
+            stationCounts[i] += counts[i];
+        }
+    }
+
+    private void detach(int station, String address, int[] counts) {
+        Set<String> addresses = addressesByStation.get(station);
+        addresses.remove(address);
+        if (addresses.isEmpty()) {
+            addressesByStation.remove(station);
+            countsByStation.remove(station);
+            return;
+        }
+        int[] stationCounts = countsByStation.get(station);
+        for (int i = 0; i < SLOTS; i++) {
+            stationCounts[i] -= counts[i];
+        }
+    }
+
+    private void add(String address, int slot, int delta) {
+        countsOf(address)[slot] += delta;
+        for (Integer station : stationsByAddress.getOrDefault(address, Set.of())) {
+            countsByStation.get(station)[slot] += delta;
+        }
+    }
+
+    private int[] countsOf(String address) {
+        return countsByAddress.computeIfAbsent(address, a -> new int[SLOTS]);
+    }
+
+    private int slotOf(Integer birthDate) {
+        if (birthDate == null) {
+            return UNKNOWN;
+        }
+        return AgeBracket.of((histogramDay - birthDate) / 10000).ordinal();
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    // les clés d'adresse sont déjà normalisées à l'écriture des entités
+    private static String canonical(String addressKey) {
+        return addressKey == null ? "" : addressKey;
+    }
+
+    private static final class Resident {
+        private final String address;
+        private int slot;
+
+        private Resident(String address, int slot) {
+            this.address = address;
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index des résidents trié par date de naissance, maintenant la partition mineurs / majeurs.
+ * <p>
+ * La partition est calculée pour un jour donné. Au changement de jour, seuls les résidents nés
+ * dans l'intervalle ayant franchi le seuil de majorité ({@link MedicalRecord#isMajor(AgeClock)}) sont
+ * déplacés : une simple lecture de l'intervalle correspondant dans l'index trié, sans
+ * reconstruction complète. Les modifications de dossiers médicaux sont appliquées au fil de l'eau
+ * à partir des {@link DataChangedEvent}.
+ * </p>
+ * <p>
+ * La partition sert à distinguer enfants et adultes dans {@code /childAlert} et dans le décompte
+ * des personnes couvertes par une station : aucun âge n'y est recalculé.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AgeIndex implements BirthdayRolloverListener {
+
+    /** Âge à partir duquel {@link MedicalRecord#isMajor(AgeClock)} est vrai. */
+    static final int MAJORITY_AGE = 19;
+
+    private static final int MAJORITY_OFFSET = MAJORITY_AGE * 10000;
+
+    private final DataStorage dataStorage;
+    private final AgeClock ageClock;
+
+    private final NavigableMap<Integer, Set<String>> idsByBirthDate = new TreeMap<>();
+    // les dossiers étant modifiés sur place, l'ancienne date de naissance est conservée ici
+    private final Map<String, Integer> birthDateById = new HashMap<>();
+    private final Set<String> minors = new HashSet<>();
+    private int partitionDay;
+
+    /**
+     * Construit l'index à partir des dossiers médicaux chargés.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        idsByBirthDate.clear();
+        birthDateById.clear();
+        minors.clear();
+        partitionDay = ageClock.today();
+        dataStorage.getMedicalRecords().forEach(this::add);
+        log.info("Index des âges construit : {} mineurs, {} majeurs", minors.size(), birthDateById.size() - minors.size());
+    }
+
+    /**
+     * Applique les modifications de dossiers médicaux, ou reconstruit l'index après un rechargement.
+     * @param event l'événement publié par le {@link DataStorage}.
+     */
+    @EventListener
+    public synchronized void onDataChanged(DataChangedEvent event) {
+        if (event.reload()) {
+            rebuild();
+            return;
+        }
+        for (EntityChange change : event.changes()) {
+            if (change.entity() instanceof MedicalRecord medicalRecord) {
+                remove(key(medicalRecord.getId()));
+                if (change.operation() == EntityChange.Operation.SAVE) {
+                    add(medicalRecord);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void onBirthdayRollover(int today) {
+        if (today == partitionDay) {
+            return;
+        }
+        if (today < partitionDay) {
+            // retour en arrière de l'horloge : la partition est entièrement recalculée
+            partitionDay = today;
+            minors.clear();
+            birthDateById.forEach((id, birthDate) -> {
+                if (isMinorOn(birthDate, today)) {
+                    minors.add(id);
+                }
+            });
+            return;
+        }
+        List<String> crossed = new ArrayList<>();
+        idsByBirthDate.subMap(partitionDay - MAJORITY_OFFSET, false, today - MAJORITY_OFFSET, true)
+                .values()
+                .forEach(crossed::addAll);
+        crossed.forEach(minors::remove);
+        partitionDay = today;
+        log.info("Changement de jour ({}) : {} résident(s) devenu(s) majeur(s)", today, crossed.size());
+    }
+
+    /**
+     * Indique si une personne est mineure.
+     * @param firstName prénom.
+     * @param lastName nom.
+     * @return {@code true} si la personne a un dossier médical et est mineure.
+     */
+    public synchronized boolean isMinor(String firstName, String lastName) {
+        Assert.notNull(firstName, "First name must not be null");
+        Assert.notNull(lastName, "Last name must not be null");
+        catchUp();
+        return minors.contains(key(firstName + " " + lastName));
+    }
+
+    /**
+     * Compte les mineurs d'un groupe de personnes, sans recalculer leur âge.
+     * @param persons les personnes à classer.
+     * @return le nombre de personnes ayant un dossier médical et mineures.
+     */
+    public synchronized int countMinors(List<Person> persons) {
+        Assert.notNull(persons, "Persons must not be null");
+        catchUp();
+        int count = 0;
+        for (Person person : persons) {
+            if (minors.contains(key(person.getId()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return le nombre de résidents mineurs.
+     */
+    public synchronized int getMinorCount() {
+        catchUp();
+        return minors.size();
+    }
+
+    /**
+     * @return le nombre de résidents majeurs.
+     */
+    public synchronized int getAdultCount() {
+        catchUp();
+        return birthDateById.size() - minors.size();
+    }
+
+    // filet de sécurité si le changement de jour n'a pas encore été traité par le planificateur
+    private void catchUp() {
+        onBirthdayRollover(ageClock.today());
+    }
+
+    private void add(MedicalRecord medicalRecord) {
+        if (medicalRecord.getBirthDate() == null) {
+            return;
+        }
+        String id = key(medicalRecord.getId());
+        int birthDate = medicalRecord.getPackedBirthDate();
+        birthDateById.put(id, birthDate);
+        idsByBirthDate.computeIfAbsent(birthDate, b -> new HashSet<>()).add(id);
+        if (isMinorOn(birthDate, partitionDay)) {
+            minors.add(id);
+        }
+    }
+
+    private void remove(String id) {
+        Integer birthDate = birthDateById.remove(id);
+        if (birthDate == null) {
+            return;
+        }
+        Set<String> ids = idsByBirthDate.get(birthDate);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            idsByBirthDate.remove(birthDate);
+        }
+        minors.remove(id);
+    }
+
+    private static boolean isMinorOn(int birthDate, int day) {
+        return day - birthDate < MAJORITY_OFFSET;
+    }
+
+    private static String key(String id) {
+        return id.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+/**
+ * Composant dont l'état dépend de l'âge des résidents et doit être mis à jour au changement de jour.
+ * <p>
+ * Chaque implémentation conserve le jour pour lequel son état est valide et ne met à jour
+ * que les résidents ayant franchi un seuil d'âge depuis ce jour.
+ * </p>
+ */
+public interface BirthdayRolloverListener {
+
+    /**
+     * Met à jour l'état pour un nouveau jour.
+     * @param today la date du jour au format {@code aaaammjj}.
+     */
+    void onBirthdayRollover(int today);
+}
@@ -0,0 +1,92 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import java.util.Arrays;
+
+/**
+ * Ensemble de {@code long} à adressage ouvert, sans objet enveloppe par élément.
+ * <p>
+ * Sert à dédoublonner des valeurs encodées (numéros de téléphone de {@link com.safetynet.AppSafetyNet.model.PackedText},
+ * empreintes des clés d'un import de fichier) sans allouer de {@link Long} ni de chaîne. La valeur {@code -1} marque une case vide et ne peut donc
+ * pas être ajoutée.
+ * </p>
+ */
+public final class LongHashSet {
+
+    private static final long EMPTY = -1L;
+
+    private long[] table;
+    private int size;
+
+    /**
+     * @param expectedSize nombre d'éléments attendus.
+     */
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+    }
+
+    /**
+     * @param value valeur à ajouter, différente de {@code -1}.
+     * @return {@code true} si la valeur n'était pas déjà présente.
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Value -1 cannot be stored");
+        }
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        if (++size * 2 > table.length) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * @param value valeur recherchée.
+     * @return {@code true} si la valeur est présente.
+     */
+    public boolean contains(long value) {
+        int mask = table.length - 1;
+        int slot = hash(value) & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] previous = table;
+        table = new long[previous.length * 2];
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        for (long value : previous) {
+            if (value != EMPTY) {
+                int slot = hash(value) & mask;
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    private static int hash(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
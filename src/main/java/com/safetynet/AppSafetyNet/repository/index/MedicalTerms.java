@@ -0,0 +1,30 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import java.util.Locale;
+
+/**
+ * Normalisation des termes médicaux (médicaments, allergies) utilisés dans les recherches.
+ * <p>
+ * Un médicament est enregistré avec sa posologie ({@code "hydrapermazol:100mg"}) : seul le nom est
+ * conservé, en minuscules et sans espaces superflus, pour que {@code "Hydrapermazol"} le retrouve.
+ * </p>
+ */
+public final class MedicalTerms {
+
+    private MedicalTerms() {
+    }
+
+    /**
+     * Normalise un médicament ou une allergie.
+     * @param value valeur brute (peut être null).
+     * @return le terme normalisé, ou une chaîne vide si la valeur est null.
+     */
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        int dosage = value.indexOf(':');
+        String name = dosage >= 0 ? value.substring(0, dosage) : value;
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
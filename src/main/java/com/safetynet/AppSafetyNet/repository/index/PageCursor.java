@@ -0,0 +1,75 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.exception.ConflictException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Curseur de pagination sur un index : position dans l'ordre de l'index et version des données
+ * à laquelle cette position a été calculée.
+ * <p>
+ * Le curseur est transmis au client sous forme opaque (Base64 URL). Les numéros d'ordre de l'index
+ * ne sont stables qu'entre deux écritures : un curseur émis avant une modification des données est
+ * refusé ({@link ConflictException}) plutôt que de sauter ou répéter des éléments. La version repartant
+ * de 1 à chaque démarrage, le curseur porte aussi l'identifiant de l'exécution qui l'a émis : un curseur
+ * émis avant un redémarrage est refusé de la même façon.
+ * </p>
+ *
+ * @param epoch identifiant de l'exécution à l'émission du curseur.
+ * @param version version des données à l'émission du curseur.
+ * @param position premier numéro d'ordre de la page suivante.
+ */
+public record PageCursor(String epoch, long version, int position) {
+
+    /** Taille de page appliquée lorsque le client n'en précise pas. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    /** Taille de page maximale acceptée. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * @return la forme opaque du curseur, transmise au client.
+     */
+    public String encode() {
+        String raw = epoch + ":" + version + ":" + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu d'un client.
+     *
+     * @param cursor la forme opaque du curseur.
+     * @return le curseur décodé.
+     * @throws IllegalArgumentException si le curseur est mal formé.
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            PageCursor decoded = new PageCursor(parts[0], Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+            if (decoded.position < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return decoded;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Vérifie que le curseur a été émis sur la version courante des données, par cette exécution.
+     *
+     * @param currentEpoch identifiant de l'exécution en cours.
+     * @param currentVersion version courante des données.
+     * @throws ConflictException si les données ont changé, ou l'application a redémarré, depuis l'émission du curseur.
+     */
+    void checkVersion(String currentEpoch, long currentVersion) {
+        if (!Objects.equals(epoch, currentEpoch) || version != currentVersion) {
+            throw new ConflictException("Cursor expired: data changed since the first page, restart without cursor");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import org.springframework.util.Assert;
+
+/**
+ * Critères d'une recherche multi-critères de résidents. Chaque critère est optionnel ({@code null}),
+ * les critères renseignés sont combinés par un ET logique.
+ * <p>
+ * Les comparaisons de texte ignorent la casse ; {@code medication} et {@code allergy} portent
+ * sur le nom du médicament ou de l'allergie, sans la posologie.
+ * </p>
+ *
+ * @param station numéro de la station couvrant l'adresse du résident.
+ * @param address adresse du résident.
+ * @param city ville.
+ * @param zip code postal.
+ * @param lastName nom de famille.
+ * @param minAge âge minimum (inclus).
+ * @param maxAge âge maximum (inclus).
+ * @param medication médicament pris par le résident.
+ * @param allergy allergie du résident.
+ */
+public record ResidentQuery(
+        Integer station,
+        String address,
+        String city,
+        String zip,
+        String lastName,
+        Integer minAge,
+        Integer maxAge,
+        String medication,
+        String allergy
+) {
+
+    public ResidentQuery {
+        Assert.isTrue(minAge == null || minAge >= 0, "minAge must not be negative");
+        Assert.isTrue(maxAge == null || maxAge >= 0, "maxAge must not be negative");
+        Assert.isTrue(minAge == null || maxAge == null || minAge <= maxAge, "minAge must not be greater than maxAge");
+    }
+
+    /**
+     * @return {@code true} si au moins un critère est renseigné.
+     */
+    public boolean hasCriteria() {
+        return station != null || address != null || city != null || zip != null || lastName != null
+                || minAge != null || maxAge != null || medication != null || allergy != null;
+    }
+}
@@ -0,0 +1,633 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.model.AddressNormalizer;
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.PackedText;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import com.safetynet.AppSafetyNet.repository.data.offheap.OffHeapList;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Index de recherche multi-critères des résidents.
+ * <p>
+ * Chaque personne reçoit un numéro d'ordre dense ; chaque valeur indexée (adresse, ville, code postal,
+ * nom, date de naissance) pointe vers l'ensemble des numéros correspondants sous forme de {@link BitSet}.
+ * Les médicaments et allergies forment un index inversé : chaque terme normalisé par {@link MedicalTerms}
+ * pointe vers les résidents concernés, sans relire les dossiers médicaux.
+ * Une recherche commence par l'ensemble le plus sélectif puis le croise avec les autres critères :
+ * par intersection de bitsets tant que les candidats sont nombreux, puis candidat par candidat
+ * lorsqu'il en reste peu.
+ * </p>
+ * <p>
+ * Les résidents couverts par chaque station sont aussi maintenus sous forme de bitset : une requête
+ * sur plusieurs stations (flood, phoneAlert) se réduit à une union de bitsets suivie d'un parcours
+ * ordonné. Les numéros d'ordre sont attribués en fin de liste, comme la sauvegarde d'une personne
+ * dans le {@link DataStorage}, pour que ce parcours suive l'ordre des données ; l'index est compacté
+ * quand les numéros libérés deviennent majoritaires.
+ * </p>
+ * <p>
+ * L'index est tenu à jour par les {@link DataChangedEvent} ; il conserve les valeurs indexées de
+ * chaque résident pour pouvoir les retirer après une modification sur place de l'entité. Les personnes
+ * et dossiers médicaux eux-mêmes ne sont conservés que sous forme d'accès ({@link OffHeapList#refTo}) :
+ * avec le stockage hors tas, seuls les résultats d'une recherche sont décodés.
+ * </p>
+ * <p>
+ * Les listes potentiellement longues (résidents d'une ville, d'un nom, d'une station) sont aussi servies
+ * par pages : un {@link PageCursor} mémorise le numéro d'ordre où reprendre et la version des données,
+ * et chaque page est lue directement dans le bitset, sans construire la liste complète.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResidentSearchIndex {
+
+    /** Nombre minimal de numéros d'ordre avant d'envisager un compactage. */
+    private static final int COMPACTION_THRESHOLD = 1024;
+
+    private final DataStorage dataStorage;
+    private final AgeClock ageClock;
+
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private final List<Resident> residents = new ArrayList<>();
+    private final BitSet live = new BitSet();
+
+    private final Map<String, BitSet> byAddress = new HashMap<>();
+    private final Map<String, BitSet> byCity = new HashMap<>();
+    private final Map<String, BitSet> byZip = new HashMap<>();
+    private final Map<String, BitSet> byLastName = new HashMap<>();
+    private final Map<String, BitSet> byEmail = new HashMap<>();
+    private final NavigableMap<Integer, BitSet> byBirthDate = new TreeMap<>();
+    private final Map<String, BitSet> byMedication = new HashMap<>();
+    private final Map<String, BitSet> byAllergy = new HashMap<>();
+
+    private final Map<String, Supplier<MedicalRecord>> recordsById = new HashMap<>();
+    private final Map<String, Set<Integer>> stationsByAddress = new HashMap<>();
+    private final Map<Integer, Set<String>> addressesByStation = new HashMap<>();
+    private final Map<Integer, BitSet> byStation = new HashMap<>();
+    // version des données reflétée par l'index, pour valider les curseurs de pagination
+    private long version;
+
+    /**
+     * Résident trouvé par une recherche.
+     *
+     * @param person la personne.
+     * @param medicalRecord son dossier médical, ou {@code null} s'il n'existe pas.
+     * @param stations les stations couvrant son adresse.
+     */
+    public record ResidentMatch(Person person, MedicalRecord medicalRecord, List<Integer> stations) {
+    }
+
+    /**
+     * Page de résidents.
+     *
+     * @param matches les résidents de la page, dans l'ordre de l'index.
+     * @param next le curseur de la page suivante, ou {@code null} si c'est la dernière.
+     */
+    public record ResidentPage(List<ResidentMatch> matches, PageCursor next) {
+    }
+
+    /**
+     * Construit l'index à partir des données chargées.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        ordinalById.clear();
+        residents.clear();
+        live.clear();
+        byAddress.clear();
+        byCity.clear();
+        byZip.clear();
+        byLastName.clear();
+        byEmail.clear();
+        byBirthDate.clear();
+        byMedication.clear();
+        byAllergy.clear();
+        recordsById.clear();
+        stationsByAddress.clear();
+        addressesByStation.clear();
+        byStation.clear();
+
+        List<MedicalRecord> medicalRecords = dataStorage.getMedicalRecords();
+        medicalRecords.forEach(mr -> recordsById.put(key(mr.getId()), OffHeapList.refTo(medicalRecords, mr)));
+        dataStorage.getFireStations().forEach(fs -> refreshStations(fs.getAddressKey()));
+        dataStorage.getPersons().forEach(this::addResident);
+        version = dataStorage.getVersion();
+        log.info("Index de recherche des résidents construit : {} résidents", live.cardinality());
+    }
+
+    /**
+     * Applique les modifications publiées par le {@link DataStorage}.
+     * @param event l'événement de modification des données.
+     */
+    @EventListener
+    public synchronized void onDataChanged(DataChangedEvent event) {
+        if (event.reload()) {
+            rebuild();
+            return;
+        }
+        version = event.version();
+        for (EntityChange change : event.changes()) {
+            boolean saved = change.operation() == EntityChange.Operation.SAVE;
+            switch (change.entity()) {
+                case Person person -> {
+                    removeResident(key(person.getId()));
+                    if (saved) {
+                        addResident(person);
+                    }
+                }
+                case MedicalRecord medicalRecord -> updateMedicalRecord(medicalRecord, saved);
+                case FireStation fireStation -> refreshStations(fireStation.getAddressKey());
+                default -> { }
+            }
+        }
+        if (residents.size() > COMPACTION_THRESHOLD && live.cardinality() < residents.size() / 2) {
+            log.debug("Compactage de l'index de recherche : {} résidents pour {} numéros d'ordre", live.cardinality(), residents.size());
+            rebuild();
+        }
+    }
+
+    /**
+     * Retourne les résidents couverts par au moins une des stations.
+     *
+     * @param stations les numéros de stations.
+     * @return les résidents trouvés, sans doublon, dans l'ordre des données.
+     */
+    public synchronized List<ResidentMatch> findByStations(Collection<Integer> stations) {
+        BitSet union = stationUnion(stations);
+        List<ResidentMatch> matches = new ArrayList<>(union.cardinality());
+        for (int ordinal = union.nextSetBit(0); ordinal >= 0; ordinal = union.nextSetBit(ordinal + 1)) {
+            matches.add(match(ordinal));
+        }
+        return matches;
+    }
+
+    /**
+     * Retourne les résidents habitant à une adresse, comparée sur sa clé canonique.
+     *
+     * @param address l'adresse.
+     * @return les résidents trouvés, dans l'ordre des données.
+     */
+    public synchronized List<ResidentMatch> findByAddress(String address) {
+        Assert.notNull(address, "Address must not be null");
+        BitSet ordinals = byAddress.getOrDefault(canonical(AddressNormalizer.addressKey(address)), new BitSet());
+        List<ResidentMatch> matches = new ArrayList<>(ordinals.cardinality());
+        for (int ordinal = ordinals.nextSetBit(0); ordinal >= 0; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+            matches.add(match(ordinal));
+        }
+        return matches;
+    }
+
+    /**
+     * Retourne les numéros de téléphone distincts des résidents couverts par au moins une des stations.
+     * <p>
+     * Les numéros encodés ({@link PackedText}) sont dédoublonnés sur leur valeur {@code long} ; seul
+     * chaque numéro retenu est reconverti en chaîne.
+     * </p>
+     *
+     * @param stations les numéros de stations.
+     * @return les numéros trouvés, dans l'ordre de leur première occurrence dans les données.
+     */
+    public synchronized List<String> findPhonesByStations(Collection<Integer> stations) {
+        BitSet union = stationUnion(stations);
+        LongHashSet packedPhones = new LongHashSet(union.cardinality());
+        Set<String> otherPhones = new HashSet<>();
+        List<String> phones = new ArrayList<>();
+        for (int ordinal = union.nextSetBit(0); ordinal >= 0; ordinal = union.nextSetBit(ordinal + 1)) {
+            Person person = residents.get(ordinal).person.get();
+            long packedPhone = person.getPackedPhone();
+            boolean first = packedPhone != PackedText.NOT_PACKED
+                    ? packedPhones.add(packedPhone)
+                    : otherPhones.add(person.getPhone());
+            if (first) {
+                phones.add(person.getPhone());
+            }
+        }
+        return phones;
+    }
+
+    /**
+     * Retourne une page des résidents couverts par une station.
+     *
+     * @param station le numéro de station.
+     * @param cursor le curseur de la page demandée, ou {@code null} pour la première page.
+     * @param limit le nombre maximal de résidents de la page.
+     * @return la page demandée.
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si les données ont changé depuis l'émission du curseur.
+     */
+    public synchronized ResidentPage pageByStation(int station, PageCursor cursor, int limit) {
+        return page(byStation.getOrDefault(station, new BitSet()), cursor, limit, ordinal -> true);
+    }
+
+    /**
+     * Retourne une page des résidents portant un nom de famille (insensible à la casse).
+     *
+     * @param lastName le nom de famille.
+     * @param cursor le curseur de la page demandée, ou {@code null} pour la première page.
+     * @param limit le nombre maximal de résidents de la page.
+     * @return la page demandée.
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si les données ont changé depuis l'émission du curseur.
+     */
+    public synchronized ResidentPage pageByLastName(String lastName, PageCursor cursor, int limit) {
+        Assert.notNull(lastName, "Last name must not be null");
+        return page(postings(byLastName, lastName), cursor, limit, ordinal -> true);
+    }
+
+    /**
+     * Retourne une page des résidents d'une ville, en ne gardant que le premier résident de chaque email :
+     * la suite des pages forme la liste des emails distincts de la ville.
+     * <p>
+     * Un email est retenu s'il n'apparaît chez aucun résident de la ville de numéro d'ordre inférieur ;
+     * la vérification remonte l'ensemble des porteurs de cet email, sans mémoriser les emails déjà vus.
+     * </p>
+     *
+     * @param city la ville, comparée sur sa clé canonique.
+     * @param cursor le curseur de la page demandée, ou {@code null} pour la première page.
+     * @param limit le nombre maximal de résidents de la page.
+     * @return la page demandée.
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si les données ont changé depuis l'émission du curseur.
+     */
+    public synchronized ResidentPage pageDistinctEmailsByCity(String city, PageCursor cursor, int limit) {
+        Assert.notNull(city, "City must not be null");
+        BitSet inCity = byCity.getOrDefault(canonical(AddressNormalizer.cityKey(city)), new BitSet());
+        return page(inCity, cursor, limit, ordinal -> {
+            BitSet sameEmail = byEmail.get(residents.get(ordinal).email);
+            for (int previous = sameEmail.previousSetBit(ordinal - 1); previous >= 0; previous = sameEmail.previousSetBit(previous - 1)) {
+                if (inCity.get(previous)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    private ResidentPage page(BitSet ordinals, PageCursor cursor, int limit, IntPredicate include) {
+        Assert.isTrue(limit > 0 && limit <= PageCursor.MAX_PAGE_SIZE, "Limit must be between 1 and " + PageCursor.MAX_PAGE_SIZE);
+        int start = 0;
+        if (cursor != null) {
+            cursor.checkVersion(dataStorage.getEpoch(), version);
+            start = cursor.position();
+        }
+        List<ResidentMatch> matches = new ArrayList<>(Math.min(limit, ordinals.cardinality()));
+        int ordinal = ordinals.nextSetBit(start);
+        for (; ordinal >= 0 && matches.size() < limit; ordinal = ordinals.nextSetBit(ordinal + 1)) {
+            if (include.test(ordinal)) {
+                matches.add(match(ordinal));
+            }
+        }
+        // la page suivante n'existe que s'il reste un élément à retenir après la position courante
+        while (ordinal >= 0 && !include.test(ordinal)) {
+            ordinal = ordinals.nextSetBit(ordinal + 1);
+        }
+        return new ResidentPage(matches, ordinal < 0 ? null : new PageCursor(dataStorage.getEpoch(), version, ordinal));
+    }
+
+    private BitSet stationUnion(Collection<Integer> stations) {
+        Assert.notNull(stations, "Stations must not be null");
+        BitSet union = new BitSet();
+        for (Integer station : stations) {
+            BitSet ordinals = byStation.get(station);
+            if (ordinals != null) {
+                union.or(ordinals);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Recherche les résidents correspondant à tous les critères renseignés.
+     *
+     * @param query les critères de recherche.
+     * @return les résidents trouvés, dans l'ordre de chargement des données.
+     */
+    public synchronized List<ResidentMatch> search(ResidentQuery query) {
+        Assert.notNull(query, "Query must not be null");
+
+        List<Criterion> criteria = plan(query);
+        BitSet candidates = null;
+        List<IntPredicate> checks = new ArrayList<>();
+        for (Criterion criterion : criteria) {
+            if (candidates == null) {
+                candidates = (BitSet) criterion.postings().get().clone();
+            } else if (candidates.cardinality() < residents.size() / Long.SIZE) {
+                // peu de candidats : les vérifier un par un coûte moins qu'une intersection complète
+                checks.add(criterion.check());
+            } else {
+                candidates.and(criterion.postings().get());
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        if (candidates == null) {
+            candidates = (BitSet) live.clone();
+        }
+
+        List<ResidentMatch> matches = new ArrayList<>();
+        for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+            if (!passes(checks, ordinal)) {
+                continue;
+            }
+            matches.add(match(ordinal));
+        }
+        log.debug("Recherche {} : plan {}, {} résultat(s)", query, criteria.stream().map(Criterion::name).toList(), matches.size());
+        return matches;
+    }
+
+    private ResidentMatch match(int ordinal) {
+        Resident resident = residents.get(ordinal);
+        List<Integer> stations = stationsByAddress.getOrDefault(resident.address, Set.of()).stream().sorted().toList();
+        Supplier<MedicalRecord> medicalRecord = recordsById.get(resident.id);
+        return new ResidentMatch(resident.person.get(), medicalRecord == null ? null : medicalRecord.get(), stations);
+    }
+
+    /**
+     * Construit la liste des critères indexés, du plus sélectif au moins sélectif.
+     */
+    private List<Criterion> plan(ResidentQuery query) {
+        List<Criterion> criteria = new ArrayList<>();
+        if (query.station() != null) {
+            criteria.add(Criterion.of("station", byStation.getOrDefault(query.station(), new BitSet())));
+        }
+        if (query.address() != null) {
+            criteria.add(Criterion.of("address", byAddress.getOrDefault(canonical(AddressNormalizer.addressKey(query.address())), new BitSet())));
+        }
+        if (query.city() != null) {
+            criteria.add(Criterion.of("city", byCity.getOrDefault(canonical(AddressNormalizer.cityKey(query.city())), new BitSet())));
+        }
+        if (query.zip() != null) {
+            criteria.add(Criterion.of("zip", postings(byZip, query.zip())));
+        }
+        if (query.lastName() != null) {
+            criteria.add(Criterion.of("lastName", postings(byLastName, query.lastName())));
+        }
+        if (query.medication() != null) {
+            criteria.add(Criterion.of("medication", postings(byMedication, MedicalTerms.normalize(query.medication()))));
+        }
+        if (query.allergy() != null) {
+            criteria.add(Criterion.of("allergy", postings(byAllergy, MedicalTerms.normalize(query.allergy()))));
+        }
+        if (query.minAge() != null || query.maxAge() != null) {
+            criteria.add(ageCriterion(query.minAge(), query.maxAge()));
+        }
+        criteria.sort(Comparator.comparingInt(Criterion::estimate));
+        return criteria;
+    }
+
+    private Criterion ageCriterion(Integer minAge, Integer maxAge) {
+        int today = ageClock.today();
+        // âge >= min  <=>  naissance <= aujourd'hui - min ans ; âge <= max  <=>  naissance > aujourd'hui - (max + 1) ans
+        int latestBirthDate = minAge == null ? Integer.MAX_VALUE : today - minAge * 10000;
+        int earliestBirthDate = maxAge == null ? Integer.MIN_VALUE : today - (maxAge + 1) * 10000;
+        NavigableMap<Integer, BitSet> range = byBirthDate.subMap(earliestBirthDate, false, latestBirthDate, true);
+
+        int estimate = 0;
+        for (BitSet ordinals : range.values()) {
+            estimate += ordinals.cardinality();
+        }
+        Supplier<BitSet> postings = () -> {
+            BitSet union = new BitSet();
+            range.values().forEach(union::or);
+            return union;
+        };
+        IntPredicate check = ordinal -> {
+            Integer birthDate = residents.get(ordinal).birthDate;
+            return birthDate != null && birthDate > earliestBirthDate && birthDate <= latestBirthDate;
+        };
+        return new Criterion("age", estimate, postings, check);
+    }
+
+    private static BitSet postings(Map<String, BitSet> index, String value) {
+        return index.getOrDefault(key(value), new BitSet());
+    }
+
+    private static boolean passes(List<IntPredicate> checks, int ordinal) {
+        for (IntPredicate check : checks) {
+            if (!check.test(ordinal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addResident(Person person) {
+        String id = key(person.getId());
+        int ordinal = residents.size();
+        Supplier<MedicalRecord> medicalRecord = recordsById.get(id);
+        Resident resident = new Resident(id, OffHeapList.refTo(dataStorage.getPersons(), person), canonical(person.getAddressKey()), canonical(person.getCityKey()),
+                key(person.getZip()), key(person.getLastName()), canonical(person.getEmail()));
+        residents.add(resident);
+        ordinalById.put(id, ordinal);
+        live.set(ordinal);
+        post(byAddress, resident.address, ordinal);
+        post(byCity, resident.city, ordinal);
+        post(byZip, resident.zip, ordinal);
+        post(byLastName, resident.lastName, ordinal);
+        post(byEmail, resident.email, ordinal);
+        for (Integer station : stationsByAddress.getOrDefault(resident.address, Set.of())) {
+            post(byStation, station, ordinal);
+        }
+        postMedicalRecord(resident, medicalRecord == null ? null : medicalRecord.get(), ordinal);
+    }
+
+    private void removeResident(String id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        Resident resident = residents.set(ordinal, null);
+        live.clear(ordinal);
+        unpost(byAddress, resident.address, ordinal);
+        unpost(byCity, resident.city, ordinal);
+        unpost(byZip, resident.zip, ordinal);
+        unpost(byLastName, resident.lastName, ordinal);
+        unpost(byEmail, resident.email, ordinal);
+        for (Integer station : stationsByAddress.getOrDefault(resident.address, Set.of())) {
+            unpost(byStation, station, ordinal);
+        }
+        unpostMedicalRecord(resident, ordinal);
+    }
+
+    private void updateMedicalRecord(MedicalRecord medicalRecord, boolean saved) {
+        String id = key(medicalRecord.getId());
+        if (saved) {
+            recordsById.put(id, OffHeapList.refTo(dataStorage.getMedicalRecords(), medicalRecord));
+        } else {
+            recordsById.remove(id);
+        }
+        Integer ordinal = ordinalById.get(id);
+        if (ordinal == null) {
+            return;
+        }
+        Resident resident = residents.get(ordinal);
+        unpostMedicalRecord(resident, ordinal);
+        postMedicalRecord(resident, saved ? medicalRecord : null, ordinal);
+    }
+
+    // les termes indexés sont mémorisés : le dossier a pu être modifié sur place depuis
+    private void postMedicalRecord(Resident resident, MedicalRecord medicalRecord, int ordinal) {
+        if (medicalRecord == null) {
+            return;
+        }
+        resident.birthDate = medicalRecord.getBirthDate() != null ? medicalRecord.getPackedBirthDate() : null;
+        resident.medications = terms(medicalRecord.getMedications());
+        resident.allergies = terms(medicalRecord.getAllergies());
+        if (resident.birthDate != null) {
+            post(byBirthDate, resident.birthDate, ordinal);
+        }
+        resident.medications.forEach(term -> post(byMedication, term, ordinal));
+        resident.allergies.forEach(term -> post(byAllergy, term, ordinal));
+    }
+
+    private void unpostMedicalRecord(Resident resident, int ordinal) {
+        if (resident.birthDate != null) {
+            unpost(byBirthDate, resident.birthDate, ordinal);
+        }
+        resident.medications.forEach(term -> unpost(byMedication, term, ordinal));
+        resident.allergies.forEach(term -> unpost(byAllergy, term, ordinal));
+        resident.birthDate = null;
+        resident.medications = Set.of();
+        resident.allergies = Set.of();
+    }
+
+    private static Set<String> terms(List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> terms = new HashSet<>();
+        for (String value : values) {
+            String term = MedicalTerms.normalize(value);
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    // recalcule les stations d'une adresse : une caserne peut être modifiée sur place
+    private void refreshStations(String addressKey) {
+        String key = canonical(addressKey);
+        Set<Integer> stations = new HashSet<>();
+        for (FireStation fs : dataStorage.getFireStations()) {
+            if (key.equals(canonical(fs.getAddressKey())) && fs.getStation() != null) {
+                stations.add(fs.getStation());
+            }
+        }
+        Set<Integer> previous = stationsByAddress.getOrDefault(key, Set.of());
+        BitSet ordinals = byAddress.getOrDefault(key, new BitSet());
+        for (Integer station : previous) {
+            if (!stations.contains(station)) {
+                detach(station, key, ordinals);
+            }
+        }
+        for (Integer station : stations) {
+            if (!previous.contains(station)) {
+                addressesByStation.computeIfAbsent(station, s -> new HashSet<>()).add(key);
+                byStation.computeIfAbsent(station, s -> new BitSet()).or(ordinals);
+            }
+        }
+        if (stations.isEmpty()) {
+            stationsByAddress.remove(key);
+        } else {
+            stationsByAddress.put(key, stations);
+        }
+    }
+
+    private void detach(int station, String address, BitSet ordinals) {
+        Set<String> addresses = addressesByStation.get(station);
+        addresses.remove(address);
+        if (addresses.isEmpty()) {
+            addressesByStation.remove(station);
+            byStation.remove(station);
+            return;
+        }
+        BitSet covered = byStation.get(station);
+        if (covered != null) {
+            covered.andNot(ordinals);
+        }
+    }
+
+    private static <K> void post(Map<K, BitSet> index, K value, int ordinal) {
+        index.computeIfAbsent(value, v -> new BitSet()).set(ordinal);
+    }
+
+    private static <K> void unpost(Map<K, BitSet> index, K value, int ordinal) {
+        BitSet ordinals = index.get(value);
+        if (ordinals == null) {
+            return;
+        }
+        ordinals.clear(ordinal);
+        if (ordinals.isEmpty()) {
+            index.remove(value);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // les clés d'adresse et de ville sont déjà normalisées à l'écriture des entités ; l'email est comparé tel quel
+    private static String canonical(String key) {
+        return key == null ? "" : key;
+    }
+
+    /**
+     * Critère indexé : peut être évalué soit par ensemble (intersection de bitsets),
+     * soit candidat par candidat.
+     */
+    private record Criterion(String name, int estimate, Supplier<BitSet> postings, IntPredicate check) {
+
+        static Criterion of(String name, BitSet ordinals) {
+            return new Criterion(name, ordinals.cardinality(), () -> ordinals, ordinals::get);
+        }
+    }
+
+    private static final class Resident {
+        private final String id;
+        // accès à la personne : hors tas, elle est relue à chaque recherche au lieu d'être gardée décodée
+        private final Supplier<Person> person;
+        private final String address;
+        private final String city;
+        private final String zip;
+        private final String lastName;
+        private final String email;
+        private Integer birthDate;
+        private Set<String> medications = Set.of();
+        private Set<String> allergies = Set.of();
+
+        private Resident(String id, Supplier<Person> person, String address, String city, String zip, String lastName, String email) {
+            this.id = id;
+            this.person = person;
+            this.address = address;
+            this.city = city;
+            this.zip = zip;
+            this.lastName = lastName;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.safetynet.AppSafetyNet.scheduler;
+
+import com.safetynet.AppSafetyNet.cache.ResponseCache;
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.repository.index.BirthdayRolloverListener;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Planificateur exécuté à chaque changement de jour.
+ * <p>
+ * Relit la date du jour de l'{@link AgeClock}, prévient tous les composants dépendant de l'âge ({@link BirthdayRolloverListener}) afin qu'ils
+ * déplacent les résidents ayant franchi un seuil d'âge, puis vide le {@link ResponseCache} :
+ * les réponses de la veille contiennent des âges périmés.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BirthdayRolloverScheduler {
+
+    private final AgeClock ageClock;
+    private final List<BirthdayRolloverListener> listeners;
+    private final ResponseCache responseCache;
+
+    /**
+     * Déclenché à minuit (expression cron {@code application.birthday-rollover.cron}).
+     */
+    @Scheduled(cron = "${application.birthday-rollover.cron:0 0 0 * * *}")
+    public void rollover() {
+        int today = ageClock.refresh();
+        log.info("Changement de jour : mise à jour des index dépendant de l'âge pour le {}", today);
+        listeners.forEach(listener -> listener.onBirthdayRollover(today));
+        responseCache.invalidateAll();
+    }
+}
@@ -0,0 +1,34 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.dto.AlertQueryDTO;
+import com.safetynet.AppSafetyNet.model.dto.AlertUpdateDTO;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service d'abonnement aux requêtes d'alerte ({@code /phoneAlert}, {@code /fire}, {@code /flood/stations},
+ * {@code /firestation}) : au lieu d'interroger ces endpoints en boucle, une console reçoit le résultat
+ * complet puis seulement ses différences, lorsqu'une modification des données le concerne.
+ */
+public interface AlertSubscriptionService {
+
+    /** Nombre maximum de requêtes suivies par abonnement. */
+    int MAX_QUERIES = 20;
+
+    /**
+     * Suit des requêtes d'alerte.
+     * <p>
+     * Le flux commence par un {@code snapshot} de chaque requête, puis produit un {@code diff} chaque fois qu'une
+     * modification touche les données d'une requête (ses adresses, ses stations ou ses habitants) et en change
+     * le résultat. Un événement {@code heartbeat} est produit lorsque rien ne change pendant l'intervalle de maintien
+     * ({@code application.changes.heartbeat-ms}).
+     * </p>
+     * @param queries les requêtes suivies.
+     * @param limit nombre de mises à jour après lequel le flux se termine (heartbeats exclus), ou null pour un flux sans fin.
+     * @return un flux paresseux des mises à jour.
+     * @throws IllegalArgumentException si aucune requête n'est fournie, si une requête est incomplète
+     *         ou si {@code limit} n'est pas positif.
+     */
+    Stream<AlertUpdateDTO> subscribe(List<AlertQueryDTO> queries, Integer limit);
+}
@@ -0,0 +1,27 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.dto.BatchOperationDTO;
+import com.safetynet.AppSafetyNet.model.dto.BatchResultDTO;
+
+import java.util.List;
+
+/**
+ * Service appliquant plusieurs créations, mises à jour ou suppressions de personnes, dossiers médicaux
+ * et casernes en une seule transaction.
+ */
+public interface BatchService {
+
+    /** Nombre maximal d'opérations d'un lot. */
+    int MAX_OPERATIONS = 1000;
+
+    /**
+     * Applique les opérations dans l'ordre, toutes ou aucune, avec une seule sauvegarde des données
+     * et une seule mise à jour des index.
+     * @param operations les opérations, entre 1 et {@value #MAX_OPERATIONS}
+     * @return le nombre d'opérations appliquées et la version des données obtenue
+     * @throws IllegalArgumentException si le lot est vide, trop grand, ou si une opération est invalide
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si une opération vise une entité inexistante
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si une opération crée une entité déjà existante
+     */
+    BatchResultDTO apply(List<BatchOperationDTO> operations);
+}
@@ -0,0 +1,68 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangesDTO;
+
+import java.util.stream.Stream;
+
+/**
+ * Service de suivi des changements des données (personnes, dossiers médicaux, casernes).
+ * <p>
+ * Les systèmes en aval tiennent ainsi leur propre copie des données à jour, changement par changement,
+ * sans relire l'ensemble des données.
+ * </p>
+ */
+public interface ChangeService {
+
+    /** Nombre maximum de changements lus à la fois dans le journal. */
+    int READ_BATCH_SIZE = 500;
+    /** Nombre de changements par page de synchronisation lorsque le client n'en précise pas. */
+    int DEFAULT_PAGE_SIZE = 1000;
+    /** Nombre maximum de changements par page de synchronisation. */
+    int MAX_PAGE_SIZE = 10_000;
+
+    /**
+     * Suit les changements des données dans l'ordre de leurs séquences.
+     * <p>
+     * Le flux attend les prochains changements : un événement {@code heartbeat} est produit lorsque rien
+     * ne change pendant l'intervalle de maintien ({@code application.changes.heartbeat-ms}), et un événement
+     * {@code resync} lorsque les changements suivant {@code after} ne sont plus disponibles, en particulier
+     * lorsque {@code after} a été émis par une exécution précédente de l'application.
+     * </p>
+     * @param after position du dernier changement reçu ({@link #cursor(long)}, reprise après une déconnexion),
+     *              ou null pour ne recevoir que les prochains changements.
+     * @param limit nombre de changements après lequel le flux se termine (heartbeats exclus), ou null pour un flux sans fin.
+     * @return un flux paresseux des changements.
+     * @throws IllegalArgumentException si la séquence de {@code after} est invalide ou si {@code limit} n'est pas positif.
+     */
+    Stream<ChangeEventDTO> follow(String after, Integer limit);
+
+    /**
+     * Position d'un changement dans le flux, à renvoyer pour reprendre après ce changement.
+     * <p>
+     * Les séquences repartant de 1 à chaque démarrage, la position est préfixée par l'identifiant
+     * de l'exécution : {@code <exécution>-<séquence>}.
+     * </p>
+     * @param sequence séquence du changement.
+     * @return la position du changement.
+     */
+    String cursor(long sequence);
+
+    /**
+     * @return l'identifiant de l'exécution, préfixe des positions ({@link #cursor(long)}).
+     */
+    String epoch();
+
+    /**
+     * Renvoie les changements des données depuis une version connue du client : le dernier état
+     * ou la suppression de chaque entité modifiée.
+     * @param since version des données connue du client, de la forme {@code <exécution>-<version>}
+     *              ({@code 0} pour une première synchronisation, qui demande un rechargement complet).
+     * @param limit nombre de changements par page (optionnel, {@value #DEFAULT_PAGE_SIZE} par défaut).
+     * @return une page de changements, ou une réponse {@code resyncRequired} si la version est trop ancienne,
+     *         inconnue ou émise par une exécution précédente.
+     * @throws IllegalArgumentException si {@code since} est vide, si le numéro d'une version de cette exécution
+     *         est invalide ou si {@code limit} est invalide.
+     */
+    ChangesDTO changesSince(String since, Integer limit);
+}
@@ -1,7 +1,13 @@
 package com.safetynet.AppSafetyNet.service;
 
 import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.PageDTO;
 import com.safetynet.AppSafetyNet.model.dto.PersonCoveredDTO;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service pour la gestion des casernes de pompiers (FireStation).
@@ -31,6 +37,14 @@ public interface FireStationService {
      */
     void deleteFireStation (String address);
 
+    /**
+     * Importe un lot de casernes : crée les nouvelles associations adresse/station et remplace
+     * celles qui existent déjà. Le lot est enregistré entièrement ou pas du tout.
+     * @param fireStations les casernes à importer, ne doit pas être nul
+     * @return le résultat de l'import, caserne par caserne
+     */
+    BulkImportDTO importFireStations(List<FireStation> fireStations);
+
     /**
      * Récupère la liste des personnes couvertes par une caserne identifiée par son numéro.
      * @param stationNumber numéro de la caserne
@@ -38,4 +52,25 @@ public interface FireStationService {
      *         ainsi que le nombre d'adultes et d'enfants
      */
     PersonCoveredDTO getPersonCoveredByNumberStation(Integer stationNumber);
+
+    /**
+     * Variante en flux de {@link #getPersonCoveredByNumberStation(Integer)} : les résidents sont lus
+     * adresse par adresse dans l'index, au fil de la consommation du flux.
+     * @param stationNumber numéro de la caserne
+     * @return un flux paresseux des résidents couverts, chacun avec son dossier médical
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException dès l'appel si la caserne ne couvre aucune adresse
+     */
+    Stream<ResidentMatch> streamPersonCoveredByNumberStation(Integer stationNumber);
+
+    /**
+     * Variante paginée de {@link #getPersonCoveredByNumberStation(Integer)} : une page des personnes couvertes,
+     * lue dans l'index sans construire la liste complète (sans décompte adultes/enfants).
+     * @param stationNumber numéro de la caserne
+     * @param cursor curseur renvoyé par la page précédente, ou {@code null} pour la première page
+     * @param limit nombre maximal de personnes de la page
+     * @return la page demandée
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si la caserne ne couvre aucune adresse
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si les données ont changé depuis l'émission du curseur
+     */
+    PageDTO<PersonCoveredDTO.PersonInfoDTO> getPersonCoveredByNumberStation(Integer stationNumber, String cursor, int limit);
 }
@@ -0,0 +1,378 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.safetynet.AppSafetyNet.cache.DataVersion;
+import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
+import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.AddressNormalizer;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.AlertQueryDTO;
+import com.safetynet.AppSafetyNet.model.dto.AlertQueryDTO.Endpoint;
+import com.safetynet.AppSafetyNet.model.dto.AlertUpdateDTO;
+import com.safetynet.AppSafetyNet.model.dto.AlertUpdateDTO.Type;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO.Op;
+import com.safetynet.AppSafetyNet.model.dto.ResolvedAddressDTO;
+import com.safetynet.AppSafetyNet.repository.FireStationRepository;
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.ChangeLog;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.service.AlertSubscriptionService;
+import com.safetynet.AppSafetyNet.service.ChangeService;
+import com.safetynet.AppSafetyNet.service.FireStationService;
+import com.safetynet.AppSafetyNet.service.PersonService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implémentation des abonnements aux requêtes d'alerte.
+ * <p>
+ * Chaque requête garde son dernier résultat et les données dont il dépend : les adresses couvertes
+ * (ou l'adresse demandée) et les habitants de ces adresses. Les changements lus dans le {@link ChangeLog}
+ * sont comparés à ces dépendances : seules les requêtes touchées sont recalculées, et seules les lignes
+ * qui ont changé sont envoyées.
+ * </p>
+ * <p>
+ * Le résultat d'une requête est calculé une fois par version des données et partagé entre les abonnements
+ * qui la suivent ; chacun garde ses propres lignes pour calculer ses différences.
+ * </p>
+ */
+@Slf4j
+@Service
+public class AlertSubscriptionServiceImpl implements AlertSubscriptionService {
+
+    private final PersonService personService;
+    private final FireStationService fireStationService;
+    private final PersonRepository personRepository;
+    private final FireStationRepository fireStationRepository;
+    private final ChangeLog changeLog;
+    private final DataStorage dataStorage;
+    private final DataVersion dataVersion;
+    private final ObjectMapper mapper;
+    private final Duration heartbeat;
+    // dernier résultat de chaque requête suivie, pour la version courante des données
+    private final Map<AlertQueryDTO, Result> results = new ConcurrentHashMap<>();
+
+    public AlertSubscriptionServiceImpl(PersonService personService,
+                                        FireStationService fireStationService,
+                                        PersonRepository personRepository,
+                                        FireStationRepository fireStationRepository,
+                                        ChangeLog changeLog,
+                                        DataStorage dataStorage,
+                                        DataVersion dataVersion,
+                                        ObjectMapper mapper,
+                                        @Value("${application.changes.heartbeat-ms:15000}") long heartbeatMs) {
+        Assert.isTrue(heartbeatMs > 0, "Heartbeat interval must be positive");
+        this.personService = personService;
+        this.fireStationService = fireStationService;
+        this.personRepository = personRepository;
+        this.fireStationRepository = fireStationRepository;
+        this.changeLog = changeLog;
+        this.dataStorage = dataStorage;
+        this.dataVersion = dataVersion;
+        this.mapper = mapper;
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+    }
+
+    @Override
+    public Stream<AlertUpdateDTO> subscribe(List<AlertQueryDTO> queries, Integer limit) {
+        Assert.notEmpty(queries, "At least one query is required");
+        Assert.isTrue(queries.size() <= MAX_QUERIES, "At most " + MAX_QUERIES + " queries are allowed");
+        queries.forEach(AlertSubscriptionServiceImpl::validateQuery);
+        Assert.isTrue(limit == null || limit > 0, "Limit must be positive");
+        log.info("Abonnement à {} requête(s) d'alerte (limite {})", queries.size(), limit);
+
+        List<Subscription> subscriptions = queries.stream().map(Subscription::new).toList();
+        Iterator<AlertUpdateDTO> follower = new Follower(subscriptions, limit != null ? limit : Long.MAX_VALUE);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(follower, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static void validateQuery(AlertQueryDTO query) {
+        Assert.notNull(query, "Query must not be null");
+        Assert.notNull(query.endpoint(), "Endpoint is required");
+        if (query.endpoint() == Endpoint.FIRE) {
+            Assert.hasText(query.address(), "Address is required");
+        } else {
+            Assert.notEmpty(query.stationNumbers(), "Station number is required");
+            for (Integer stationNumber : query.stationNumbers()) {
+                Assert.isTrue(stationNumber != null && stationNumber > 0, "Station number must be positive");
+            }
+        }
+    }
+
+    /**
+     * Recalcule des requêtes, sans verrou : une écriture concurrente sera relue dans le {@link ChangeLog}
+     * après la séquence déjà relevée, et la requête recalculée de nouveau.
+     * <p>
+     * Une requête ayant échoué garde son résultat précédent et est marquée à resynchroniser :
+     * elle est recalculée aux changements ou au maintien suivants, et renvoyée en {@code snapshot}.
+     * </p>
+     * @return les mises à jour des requêtes dont le résultat a changé.
+     */
+    private List<AlertUpdateDTO> refresh(List<Subscription> subscriptions, Type type) {
+        String version = dataStorage.versionToken(dataStorage.getVersion());
+        List<AlertUpdateDTO> updates = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            Result result;
+            try {
+                result = resultOf(subscription.query);
+            } catch (RuntimeException e) {
+                log.error("Recalcul impossible pour l'abonnement {} : {}", subscription.name, e.getMessage());
+                subscription.stale = true;
+                continue;
+            }
+            AlertUpdateDTO update = subscription.apply(result, subscription.stale ? Type.SNAPSHOT : type, version);
+            subscription.stale = false;
+            if (update != null) {
+                updates.add(update);
+            }
+        }
+        return updates;
+    }
+
+    /**
+     * Retourne le résultat d'une requête, calculé une seule fois par version des données
+     * et partagé entre tous les abonnements qui la suivent.
+     */
+    private Result resultOf(AlertQueryDTO query) {
+        String version = dataVersion.current();
+        Result cached = results.get(query);
+        if (cached != null && cached.dataVersion().equals(version)) {
+            return cached;
+        }
+        Result result = run(query, version);
+        // un résultat calculé pendant une écriture n'est pas partagé : il peut mêler deux états des données
+        if (dataVersion.current().equals(version)) {
+            results.values().removeIf(other -> !other.dataVersion().equals(version));
+            results.put(query, result);
+        }
+        return result;
+    }
+
+    /**
+     * Exécute la requête et relève ses dépendances.
+     */
+    private Result run(AlertQueryDTO query, String version) {
+        List<String> covered = query.endpoint() == Endpoint.FIRE
+                ? List.of(personService.resolveAddress(query.address()).map(ResolvedAddressDTO::address).orElse(query.address()))
+                : query.stationNumbers().stream()
+                        .flatMap(stationNumber -> fireStationRepository.findAddressByNumberStation(stationNumber).stream())
+                        .toList();
+        Set<String> addresses = new HashSet<>();
+        covered.forEach(address -> addresses.add(AddressNormalizer.addressKey(address)));
+        Set<String> residents = new HashSet<>();
+        for (Person person : personRepository.findByAddresses(covered)) {
+            residents.add(person.getId().toLowerCase(Locale.ROOT));
+        }
+
+        JsonNode json;
+        try {
+            Object result = switch (query.endpoint()) {
+                case PHONE_ALERT -> personService.getPhoneNumbersByFireStation(query.stationNumbers().getFirst());
+                case FIRE -> personService.getPersonnesAndStationNumberByAddress(covered.getFirst()).orElse(null);
+                case FLOOD -> personService.getPersonnesAndAddressByNumberFireStation(query.stationNumbers());
+                case FIRESTATION -> fireStationService.getPersonCoveredByNumberStation(query.stationNumbers().getFirst());
+            };
+            json = result != null ? mapper.valueToTree(result) : null;
+        } catch (NotFoundException e) {
+            json = null;
+        }
+        return new Result(version, json, Set.copyOf(addresses), Set.copyOf(residents));
+    }
+
+    /**
+     * Résultat d'une requête pour une version des données ({@link DataVersion#current()}) : le JSON,
+     * jamais modifié une fois calculé, et les adresses et habitants dont il dépend.
+     *
+     * @param json résultat en JSON, ou null si la requête ne trouve aucune donnée.
+     */
+    private record Result(String dataVersion, JsonNode json, Set<String> addresses, Set<String> residents) {
+    }
+
+    /**
+     * Une requête suivie : son dernier résultat, découpé en lignes, et les données dont il dépend.
+     */
+    private final class Subscription {
+
+        private final AlertQueryDTO query;
+        private final String name;
+        private Map<String, JsonNode> rows = Map.of();
+        private JsonNode summary;
+        private Set<String> addresses = Set.of();
+        private Set<String> residents = Set.of();
+        // le dernier recalcul a échoué : le prochain résultat est envoyé complet
+        private boolean stale;
+
+        Subscription(AlertQueryDTO query) {
+            this.query = query;
+            this.name = query.describe();
+        }
+
+        /**
+         * @return vrai si le changement peut modifier le résultat : il touche une adresse ou un habitant
+         *         dont dépend le résultat, une personne qui s'y installe, ou une caserne des stations suivies.
+         */
+        boolean isAffectedBy(ChangeEventDTO change) {
+            if (change.op() == Op.RESYNC) {
+                return true;
+            }
+            return switch (change.type()) {
+                case PERSON -> residents.contains(change.id())
+                        || change.data() != null && addresses.contains(AddressNormalizer.addressKey(change.data().path("address").asText(null)));
+                case MEDICALRECORD -> residents.contains(change.id());
+                case FIRESTATION -> addresses.contains(change.id())
+                        || change.data() != null && query.stationNumbers() != null
+                        && query.stationNumbers().contains(change.data().path("station").asInt());
+            };
+        }
+
+        /**
+         * Compare un nouveau résultat au précédent et le conserve.
+         * @return le résultat complet pour un {@code snapshot} ; pour un {@code diff}, les différences,
+         *         ou null si le résultat n'a pas changé.
+         */
+        AlertUpdateDTO apply(Result result, Type type, String version) {
+            JsonNode json = result.json();
+            Map<String, JsonNode> newRows = new LinkedHashMap<>();
+            JsonNode newSummary = null;
+            if (json != null && json.isObject()) {
+                ObjectNode rest = ((ObjectNode) json).deepCopy();
+                rest.remove("persons");
+                newSummary = rest;
+                json = json.path("persons");
+            }
+            if (json != null) {
+                for (JsonNode row : json) {
+                    newRows.put(keyOf(row), row);
+                }
+            }
+
+            Map<String, JsonNode> upserted = new LinkedHashMap<>();
+            List<String> removed = new ArrayList<>();
+            newRows.forEach((key, row) -> {
+                if (!row.equals(rows.get(key))) {
+                    upserted.put(key, row);
+                }
+            });
+            for (String key : rows.keySet()) {
+                if (!newRows.containsKey(key)) {
+                    removed.add(key);
+                }
+            }
+            boolean summaryChanged = !Objects.equals(summary, newSummary);
+            rows = newRows;
+            summary = newSummary;
+            addresses = result.addresses();
+            residents = result.residents();
+
+            if (type == Type.SNAPSHOT) {
+                return new AlertUpdateDTO(type, name, version, newRows, List.of(), newSummary);
+            }
+            if (upserted.isEmpty() && removed.isEmpty() && !summaryChanged) {
+                return null;
+            }
+            return new AlertUpdateDTO(type, name, version, upserted, removed, summaryChanged ? newSummary : null);
+        }
+
+        private String keyOf(JsonNode row) {
+            return switch (query.endpoint()) {
+                case PHONE_ALERT -> row.asText();
+                case FLOOD -> row.path("address").asText();
+                case FIRE -> nameKey(row.path("persons"));
+                case FIRESTATION -> nameKey(row);
+            };
+        }
+
+        private static String nameKey(JsonNode person) {
+            return (person.path("firstName").asText() + " " + person.path("lastName").asText()).toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Un abonnement en cours : le premier appel à {@link #next()} renvoie les résultats complets,
+     * les suivants attendent les changements (au plus l'intervalle de maintien) et renvoient les différences.
+     */
+    private final class Follower implements Iterator<AlertUpdateDTO> {
+
+        private final List<Subscription> subscriptions;
+        private final ArrayDeque<AlertUpdateDTO> pending = new ArrayDeque<>();
+        private boolean started;
+        private long cursor;
+        private long remaining;
+
+        Follower(List<Subscription> subscriptions, long remaining) {
+            this.subscriptions = subscriptions;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public AlertUpdateDTO next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            while (pending.isEmpty()) {
+                if (!started) {
+                    started = true;
+                    // la séquence est relevée avant le calcul : un changement concurrent sera revu, jamais manqué
+                    cursor = changeLog.lastSequence();
+                    pending.addAll(refresh(subscriptions, Type.SNAPSHOT));
+                    continue;
+                }
+                List<ChangeEventDTO> changes;
+                try {
+                    changes = changeLog.await(cursor, ChangeService.READ_BATCH_SIZE, heartbeat);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ErrorSystemException("Alert subscription interrupted");
+                }
+                if (changes.isEmpty()) {
+                    List<Subscription> stale = subscriptions.stream().filter(subscription -> subscription.stale).toList();
+                    if (!stale.isEmpty()) {
+                        pending.addAll(refresh(stale, Type.SNAPSHOT));
+                    }
+                    if (pending.isEmpty()) {
+                        return new AlertUpdateDTO(Type.HEARTBEAT, null, dataStorage.versionToken(dataStorage.getVersion()), null, null, null);
+                    }
+                    continue;
+                }
+                cursor = changes.getLast().sequence();
+                List<Subscription> affected = subscriptions.stream()
+                        .filter(subscription -> subscription.stale || changes.stream().anyMatch(subscription::isAffectedBy))
+                        .toList();
+                if (!affected.isEmpty()) {
+                    log.debug("{} changement(s) : {} requête(s) d'alerte à recalculer", changes.size(), affected.size());
+                    pending.addAll(refresh(affected, Type.DIFF));
+                }
+            }
+            remaining--;
+            return pending.removeFirst();
+        }
+    }
+}
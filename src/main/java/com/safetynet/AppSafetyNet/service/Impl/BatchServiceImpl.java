@@ -0,0 +1,119 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.exception.ConflictException;
+import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.BatchOperationDTO;
+import com.safetynet.AppSafetyNet.model.dto.BatchResultDTO;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.service.BatchService;
+import com.safetynet.AppSafetyNet.service.FireStationService;
+import com.safetynet.AppSafetyNet.service.MedicalRecordService;
+import com.safetynet.AppSafetyNet.service.PersonService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * Implémentation des lots transactionnels.
+ * <p>
+ * Chaque opération est déléguée au service de l'entité (mêmes vérifications que l'appel unitaire),
+ * à l'intérieur d'une transaction du {@link DataStorage} : les sauvegardes sont regroupées en une seule
+ * écriture, et les index ne voient le lot qu'une fois complet. Si une opération échoue, l'erreur indique
+ * sa position dans le lot et aucune opération n'est conservée.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BatchServiceImpl implements BatchService {
+
+    private final PersonService personService;
+    private final MedicalRecordService medicalRecordService;
+    private final FireStationService fireStationService;
+    private final DataStorage dataStorage;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public BatchResultDTO apply(List<BatchOperationDTO> operations) {
+        Assert.notEmpty(operations, "Batch must contain at least one operation");
+        Assert.isTrue(operations.size() <= MAX_OPERATIONS, "Batch must not contain more than " + MAX_OPERATIONS + " operations");
+        log.debug("Application d'un lot de {} opérations", operations.size());
+
+        dataStorage.inTransaction(() -> {
+            for (int i = 0; i < operations.size(); i++) {
+                try {
+                    execute(operations.get(i));
+                } catch (RuntimeException e) {
+                    throw atOperation(i, e);
+                }
+            }
+            return null;
+        });
+        long version = dataStorage.getVersion();
+        log.info("Lot de {} opérations appliqué (version {})", operations.size(), version);
+        return new BatchResultDTO(operations.size(), dataStorage.versionToken(version));
+    }
+
+    private void execute(BatchOperationDTO operation) {
+        Assert.notNull(operation, "Operation must not be null");
+        Assert.notNull(operation.op(), "Operation 'op' is required");
+        Assert.notNull(operation.type(), "Entity 'type' is required");
+        Assert.notNull(operation.data(), "Entity 'data' is required");
+
+        switch (operation.type()) {
+            case PERSON -> {
+                Person person = read(operation, Person.class);
+                switch (operation.op()) {
+                    case CREATE -> personService.addPerson(person);
+                    case UPDATE -> personService.updatePerson(person);
+                    case DELETE -> personService.removePerson(person.getFirstName(), person.getLastName());
+                }
+            }
+            case MEDICALRECORD -> {
+                MedicalRecord medicalRecord = read(operation, MedicalRecord.class);
+                switch (operation.op()) {
+                    case CREATE -> medicalRecordService.saveMedicalRecord(medicalRecord);
+                    case UPDATE -> medicalRecordService.updateMedicalRecord(medicalRecord);
+                    case DELETE -> medicalRecordService.deleteMedicalRecord(medicalRecord.getFirstName(), medicalRecord.getLastName());
+                }
+            }
+            case FIRESTATION -> {
+                FireStation fireStation = read(operation, FireStation.class);
+                switch (operation.op()) {
+                    case CREATE -> fireStationService.saveFireStation(fireStation);
+                    case UPDATE -> fireStationService.updateFireStation(fireStation);
+                    case DELETE -> fireStationService.deleteFireStation(fireStation.getAddress());
+                }
+            }
+        }
+    }
+
+    private <T> T read(BatchOperationDTO operation, Class<T> type) {
+        try {
+            return objectMapper.treeToValue(operation.data(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid " + operation.type().getName() + " data: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * @return l'erreur d'une opération, du même type, complétée par la position de l'opération dans le lot.
+     */
+    private static RuntimeException atOperation(int index, RuntimeException e) {
+        String message = "Operation " + index + " failed: " + e.getMessage();
+        return switch (e) {
+            case NotFoundException ignored -> new NotFoundException(message);
+            case ConflictException ignored -> new ConflictException(message);
+            case IllegalArgumentException ignored -> new IllegalArgumentException(message, e);
+            default -> e;
+        };
+    }
+}
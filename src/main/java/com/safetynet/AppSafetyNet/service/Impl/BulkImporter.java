@@ -0,0 +1,113 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO.ItemResult;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Import en masse commun aux personnes, dossiers médicaux et casernes.
+ * <p>
+ * Les éléments sont validés en parallèle, puis les doublons internes au lot sont détectés
+ * (le premier élément d'un identifiant est retenu, les suivants sont refusés). Si tous les éléments
+ * sont valides, le lot est enregistré par un seul appel au repository, donc une seule sauvegarde
+ * des données et une seule mise à jour des index ; sinon rien n'est enregistré.
+ * </p>
+ *
+ * @param <T> type des éléments importés.
+ */
+@Slf4j
+final class BulkImporter<T> {
+
+    private final Function<T, String> idOf;
+    private final Function<T, String> keyOf;
+    private final Function<T, String> validator;
+
+    /**
+     * @param idOf identifiant affiché de l'élément.
+     * @param keyOf clé d'unicité de l'élément, telle que retournée par le {@code saveAll} du repository.
+     * @param validator motif du refus de l'élément, ou {@code null} s'il est valide ; l'élément n'est jamais null.
+     */
+    BulkImporter(Function<T, String> idOf, Function<T, String> keyOf, Function<T, String> validator) {
+        this.idOf = idOf;
+        this.keyOf = keyOf;
+        this.validator = validator;
+    }
+
+    /**
+     * Valide puis enregistre le lot.
+     *
+     * @param items les éléments reçus (un élément peut être null).
+     * @param saveAll enregistrement du lot, retournant les clés des éléments remplacés.
+     * @return le résultat de l'import, élément par élément.
+     */
+    BulkImportDTO importAll(List<T> items, Function<List<T>, Set<String>> saveAll) {
+        Assert.notNull(items, "Items must not be null");
+        List<String> errors = IntStream.range(0, items.size())
+                .parallel()
+                .mapToObj(i -> items.get(i) == null ? "Item must not be null" : validator.apply(items.get(i)))
+                .toList();
+
+        List<String> keys = new ArrayList<>(items.size());
+        List<String> checked = new ArrayList<>(errors);
+        Integer[] duplicateOf = new Integer[items.size()];
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String key = checked.get(i) == null ? keyOf.apply(items.get(i)) : null;
+            keys.add(key);
+            if (key != null) {
+                duplicateOf[i] = firstIndexByKey.putIfAbsent(key, i);
+                if (duplicateOf[i] != null) {
+                    checked.set(i, "Duplicate of item " + duplicateOf[i]);
+                }
+            }
+        }
+        long invalid = checked.stream().filter(Objects::nonNull).count();
+
+        Set<String> replaced = Set.of();
+        boolean applied = invalid == 0;
+        if (applied && !items.isEmpty()) {
+            replaced = saveAll.apply(items);
+        }
+
+        List<ItemResult> results = new ArrayList<>(items.size());
+        long updated = 0;
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            String id = item == null ? null : idOf.apply(item);
+            Status status;
+            if (checked.get(i) != null) {
+                status = Status.INVALID;
+            } else if (!applied) {
+                status = Status.VALID;
+            } else if (replaced.contains(keys.get(i))) {
+                status = Status.UPDATED;
+                updated++;
+            } else {
+                status = Status.CREATED;
+            }
+            results.add(new ItemResult(i, id, status, checked.get(i), duplicateOf[i]));
+        }
+        long created = applied ? items.size() - updated : 0;
+        log.info("Import en masse : {} éléments reçus, {} créés, {} mis à jour, {} invalides{}",
+                items.size(), created, updated, invalid, applied ? "" : " (lot refusé)");
+        return new BulkImportDTO(items.size(), applied, created, updated, invalid, results);
+    }
+
+    /**
+     * @return {@code true} si la valeur est null ou ne contient que des espaces.
+     */
+    static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,155 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO.Op;
+import com.safetynet.AppSafetyNet.model.dto.ChangesDTO;
+import com.safetynet.AppSafetyNet.repository.data.ChangeLog;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.service.ChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implémentation du suivi des changements, lus dans le {@link ChangeLog}.
+ */
+@Slf4j
+@Service
+public class ChangeServiceImpl implements ChangeService {
+
+    private final ChangeLog changeLog;
+    private final DataStorage dataStorage;
+    private final Duration heartbeat;
+
+    public ChangeServiceImpl(ChangeLog changeLog,
+                             DataStorage dataStorage,
+                             @Value("${application.changes.heartbeat-ms:15000}") long heartbeatMs) {
+        Assert.isTrue(heartbeatMs > 0, "Heartbeat interval must be positive");
+        this.changeLog = changeLog;
+        this.dataStorage = dataStorage;
+        this.heartbeat = Duration.ofMillis(heartbeatMs);
+    }
+
+    @Override
+    public Stream<ChangeEventDTO> follow(String after, Integer limit) {
+        Assert.isTrue(limit == null || limit > 0, "Limit must be positive");
+        Long sequence = after != null ? numberOf(after, "After") : Long.valueOf(changeLog.lastSequence());
+        long from = sequence != null ? sequence : changeLog.lastSequence();
+        log.info("Suivi des changements après la séquence {} (limite {})", from, limit);
+
+        Follower follower = new Follower(from, limit != null ? limit : Long.MAX_VALUE);
+        if (sequence == null) {
+            // position émise par une autre exécution : ses séquences ne désignent pas ces changements
+            log.info("Position {} d'une exécution précédente : rechargement complet requis", after);
+            follower.pending.add(new ChangeEventDTO(from, dataStorage.getVersion(), Op.RESYNC, null, null, null));
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(follower, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public String cursor(long sequence) {
+        return dataStorage.getEpoch() + "-" + sequence;
+    }
+
+    @Override
+    public String epoch() {
+        return dataStorage.getEpoch();
+    }
+
+    /**
+     * @param token position ou version de la forme {@code <exécution>-<numéro>}.
+     * @param name nom du paramètre, pour les messages d'erreur.
+     * @return le numéro d'un jeton de cette exécution, ou null s'il a été émis par une autre exécution.
+     * @throws IllegalArgumentException si le numéro d'un jeton de cette exécution est invalide.
+     */
+    private Long numberOf(String token, String name) {
+        String prefix = dataStorage.getEpoch() + "-";
+        if (!token.startsWith(prefix)) {
+            return null;
+        }
+        try {
+            long number = Long.parseLong(token.substring(prefix.length()));
+            Assert.isTrue(number >= 0, name + " must not be negative");
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name.toLowerCase(Locale.ROOT) + ": " + token);
+        }
+    }
+
+    @Override
+    public ChangesDTO changesSince(String since, Integer limit) {
+        Assert.hasText(since, "Since is required");
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        Assert.isTrue(pageSize >= 1 && pageSize <= MAX_PAGE_SIZE, "Limit must be between 1 and " + MAX_PAGE_SIZE);
+
+        Long version = numberOf(since, "Since");
+        // version d'une autre exécution : ses numéros ne désignent pas les données de celle-ci
+        ChangeLog.Changes changes = version != null
+                ? changeLog.changesSince(version, pageSize)
+                : new ChangeLog.Changes(dataStorage.getVersion(), true, false, List.of());
+        if (changes.resyncRequired()) {
+            log.info("Synchronisation depuis la version {} impossible : rechargement complet requis (version {})", since, changes.version());
+        } else {
+            log.info("Synchronisation depuis la version {} : {} changement(s), version {} atteinte", since, changes.changes().size(), changes.version());
+        }
+        return new ChangesDTO(since, dataStorage.versionToken(changes.version()), changes.resyncRequired(), changes.hasMore(), changes.changes());
+    }
+
+    /**
+     * Un suivi en cours : chaque appel à {@link #next()} renvoie le changement suivant, en attendant
+     * au plus l'intervalle de maintien.
+     */
+    private final class Follower implements Iterator<ChangeEventDTO> {
+
+        private final ArrayDeque<ChangeEventDTO> pending = new ArrayDeque<>();
+        private long cursor;
+        private long remaining;
+
+        Follower(long cursor, long remaining) {
+            this.cursor = cursor;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public ChangeEventDTO next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            if (pending.isEmpty()) {
+                List<ChangeEventDTO> changes;
+                try {
+                    changes = changeLog.await(cursor, (int) Math.min(READ_BATCH_SIZE, remaining), heartbeat);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ErrorSystemException("Change stream interrupted");
+                }
+                if (changes.isEmpty()) {
+                    return new ChangeEventDTO(cursor, dataStorage.getVersion(), Op.HEARTBEAT, null, null, null);
+                }
+                pending.addAll(changes);
+            }
+            ChangeEventDTO change = pending.removeFirst();
+            cursor = change.sequence();
+            remaining--;
+            return change;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture d'un fichier CSV (RFC 4180) enregistrement par enregistrement.
+ * <p>
+ * Seul l'enregistrement en cours est gardé en mémoire. Les champs peuvent être entourés de guillemets
+ * pour contenir des virgules, des retours à la ligne ou des guillemets doublés ({@code ""}).
+ * </p>
+ */
+final class CsvRecordReader {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+
+    private final BufferedReader reader;
+    private boolean first = true;
+
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return les champs de l'enregistrement suivant, ou {@code null} à la fin du fichier.
+     * @throws IOException si la lecture échoue.
+     * @throws IllegalArgumentException si un champ entre guillemets n'est pas refermé.
+     */
+    List<String> next() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        if (first && !line.isEmpty() && line.charAt(0) == '\uFEFF') {
+            line = line.substring(1);
+        }
+        first = false;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // retour à la ligne à l'intérieur d'un champ entre guillemets
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IllegalArgumentException("Unterminated quoted field");
+                }
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != QUOTE) {
+                    field.append(c);
+                } else if (i < line.length() && line.charAt(i) == QUOTE) {
+                    field.append(QUOTE);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -4,10 +4,17 @@ import com.safetynet.AppSafetyNet.exception.ConflictException;
 import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
 import com.safetynet.AppSafetyNet.exception.NotFoundException;
 import com.safetynet.AppSafetyNet.model.*;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.PageDTO;
 import com.safetynet.AppSafetyNet.model.dto.PersonCoveredDTO;
 import com.safetynet.AppSafetyNet.repository.FireStationRepository;
 import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.index.AgeIndex;
+import com.safetynet.AppSafetyNet.repository.index.PageCursor;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentPage;
 import com.safetynet.AppSafetyNet.service.FireStationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +22,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Implémentation du service de gestion des casernes de pompiers.
@@ -26,9 +34,18 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FireStationServiceImpl implements FireStationService {
 
+    private static final BulkImporter<FireStation> FIRE_STATION_IMPORTER = new BulkImporter<>(
+            FireStation::getAddress,
+            FireStation::getAddressKey,
+            fs -> BulkImporter.isBlank(fs.getAddress()) ? "Address is required"
+                    : fs.getStation() == null || fs.getStation() < 0 ? "Station number must be positive"
+                    : null);
+
     private final FireStationRepository fireStationRepository;
     private final PersonRepository personRepository;
     private final MedicalRecordRepository medicalRecordRepository;
+    private final ResidentSearchIndex residentSearchIndex;
+    private final AgeIndex ageIndex;
 
     /**
      * Ajoute une nouvelle caserne de pompiers, à condition qu’elle n’existe pas déjà.
@@ -70,10 +87,13 @@ public class FireStationServiceImpl implements FireStationService {
                     return new NotFoundException("FireStation does not exist");
                 });
 
-        fs.setStation(updatedFireStation.getStation());
+        // la caserne enregistrée n'est pas modifiée sur place : une nouvelle instance la remplace
+        FireStation updated = new FireStation();
+        updated.setAddress(fs.getAddress());
+        updated.setStation(updatedFireStation.getStation());
 
-        fireStationRepository.saveFireStation(fs);
-        log.info("FireStation mise à jour avec succès à l'adresse et numéro de station : {}, {}", fs.getAddress(), fs.getStation());
+        fireStationRepository.saveFireStation(updated);
+        log.info("FireStation mise à jour avec succès à l'adresse et numéro de station : {}, {}", updated.getAddress(), updated.getStation());
     }
 
     /**
@@ -91,6 +111,19 @@ public class FireStationServiceImpl implements FireStationService {
                 .ifPresent(fireStationRepository::deleteFireStation);
     }
 
+    /**
+     * Importe un lot de casernes (création ou remplacement de l'association adresse/station)
+     * en une seule sauvegarde. Une caserne doit avoir une adresse et un numéro de station positif.
+     *
+     * @param fireStations les casernes à importer.
+     * @return le résultat de l'import, caserne par caserne.
+     * @throws IllegalArgumentException si la liste est nulle.
+     */
+    @Override
+    public BulkImportDTO importFireStations(List<FireStation> fireStations) {
+        return FIRE_STATION_IMPORTER.importAll(fireStations, fireStationRepository::saveAll);
+    }
+
     /**
      * Récupère toutes les personnes couvertes par une station donnée,
      * ainsi que leurs dossiers médicaux.
@@ -99,7 +132,7 @@ public class FireStationServiceImpl implements FireStationService {
      * <ul>
      *     <li>Les données personnelles des personnes (nom, prénom, adresse, téléphone),</li>
      *     <li>Leurs dossiers médicaux (âge, médicaments, allergies),</li>
-     *     <li>Le nombre d’adultes et d’enfants (calculé dans le DTO {@link PersonCoveredDTO}).</li>
+     *     <li>Le nombre d’adultes et d’enfants (lu dans la partition maintenue par l'{@link AgeIndex}).</li>
      * </ul>
      *
      * @param stationNumber Le numéro de la station de pompiers.
@@ -118,12 +151,78 @@ public class FireStationServiceImpl implements FireStationService {
             throw new NotFoundException("Aucune FireStation avec le numéro de station : "+ stationNumber);
         }
         List<Person> persons= personRepository.findByAddresses(address);
-        List<MedicalRecord> medicalRecords = persons.stream()
-                .map(p -> medicalRecordRepository.findByFirstNameAndLastName(p.getFirstName(), p.getLastName())
-                        .orElseThrow(()  -> new ErrorSystemException("Medical record not found for: " + p.getId())))
-                .toList();
+        for (Person p : persons) {
+            if (medicalRecordRepository.findByFirstNameAndLastName(p.getFirstName(), p.getLastName()).isEmpty()) {
+                throw new ErrorSystemException("Medical record not found for: " + p.getId());
+            }
+        }
 
         log.info("Récupération réussie des personnes couvertes pour la station numéro : {} ({} personnes)", stationNumber, persons.size());
-        return new PersonCoveredDTO(persons, medicalRecords);
+        return new PersonCoveredDTO(persons, ageIndex.countMinors(persons));
+    }
+
+    /**
+     * Variante en flux de {@link #getPersonCoveredByNumberStation(Integer)}.
+     * <p>
+     * Les adresses couvertes sont déterminées dès l'appel ; les résidents de chaque adresse ne sont lus
+     * dans l'index qu'au moment où le flux atteint cette adresse.
+     * </p>
+     *
+     * @param stationNumber Le numéro de la station de pompiers.
+     * @return un flux paresseux des résidents couverts, avec leur dossier médical.
+     * @throws IllegalArgumentException si le numéro de station est null.
+     * @throws NotFoundException si aucune adresse ne correspond à ce numéro de station.
+     * @throws ErrorSystemException à la lecture du flux, si un dossier médical est manquant pour une personne.
+     */
+    @Override
+    public Stream<ResidentMatch> streamPersonCoveredByNumberStation(Integer stationNumber) {
+        Assert.notNull(stationNumber, "FireStation must not be null");
+
+        List<String> addresses = fireStationRepository.findAddressByNumberStation(stationNumber);
+        if (addresses.isEmpty()) {
+            throw new NotFoundException("Aucune FireStation avec le numéro de station : "+ stationNumber);
+        }
+        log.info("Flux des personnes couvertes ouvert pour la station numéro : {} ({} adresses)", stationNumber, addresses.size());
+        return addresses.stream()
+                .flatMap(address -> residentSearchIndex.findByAddress(address).stream())
+                .map(match -> {
+                    if (match.medicalRecord() == null) {
+                        throw new ErrorSystemException("Medical record not found for: " + match.person().getId());
+                    }
+                    return match;
+                });
+    }
+
+    /**
+     * Variante paginée de {@link #getPersonCoveredByNumberStation(Integer)}.
+     * <p>
+     * La première page vérifie que la station couvre au moins une adresse ; les pages suivantes
+     * sont lues dans l'index à partir du curseur, sans relire les adresses couvertes.
+     * </p>
+     *
+     * @param stationNumber Le numéro de la station de pompiers.
+     * @param cursor le curseur de la page, ou {@code null} pour la première page.
+     * @param limit le nombre maximal de personnes de la page.
+     * @return la page des personnes couvertes.
+     * @throws IllegalArgumentException si le numéro de station est null, le curseur invalide ou la taille hors limites.
+     * @throws NotFoundException si aucune adresse ne correspond à ce numéro de station.
+     * @throws ErrorSystemException si un dossier médical est manquant pour une personne de la page.
+     * @throws ConflictException si les données ont changé depuis l'émission du curseur.
+     */
+    @Override
+    public PageDTO<PersonCoveredDTO.PersonInfoDTO> getPersonCoveredByNumberStation(Integer stationNumber, String cursor, int limit) {
+        Assert.notNull(stationNumber, "FireStation must not be null");
+        if (cursor == null && fireStationRepository.findAddressByNumberStation(stationNumber).isEmpty()) {
+            throw new NotFoundException("Aucune FireStation avec le numéro de station : "+ stationNumber);
+        }
+
+        ResidentPage page = residentSearchIndex.pageByStation(stationNumber, cursor == null ? null : PageCursor.decode(cursor), limit);
+        log.info("Page de {} personnes couvertes retournée pour la station numéro : {}", page.matches().size(), stationNumber);
+        return PageDTO.of(page.matches(), match -> {
+            if (match.medicalRecord() == null) {
+                throw new ErrorSystemException("Medical record not found for: " + match.person().getId());
+            }
+            return new PersonCoveredDTO.PersonInfoDTO(match.person());
+        }, page.next() == null ? null : page.next().encode());
     }
 }
@@ -0,0 +1,360 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO.ItemResult;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO.Status;
+import com.safetynet.AppSafetyNet.model.dto.ImportProgressDTO;
+import com.safetynet.AppSafetyNet.model.dto.ImportProgressDTO.RowError;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.index.LongHashSet;
+import com.safetynet.AppSafetyNet.service.FireStationService;
+import com.safetynet.AppSafetyNet.service.ImportService;
+import com.safetynet.AppSafetyNet.service.MedicalRecordService;
+import com.safetynet.AppSafetyNet.service.PersonService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implémentation de l'import de fichiers par lots.
+ * <p>
+ * Chaque lot passe par l'import en masse du service concerné (validation parallèle). Contrairement
+ * à l'import en masse, les lignes invalides n'empêchent pas l'enregistrement du reste du lot : elles sont
+ * signalées et le lot est renvoyé sans elles. Les lots d'un point de reprise sont enregistrés dans une seule
+ * transaction ({@link DataStorage#inTransaction}) : le fichier de données est réécrit et les index mis à jour
+ * une fois par point de reprise, pas une fois par lot.
+ * </p>
+ * <p>
+ * Les doublons sont refusés dans tout le fichier, la première ligne l'emporte : l'import retient l'empreinte
+ * sur 64 bits de la clé de chaque élément enregistré (8 octets par élément, sans chaîne conservée), lignes
+ * passées lors d'une reprise comprises.
+ * </p>
+ * <p>
+ * En CSV, la première ligne donne le nom des champs (ceux du JSON : {@code firstName}, {@code birthdate},
+ * {@code station}...). Les médicaments et allergies sont séparés par {@code |} dans leur colonne.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportServiceImpl implements ImportService {
+
+    /** Colonnes CSV contenant une liste de valeurs. */
+    private static final Set<String> LIST_COLUMNS = Set.of("medications", "allergies");
+    private static final String LIST_SEPARATOR = "\\|";
+
+    private final PersonService personService;
+    private final MedicalRecordService medicalRecordService;
+    private final FireStationService fireStationService;
+    private final DataStorage dataStorage;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Prépare l'import ; les arguments sont vérifiés immédiatement, le fichier est lu au fil du flux.
+     */
+    @Override
+    public Stream<ImportProgressDTO> importFile(EntityType target, Format format, BufferedReader reader, long skip, int batchSize) {
+        Assert.notNull(target, "Import target must not be null");
+        Assert.notNull(format, "Import format must not be null");
+        Assert.notNull(reader, "Reader must not be null");
+        Assert.isTrue(skip >= 0, "Skip must not be negative");
+        Assert.isTrue(batchSize >= 1 && batchSize <= MAX_BATCH_SIZE, "Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        log.info("Import {} au format {} (lot de {}, reprise après {} lignes)", target, format, batchSize, skip);
+
+        Iterator<ImportProgressDTO> run = switch (target) {
+            case PERSON -> new ImportRun<>(Person.class, p -> p.getId().toLowerCase(Locale.ROOT),
+                    personService::importPersons, format, reader, skip, batchSize);
+            case MEDICALRECORD -> new ImportRun<>(MedicalRecord.class, m -> m.getId().toLowerCase(Locale.ROOT),
+                    medicalRecordService::importMedicalRecords, format, reader, skip, batchSize);
+            case FIRESTATION -> new ImportRun<>(FireStation.class, FireStation::getAddressKey,
+                    fireStationService::importFireStations, format, reader, skip, batchSize);
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(run, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Empreinte d'une clé d'élément, stockée à la place de la clé pour dédoublonner le fichier.
+     * Deux clés différentes n'ont la même empreinte qu'avec une probabilité négligeable (FNV-1a sur 64 bits).
+     */
+    private static long fingerprint(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        // -1 marque une case vide du LongHashSet
+        return hash == -1L ? 0L : hash;
+    }
+
+    /**
+     * Compteurs d'éléments enregistrés par un point de reprise.
+     */
+    private record Saved(long created, long updated) {
+
+        private Saved plus(Saved other) {
+            return new Saved(created + other.created, updated + other.updated);
+        }
+    }
+
+    /**
+     * Un import en cours : chaque appel à {@link #next()} lit, valide et enregistre les lots d'un point de reprise.
+     */
+    private final class ImportRun<T> implements Iterator<ImportProgressDTO> {
+
+        private final Class<T> type;
+        private final Function<T, String> keyOf;
+        private final Function<List<T>, BulkImportDTO> importer;
+        private final Format format;
+        private final BufferedReader reader;
+        private final CsvRecordReader csv;
+        private final long skip;
+        private final int batchSize;
+        // empreintes des clés déjà enregistrées ou passées
+        private final LongHashSet savedKeys;
+
+        private List<String> header;
+        private long row;
+        private long created;
+        private long updated;
+        private long invalid;
+        private boolean started;
+        private boolean done;
+
+        ImportRun(Class<T> type, Function<T, String> keyOf, Function<List<T>, BulkImportDTO> importer, Format format,
+                  BufferedReader reader, long skip, int batchSize) {
+            this.type = type;
+            this.keyOf = keyOf;
+            this.importer = importer;
+            this.format = format;
+            this.reader = reader;
+            this.csv = format == Format.CSV ? new CsvRecordReader(reader) : null;
+            this.skip = skip;
+            this.batchSize = batchSize;
+            this.savedKeys = new LongHashSet(batchSize * BATCHES_PER_CHECKPOINT);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public ImportProgressDTO next() {
+            if (done) {
+                throw new NoSuchElementException();
+            }
+            try {
+                if (!started) {
+                    start();
+                }
+                List<RowError> errors = new ArrayList<>();
+                // une seule transaction, donc une seule écriture du fichier, pour tous les lots du point de reprise
+                Saved saved = dataStorage.inTransaction(() -> {
+                    Saved total = new Saved(0, 0);
+                    for (int batch = 0; batch < BATCHES_PER_CHECKPOINT && !done; batch++) {
+                        total = total.plus(readBatch(errors));
+                    }
+                    return total;
+                });
+                created += saved.created();
+                updated += saved.updated();
+                errors.sort(Comparator.comparingLong(RowError::row));
+                invalid += errors.size();
+                if (done) {
+                    log.info("Import {} terminé : {} lignes, {} créés, {} mis à jour, {} invalides",
+                            type.getSimpleName(), row, created, updated, invalid);
+                } else {
+                    log.debug("Import {} : {} lignes traitées", type.getSimpleName(), row);
+                }
+                return new ImportProgressDTO(row, created, updated, invalid, done, errors);
+            } catch (IOException e) {
+                done = true;
+                throw new UncheckedIOException(e);
+            } catch (UncheckedIOException e) {
+                done = true;
+                throw e;
+            }
+        }
+
+        /**
+         * Lit, valide et enregistre un lot ; les lignes refusées sont ajoutées aux erreurs.
+         */
+        private Saved readBatch(List<RowError> errors) {
+            List<T> items = new ArrayList<>(batchSize);
+            List<Long> rows = new ArrayList<>(batchSize);
+            int read = 0;
+            try {
+                while (read < batchSize) {
+                    Object raw = readRaw();
+                    if (raw == null) {
+                        done = true;
+                        break;
+                    }
+                    read++;
+                    try {
+                        T item = toItem(raw);
+                        if (isSaved(item)) {
+                            errors.add(new RowError(row, "Duplicate of an earlier row"));
+                        } else {
+                            items.add(item);
+                            rows.add(row);
+                        }
+                    } catch (IllegalArgumentException e) {
+                        errors.add(new RowError(row, e.getMessage()));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return apply(items, rows, errors);
+        }
+
+        private boolean isSaved(T item) {
+            String key = keyOf.apply(item);
+            return key != null && savedKeys.contains(fingerprint(key));
+        }
+
+        private void markSaved(T item) {
+            String key = keyOf.apply(item);
+            if (key != null) {
+                savedKeys.add(fingerprint(key));
+            }
+        }
+
+        /**
+         * Lit l'en-tête CSV puis passe les lignes déjà importées, en retenant seulement leurs clés.
+         */
+        private void start() throws IOException {
+            started = true;
+            if (csv != null) {
+                header = csv.next();
+                Assert.notNull(header, "CSV file must start with a header line");
+                header = header.stream().map(String::trim).toList();
+            }
+            while (row < skip) {
+                Object raw = readRaw();
+                if (raw == null) {
+                    break;
+                }
+                try {
+                    markSaved(toItem(raw));
+                } catch (IllegalArgumentException e) {
+                    // ligne déjà refusée lors de l'import précédent
+                }
+            }
+        }
+
+        /**
+         * @return la ligne de données suivante (champs CSV ou ligne JSON), ou {@code null} à la fin du fichier ;
+         *         les lignes vides sont ignorées et ne sont pas numérotées.
+         */
+        private Object readRaw() throws IOException {
+            while (true) {
+                Object raw;
+                boolean blank;
+                if (csv != null) {
+                    List<String> fields = csv.next();
+                    raw = fields;
+                    blank = fields != null && fields.size() == 1 && fields.getFirst().isBlank();
+                } else {
+                    String line = reader.readLine();
+                    raw = line;
+                    blank = line != null && line.isBlank();
+                }
+                if (!blank) {
+                    if (raw != null) {
+                        row++;
+                    }
+                    return raw;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T toItem(Object raw) {
+            if (raw instanceof String line) {
+                try {
+                    return objectMapper.readValue(line, type);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            List<String> fields = (List<String>) raw;
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " fields, found " + fields.size());
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                if (LIST_COLUMNS.contains(header.get(i))) {
+                    values.put(header.get(i), value.isEmpty() ? List.of()
+                            : Arrays.stream(value.split(LIST_SEPARATOR)).map(String::trim).toList());
+                } else {
+                    values.put(header.get(i), value.isEmpty() ? null : value);
+                }
+            }
+            try {
+                return objectMapper.convertValue(values, type);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid row: " + e.getMessage().lines().findFirst().orElse(""));
+            }
+        }
+
+        /**
+         * Enregistre le lot ; s'il contient des éléments invalides, ceux-ci sont ajoutés aux erreurs
+         * et le reste du lot est enregistré seul.
+         */
+        private Saved apply(List<T> items, List<Long> rows, List<RowError> errors) {
+            if (items.isEmpty()) {
+                return new Saved(0, 0);
+            }
+            BulkImportDTO result = importer.apply(items);
+            List<T> saved = items;
+            if (!result.applied()) {
+                List<T> valid = new ArrayList<>(items.size());
+                for (ItemResult item : result.items()) {
+                    if (item.status() == Status.INVALID) {
+                        String error = item.duplicateOf() != null
+                                ? "Duplicate of row " + rows.get(item.duplicateOf())
+                                : item.error();
+                        errors.add(new RowError(rows.get(item.index()), error));
+                    } else {
+                        valid.add(items.get(item.index()));
+                    }
+                }
+                if (valid.isEmpty()) {
+                    return new Saved(0, 0);
+                }
+                result = importer.apply(valid);
+                saved = valid;
+            }
+            saved.forEach(this::markSaved);
+            return new Saved(result.created(), result.updated());
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.safetynet.AppSafetyNet.service.Impl;
 
 import com.safetynet.AppSafetyNet.exception.ConflictException;
 import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.AgeClock;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
 import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.service.MedicalRecordService;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +12,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Implémentation du service de gestion des dossiers médicaux.
  * Effectue les vérifications et délègue la persistance au repository.
@@ -19,7 +24,13 @@ import org.springframework.util.Assert;
 @RequiredArgsConstructor
 public class MedicalRecordServiceImpl implements MedicalRecordService {
 
+    private final BulkImporter<MedicalRecord> medicalRecordImporter = new BulkImporter<>(
+            MedicalRecord::getId,
+            m -> m.getId().toLowerCase(Locale.ROOT),
+            this::validateForImport);
+
     private final MedicalRecordRepository medicalRecordRepository;
+    private final AgeClock ageClock;
 
     /**
      * Ajoute un nouveau dossier médical pour une personne.
@@ -60,12 +71,16 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
                    return new NotFoundException("Medical record for this person does not exist");
                });
 
-        mr.setBirthDate(medicalRecord.getBirthDate());
-        mr.setMedications(medicalRecord.getMedications());
-        mr.setAllergies(medicalRecord.getAllergies());
+        // le dossier enregistré n'est pas modifié sur place : une nouvelle instance le remplace
+        MedicalRecord updated = new MedicalRecord();
+        updated.setFirstName(mr.getFirstName());
+        updated.setLastName(mr.getLastName());
+        updated.setBirthDate(medicalRecord.getBirthDate());
+        updated.setMedications(medicalRecord.getMedications());
+        updated.setAllergies(medicalRecord.getAllergies());
 
-        medicalRecordRepository.saveOrUpdateMedicalRecord(mr);
-        log.info("Dossier médical mis à jour avec succès pour {}", mr.getId());
+        medicalRecordRepository.saveOrUpdateMedicalRecord(updated);
+        log.info("Dossier médical mis à jour avec succès pour {}", updated.getId());
     }
 
 
@@ -86,4 +101,25 @@ public class MedicalRecordServiceImpl implements MedicalRecordService {
         medicalRecordRepository.findByFirstNameAndLastName(firstName, lastName)
                 .ifPresent(medicalRecordRepository::deleteMedicalRecord);
     }
+
+    /**
+     * Importe un lot de dossiers médicaux (création ou remplacement) en une seule sauvegarde.
+     * Un dossier doit avoir un prénom, un nom et une date de naissance qui n'est pas dans le futur.
+     *
+     * @param medicalRecords les dossiers médicaux à importer.
+     * @return le résultat de l'import, dossier par dossier.
+     * @throws IllegalArgumentException si la liste est nulle.
+     */
+    @Override
+    public BulkImportDTO importMedicalRecords(List<MedicalRecord> medicalRecords) {
+        return medicalRecordImporter.importAll(medicalRecords, medicalRecordRepository::saveAll);
+    }
+
+    // le jour courant est lu à chaque dossier : il change à minuit
+    private String validateForImport(MedicalRecord m) {
+        return BulkImporter.isBlank(m.getFirstName()) || BulkImporter.isBlank(m.getLastName()) ? "First name and last name are required"
+                : m.getBirthDate() == null ? "Birthdate is required"
+                : m.getPackedBirthDate() > ageClock.today() ? "Birthdate must not be in the future"
+                : null;
+    }
 }
@@ -4,13 +4,22 @@ import com.safetynet.AppSafetyNet.exception.ConflictException;
 import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
 import com.safetynet.AppSafetyNet.exception.NotFoundException;
 import com.safetynet.AppSafetyNet.model.*;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
 import com.safetynet.AppSafetyNet.model.dto.ChildAlertDTO;
 import com.safetynet.AppSafetyNet.model.dto.FloodResponseDTO;
+import com.safetynet.AppSafetyNet.model.dto.PageDTO;
 import com.safetynet.AppSafetyNet.model.dto.PersonInfosLastNameDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResolvedAddressDTO;
 import com.safetynet.AppSafetyNet.model.dto.ResponseFireDTO;
 import com.safetynet.AppSafetyNet.repository.FireStationRepository;
 import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.index.AddressResolver;
+import com.safetynet.AppSafetyNet.repository.index.AgeIndex;
+import com.safetynet.AppSafetyNet.repository.index.PageCursor;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentPage;
 import com.safetynet.AppSafetyNet.service.PersonService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,15 +28,27 @@ import org.springframework.util.Assert;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PersonServiceImpl implements PersonService {
 
+    private static final BulkImporter<Person> PERSON_IMPORTER = new BulkImporter<>(
+            Person::getId,
+            p -> p.getId().toLowerCase(Locale.ROOT),
+            p -> BulkImporter.isBlank(p.getFirstName()) || BulkImporter.isBlank(p.getLastName()) ? "First name and last name are required"
+                    : BulkImporter.isBlank(p.getAddress()) || BulkImporter.isBlank(p.getCity()) ? "Address and city are required"
+                    : null);
+
     private final PersonRepository repository;
     private final MedicalRecordRepository medicalRecordRepository;
     private final FireStationRepository fireStationRepository;
+    private final ResidentSearchIndex residentSearchIndex;
+    private final AddressResolver addressResolver;
+    private final AgeIndex ageIndex;
+    private final AgeClock ageClock;
 
 
     /**
@@ -88,16 +109,33 @@ public class PersonServiceImpl implements PersonService {
                     return new NotFoundException("Person not found : " + person.getId());
                 });
 
-        personToUpdate.setCity(person.getCity());
-        personToUpdate.setZip(person.getZip());
-        personToUpdate.setAddress(person.getAddress());
-        personToUpdate.setEmail(person.getEmail());
-        personToUpdate.setPhone(person.getPhone());
-
-        repository.save(personToUpdate);
+        // la personne enregistrée n'est pas modifiée sur place : une nouvelle instance la remplace
+        Person updated = new Person();
+        updated.setFirstName(personToUpdate.getFirstName());
+        updated.setLastName(personToUpdate.getLastName());
+        updated.setCity(person.getCity());
+        updated.setZip(person.getZip());
+        updated.setAddress(person.getAddress());
+        updated.setEmail(person.getEmail());
+        updated.setPhone(person.getPhone());
+
+        repository.save(updated);
         log.info("Personne mise à jour avec succès: {}", person.getId());
     }
 
+    /**
+     * Importe un lot de personnes (création ou remplacement) en une seule sauvegarde.
+     * Une personne doit avoir un prénom, un nom, une adresse et une ville.
+     *
+     * @param persons les personnes à importer.
+     * @return le résultat de l'import, personne par personne.
+     * @throws IllegalArgumentException si la liste est nulle.
+     */
+    @Override
+    public BulkImportDTO importPersons(List<Person> persons) {
+        return PERSON_IMPORTER.importAll(persons, repository::saveAll);
+    }
+
     /**
      * {@inheritDoc}
      * <p>
@@ -126,13 +164,15 @@ public class PersonServiceImpl implements PersonService {
             return Collections.emptyList();
         }
 
-        List<Person> children = personsAtAddress.stream()
-                .filter(person -> {
-                    MedicalRecord mr = medicalRecordRepository.findByFirstNameAndLastName(person.getFirstName(), person.getLastName())
-                            .orElseThrow(()  -> new ErrorSystemException("Medical record not found : " + person.getFirstName() + " " + person.getLastName()));
-                    return mr != null && !mr.isMajor();
-                })
-                .toList();
+        // la partition mineurs / majeurs est maintenue par l'AgeIndex ; le dossier n'est lu que pour vérifier sa présence
+        Map<Person, MedicalRecord> children = new LinkedHashMap<>();
+        for (Person person : personsAtAddress) {
+            MedicalRecord mr = medicalRecordRepository.findByFirstNameAndLastName(person.getFirstName(), person.getLastName())
+                    .orElseThrow(()  -> new ErrorSystemException("Medical record not found : " + person.getFirstName() + " " + person.getLastName()));
+            if (ageIndex.isMinor(person.getFirstName(), person.getLastName())) {
+                children.put(person, mr);
+            }
+        }
 
         if(children.isEmpty()){
             log.info("Aucun enfant trouvé à l'adresse: {}", address);
@@ -140,12 +180,8 @@ public class PersonServiceImpl implements PersonService {
         }
 
 
-        List<ChildAlertDTO> response = children.stream()
-                .map(child -> {
-                    MedicalRecord mr = medicalRecordRepository.findByFirstNameAndLastName(child.getFirstName(), child.getLastName())
-                            .orElseThrow(() -> new ErrorSystemException("Medical record not found : " + child.getFirstName() + " " + child.getLastName()));
-                    return new ChildAlertDTO(child, personsAtAddress, mr);
-                })
+        List<ChildAlertDTO> response = children.entrySet().stream()
+                .map(child -> new ChildAlertDTO(child.getKey(), personsAtAddress, child.getValue(), ageClock))
                 .toList();
 
         log.info("Enfants trouvés à l'adresse: {}: {}", address, response.size());
@@ -171,19 +207,27 @@ public class PersonServiceImpl implements PersonService {
            return Collections.emptyList();
        }
 
-       log.debug("Recherche des adresses personnes couverte aux adresses: {}", addressesCovered);
-       List<Person> personsAtAddresses = findPersonsAtAddresses(addressesCovered);
-
-       log.debug("Recherche des numéros de téléphone des persons: {}", personsAtAddresses);
-       List<String> phones = personsAtAddresses.stream()
-               .map(Person::getPhone)
-               .distinct()
-               .toList();
+       log.debug("Recherche des numéros de téléphone des personnes couvertes par la caserne: {}", fireStationNumber);
+       List<String> phones = residentSearchIndex.findPhonesByStations(List.of(fireStationNumber));
 
        log.info("Numéros trouvés pour la caserne {}: {}", fireStationNumber, phones.size());
        return phones;
     }
 
+    /**
+     * Résout une adresse saisie vers l'adresse connue la plus proche (clé canonique exacte,
+     * sinon recherche approchée par l'{@link AddressResolver}).
+     * @param address l'adresse saisie.
+     * @return l'adresse connue et la confiance de la résolution, ou vide si aucune n'est assez proche.
+     * @throws IllegalArgumentException si l'adresse est vide ou nulle.
+     */
+    @Override
+    public Optional<ResolvedAddressDTO> resolveAddress(String address) {
+        validateString(address, "address");
+        return addressResolver.resolve(address)
+                .map(match -> new ResolvedAddressDTO(match.address(), match.confidence()));
+    }
+
     /**
      * Récupère une liste de personne habitant à une adresse, les MédicalsRecords liés
      * aux personnes et la FireStation les couvrants puis on instancie ResponseFireDTO avec ces
@@ -234,7 +278,7 @@ public class PersonServiceImpl implements PersonService {
      * <p>Le traitement se fait en plusieurs étapes :</p>
      * <ol>
      *   <li>Récupération des adresses couvertes par les casernes dont les numéros sont donnés.</li>
-     *   <li>Récupération des personnes vivant à ces adresses.</li>
+     *   <li>Récupération des personnes couvertes par ces casernes (union des bitsets de l'index, sans parcourir toutes les personnes).</li>
      *   <li>Association des informations personnelles et médicales (âge, médicaments, allergies) à chaque personne.</li>
      *   <li>Groupement des personnes par adresse pour construire la structure attendue.</li>
      * </ol>
@@ -262,11 +306,11 @@ public class PersonServiceImpl implements PersonService {
             throw new NotFoundException("Aucune FireStations n'existe avec les numéros de station: " + fireStationNumbers);
         }
 
-        log.debug("Récupération des personnes aux adresses: {}", addresses);
-        List<Person> persons = findPersonsAtAddresses(addresses);
+        log.debug("Récupération des personnes couvertes par les casernes: {}", fireStationNumbers);
+        List<ResidentMatch> persons = residentSearchIndex.findByStations(fireStationNumbers);
 
         log.debug("Regroupement des personnes par adresse: {}", addresses);
-        Map<String, List<Person>> groupedPersons = groupPersonsByAddress(persons);
+        Map<String, List<ResidentMatch>> groupedPersons = groupPersonsByAddress(persons);
 
         // Retourne possiblement seulement des addresses de station avec des listes vides si personne n'habite à l'adresse de la fireStation trouvé
         List<FloodResponseDTO> response = buildFloodResponse(addresses, groupedPersons);
@@ -274,6 +318,31 @@ public class PersonServiceImpl implements PersonService {
         return response;
     }
 
+    /**
+     * Variante en flux de {@link #getPersonnesAndAddressByNumberFireStation(List)}.
+     * <p>
+     * Les adresses couvertes sont déterminées (et l'absence de caserne signalée) dès l'appel ; chaque foyer
+     * n'est ensuite construit, à partir de l'index des résidents, qu'au moment où le flux le consomme.
+     * </p>
+     *
+     * @param fireStationNumbers liste des numéros de casernes.
+     * @return un flux paresseux de {@link FloodResponseDTO}, un par adresse couverte.
+     * @throws IllegalArgumentException si la liste est nulle, vide ou contient des éléments nulls.
+     * @throws NotFoundException si aucune adresse n'est associée aux casernes.
+     */
+    @Override
+    public Stream<FloodResponseDTO> streamPersonnesAndAddressByNumberFireStation(List<Integer> fireStationNumbers) {
+        validateStationNumbers(fireStationNumbers);
+        List<String> addresses = findAddressesCoveredByStations(fireStationNumbers);
+        if (addresses.isEmpty()) {
+            log.info("Aucune donnée trouvé pour les numéros de station: {} ", fireStationNumbers);
+            throw new NotFoundException("Aucune FireStations n'existe avec les numéros de station: " + fireStationNumbers);
+        }
+        log.info("Flux flood ouvert pour {} adresses", addresses.size());
+        return addresses.stream()
+                .map(address -> buildFloodEntry(address, residentSearchIndex.findByAddress(address)));
+    }
+
     /**
      * Récupère les informations détaillées des personnes partageant un même nom de famille.
      *
@@ -303,7 +372,7 @@ public class PersonServiceImpl implements PersonService {
                                 log.error("Aucun dossier médical  pour la personne : {}", p.getId());
                                 return new ErrorSystemException("Dossier médical introuvable pour: " + p.getId());
                             });
-                    return new PersonInfosLastNameDTO(p, mr);
+                    return new PersonInfosLastNameDTO(p, mr, ageClock);
                 })
                 .toList();
 
@@ -324,8 +393,7 @@ public class PersonServiceImpl implements PersonService {
         validateString(city, "city");
         log.debug("Recherche des emails pour la ville: {}", city);
 
-        List<String> emailByCity = repository.getAll().stream()
-                .filter(p -> Objects.equals(p.getCity().toLowerCase(),city.toLowerCase()))
+        List<String> emailByCity = repository.findAllByCity(city).stream()
                 .map(Person::getEmail)
                 .distinct()
                 .toList();
@@ -339,6 +407,69 @@ public class PersonServiceImpl implements PersonService {
         return emailByCity;
     }
 
+    /**
+     * Retourne une page des personnes portant un nom de famille, lue dans l'index.
+     *
+     * @param lastName le nom de famille recherché.
+     * @param cursor le curseur de la page, ou {@code null} pour la première page.
+     * @param limit le nombre maximal de personnes de la page.
+     * @return une page de {@link PersonInfosLastNameDTO}.
+     * @throws NotFoundException si aucune personne n'est trouvée.
+     * @throws ErrorSystemException si un dossier médical de la page est manquant.
+     * @throws ConflictException si les données ont changé depuis l'émission du curseur.
+     * @throws IllegalArgumentException si le nom est vide, le curseur invalide ou la taille hors limites.
+     */
+    @Override
+    public PageDTO<PersonInfosLastNameDTO> getPersonsByLastName(String lastName, String cursor, int limit) {
+        validateString(lastName, "lastName");
+        ResidentPage page = residentSearchIndex.pageByLastName(lastName, decodeCursor(cursor), limit);
+        if (cursor == null && page.matches().isEmpty()) {
+            log.info("Aucune personne trouvée avec le nom: {}", lastName);
+            throw new NotFoundException("No Person found with lastName: " + lastName);
+        }
+
+        log.info("Page de {} personnes retournée pour le nom: {}", page.matches().size(), lastName);
+        return PageDTO.of(page.matches(), match -> {
+            if (match.medicalRecord() == null) {
+                log.error("Aucun dossier médical  pour la personne : {}", match.person().getId());
+                throw new ErrorSystemException("Dossier médical introuvable pour: " + match.person().getId());
+            }
+            return new PersonInfosLastNameDTO(match.person(), match.medicalRecord(), ageClock);
+        }, encodeCursor(page));
+    }
+
+    /**
+     * Retourne une page des emails distincts des personnes vivant dans une ville, lue dans l'index.
+     *
+     * @param city le nom de la ville.
+     * @param cursor le curseur de la page, ou {@code null} pour la première page.
+     * @param limit le nombre maximal d'emails de la page.
+     * @return une page d'emails.
+     * @throws NotFoundException si aucun email n'est trouvé.
+     * @throws ConflictException si les données ont changé depuis l'émission du curseur.
+     * @throws IllegalArgumentException si la ville est vide, le curseur invalide ou la taille hors limites.
+     */
+    @Override
+    public PageDTO<String> getMailByCity(String city, String cursor, int limit) {
+        validateString(city, "city");
+        ResidentPage page = residentSearchIndex.pageDistinctEmailsByCity(city, decodeCursor(cursor), limit);
+        if (cursor == null && page.matches().isEmpty()) {
+            log.info("Aucun email trouvé pour la ville: {}", city);
+            throw new NotFoundException("No Email found with City: " + city);
+        }
+
+        log.info("Page de {} emails retournée pour la ville: {}", page.matches().size(), city);
+        return PageDTO.of(page.matches(), match -> match.person().getEmail(), encodeCursor(page));
+    }
+
+    private static PageCursor decodeCursor(String cursor) {
+        return cursor == null ? null : PageCursor.decode(cursor);
+    }
+
+    private static String encodeCursor(ResidentPage page) {
+        return page.next() == null ? null : page.next().encode();
+    }
+
     //METHODE UTILITAIRE POUR VALIDER UN STRING
     private void validateString(String string, String messageParam) {
         Assert.hasText(string, messageParam + " must not be empty");
@@ -380,26 +511,14 @@ public class PersonServiceImpl implements PersonService {
                 .toList();
     }
     /**
-     * Récupère toutes les personnes habitant aux adresses fournies.
+     * Regroupe les personnes par clé canonique d'adresse.
      *
-     * @param addresses liste d'adresses
-     * @return liste des personnes vivant à ces adresses
-     * @throws IllegalStateException si aucune personne n'est trouvée
+     * @param persons liste des personnes à grouper, avec leur dossier médical
+     * @return map associant chaque clé d'adresse à la liste des personnes qui y habitent
      */
-    // METHODE UTILITAIRES POUR /FLOOD/FIRESTATIONS
-    private List<Person> findPersonsAtAddresses(List<String> addresses) {
-        return repository.findByAddresses(addresses);
-    }
-
-    /**
-     * Regroupe les personnes par adresse.
-     *
-     * @param persons liste des personnes à grouper
-     * @return map associant chaque adresse à la liste des personnes qui y habitent
-     */
-    private Map<String, List<Person>> groupPersonsByAddress(List<Person> persons) {
+    private Map<String, List<ResidentMatch>> groupPersonsByAddress(List<ResidentMatch> persons) {
         return persons.stream()
-                .collect(Collectors.groupingBy(Person::getAddress));
+                .collect(Collectors.groupingBy(match -> match.person().getAddressKey()));
     }
 
     /**
@@ -409,24 +528,33 @@ public class PersonServiceImpl implements PersonService {
      * @param addresses liste des adresses
      * @param personsByAddress map des personnes groupées par adresse
      * @return liste de {@link FloodResponseDTO} avec les informations groupées
-     * @throws IllegalStateException si un dossier médical est introuvable pour une personne
+     * @throws ErrorSystemException si un dossier médical est introuvable pour une personne
      */
     // METHODE UTILITAIRES POUR /FLOOD/FIRESTATIONS
-    private List<FloodResponseDTO> buildFloodResponse(List<String> addresses, Map<String, List<Person>> personsByAddress) {
+    private List<FloodResponseDTO> buildFloodResponse(List<String> addresses, Map<String, List<ResidentMatch>> personsByAddress) {
         return addresses.stream()
-                .map(address -> {
-                    List<FloodResponseDTO.PersonInfoDTO> infos = personsByAddress
-                            .getOrDefault(address, List.of())
-                            .stream()
-                            .map(p -> {
-                                var mr = medicalRecordRepository
-                                        .findByFirstNameAndLastName(p.getFirstName(), p.getLastName())
-                                        .orElseThrow(() -> new ErrorSystemException("Une erreur est survenue : Dossier médical manquant pour : " + p.getId()));
-                                return new FloodResponseDTO.PersonInfoDTO(p, mr);
-                            })
-                            .toList();
-                    return new FloodResponseDTO(address, infos);
+                .map(address -> buildFloodEntry(address, personsByAddress.getOrDefault(AddressNormalizer.addressKey(address), List.of())))
+                .toList();
+    }
+
+    /**
+     * Construit le foyer d'une adresse à partir de ses occupants.
+     *
+     * @param address l'adresse du foyer
+     * @param residents les occupants, avec leur dossier médical
+     * @return le {@link FloodResponseDTO} du foyer
+     * @throws ErrorSystemException si un dossier médical est introuvable pour une personne
+     */
+    // METHODE UTILITAIRES POUR /FLOOD/FIRESTATIONS
+    private FloodResponseDTO buildFloodEntry(String address, List<ResidentMatch> residents) {
+        List<FloodResponseDTO.PersonInfoDTO> infos = residents.stream()
+                .map(match -> {
+                    if (match.medicalRecord() == null) {
+                        throw new ErrorSystemException("Une erreur est survenue : Dossier médical manquant pour : " + match.person().getId());
+                    }
+                    return new FloodResponseDTO.PersonInfoDTO(match.person(), match.medicalRecord(), ageClock);
                 })
                 .toList();
+        return new FloodResponseDTO(address, infos);
     }
 }
@@ -0,0 +1,89 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.dto.ResidentDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentIdDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentRemovalDTO;
+import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.index.ResidentQuery;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex;
+import com.safetynet.AppSafetyNet.service.ResidentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation du service de recherche et de suppression des résidents.
+ * La recherche est exécutée par le {@link ResidentSearchIndex}, sans parcourir l'ensemble des personnes.
+ * La suppression retire personnes et dossiers médicaux dans une même transaction du {@link DataStorage},
+ * afin de ne jamais laisser de dossier orphelin.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ResidentServiceImpl implements ResidentService {
+
+    private final ResidentSearchIndex residentSearchIndex;
+    private final PersonRepository personRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final DataStorage dataStorage;
+    private final AgeClock ageClock;
+
+    @Override
+    public List<ResidentDTO> search(ResidentQuery query) {
+        Assert.notNull(query, "Query must not be null");
+        Assert.isTrue(query.hasCriteria(), "At least one search criterion is required");
+        log.debug("Recherche de résidents : {}", query);
+
+        List<ResidentDTO> residents = residentSearchIndex.search(query).stream()
+                .map(match -> new ResidentDTO(match.person(), match.medicalRecord(), match.stations(), ageClock))
+                .toList();
+
+        log.info("Recherche de résidents : {} résultat(s)", residents.size());
+        return residents;
+    }
+
+    @Override
+    public List<ResidentDTO> getResidentsByMedicalTerm(String medication, String allergy, Integer stationNumber) {
+        Assert.isTrue(StringUtils.hasText(medication) || StringUtils.hasText(allergy), "A medication or an allergy is required");
+        ResidentQuery query = new ResidentQuery(stationNumber, null, null, null, null, null, null,
+                StringUtils.hasText(medication) ? medication : null,
+                StringUtils.hasText(allergy) ? allergy : null);
+        return search(query);
+    }
+
+    @Override
+    public ResidentRemovalDTO removeResidents(List<ResidentIdDTO> residents) {
+        Assert.notEmpty(residents, "Residents must not be empty");
+        Assert.isTrue(residents.size() <= MAX_REMOVALS, "Residents must not contain more than " + MAX_REMOVALS + " entries");
+        Set<String> ids = residents.stream()
+                .map(ResidentServiceImpl::idOf)
+                .collect(Collectors.toSet());
+        log.debug("Suppression de {} résident(s)", ids.size());
+
+        record Removed(int persons, int medicalRecords) {}
+        Removed removed = dataStorage.inTransaction(() -> new Removed(
+                personRepository.deleteAllById(ids),
+                medicalRecordRepository.deleteAllById(ids)));
+        long version = dataStorage.getVersion();
+        log.info("Résidents supprimés : {} personne(s), {} dossier(s) médical(aux) (version {})",
+                removed.persons(), removed.medicalRecords(), version);
+        return new ResidentRemovalDTO(ids.size(), removed.persons(), removed.medicalRecords(), dataStorage.versionToken(version));
+    }
+
+    private static String idOf(ResidentIdDTO resident) {
+        Assert.notNull(resident, "Resident must not be null");
+        Assert.hasText(resident.firstName(), "First name is required");
+        Assert.hasText(resident.lastName(), "Last name is required");
+        return (resident.firstName() + " " + resident.lastName()).toLowerCase(Locale.ROOT);
+    }
+}
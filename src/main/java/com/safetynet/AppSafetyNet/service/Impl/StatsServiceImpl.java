@@ -0,0 +1,51 @@
+package com.safetynet.AppSafetyNet.service.Impl;
+
+import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.dto.StationStatsDTO;
+import com.safetynet.AppSafetyNet.model.dto.StationStatsDTO.AddressStatsDTO;
+import com.safetynet.AppSafetyNet.model.dto.StationStatsDTO.AgeHistogramDTO;
+import com.safetynet.AppSafetyNet.repository.index.AgeHistogramIndex;
+import com.safetynet.AppSafetyNet.repository.index.AgeHistogramIndex.StationCounts;
+import com.safetynet.AppSafetyNet.service.StatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Implémentation du service de statistiques.
+ * Les compteurs sont lus dans l'{@link AgeHistogramIndex}, tenu à jour à chaque modification des données.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+
+    private final AgeHistogramIndex ageHistogramIndex;
+
+    @Override
+    public List<StationStatsDTO> getStationStats(List<Integer> stationNumbers) {
+        List<Integer> stations = stationNumbers == null || stationNumbers.isEmpty()
+                ? ageHistogramIndex.getStations()
+                : List.copyOf(new LinkedHashSet<>(stationNumbers));
+        log.debug("Récupération des statistiques pour les stations : {}", stations);
+
+        List<StationStatsDTO> stats = stations.stream()
+                .map(station -> ageHistogramIndex.getStationCounts(station)
+                        .map(StatsServiceImpl::toDTO)
+                        .orElseThrow(() -> new NotFoundException("Aucune FireStation avec le numéro de station : " + station)))
+                .toList();
+
+        log.info("Statistiques retournées pour {} station(s)", stats.size());
+        return stats;
+    }
+
+    private static StationStatsDTO toDTO(StationCounts counts) {
+        List<AddressStatsDTO> addresses = counts.addresses().entrySet().stream()
+                .map(entry -> new AddressStatsDTO(entry.getKey(), new AgeHistogramDTO(entry.getValue())))
+                .toList();
+        return new StationStatsDTO(counts.station(), new AgeHistogramDTO(counts.counts()), addresses);
+    }
+}
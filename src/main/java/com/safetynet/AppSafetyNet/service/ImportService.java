@@ -0,0 +1,52 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.dto.ImportProgressDTO;
+
+import java.io.BufferedReader;
+import java.util.stream.Stream;
+
+/**
+ * Service d'import de fichiers de données volumineux (CSV ou NDJSON).
+ * <p>
+ * Le fichier est lu ligne à ligne et appliqué par lots : la mémoire utilisée dépend de la taille
+ * d'un point de reprise, pas de la taille du fichier. Chaque lot est validé puis enregistré comme un import
+ * en masse ; les {@value #BATCHES_PER_CHECKPOINT} lots d'un point de reprise sont enregistrés ensemble,
+ * en une seule écriture du fichier. La progression est publiée après chaque point de reprise, avec le nombre
+ * de lignes traitées qui permet de reprendre un import interrompu.
+ * </p>
+ */
+public interface ImportService {
+
+    /** Taille de lot appliquée lorsque le client n'en précise pas. */
+    int DEFAULT_BATCH_SIZE = 1000;
+    /** Taille de lot maximale acceptée. */
+    int MAX_BATCH_SIZE = 10_000;
+    /** Nombre de lots enregistrés ensemble, entre deux points de reprise. */
+    int BATCHES_PER_CHECKPOINT = 10;
+
+    /**
+     * Format du fichier importé.
+     */
+    enum Format {
+        /** Ligne d'en-tête avec le nom des champs, puis une ligne par élément (RFC 4180). */
+        CSV,
+        /** Un objet JSON par ligne. */
+        NDJSON
+    }
+
+    /**
+     * Prépare l'import d'un fichier. Le fichier n'est lu qu'au fil de la consommation du flux retourné :
+     * chaque élément du flux correspond à un point de reprise, dont les lots ont été lus, validés et enregistrés ;
+     * le dernier a {@code done = true}.
+     *
+     * @param target type des éléments importés.
+     * @param format format du fichier.
+     * @param reader contenu du fichier.
+     * @param skip nombre de lignes de données déjà importées, à ignorer (reprise d'un import interrompu).
+     * @param batchSize nombre de lignes par lot, entre 1 et {@value #MAX_BATCH_SIZE}.
+     * @return la progression de l'import, point de reprise par point de reprise.
+     * @throws IllegalArgumentException si {@code skip} est négatif ou {@code batchSize} hors limites.
+     */
+    Stream<ImportProgressDTO> importFile(EntityType target, Format format, BufferedReader reader, long skip, int batchSize);
+}
@@ -1,6 +1,10 @@
 package com.safetynet.AppSafetyNet.service;
 
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+
+import java.util.List;
+
 /**
  * Service pour la gestion des dossiers médicaux.
  * Définit les opérations de création, mise à jour et suppression
@@ -30,4 +34,12 @@ public interface MedicalRecordService {
      */
     void deleteMedicalRecord(String firstName, String lastName);
 
+    /**
+     * Importe un lot de dossiers médicaux : crée les nouveaux et remplace ceux qui existent déjà.
+     * Le lot est enregistré entièrement ou pas du tout.
+     * @param medicalRecords les dossiers médicaux à importer, ne doit pas être nul
+     * @return le résultat de l'import, dossier par dossier
+     */
+    BulkImportDTO importMedicalRecords(List<MedicalRecord> medicalRecords);
+
 }
@@ -2,12 +2,16 @@ package com.safetynet.AppSafetyNet.service;
 
 import com.safetynet.AppSafetyNet.model.dto.ChildAlertDTO;
 import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
 import com.safetynet.AppSafetyNet.model.dto.FloodResponseDTO;
+import com.safetynet.AppSafetyNet.model.dto.PageDTO;
 import com.safetynet.AppSafetyNet.model.dto.PersonInfosLastNameDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResolvedAddressDTO;
 import com.safetynet.AppSafetyNet.model.dto.ResponseFireDTO;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service d'accès et gestion des données relatives aux personnes.
@@ -38,6 +42,14 @@ public interface PersonService {
      */
     void updatePerson(Person person);
 
+    /**
+     * Importe un lot de personnes : crée les nouvelles et remplace celles qui existent déjà.
+     * Le lot est enregistré entièrement ou pas du tout.
+     * @param persons les personnes à importer, ne doit pas être nul
+     * @return le résultat de l'import, personne par personne
+     */
+    BulkImportDTO importPersons(List<Person> persons);
+
     /**
      * Récupère la liste des enfants (moins de 18 ans) vivant à une adresse donnée,
      * ainsi que les autres personnes du foyer.
@@ -46,6 +58,13 @@ public interface PersonService {
      */
     List<ChildAlertDTO> getChildrenByAddress(String address);
 
+    /**
+     * Résout une adresse saisie, éventuellement mal orthographiée, vers l'adresse connue la plus proche.
+     * @param address adresse saisie, ne doit pas être vide
+     * @return l'adresse connue et la confiance de la résolution, ou vide si aucune adresse n'est assez proche
+     */
+    Optional<ResolvedAddressDTO> resolveAddress(String address);
+
     /**
      * Récupère la liste des numéros de téléphone des personnes couvertes par une caserne de pompiers.
      * @param fireStationNumber numéro de la caserne de pompiers
@@ -57,8 +76,39 @@ public interface PersonService {
 
     List<FloodResponseDTO> getPersonnesAndAddressByNumberFireStation(List<Integer> fireStationNumber);
 
+    /**
+     * Variante en flux de {@link #getPersonnesAndAddressByNumberFireStation(List)} : les foyers sont
+     * construits un par un, au fil de la consommation du flux.
+     * @param fireStationNumber numéros des casernes
+     * @return un flux paresseux de foyers, dans l'ordre des adresses couvertes
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException dès l'appel si aucune adresse n'est couverte
+     */
+    Stream<FloodResponseDTO> streamPersonnesAndAddressByNumberFireStation(List<Integer> fireStationNumber);
+
     List<PersonInfosLastNameDTO>  getPersonsByLastName(String lastName);
 
     List<String> getMailByCity(String city);
 
+    /**
+     * Variante paginée de {@link #getPersonsByLastName(String)}, lue dans l'index page par page.
+     * @param lastName nom de famille
+     * @param cursor curseur renvoyé par la page précédente, ou {@code null} pour la première page
+     * @param limit nombre maximal de personnes de la page
+     * @return la page demandée
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si aucune personne ne porte ce nom
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si les données ont changé depuis l'émission du curseur
+     */
+    PageDTO<PersonInfosLastNameDTO> getPersonsByLastName(String lastName, String cursor, int limit);
+
+    /**
+     * Variante paginée de {@link #getMailByCity(String)} : chaque email distinct n'apparaît que sur une page.
+     * @param city ville
+     * @param cursor curseur renvoyé par la page précédente, ou {@code null} pour la première page
+     * @param limit nombre maximal d'emails de la page
+     * @return la page demandée
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si aucun email n'est trouvé pour cette ville
+     * @throws com.safetynet.AppSafetyNet.exception.ConflictException si les données ont changé depuis l'émission du curseur
+     */
+    PageDTO<String> getMailByCity(String city, String cursor, int limit);
+
 }
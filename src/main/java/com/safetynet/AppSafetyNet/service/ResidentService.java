@@ -0,0 +1,47 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.dto.ResidentDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentIdDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentRemovalDTO;
+import com.safetynet.AppSafetyNet.repository.index.ResidentQuery;
+
+import java.util.List;
+
+/**
+ * Service de recherche des résidents selon plusieurs critères combinés, et de suppression des résidents
+ * (personne et dossier médical ensemble).
+ */
+public interface ResidentService {
+
+    /** Nombre maximum de résidents supprimés par appel. */
+    int MAX_REMOVALS = 10_000;
+
+    /**
+     * Recherche les résidents correspondant à tous les critères renseignés.
+     * @param query critères de recherche, au moins un doit être renseigné.
+     * @return la liste des résidents trouvés (éventuellement vide).
+     * @throws IllegalArgumentException si aucun critère n'est renseigné ou si la tranche d'âge est invalide.
+     */
+    List<ResidentDTO> search(ResidentQuery query);
+
+    /**
+     * Liste les résidents suivant un traitement ou présentant une allergie, éventuellement
+     * limités à une station (ex. : résidents sous insuline autour d'un incident).
+     * @param medication nom d'un médicament, sans posologie (peut être null).
+     * @param allergy allergie (peut être null).
+     * @param stationNumber numéro de la station couvrant leur adresse (peut être null).
+     * @return la liste des résidents trouvés (éventuellement vide).
+     * @throws IllegalArgumentException si ni médicament ni allergie ne sont renseignés.
+     */
+    List<ResidentDTO> getResidentsByMedicalTerm(String medication, String allergy, Integer stationNumber);
+
+    /**
+     * Supprime des résidents : leur personne et leur dossier médical, en une seule transaction
+     * (une seule écriture des données et une seule mise à jour des index).
+     * Les résidents inconnus sont ignorés, comme pour une suppression unitaire.
+     * @param residents prénom et nom des résidents à supprimer.
+     * @return le nombre de personnes et de dossiers supprimés, et la nouvelle version des données.
+     * @throws IllegalArgumentException si la liste est vide, trop longue, ou si un prénom ou un nom manque.
+     */
+    ResidentRemovalDTO removeResidents(List<ResidentIdDTO> residents);
+}
@@ -0,0 +1,20 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.dto.StationStatsDTO;
+
+import java.util.List;
+
+/**
+ * Service fournissant des statistiques de population, destinées notamment aux tableaux de bord
+ * de planification des moyens.
+ */
+public interface StatsService {
+
+    /**
+     * Retourne la répartition par tranche d'âge des résidents couverts par chaque station.
+     * @param stationNumbers numéros des stations à retourner, ou {@code null}/vide pour toutes les stations.
+     * @return une entrée par station, dans l'ordre des numéros demandés (ou croissant).
+     * @throws com.safetynet.AppSafetyNet.exception.NotFoundException si une station demandée n'existe pas.
+     */
+    List<StationStatsDTO> getStationStats(List<Integer> stationNumbers);
+}
@@ -0,0 +1,226 @@
+package com.safetynet.AppSafetyNet.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ResponseCacheTest {
+
+    @Mock
+    private DataVersion dataVersion;
+
+    private ResponseCache cache;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache(dataVersion, new ObjectMapper(), 2, 1000, 1024);
+    }
+
+    private List<String> load() {
+        calls.incrementAndGet();
+        return List.of("841-874-6512");
+    }
+
+    @Nested
+    class Get {
+
+        @Test
+        void shouldComputeOnlyOnce_whenVersionDoesNotChange() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            CachedResponse first = cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+            CachedResponse second = cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+
+            assertThat(second).isSameAs(first);
+            assertThat(calls).hasValue(1);
+            assertThat(cache.getHits()).isEqualTo(1);
+            assertThat(cache.getMisses()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldReturnCachedHeaders_withoutRecomputingThem() {
+            when(dataVersion.current()).thenReturn("1-20000");
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("X-Resolved-Address", "1509 Culver St");
+
+            cache.get("/fire", "1509 culvr st", () -> new ResponseCache.Body(load(), headers));
+            ResponseEntity<byte[]> hit = cache.get("/fire", "1509 culvr st", () -> new ResponseCache.Body(load(), headers))
+                    .toResponseEntity(null);
+
+            assertThat(calls).hasValue(1);
+            assertThat(hit.getHeaders().getFirst("X-Resolved-Address")).isEqualTo("1509 Culver St");
+            assertThat(new String(hit.getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"841-874-6512\"]");
+        }
+
+        @Test
+        void shouldRecompute_whenDataVersionChanges() {
+            when(dataVersion.current()).thenReturn("1-20000", "1-20000", "2-20000", "2-20000");
+
+            cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+            cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+
+            assertThat(calls).hasValue(2);
+        }
+
+        @Test
+        void shouldNotKeepResponse_whenDataChangedDuringComputation() {
+            when(dataVersion.current()).thenReturn("1-20000", "2-20000", "2-20000", "2-20000");
+
+            cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+            cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+
+            assertThat(calls).hasValue(2);
+        }
+
+        @Test
+        void shouldSeparateEntries_byEndpointAndParams() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+            cache.get("/phoneAlert", "2", ResponseCacheTest.this::load);
+            cache.get("/communityEmail", "3", ResponseCacheTest.this::load);
+
+            assertThat(calls).hasValue(3);
+        }
+
+        @Test
+        void shouldEvictLeastRecentlyUsed_whenFull() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            cache.get("/fire", "a", ResponseCacheTest.this::load);
+            cache.get("/fire", "b", ResponseCacheTest.this::load);
+            cache.get("/fire", "a", ResponseCacheTest.this::load);   // "a" devient la plus récente
+            cache.get("/fire", "c", ResponseCacheTest.this::load);   // évince "b"
+
+            assertThat(cache.size()).isEqualTo(2);
+            cache.get("/fire", "a", ResponseCacheTest.this::load);
+            assertThat(calls).hasValue(3);
+            cache.get("/fire", "b", ResponseCacheTest.this::load);
+            assertThat(calls).hasValue(4);
+        }
+
+        @Test
+        void shouldNotCacheExceptions() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            assertThatThrownBy(() -> cache.get("/fire", "a", () -> {
+                calls.incrementAndGet();
+                throw new IllegalArgumentException("address must not be empty");
+            })).isInstanceOf(IllegalArgumentException.class);
+            cache.get("/fire", "a", ResponseCacheTest.this::load);
+
+            assertThat(calls).hasValue(2);
+        }
+
+        @Test
+        void shouldRecompute_afterInvalidateAll() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            cache.get("/fire", "a", ResponseCacheTest.this::load);
+            cache.invalidateAll();
+            cache.get("/fire", "a", ResponseCacheTest.this::load);
+
+            assertThat(calls).hasValue(2);
+        }
+    }
+
+    @Nested
+    class Serialization {
+
+        @Test
+        void shouldStoreJsonBytes_forObjects() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            CachedResponse response = cache.get("/phoneAlert", "3", ResponseCacheTest.this::load);
+
+            assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"841-874-6512\"]");
+        }
+
+        @Test
+        void shouldStorePlainText_forStrings() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            CachedResponse response = cache.get("/childAlert", "x", () -> "");
+
+            assertThat(response.getContentType().isCompatibleWith(MediaType.TEXT_PLAIN)).isTrue();
+            assertThat(response.getBody()).isEmpty();
+        }
+
+        @Test
+        void shouldGzip_whenClientAcceptsAndBodyIsLarge() throws IOException {
+            when(dataVersion.current()).thenReturn("1-20000");
+            List<String> phones = Collections.nCopies(200, "841-874-6512");
+
+            CachedResponse response = cache.get("/phoneAlert", "1", () -> phones);
+            ResponseEntity<byte[]> gzipped = response.toResponseEntity("gzip, deflate");
+            ResponseEntity<byte[]> identity = response.toResponseEntity(null);
+
+            assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+            assertThat(gzipped.getBody()).hasSizeLessThan(response.getBody().length);
+            assertThat(gunzip(gzipped.getBody())).isEqualTo(response.getBody());
+            assertThat(response.toResponseEntity("gzip").getBody()).isSameAs(gzipped.getBody());
+            assertThat(identity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+            assertThat(identity.getBody()).isSameAs(response.getBody());
+        }
+
+        @Test
+        void shouldNotGzip_whenBodyIsSmall() {
+            when(dataVersion.current()).thenReturn("1-20000");
+
+            ResponseEntity<byte[]> entity = cache.get("/phoneAlert", "3", ResponseCacheTest.this::load)
+                    .toResponseEntity("gzip");
+
+            assertThat(entity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+            assertThat(entity.getHeaders().getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        private byte[] gunzip(byte[] content) throws IOException {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    @Nested
+    class Key {
+
+        @Test
+        void shouldIgnoreCase_forTextParams() {
+            assertThat(ResponseCache.key("1509 Culver St")).isEqualTo(ResponseCache.key("1509 CULVER st"));
+        }
+
+        @Test
+        void shouldRemoveDuplicates_andKeepOrder_forStationNumbers() {
+            assertThat(ResponseCache.key(List.of(3, 1, 3))).isEqualTo("3,1");
+        }
+
+        @Test
+        void shouldAcceptNullStationNumber() {
+            assertThat(ResponseCache.key(Arrays.asList(1, null))).isEqualTo("1,null");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.safetynet.AppSafetyNet.cache;
+
+import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldShareOneComputation_betweenConcurrentCallers() throws Exception {
+        // Given un calcul bloqué tant que tous les appelants ne sont pas arrivés
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        results.add(executor.submit(() -> singleFlight.execute("/fire?1509 culver st", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "response";
+        }, Duration.ofSeconds(5))));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 7; i++) {
+            results.add(executor.submit(() -> singleFlight.execute("/fire?1509 culver st", () -> {
+                calls.incrementAndGet();
+                return "other";
+            }, Duration.ofSeconds(5))));
+        }
+
+        // When le calcul se termine
+        waitForFollowers();
+        release.countDown();
+
+        // Then tous les appelants reçoivent le même résultat, calculé une seule fois
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("response");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void shouldPropagateException_toAllCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.execute("k", () -> {
+            started.countDown();
+            await(release);
+            throw new NotFoundException("No Email found with City: Toulouse");
+        }, Duration.ofSeconds(5)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> follower = executor.submit(() -> singleFlight.execute("k", () -> "other", Duration.ofSeconds(5)));
+
+        waitForFollowers();
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void shouldComputeIndependently_whenWaitExceedsTimeout() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.submit(() -> singleFlight.execute("k", () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }, Duration.ofSeconds(5)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        String result = singleFlight.execute("k", () -> "fallback", Duration.ofMillis(50));
+
+        assertThat(result).isEqualTo("fallback");
+        release.countDown();
+    }
+
+    @Test
+    void shouldRecompute_onceComputationIsFinished() {
+        singleFlight.execute("k", () -> String.valueOf(calls.incrementAndGet()), Duration.ofSeconds(1));
+        String second = singleFlight.execute("k", () -> String.valueOf(calls.incrementAndGet()), Duration.ofSeconds(1));
+
+        assertThat(second).isEqualTo("2");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // laisse le temps aux appelants suivants de se mettre en attente
+    private static void waitForFollowers() throws InterruptedException {
+        Thread.sleep(100);
+    }
+}
@@ -0,0 +1,176 @@
+package com.safetynet.AppSafetyNet.config;
+
+import com.safetynet.AppSafetyNet.cache.DataVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ConditionalGetInterceptorTest {
+
+    @Mock
+    private DataVersion dataVersion;
+
+    @InjectMocks
+    private ConditionalGetInterceptor interceptor;
+
+    private HandlerMethod handler;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+        response = new MockHttpServletResponse();
+    }
+
+    private HttpHeaders writeBody(MockHttpServletRequest request) {
+        return writeBody(request, null);
+    }
+
+    private HttpHeaders writeBody(MockHttpServletRequest request, String contentEncoding) {
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+        if (contentEncoding != null) {
+            serverResponse.getHeaders().set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        interceptor.beforeBodyWrite("body", null, MediaType.APPLICATION_JSON, StringHttpMessageConverter.class,
+                new ServletServerHttpRequest(request), serverResponse);
+        return serverResponse.getHeaders();
+    }
+
+    @Test
+    void shouldContinue_andSetEtagWhenTheBodyIsWritten_whenNoIfNoneMatch() {
+        when(dataVersion.current()).thenReturn("4-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader("ETag")).isNull();
+        assertThat(writeBody(request).getETag()).isEqualTo("\"4-20000\"");
+    }
+
+    @Test
+    void shouldNotSetEtag_whenTheResponseIsAnError() {
+        when(dataVersion.current()).thenReturn("4-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+
+        interceptor.preHandle(request, response, handler);
+        response.setStatus(404);
+
+        assertThat(writeBody(request).getETag()).isNull();
+    }
+
+    @Test
+    void shouldSetEtagOnStreamedResponse_onlyWhenSuccessful() {
+        when(dataVersion.current()).thenReturn("4-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+        interceptor.preHandle(request, response, handler);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            ConditionalGetInterceptor.applyEtag(response);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(response.getHeader("ETag")).isEqualTo("\"4-20000\"");
+    }
+
+    @Test
+    void shouldReturn304_whenEtagStillValid() {
+        when(dataVersion.current()).thenReturn("4-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+        request.addHeader("If-None-Match", "\"4-20000\"");
+
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo("\"4-20000\"");
+    }
+
+    @Test
+    void shouldContinue_whenDataChangedSinceEtag() {
+        when(dataVersion.current()).thenReturn("5-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+        request.addHeader("If-None-Match", "\"4-20000\"");
+
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        assertThat(proceed).isTrue();
+        assertThat(writeBody(request).getETag()).isEqualTo("\"5-20000\"");
+    }
+
+    @Test
+    void shouldUseDistinctEtag_onlyWhenTheBodyIsCompressed() {
+        when(dataVersion.current()).thenReturn("4-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+
+        interceptor.preHandle(request, response, handler);
+
+        assertThat(writeBody(request, "gzip").getETag()).isEqualTo("\"4-20000-gzip\"");
+        assertThat(writeBody(request).getETag()).isEqualTo("\"4-20000\"");
+    }
+
+    @Test
+    void shouldReturn304_whenCompressedEtagStillValid() {
+        when(dataVersion.current()).thenReturn("4-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("If-None-Match", "\"4-20000-gzip\"");
+
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        assertThat(proceed).isFalse();
+        assertThat(response.getHeader("ETag")).isEqualTo("\"4-20000-gzip\"");
+    }
+
+    @Test
+    void shouldNotUseCompressedEtag_forStreamedResponse() {
+        when(dataVersion.current()).thenReturn("4-20000");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/flood/stations");
+        request.addHeader("Accept", "application/x-ndjson");
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("If-None-Match", "\"4-20000-ndjson-gzip\"");
+
+        boolean proceed = interceptor.preHandle(request, response, handler);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            ConditionalGetInterceptor.applyEtag(response);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader("ETag")).isEqualTo("\"4-20000-ndjson\"");
+    }
+
+    @Test
+    void shouldIgnoreWriteRequests() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/person");
+        request.addHeader("If-None-Match", "*");
+
+        boolean proceed = interceptor.preHandle(request, response, handler);
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader("ETag")).isNull();
+        verifyNoInteractions(dataVersion);
+    }
+}
@@ -13,16 +13,21 @@ import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 
@@ -134,6 +139,57 @@ public class AlertControllerIT {
         JSONAssert.assertEquals(expectedJson, jsonResponse, JSONCompareMode.LENIENT);
     }
 
+    /**
+     * Teste que /childAlert et /fire corrigent une faute de frappe dans l'adresse
+     * et indiquent l'adresse retenue et la confiance en en-tête.
+     */
+    @Test
+    public void testGetChildrenAndFireAtAddress_withTypo() throws Exception {
+        //given
+        String exactChildren = mockMvc.perform(get("/childAlert").param("address", "1509 Culver St"))
+                .andReturn().getResponse().getContentAsString();
+        String expectedFire = Files.readString(Path.of("src/test/resources/expected/fire/response-fire-1509-culver.json"));
+
+        //When + Then
+        MvcResult children = mockMvc.perform(get("/childAlert")
+                        .param("address", "1509 Culvr St"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Resolved-Address", "1509 Culver St"))
+                .andExpect(header().string("X-Address-Confidence", "0.93"))
+                .andReturn();
+        assertEquals(exactChildren, children.getResponse().getContentAsString());
+
+        MvcResult fire = mockMvc.perform(get("/fire")
+                        .param("address", "1509 Culvre St"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Resolved-Address", "1509 Culver St"))
+                .andReturn();
+        JSONAssert.assertEquals(expectedFire, fire.getResponse().getContentAsString(), JSONCompareMode.LENIENT);
+
+        mockMvc.perform(get("/childAlert")
+                        .param("address", "addressDoesNotExist"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Resolved-Address"));
+    }
+
+    /**
+     * Teste que /fire accepte une variante d'écriture de l'adresse (casse, type de voie, espaces).
+     */
+    @Test
+    public void testGetFireAtAddress_withSpellingVariant() throws Exception {
+        //given
+        String expectedJson = Files.readString(Path.of("src/test/resources/expected/fire/response-fire-1509-culver.json"));
+
+        //When
+        MvcResult result = mockMvc.perform(get("/fire")
+                .param("address", " 1509 CULVER Street"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        JSONAssert.assertEquals(expectedJson, result.getResponse().getContentAsString(), JSONCompareMode.LENIENT);
+    }
+
     /**
      * Teste la récupération des informations d'inondation pour les stations 1 et 3.
      * Compare la réponse JSON complète avec un fichier attendu.
@@ -158,6 +214,29 @@ public class AlertControllerIT {
         JSONAssert.assertEquals(expectedJson, jsonResponse, JSONCompareMode.LENIENT);
     }
 
+    /**
+     * Teste la réponse en flux NDJSON de /flood/stations : un foyer par ligne,
+     * identique au contenu de la réponse JSON classique.
+     */
+    @Test
+    public void testGetFloodAtAddressAsNdjson() throws Exception {
+        //Given
+        String expectedJson = Files.readString(Path.of("src/test/resources/expected/flood/response-flood-stationNumber-1-3.json"));
+
+        //When
+        MvcResult result = mockMvc.perform(get("/flood/stations")
+                        .param("stationNumber", "1")
+                        .param("stationNumber", "3")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        // Then
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        JSONAssert.assertEquals(expectedJson, "[" + String.join(",", lines) + "]", JSONCompareMode.LENIENT);
+    }
+
     /**
      * Teste la récupération des informations des personnes par nom de famille "Zemicks".
      * Compare la réponse JSON complète avec un fichier attendu.
@@ -199,6 +278,66 @@ public class AlertControllerIT {
                 .andExpect(jsonPath("$").value(containsInAnyOrder(expectedEmails)));
     }
 
+    /**
+     * Teste qu'une écriture invalide les réponses en cache : un second appel identique
+     * après l'ajout d'une personne doit refléter la nouvelle donnée.
+     */
+    @Test
+    public void testGetCommunityEmailByCityIsRefreshedAfterWrite() throws Exception {
+        // GIVEN une réponse déjà en cache
+        mockMvc.perform(get("/communityEmail").param("city", "Culver"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(8));
+
+        // WHEN une personne est ajoutée à Culver
+        mockMvc.perform(post("/person")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "firstName":"Zikon", "lastName":"Neodal", "address":"892 Downing Ct", "city":"Culver",
+                                  "zip":"97451", "phone":"841-874-7512", "email":"zarchino@email.com" }
+                                """))
+                .andExpect(status().isCreated());
+
+        // THEN la même requête retourne le nouvel email
+        mockMvc.perform(get("/communityEmail").param("city", "CULVER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(9));
+    }
+
+    /**
+     * Teste la pagination par curseur de /communityEmail : les pages successives couvrent
+     * tous les emails distincts une seule fois, et un curseur émis avant une écriture est refusé.
+     */
+    @Test
+    public void testGetCommunityEmailByCityPaged() throws Exception {
+        // GIVEN + WHEN deux pages de 5 emails
+        String firstPage = mockMvc.perform(get("/communityEmail").param("city", "Culver").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5))
+                .andExpect(jsonPath("$.nextCursor").isString())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+        String secondPage = mockMvc.perform(get("/communityEmail").param("city", "Culver").param("limit", "5").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.nextCursor").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        // THEN les pages réunies donnent les emails distincts de la ville
+        List<String> emails = new ArrayList<>();
+        objectMapper.readTree(firstPage).get("items").forEach(email -> emails.add(email.asText()));
+        objectMapper.readTree(secondPage).get("items").forEach(email -> emails.add(email.asText()));
+        assertEquals(8, Set.copyOf(emails).size());
+
+        // WHEN une personne est supprimée, THEN le curseur n'est plus valide
+        mockMvc.perform(delete("/person").param("firstName", "John").param("lastName", "Boyd"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/communityEmail").param("city", "Culver").param("limit", "5").param("cursor", cursor))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/communityEmail").param("city", "Culver").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testGetCommunityEmailByCityButNoPersonFindAtTheCity() throws Exception {
         // given
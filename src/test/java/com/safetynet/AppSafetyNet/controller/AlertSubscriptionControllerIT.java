@@ -0,0 +1,73 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe de tests d'intégration pour le contrôleur AlertSubscriptionController.
+ * <p>
+ * Vérifie qu'un abonnement commence par le résultat complet de chaque requête suivie,
+ * et que les paramètres invalides sont refusés avant l'ouverture du flux.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AlertSubscriptionControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataStorage dataStorage;
+
+    @BeforeEach
+    public void resetFixture() throws IOException {
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+    }
+
+    @Test
+    public void testSubscribeSendsSnapshotOfEachQuery() throws Exception {
+        mockMvc.perform(get("/alerts/subscribe")
+                        .param("phoneAlert", "3")
+                        .param("fire", "1509 Culver St")
+                        .param("limit", "2")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(allOf(
+                        containsString("event: snapshot\n"),
+                        containsString("\"version\":\"" + dataStorage.versionToken(dataStorage.getVersion()) + "\""),
+                        containsString("\"query\":\"/phoneAlert?numberFireStation=3\""),
+                        containsString("\"841-874-6512\":\"841-874-6512\""),
+                        containsString("\"query\":\"/fire?address=1509 Culver St\""),
+                        containsString("\"john boyd\":{\"persons\":{\"firstName\":\"John\""),
+                        containsString("\"summary\":{\"stationNumber\":3}"))));
+    }
+
+    @Test
+    public void testSubscribeButNoQueryIsGiven() throws Exception {
+        mockMvc.perform(get("/alerts/subscribe").param("limit", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("At least one query is required"));
+    }
+
+    @Test
+    public void testSubscribeButStationNumberIsInvalid() throws Exception {
+        mockMvc.perform(get("/alerts/subscribe").param("flood", "1,x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid station number: x"));
+    }
+}
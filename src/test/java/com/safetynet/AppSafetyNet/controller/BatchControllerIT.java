@@ -0,0 +1,108 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe de tests d'intégration pour le contrôleur BatchController.
+ * <p>
+ * Vérifie qu'un lot d'opérations est appliqué en entier, avec une seule nouvelle version des données,
+ * ou pas du tout lorsqu'une opération échoue.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BatchControllerIT {
+
+    private static final String CREATE_RESIDENT = """
+            [
+                {"op":"create","type":"person","data":{"firstName":"Zikon","lastName":"Neodal","address":"1509 Culver St",
+                    "city":"Culver","zip":"97451","phone":"841-874-7512","email":"zarchino@email.com"}},
+                {"op":"create","type":"medicalrecord","data":{"firstName":"Zikon","lastName":"Neodal","birthdate":"03/06/1984",
+                    "medications":["aznol:350mg"],"allergies":[]}}
+            ]
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataStorage dataStorage;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @BeforeEach
+    public void resetFixture() throws IOException {
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+    }
+
+    /**
+     * Teste la création d'un résident complet (personne et dossier médical) en un seul lot :
+     * une seule nouvelle version, et le résident est immédiatement visible dans les alertes.
+     */
+    @Test
+    public void testPostBatchCreateResident() throws Exception {
+        long version = dataStorage.getVersion();
+
+        mockMvc.perform(post("/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(CREATE_RESIDENT))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.version").value(dataStorage.versionToken(version + 1)));
+
+        mockMvc.perform(get("/fire").param("address", "1509 Culver St"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persons[*].persons.firstName", hasItem("Zikon")));
+    }
+
+    /**
+     * Teste un lot dont la deuxième opération échoue : l'erreur indique l'opération fautive
+     * et la première opération est annulée.
+     */
+    @Test
+    public void testPostBatchButOneOperationFails() throws Exception {
+        String content = """
+                [
+                    {"op":"create","type":"person","data":{"firstName":"Zikon","lastName":"Neodal","address":"1509 Culver St","city":"Culver"}},
+                    {"op":"update","type":"medicalrecord","data":{"firstName":"Ghost","lastName":"Nobody","birthdate":"03/06/1984"}}
+                ]
+                """;
+
+        mockMvc.perform(post("/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(containsString("Operation 1 failed: Medical record for this person does not exist")));
+
+        assertFalse(personRepository.findByFirstNameAndLastName("Zikon", "Neodal").isPresent());
+    }
+
+    /**
+     * Teste un lot contenant une opération inconnue.
+     */
+    @Test
+    public void testPostBatchButOperationIsUnknown() throws Exception {
+        mockMvc.perform(post("/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"op\":\"upsert\",\"type\":\"person\",\"data\":{}}]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,142 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.repository.data.ChangeLog;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe de tests d'intégration pour le contrôleur ChangeController.
+ * <p>
+ * Vérifie que les modifications faites par les endpoints CRUD sont publiées dans l'ordre, avec leur séquence,
+ * que la synchronisation différentielle ne renvoie que le dernier changement de chaque entité,
+ * et qu'une reprise impossible demande une resynchronisation complète.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ChangeControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataStorage dataStorage;
+
+    @Autowired
+    private ChangeLog changeLog;
+
+    @BeforeEach
+    public void resetFixture() throws IOException {
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+    }
+
+    @Test
+    public void testStreamChangesAsServerSentEvents() throws Exception {
+        String epoch = dataStorage.getEpoch();
+        long sequence = changeLog.lastSequence();
+        mockMvc.perform(delete("/person").param("firstName", "John").param("lastName", "Boyd"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(put("/firestation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"1509 Culver St\",\"station\":4}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/changes/stream")
+                        .param("limit", "2")
+                        .header(ChangeController.LAST_EVENT_ID, epoch + "-" + sequence)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(header().string(ChangeController.CHANGE_EPOCH_HEADER, epoch))
+                .andExpect(content().string(allOf(
+                        containsString("id: " + epoch + "-" + (sequence + 1) + "\nevent: delete\n"),
+                        containsString("\"type\":\"person\",\"id\":\"john boyd\""),
+                        containsString("id: " + epoch + "-" + (sequence + 2) + "\nevent: upsert\n"),
+                        containsString("\"station\":4"))));
+    }
+
+    @Test
+    public void testGetChangesSinceVersion() throws Exception {
+        long version = dataStorage.getVersion();
+        String person = """
+                {"firstName":"John","lastName":"Boyd","address":"892 Downing Ct","city":"Culver",
+                "zip":"97451","phone":"841-874-6512","email":"jaboyd@email.com"}""";
+        mockMvc.perform(put("/person").contentType(MediaType.APPLICATION_JSON).content(person))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/person").contentType(MediaType.APPLICATION_JSON).content(person.replace("Culver\"", "Paris\"")))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/medicalrecord").param("firstName", "Jacob").param("lastName", "Boyd"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/changes").param("since", dataStorage.versionToken(version)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resyncRequired").value(false))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.version").value(dataStorage.versionToken(version + 3)))
+                .andExpect(jsonPath("$.changes.length()").value(2))
+                .andExpect(jsonPath("$.changes[0].op").value("upsert"))
+                .andExpect(jsonPath("$.changes[0].id").value("john boyd"))
+                .andExpect(jsonPath("$.changes[0].data.city").value("Paris"))
+                .andExpect(jsonPath("$.changes[1].op").value("delete"))
+                .andExpect(jsonPath("$.changes[1].type").value("medicalrecord"))
+                .andExpect(jsonPath("$.changes[1].data").doesNotExist());
+    }
+
+    @Test
+    public void testGetChangesButVersionIsTooOld() throws Exception {
+        mockMvc.perform(get("/changes").param("since", dataStorage.versionToken(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resyncRequired").value(true))
+                .andExpect(jsonPath("$.version").value(dataStorage.versionToken(dataStorage.getVersion())))
+                .andExpect(jsonPath("$.changes").isEmpty());
+    }
+
+    @Test
+    public void testGetChangesButVersionIsFromPreviousRun() throws Exception {
+        mockMvc.perform(get("/changes").param("since", "previous-" + dataStorage.getVersion()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resyncRequired").value(true))
+                .andExpect(jsonPath("$.version").value(dataStorage.versionToken(dataStorage.getVersion())))
+                .andExpect(jsonPath("$.changes").isEmpty());
+    }
+
+    @Test
+    public void testStreamChangesButSequenceIsBeforeReload() throws Exception {
+        mockMvc.perform(get("/changes/stream")
+                        .param("after", dataStorage.getEpoch() + "-0")
+                        .param("limit", "1")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"op\":\"resync\"")));
+    }
+
+    @Test
+    public void testStreamChangesButPositionIsFromPreviousRun() throws Exception {
+        mockMvc.perform(get("/changes/stream")
+                        .header(ChangeController.LAST_EVENT_ID, "previous-" + (changeLog.lastSequence() + 1))
+                        .param("limit", "1")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event: resync\n")));
+    }
+
+    @Test
+    public void testStreamChangesButLimitIsInvalid() throws Exception {
+        mockMvc.perform(get("/changes/stream").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Limit must be positive"));
+    }
+}
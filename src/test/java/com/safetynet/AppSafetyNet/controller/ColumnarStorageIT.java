@@ -0,0 +1,92 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.columnar.ColumnarPersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.columnar.MedicalRecordColumns;
+import com.safetynet.AppSafetyNet.repository.data.columnar.PersonColumns;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests d'intégration des endpoints avec le stockage en colonnes activé
+ * ({@code application.storage.columnar=true}).
+ */
+@SpringBootTest(properties = "application.storage.columnar=true")
+@AutoConfigureMockMvc
+public class ColumnarStorageIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataStorage dataStorage;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @BeforeEach
+    public void resetFixture() throws IOException {
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+    }
+
+    @Test
+    public void testColumnarStoreIsUsed() {
+        assertThat(personRepository).isInstanceOf(ColumnarPersonRepository.class);
+        assertThat(dataStorage.getPersons()).isInstanceOf(PersonColumns.class);
+        assertThat(dataStorage.getMedicalRecords()).isInstanceOf(MedicalRecordColumns.class);
+    }
+
+    @Test
+    public void testGetChildrenAtAddress() throws Exception {
+        mockMvc.perform(get("/childAlert").param("address", "1509 culver st"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].firstName", containsInAnyOrder("Tenley", "Roger")));
+    }
+
+    @Test
+    public void testCommunityEmailIsUpdatedAfterPersonAdded() throws Exception {
+        mockMvc.perform(get("/communityEmail").param("city", "Culver"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(8));
+
+        mockMvc.perform(post("/person")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                { "firstName":"Zikon", "lastName":"Neodal", "address":"892 Downing Ct", "city":"Culver",
+                                "zip":"97451", "phone":"841-874-7878", "email":"zikon@email.com" }"""))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/communityEmail").param("city", "CULVER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(9));
+        assertThat(dataStorage.getPersons()).isInstanceOf(PersonColumns.class);
+    }
+
+    @Test
+    public void testGetMedicalRecordAfterUpdate() throws Exception {
+        mockMvc.perform(put("/medicalrecord")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"firstName":"John","lastName":"Boyd","birthdate":"03/06/1984",
+                                "medications":["insulin:10ui"],"allergies":[]}"""))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/personInfoLastName").param("lastName", "boyd"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.mail == 'jaboyd@email.com' && @.medications[0] == 'insulin:10ui')]").exists());
+    }
+}
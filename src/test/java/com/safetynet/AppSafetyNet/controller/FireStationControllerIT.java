@@ -12,6 +12,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
@@ -82,6 +83,82 @@ public class FireStationControllerIT {
                 ));
     }
 
+    /**
+     * Teste la réponse en flux Server-Sent Events : un événement par personne couverte,
+     * puis le décompte des adultes et des enfants.
+     */
+    @Test
+    public void testGetFireStationByNumberStationAsEventStream() throws Exception {
+        // GIVEN un client acceptant text/event-stream
+        // WHEN on appelle /firestation pour la station 3
+        String body = mockMvc.perform(get("/firestation").param("stationNumber", "3")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andReturn().getResponse().getContentAsString();
+
+        // THEN cinq événements person puis un événement summary
+        List<String> events = body.lines().filter(line -> line.startsWith("event: ")).toList();
+        assertEquals(6, events.size());
+        assertEquals("event: summary", events.getLast());
+        assertTrue(body.contains("\"firstName\":\"John\""));
+        assertTrue(body.contains("data: {\"adults\":3,\"children\":2}"));
+    }
+
+    /**
+     * Teste la requête GET conditionnelle : un client présentant l'ETag reçu précédemment
+     * obtient un 304 sans corps tant que les données n'ont pas changé.
+     */
+    @Test
+    public void testGetFireStationByNumberStationNotModified() throws Exception {
+        // GIVEN un premier appel qui retourne un ETag
+        String etag = mockMvc.perform(get("/firestation").param("stationNumber", "3"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // WHEN on rejoue la requête avec cet ETag
+        mockMvc.perform(get("/firestation").param("stationNumber", "3")
+                        .header("If-None-Match", etag))
+
+                // THEN la réponse est 304 sans corps
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * Teste qu'une réponse en erreur ne porte pas d'ETag : elle ne doit pas être revalidée comme une réponse.
+     */
+    @Test
+    public void testGetFireStationByNumberStationErrorHasNoEtag() throws Exception {
+        mockMvc.perform(get("/firestation").param("stationNumber", "99"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    /**
+     * Teste qu'un ETag devient invalide dès qu'une écriture modifie les données.
+     */
+    @Test
+    public void testGetFireStationByNumberStationModifiedAfterWrite() throws Exception {
+        // GIVEN un ETag obtenu avant une écriture
+        String etag = mockMvc.perform(get("/firestation").param("stationNumber", "3"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(delete("/firestation").param("address", "1509 Culver St"))
+                .andExpect(status().isNoContent());
+
+        // WHEN on rejoue la requête avec l'ancien ETag
+        mockMvc.perform(get("/firestation").param("stationNumber", "3")
+                        .header("If-None-Match", etag))
+
+                // THEN la réponse est recalculée avec un nouvel ETag
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.persons.length()").value(0));
+    }
+
     /**
      * Teste l'ajout d'une nouvelle caserne via POST.
      * Vérifie que la caserne est bien créée et persistée en base.
@@ -280,4 +357,33 @@ public class FireStationControllerIT {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString(expectedResult)));
     }
+
+    /**
+     * Teste l'import en masse de casernes : l'adresse déjà couverte change de station,
+     * et l'index de recherche reflète immédiatement la nouvelle affectation.
+     */
+    @Test
+    public void testPostFireStationBulk() throws Exception {
+        // Given
+        String content = """
+        [
+            {"address":"1509 Culver St","station":"4"},
+            {"address":"1 Bulk Rd","station":"4"}
+        ]
+        """;
+
+        // When
+        mockMvc.perform(post("/firestation/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.created").value(1));
+
+        // Then
+        assertEquals(4, fireStationRepository.findByAddress("1509 Culver St").orElseThrow().getStation());
+        mockMvc.perform(get("/firestation").param("stationNumber", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persons[*].firstName", hasItem("John")));
+    }
 }
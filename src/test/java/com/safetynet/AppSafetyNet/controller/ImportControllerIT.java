@@ -0,0 +1,114 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.repository.FireStationRepository;
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe de tests d'intégration pour le contrôleur ImportController.
+ * <p>
+ * Vérifie l'import par lots d'un fichier CSV ou NDJSON, la progression renvoyée en flux
+ * et la reprise d'un import interrompu.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ImportControllerIT {
+
+    private static final String PERSONS_CSV = """
+            firstName,lastName,address,city,zip,phone,email
+            John,Boyd,"1 Import Rd, Apt 2",Culver,97451,841-874-0000,jboyd@email.com
+            Zikon,Neodal,892 Downing Ct,Culver,97451,841-874-7512,zarchino@email.com
+            Ghost,,892 Downing Ct,Culver,97451,841-874-7512,ghost@email.com
+            """;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataStorage dataStorage;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private FireStationRepository fireStationRepository;
+
+    @BeforeEach
+    public void resetFixture() throws IOException {
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+    }
+
+    /**
+     * Teste l'import d'un fichier CSV de personnes par lots de 2 lignes : les deux lots forment un seul
+     * point de reprise, enregistré en une seule écriture ; la ligne invalide est signalée et les autres sont enregistrées.
+     */
+    @Test
+    public void testImportPersonsCsv() throws Exception {
+        long version = dataStorage.getVersion();
+        String body = mockMvc.perform(post("/admin/import/person")
+                        .param("batchSize", "2")
+                        .contentType(ImportController.TEXT_CSV_VALUE)
+                        .content(PERSONS_CSV))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("\"checkpoint\":3,\"created\":1,\"updated\":1,\"invalid\":1,\"done\":true"), lines[0]);
+        assertTrue(lines[0].contains("{\"row\":3,\"error\":\"First name and last name are required\"}"), lines[0]);
+        assertEquals(version + 1, dataStorage.getVersion());
+        assertEquals("1 Import Rd, Apt 2", personRepository.findByFirstNameAndLastName("John", "Boyd").orElseThrow().getAddress());
+        assertTrue(personRepository.findByFirstNameAndLastName("Zikon", "Neodal").isPresent());
+    }
+
+    /**
+     * Teste la reprise d'un import : les lignes déjà importées sont ignorées,
+     * et la progression est envoyée en Server-Sent Events.
+     */
+    @Test
+    public void testImportFireStationsNdjsonResumed() throws Exception {
+        String ndjson = """
+                {"address":"1509 Culver St","station":"4"}
+                {"address":"1 Import Rd","station":"4"}
+                """;
+
+        mockMvc.perform(post("/admin/import/firestation")
+                        .param("skip", "1")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("event: done\ndata: {\"checkpoint\":2,\"created\":1")));
+
+        assertEquals(3, fireStationRepository.findByAddress("1509 Culver St").orElseThrow().getStation());
+        assertEquals(4, fireStationRepository.findByAddress("1 Import Rd").orElseThrow().getStation());
+    }
+
+    /**
+     * Teste l'import vers un type inconnu : erreur 400 avant toute lecture du fichier.
+     */
+    @Test
+    public void testImportUnknownTarget() throws Exception {
+        mockMvc.perform(post("/admin/import/unknown")
+                        .contentType(ImportController.TEXT_CSV_VALUE)
+                        .content(PERSONS_CSV))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Unknown entity type: unknown")));
+    }
+}
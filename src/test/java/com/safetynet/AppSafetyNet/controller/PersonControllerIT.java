@@ -1,5 +1,6 @@
 package com.safetynet.AppSafetyNet.controller;
 import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.repository.PersonRepository;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +16,7 @@ import java.io.IOException;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,6 +44,9 @@ public class PersonControllerIT {
     @Autowired
     private PersonRepository personRepository;
 
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
     @Autowired
     private DataStorage dataStorage;
 
@@ -145,6 +150,25 @@ public class PersonControllerIT {
         assertFalse(personDeleted.isPresent());
     }
 
+    /**
+     * Teste la suppression en cascade d'une personne via DELETE avec {@code cascade=true}.
+     * Vérifie que la personne et son dossier médical sont supprimés en une seule nouvelle version des données.
+     */
+    @Test
+    public void testDeletePersonWithCascade() throws Exception {
+        long version = dataStorage.getVersion();
+
+        mockMvc.perform(delete("/person")
+                        .param("firstName", "John")
+                        .param("lastName", "Boyd")
+                        .param("cascade", "true"))
+                .andExpect(status().isNoContent());
+
+        assertFalse(personRepository.findByFirstNameAndLastName("John", "Boyd").isPresent());
+        assertFalse(medicalRecordRepository.findByFirstNameAndLastName("John", "Boyd").isPresent());
+        assertEquals(version + 1, dataStorage.getVersion());
+    }
+
     // CAS D'USAGE OU LA PERSONNE N'EXISTE PAS OU EXISTE QUAND IL NE LE FAUT PAS
 
     /**
@@ -285,4 +309,72 @@ public class PersonControllerIT {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString(expectedResult)));
     }
+
+    /**
+     * Teste l'import en masse au format NDJSON : une personne existante est remplacée,
+     * une nouvelle personne est créée.
+     */
+    @Test
+    public void testPostPersonBulkAsNdjson() throws Exception {
+        // given
+        String content = """
+        {"firstName":"John","lastName":"Boyd","address":"1 Bulk Rd","city":"Culver","zip":"97451","phone":"841-874-0000","email":"jboyd@email.com"}
+        {"firstName":"Zikon","lastName":"Neodal","address":"892 Downing Ct","city":"Culver","zip":"97451","phone":"841-874-7512","email":"zarchino@email.com"}
+        """;
+
+        // when
+        mockMvc.perform(post("/person/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(content))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(true))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.items[1].status").value("CREATED"));
+
+        // then
+        assertEquals("1 Bulk Rd", personRepository.findByFirstNameAndLastName("John", "Boyd").orElseThrow().getAddress());
+        assertTrue(personRepository.findByFirstNameAndLastName("Zikon", "Neodal").isPresent());
+    }
+
+    /**
+     * Teste l'import en masse d'un tableau JSON contenant un élément invalide :
+     * le lot est refusé en entier et le détail des erreurs est renvoyé.
+     */
+    @Test
+    public void testPostPersonBulkButOneItemIsInvalid() throws Exception {
+        // given
+        String content = """
+        [
+            {"firstName":"Zikon","lastName":"Neodal","address":"892 Downing Ct","city":"Culver","zip":"97451","phone":"841-874-7512","email":"zarchino@email.com"},
+            {"lastName":"Nameless","address":"892 Downing Ct","city":"Culver"}
+        ]
+        """;
+
+        // when
+        mockMvc.perform(post("/person/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.applied").value(false))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("VALID"))
+                .andExpect(jsonPath("$.items[1].error").value("First name and last name are required"));
+
+        // then
+        assertFalse(personRepository.findByFirstNameAndLastName("Zikon", "Neodal").isPresent());
+    }
+
+    /**
+     * Teste l'import en masse avec un corps qui n'est pas du JSON.
+     */
+    @Test
+    public void testPostPersonBulkButPayloadIsMalformed() throws Exception {
+        mockMvc.perform(post("/person/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"firstName\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Invalid bulk payload")));
+    }
 }
@@ -0,0 +1,203 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe de tests d'intégration pour le contrôleur ResidentController.
+ * <p>
+ * Vérifie la recherche multi-critères des résidents et sa mise à jour après une modification des données,
+ * ainsi que la suppression des résidents (personne et dossier médical).
+ * Les âges sont calculés à la date figée par {@code application.clock.fixed-date}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ResidentControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataStorage dataStorage;
+
+    @BeforeEach
+    public void resetFixture() throws IOException {
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+    }
+
+    @Test
+    public void testSearchByStationAndAllergy() throws Exception {
+        mockMvc.perform(get("/residents/search")
+                        .param("stationNumber", "3")
+                        .param("allergy", "Peanut"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].firstName").value("Tenley"))
+                .andExpect(jsonPath("$[0].age").value(13))
+                .andExpect(jsonPath("$[0].stations[0]").value(3));
+    }
+
+    @Test
+    public void testSearchByCityAgeRangeAndMedication() throws Exception {
+        mockMvc.perform(get("/residents/search")
+                        .param("city", "culver")
+                        .param("minAge", "30")
+                        .param("maxAge", "45")
+                        .param("medication", "hydrapermazol"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].firstName", containsInAnyOrder("John", "Sophia")));
+    }
+
+    @Test
+    public void testSearchWithoutMatch() throws Exception {
+        mockMvc.perform(get("/residents/search")
+                        .param("lastName", "Boyd")
+                        .param("zip", "75000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    public void testSearchResidentWithoutMedicalRecord() throws Exception {
+        mockMvc.perform(get("/residents/search").param("stationNumber", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].lastName").value("SansDossierMedical"))
+                .andExpect(jsonPath("$[0].age").doesNotExist());
+    }
+
+    @Test
+    public void testSearchButNoCriteria() throws Exception {
+        mockMvc.perform(get("/residents/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("At least one search criterion is required"));
+    }
+
+    @Test
+    public void testSearchButInvalidAgeRange() throws Exception {
+        mockMvc.perform(get("/residents/search")
+                        .param("minAge", "20")
+                        .param("maxAge", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("minAge must not be greater than maxAge"));
+    }
+
+    @Test
+    public void testSearchIsUpdatedAfterPersonMoved() throws Exception {
+        String person = """
+                {"firstName":"Roger","lastName":"Boyd","address":"892 Downing Ct","city":"Culver",
+                "zip":"97451","phone":"841-874-6512","email":"jaboyd@email.com"}""";
+
+        mockMvc.perform(put("/person").contentType(MediaType.APPLICATION_JSON).content(person))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/residents/search")
+                        .param("stationNumber", "2")
+                        .param("maxAge", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].firstName", containsInAnyOrder("Zach", "Roger")));
+    }
+
+    @Test
+    public void testGetByMedication() throws Exception {
+        mockMvc.perform(get("/residents/medical").param("medication", "Hydrapermazol"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].firstName", containsInAnyOrder("John", "Sophia", "Brian")));
+    }
+
+    @Test
+    public void testGetByAllergyAndStation() throws Exception {
+        mockMvc.perform(get("/residents/medical")
+                        .param("allergy", "shellfish")
+                        .param("stationNumber", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].firstName").value("Sophia"));
+    }
+
+    @Test
+    public void testGetByMedicationIsUpdatedAfterMedicalRecordChanged() throws Exception {
+        String medicalRecord = """
+                {"firstName":"Tenley","lastName":"Boyd","birthdate":"02/18/2012",
+                "medications":["insulin:10ui"],"allergies":["peanut"]}""";
+
+        mockMvc.perform(put("/medicalrecord").contentType(MediaType.APPLICATION_JSON).content(medicalRecord))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/residents/medical")
+                        .param("medication", "insulin")
+                        .param("stationNumber", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].firstName").value("Tenley"))
+                .andExpect(jsonPath("$[0].medications[0]").value("insulin:10ui"));
+    }
+
+    @Test
+    public void testGetByMedicalTermButNoTerm() throws Exception {
+        mockMvc.perform(get("/residents/medical").param("stationNumber", "3"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("A medication or an allergy is required"));
+    }
+
+    @Test
+    public void testDeleteResidentsInOneVersion() throws Exception {
+        long version = dataStorage.getVersion();
+
+        mockMvc.perform(post("/residents/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"firstName":"John","lastName":"Boyd"},{"firstName":"jacob","lastName":"BOYD"},
+                                 {"firstName":"Ghost","lastName":"Nobody"}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.persons").value(2))
+                .andExpect(jsonPath("$.medicalRecords").value(2))
+                .andExpect(jsonPath("$.version").value(dataStorage.versionToken(version + 1)));
+
+        mockMvc.perform(get("/fire").param("address", "1509 Culver St"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persons[*].persons.firstName", not(hasItem("John"))))
+                .andExpect(jsonPath("$.persons[*].persons.firstName", not(hasItem("Jacob"))));
+        mockMvc.perform(get("/residents/medical").param("medication", "hydrapermazol"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].firstName", containsInAnyOrder("Sophia", "Brian")));
+    }
+
+    @Test
+    public void testDeleteResident() throws Exception {
+        mockMvc.perform(delete("/residents")
+                        .param("firstName", "Tenley")
+                        .param("lastName", "Boyd"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/residents/search").param("allergy", "peanut"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].firstName", containsInAnyOrder("Sophia")));
+    }
+
+    @Test
+    public void testDeleteResidentsButNameIsMissing() throws Exception {
+        mockMvc.perform(post("/residents/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"firstName\":\"John\"}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Last name is required"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.safetynet.AppSafetyNet.controller;
+
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Classe de tests d'intégration pour le contrôleur StatsController.
+ * <p>
+ * Vérifie la répartition par tranche d'âge des résidents couverts par les stations,
+ * ainsi que sa mise à jour après une modification des données.
+ * Les âges sont calculés à la date figée par {@code application.clock.fixed-date}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StatsControllerIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataStorage dataStorage;
+
+    @BeforeEach
+    public void resetFixture() throws IOException {
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+    }
+
+    @Test
+    public void testGetStationStats() throws Exception {
+        mockMvc.perform(get("/stats/stations").param("stationNumber", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].station").value(3))
+                .andExpect(jsonPath("$[0].residents.brackets['6-12']").value(1))
+                .andExpect(jsonPath("$[0].residents.brackets['13-18']").value(1))
+                .andExpect(jsonPath("$[0].residents.brackets['19-64']").value(3))
+                .andExpect(jsonPath("$[0].residents.total").value(5))
+                .andExpect(jsonPath("$[0].addresses", hasSize(2)))
+                .andExpect(jsonPath("$[0].addresses[0].address").value("1509 Culver St"))
+                .andExpect(jsonPath("$[0].addresses[0].residents.total").value(5))
+                .andExpect(jsonPath("$[0].addresses[1].residents.total").value(0));
+    }
+
+    @Test
+    public void testGetAllStationStats() throws Exception {
+        mockMvc.perform(get("/stats/stations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(6)))
+                .andExpect(jsonPath("$[0].station").value(1))
+                .andExpect(jsonPath("$[4].station").value(5))
+                .andExpect(jsonPath("$[4].residents.unknown").value(1));
+    }
+
+    @Test
+    public void testGetStationStatsButStationDoesntExist() throws Exception {
+        mockMvc.perform(get("/stats/stations").param("stationNumber", "42"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Aucune FireStation avec le numéro de station : 42"));
+    }
+
+    @Test
+    public void testGetStationStatsIsUpdatedAfterWrites() throws Exception {
+        String person = """
+                {"firstName":"Lily","lastName":"Cooper","address":"834 Binoc Ave","city":"Culver",
+                "zip":"97451","phone":"841-874-9845","email":"lily@email.com"}""";
+        String medicalRecord = """
+                {"firstName":"Lily","lastName":"Cooper","birthdate":"03/06/2022","medications":[],"allergies":[]}""";
+
+        mockMvc.perform(post("/person").contentType(MediaType.APPLICATION_JSON).content(person))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/medicalrecord").contentType(MediaType.APPLICATION_JSON).content(medicalRecord))
+                .andExpect(status().isCreated());
+        mockMvc.perform(put("/firestation").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"address\":\"834 Binoc Ave\",\"station\":2}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/stats/stations").param("stationNumber", "2").param("stationNumber", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].residents.brackets['0-5']").value(1))
+                .andExpect(jsonPath("$[0].residents.total").value(4))
+                .andExpect(jsonPath("$[0].addresses", hasSize(3)))
+                .andExpect(jsonPath("$[1].residents.total").value(5))
+                .andExpect(jsonPath("$[1].addresses", hasSize(1)));
+    }
+}
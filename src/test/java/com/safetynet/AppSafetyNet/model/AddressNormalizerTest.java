@@ -0,0 +1,44 @@
+package com.safetynet.AppSafetyNet.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AddressNormalizerTest {
+
+    @Test
+    void addressKey_shouldIgnoreCaseSpacingPunctuationAndStreetTypeSpelling() {
+        String key = AddressNormalizer.addressKey("1509 Culver St");
+
+        assertThat(key).isEqualTo("1509 culver st");
+        assertThat(AddressNormalizer.addressKey("  1509   CULVER  Street ")).isEqualTo(key);
+        assertThat(AddressNormalizer.addressKey("1509 Culver St.")).isEqualTo(key);
+        assertThat(AddressNormalizer.addressKey("947 E. Rose Dr")).isEqualTo(AddressNormalizer.addressKey("947 E Rose Drive"));
+    }
+
+    @Test
+    void addressKey_shouldKeepDistinctAddressesApart() {
+        assertThat(AddressNormalizer.addressKey("29 15th St")).isNotEqualTo(AddressNormalizer.addressKey("29 15th Ave"));
+        assertThat(AddressNormalizer.addressKey("1509 Culver St")).isNotEqualTo(AddressNormalizer.addressKey("15 09 Culver St"));
+    }
+
+    @Test
+    void cityKey_shouldOnlyFoldCaseSpacingAndPunctuation() {
+        assertThat(AddressNormalizer.cityKey(" Saint-Louis ")).isEqualTo("saint louis");
+        assertThat(AddressNormalizer.cityKey("Court")).isEqualTo("court");
+        assertThat(AddressNormalizer.cityKey(null)).isNull();
+    }
+
+    @Test
+    void entities_shouldComputeKeysWhenWritten() {
+        Person person = new Person();
+        person.setAddress("1509 Culver Street");
+        person.setCity("CULVER");
+        FireStation fireStation = new FireStation();
+        fireStation.setAddress("1509 culver st");
+
+        assertThat(person.getAddressKey()).isSameAs(fireStation.getAddressKey());
+        assertThat(person.getCityKey()).isEqualTo("culver");
+        assertThat(person.getAddress()).isEqualTo("1509 Culver Street");
+    }
+}
@@ -0,0 +1,64 @@
+package com.safetynet.AppSafetyNet.model;
+
+import com.safetynet.AppSafetyNet.utils.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AgeClockTest {
+
+    private static AgeClock at(String instant) {
+        return new AgeClock(Clock.fixed(Instant.parse(instant), ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldComputeAge_fromPackedDates() {
+        AgeClock ageClock = at("2025-06-01T10:00:00Z");
+
+        assertThat(ageClock.age(AgeClock.pack(LocalDate.of(1980, 3, 3)))).isEqualTo(45);
+        assertThat(ageClock.age(AgeClock.pack(LocalDate.of(2007, 6, 1)))).isEqualTo(18);
+        assertThat(ageClock.age(AgeClock.pack(LocalDate.of(2007, 6, 2)))).isEqualTo(17);
+    }
+
+    @Test
+    void shouldHandleLeapDayBirthdays() {
+        assertThat(at("2025-02-28T10:00:00Z").age(AgeClock.pack(LocalDate.of(2000, 2, 29)))).isEqualTo(24);
+        assertThat(at("2025-03-01T10:00:00Z").age(AgeClock.pack(LocalDate.of(2000, 2, 29)))).isEqualTo(25);
+    }
+
+    @Test
+    void shouldKeepToday_untilRefreshed() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-06-01T23:59:59Z"));
+        AgeClock ageClock = new AgeClock(clock);
+        int birthDate = AgeClock.pack(LocalDate.of(2007, 6, 2));
+        assertThat(ageClock.age(birthDate)).isEqualTo(17);
+
+        clock.advance(Duration.ofSeconds(2));
+        // la date du jour est mise en cache : l'horloge n'est relue qu'au changement de jour
+        assertThat(ageClock.today()).isEqualTo(20250601);
+
+        assertThat(ageClock.refresh()).isEqualTo(20250602);
+        assertThat(ageClock.today()).isEqualTo(20250602);
+        assertThat(ageClock.todayEpochDay()).isEqualTo(LocalDate.of(2025, 6, 2).toEpochDay());
+        assertThat(ageClock.age(birthDate)).isEqualTo(18);
+    }
+
+    @Test
+    void medicalRecordAge_shouldFollowBirthDateUpdates() {
+        AgeClock ageClock = at("2025-06-01T10:00:00Z");
+        MedicalRecord mr = new MedicalRecord();
+
+        mr.setBirthDate(LocalDate.of(2010, 1, 1));
+        assertThat(mr.isMinor(ageClock)).isTrue();
+
+        mr.setBirthDate(LocalDate.of(1990, 1, 1));
+        assertThat(mr.getAge(ageClock)).isEqualTo(35);
+        assertThat(mr.isMajor(ageClock)).isTrue();
+    }
+}
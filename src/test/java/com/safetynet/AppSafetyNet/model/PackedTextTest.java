@@ -0,0 +1,100 @@
+package com.safetynet.AppSafetyNet.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.safetynet.AppSafetyNet.repository.data.offheap.EntityCodecs;
+import com.safetynet.AppSafetyNet.repository.data.offheap.OffHeapList;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PackedTextTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void packPhone_shouldRoundTrip() {
+        for (String phone : List.of("841-874-6512", "+33 (0)1 23.45", "0000", "")) {
+            long code = PackedText.packPhone(phone);
+
+            assertThat(code).as(phone).isNotEqualTo(PackedText.NOT_PACKED);
+            assertThat(PackedText.unpackPhone(code)).isEqualTo(phone);
+        }
+    }
+
+    @Test
+    void packZip_shouldRoundTrip_keepingLeadingZeros() {
+        for (String zip : List.of("97451", "00501", "0")) {
+            int code = PackedText.packZip(zip);
+
+            assertThat(code).as(zip).isNotEqualTo(PackedText.NOT_PACKED_ZIP);
+            assertThat(PackedText.unpackZip(code)).isEqualTo(zip);
+        }
+    }
+
+    @Test
+    void pack_shouldReject_nullForeignCharactersAndTooLongValues() {
+        assertThat(PackedText.packPhone(null)).isEqualTo(PackedText.NOT_PACKED);
+        assertThat(PackedText.packPhone("841-874-6512 ext")).isEqualTo(PackedText.NOT_PACKED);
+        assertThat(PackedText.packPhone("123456789012345")).isEqualTo(PackedText.NOT_PACKED);
+        assertThat(PackedText.packZip("Miami")).isEqualTo(PackedText.NOT_PACKED_ZIP);
+        assertThat(PackedText.packZip("12345678")).isEqualTo(PackedText.NOT_PACKED_ZIP);
+    }
+
+    @Test
+    void unpack_shouldReject_valuesThatAreNotPackedCodes() {
+        assertThatThrownBy(() -> PackedText.unpackPhone(PackedText.NOT_PACKED)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PackedText.unpackZip(PackedText.NOT_PACKED_ZIP)).isInstanceOf(IllegalArgumentException.class);
+        // longueur 2 mais un troisième caractère renseigné
+        long phone = PackedText.packPhone("12") | (3L << 8);
+        assertThatThrownBy(() -> PackedText.unpackPhone(phone)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void packedCodes_shouldDistinguishValues_differingOnlyByLength() {
+        assertThat(PackedText.packPhone("0")).isNotEqualTo(PackedText.packPhone("00"));
+        assertThat(PackedText.packZip("0")).isNotEqualTo(PackedText.packZip(""));
+    }
+
+    @Test
+    void person_shouldSerializeOriginalValues_packedOrNot() throws Exception {
+        String json = """
+                {"firstName":"John","lastName":"Boyd","address":"1509 Culver St","city":"Culver","zip":"%s",\
+                "phone":"%s","email":"jaboyd@email.com"}""";
+
+        Person packed = objectMapper.readValue(json.formatted("97451", "841-874-6512"), Person.class);
+        Person unpacked = objectMapper.readValue(json.formatted("Miami", "poste 12"), Person.class);
+
+        assertThat(packed.getPackedPhone()).isNotEqualTo(PackedText.NOT_PACKED);
+        assertThat(unpacked.getPackedPhone()).isEqualTo(PackedText.NOT_PACKED);
+        JsonNode packedJson = objectMapper.readTree(objectMapper.writeValueAsString(packed));
+        JsonNode unpackedJson = objectMapper.readTree(objectMapper.writeValueAsString(unpacked));
+        assertThat(packedJson.get("zip").asText()).isEqualTo("97451");
+        assertThat(packedJson.get("phone").asText()).isEqualTo("841-874-6512");
+        assertThat(packedJson.has("packedPhone")).isFalse();
+        assertThat(unpackedJson.get("zip").asText()).isEqualTo("Miami");
+        assertThat(unpackedJson.get("phone").asText()).isEqualTo("poste 12");
+    }
+
+    @Test
+    void offHeapCodec_shouldKeepUnpackableValues_asStrings() {
+        Person packed = ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+        Person oversized = ObjectFactoryTest.createPerson("Jacob", "Boyd", "1509 Culver St", "Culver", "97451-12345", "+33 (0)1 23 45 67 89", "drk@email.com");
+        Person foreign = ObjectFactoryTest.createPerson("Tenley", "Boyd", "1509 Culver St", "Culver", "Miami", "poste 12", "tenz@email.com");
+        Person empty = ObjectFactoryTest.createPerson("Roger", "Boyd", "1509 Culver St", "Culver", null, null, "roger@email.com");
+
+        OffHeapList<Person> list = new OffHeapList<>(EntityCodecs.PERSON, 1024, List.of(packed, oversized, foreign, empty));
+
+        assertThat(list).containsExactly(packed, oversized, foreign, empty);
+        assertThat(list.get(0).getPackedPhone()).isNotEqualTo(PackedText.NOT_PACKED);
+        assertThat(list.get(1).getPackedPhone()).isEqualTo(PackedText.NOT_PACKED);
+        assertThat(list.get(1).getZip()).isEqualTo("97451-12345");
+        assertThat(list.get(2).getPhone()).isEqualTo("poste 12");
+        assertThat(list.get(3).getPhone()).isNull();
+        assertThat(list.get(3).getZip()).isNull();
+    }
+}
@@ -0,0 +1,68 @@
+package com.safetynet.AppSafetyNet.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StringPoolTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void canonical_shouldReturnSameInstance_forEqualValues() {
+        String first = new String("Culver");
+        String second = new String("Culver");
+
+        assertThat(StringPool.canonical(first)).isSameAs(StringPool.canonical(second));
+        assertThat(StringPool.canonical((String) null)).isNull();
+    }
+
+    @Test
+    void canonical_shouldCopyList_keepingNullElements() {
+        List<String> values = Arrays.asList(new String("aznol:350mg"), null);
+
+        List<String> result = StringPool.canonical(values);
+
+        assertThat(result).containsExactly("aznol:350mg", null).isNotSameAs(values);
+        assertThat(result.getFirst()).isSameAs(StringPool.canonical("aznol:350mg"));
+        assertThat(StringPool.canonical((List<String>) null)).isNull();
+    }
+
+    @Test
+    void canonical_shouldNotRetainValuesNoLongerUsed() throws InterruptedException {
+        WeakReference<String> unused = new WeakReference<>(StringPool.canonical(new String("29 15th St " + System.nanoTime())));
+
+        for (int attempt = 0; attempt < 50 && unused.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(unused.get()).isNull();
+    }
+
+    @Test
+    void deserializedEntities_shouldShareRepeatedValues() throws Exception {
+        String json = """
+                {"firstName":"%s","lastName":"Boyd","address":"1509 Culver St","city":"Culver","zip":"97451",
+                "phone":"841-874-6512","email":"jaboyd@email.com"}""";
+        Person john = objectMapper.readValue(json.formatted("John"), Person.class);
+        Person jacob = objectMapper.readValue(json.formatted("Jacob"), Person.class);
+        FireStation fireStation = objectMapper.readValue("{\"address\":\"1509 Culver St\",\"station\":3}", FireStation.class);
+        MedicalRecord medicalRecord = objectMapper.readValue("""
+                {"firstName":"John","lastName":"Boyd","birthdate":"03/06/1984",
+                "medications":["aznol:350mg"],"allergies":["nillacilan"]}""", MedicalRecord.class);
+
+        assertThat(john.getCity()).isSameAs(jacob.getCity());
+        assertThat(john.getZip()).isSameAs(jacob.getZip());
+        assertThat(john.getLastName()).isSameAs(jacob.getLastName()).isSameAs(medicalRecord.getLastName());
+        assertThat(john.getAddress()).isSameAs(jacob.getAddress()).isSameAs(fireStation.getAddress());
+        assertThat(medicalRecord.getMedications().getFirst()).isSameAs(StringPool.canonical("aznol:350mg"));
+        assertThat(medicalRecord.getAllergies().getFirst()).isSameAs(StringPool.canonical("nillacilan"));
+    }
+}
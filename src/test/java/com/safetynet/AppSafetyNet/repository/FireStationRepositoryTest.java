@@ -3,6 +3,7 @@ package com.safetynet.AppSafetyNet.repository;
 import com.safetynet.AppSafetyNet.model.FireStation;
 import com.safetynet.AppSafetyNet.repository.Impl.FireStationRepositoryImpl;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
 import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -14,9 +15,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,6 +37,11 @@ public class FireStationRepositoryTest {
         repository = new FireStationRepositoryImpl(dataStorage);
     }
 
+    // exécute la transaction directement sur le thread appelant, comme DataStorage
+    private void runTransactionsInline() {
+        when(dataStorage.inTransaction(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     void getAll_shouldReturnAllFireStations() {
         List<FireStation> stations = List.of(
@@ -57,6 +67,16 @@ public class FireStationRepositoryTest {
             assertThat(result).contains(fs);
         }
 
+        @Test
+        void findByAddress_shouldMatchSpellingVariant() {
+            FireStation fs = ObjectFactoryTest.createFireStation("1509 Culver St", 3);
+            when(dataStorage.getFireStations()).thenReturn(List.of(fs));
+
+            Optional<FireStation> result = repository.findByAddress("1509 culver street");
+
+            assertThat(result).contains(fs);
+        }
+
         @Test
         void findByAddress_shouldReturnEmpty_whenNotFound() {
             when(dataStorage.getFireStations()).thenReturn(List.of());
@@ -82,12 +102,15 @@ public class FireStationRepositoryTest {
             FireStation fs2 = ObjectFactoryTest.createFireStation("1 rue Bleue", 2); // mise à jour
 
             List<FireStation> fireStations = new ArrayList<>(List.of(fs1));
+            runTransactionsInline();
             when(dataStorage.getFireStations()).thenReturn(fireStations);
 
             repository.saveFireStation(fs2);
 
             assertThat(fireStations).containsExactly(fs2);
+            verify(dataStorage).recordChange(EntityChange.saved(fs2));
             verify(dataStorage).saveData();
+            verify(dataStorage).inTransaction(any());
         }
 
         @Test
@@ -99,12 +122,38 @@ public class FireStationRepositoryTest {
 
     }
 
+    @Nested
+    class SaveAll {
+
+        @Test
+        void shouldReplaceStationOfKnownAddressesAndAddNewOnes_inOneSave() {
+            // Arrange
+            FireStation existing = ObjectFactoryTest.createFireStation("1 Main St", 1);
+            FireStation updated = ObjectFactoryTest.createFireStation("1 main street", 2);
+            FireStation created = ObjectFactoryTest.createFireStation("2 Other St", 3);
+            List<FireStation> fireStations = new ArrayList<>(List.of(existing));
+            runTransactionsInline();
+            when(dataStorage.getFireStations()).thenReturn(fireStations);
+
+            // Act
+            Set<String> replaced = repository.saveAll(List.of(updated, created));
+
+            // Assert
+            assertThat(replaced).containsExactly(existing.getAddressKey());
+            assertThat(fireStations).containsExactly(updated, created);
+            verify(dataStorage).recordChange(EntityChange.saved(updated));
+            verify(dataStorage).recordChange(EntityChange.saved(created));
+            verify(dataStorage, times(1)).saveData();
+        }
+    }
+
     @Nested
     class DeleteFireStation {
         @Test
         void deleteFireStation_shouldRemoveStation_andCallSaveData() {
             FireStation fs = ObjectFactoryTest.createFireStation("1 rue Bleue", 1);
             List<FireStation> list = new ArrayList<>(List.of(fs));
+            runTransactionsInline();
             when(dataStorage.getFireStations()).thenReturn(list);
 
             repository.deleteFireStation(fs);
@@ -3,6 +3,7 @@ package com.safetynet.AppSafetyNet.repository;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.repository.Impl.MedicalRecordRepositoryImpl;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
 import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -15,9 +16,13 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +34,11 @@ public class MedicalRecordRepositoryTest {
     @InjectMocks
     private MedicalRecordRepositoryImpl repository;
 
+    // exécute la transaction directement sur le thread appelant, comme DataStorage
+    private void runTransactionsInline() {
+        when(dataStorage.inTransaction(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
 
     @Nested
     class FindByFirstNameAndLastName {
@@ -70,6 +80,7 @@ public class MedicalRecordRepositoryTest {
         @Test
         void shouldSaveRecord_whenNotExists() {
             List<MedicalRecord> medicalRecords = new ArrayList<>();
+            runTransactionsInline();
             when(dataStorage.getMedicalRecords()).thenReturn(medicalRecords);
 
             MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("Bob", "Green", LocalDate.of(1980, 1, 1), List.of(), List.of());
@@ -77,12 +88,14 @@ public class MedicalRecordRepositoryTest {
             repository.saveOrUpdateMedicalRecord(mr);
 
             assertThat(medicalRecords).containsExactly(mr);
+            verify(dataStorage).inTransaction(any());
         }
 
         @Test
         void shouldUpdateRecord_whenAlreadyExists() {
             MedicalRecord old = ObjectFactoryTest.createMedicalRecord("Jane", "Doe", LocalDate.of(1970, 1, 1), List.of("old"), List.of());
             List<MedicalRecord> medicalRecords = new ArrayList<>(List.of(old));
+            runTransactionsInline();
             when(dataStorage.getMedicalRecords()).thenReturn(medicalRecords);
 
             MedicalRecord updated = ObjectFactoryTest.createMedicalRecord("Jane", "Doe", LocalDate.of(2000, 1, 1), List.of("new"), List.of());
@@ -99,17 +112,62 @@ public class MedicalRecordRepositoryTest {
         }
     }
 
+    @Nested
+    class SaveAll {
+
+        @Test
+        void shouldReplaceExistingAndAddNewRecords_inOneSave() {
+            MedicalRecord old = ObjectFactoryTest.createMedicalRecord("Jane", "Doe", LocalDate.of(1970, 1, 1), List.of("old"), List.of());
+            List<MedicalRecord> medicalRecords = new ArrayList<>(List.of(old));
+            runTransactionsInline();
+            when(dataStorage.getMedicalRecords()).thenReturn(medicalRecords);
+
+            MedicalRecord updated = ObjectFactoryTest.createMedicalRecord("Jane", "Doe", LocalDate.of(2000, 1, 1), List.of("new"), List.of());
+            MedicalRecord created = ObjectFactoryTest.createMedicalRecord("Bob", "Green", LocalDate.of(1980, 1, 1), List.of(), List.of());
+
+            Set<String> replaced = repository.saveAll(List.of(updated, created));
+
+            assertThat(replaced).containsExactly("jane doe");
+            assertThat(medicalRecords).containsExactly(updated, created);
+            verify(dataStorage).recordChange(EntityChange.saved(updated));
+            verify(dataStorage).recordChange(EntityChange.saved(created));
+            verify(dataStorage, times(1)).saveData();
+        }
+    }
+
+    @Nested
+    class DeleteAllById {
+
+        @Test
+        void shouldDeleteMatchingRecords_inOneSave() {
+            MedicalRecord jane = ObjectFactoryTest.createMedicalRecord("Jane", "Doe", LocalDate.of(1970, 1, 1), List.of(), List.of());
+            MedicalRecord bob = ObjectFactoryTest.createMedicalRecord("Bob", "Green", LocalDate.of(1980, 1, 1), List.of(), List.of());
+            List<MedicalRecord> medicalRecords = new ArrayList<>(List.of(jane, bob));
+            runTransactionsInline();
+            when(dataStorage.getMedicalRecords()).thenReturn(medicalRecords);
+
+            int deleted = repository.deleteAllById(Set.of("jane doe", "ghost nobody"));
+
+            assertThat(deleted).isEqualTo(1);
+            assertThat(medicalRecords).containsExactly(bob);
+            verify(dataStorage).recordChange(EntityChange.deleted(jane));
+            verify(dataStorage, times(1)).saveData();
+        }
+    }
+
     @Nested
     class DeleteMedicalRecord {
         @Test
         void shouldDeleteRecord_whenExists() {
             MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("Chris", "Red", LocalDate.of(1985, 3, 15), List.of(), List.of());
             List<MedicalRecord> medicalRecords = new ArrayList<>(List.of(mr));
+            runTransactionsInline();
             when(dataStorage.getMedicalRecords()).thenReturn(medicalRecords);
 
             repository.deleteMedicalRecord(mr);
 
             assertThat(medicalRecords).isEmpty();
+            verify(dataStorage).recordChange(EntityChange.deleted(mr));
             verify(dataStorage).saveData();
         }
 
@@ -3,6 +3,7 @@ package com.safetynet.AppSafetyNet.repository;
 import com.safetynet.AppSafetyNet.model.Person;
 import com.safetynet.AppSafetyNet.repository.Impl.PersonRepositoryImpl;
 import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
 import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -14,9 +15,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +34,11 @@ public class PersonRepositoryTest {
     @InjectMocks
     private PersonRepositoryImpl personRepository;
 
+    // exécute la transaction directement sur le thread appelant, comme DataStorage
+    private void runTransactionsInline() {
+        when(dataStorageService.inTransaction(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     void getAll_shouldReturnAllPersonsFromDataStorage() {
         // Arrange
@@ -91,6 +102,38 @@ public class PersonRepositoryTest {
         }
     }
 
+    @Nested
+    class FindAllByCity {
+
+        @Test
+        void shouldReturnMatchingPersons_ignoringCase() {
+            Person person1 = ObjectFactoryTest.createPerson("John", "Doe", "1 Rue A", "PARIS", "75000", "0101010101", "john@example.com");
+            Person person2 = ObjectFactoryTest.createPerson("Jack", "Smith", "3 Rue C", "Lyon", "69000", "0303030303", "jack@example.com");
+            when(dataStorageService.getPersons()).thenReturn(List.of(person1, person2));
+
+            List<Person> result = personRepository.findAllByCity("paris");
+
+            assertThat(result).containsExactly(person1);
+        }
+
+        @Test
+        void shouldMatchCity_ignoringExtraSpaces() {
+            Person person = ObjectFactoryTest.createPerson("John", "Doe", "1 Rue A", "Saint-Louis", "63000", "0101010101", "john@example.com");
+            when(dataStorageService.getPersons()).thenReturn(List.of(person));
+
+            List<Person> result = personRepository.findAllByCity("  saint-louis ");
+
+            assertThat(result).containsExactly(person);
+        }
+
+        @Test
+        void shouldThrowException_whenCityIsNull() {
+            assertThatThrownBy(() -> personRepository.findAllByCity(null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("City must not be null");
+        }
+    }
+
     @Nested
     class FindAllByLastName {
 
@@ -145,6 +188,7 @@ public class PersonRepositoryTest {
             Person updated = ObjectFactoryTest.createPerson("John", "Doe", "New Address", "123", "City", "Zip", "new@mail.com");
 
             List<Person> persons = new ArrayList<>(List.of(existing));
+            runTransactionsInline();
             when(dataStorageService.getPersons()).thenReturn(persons);
 
             // Act
@@ -154,7 +198,9 @@ public class PersonRepositoryTest {
             assertThat(persons)
                     .hasSize(1)
                     .containsExactly(updated); // old one should be removed, new one added
+            verify(dataStorageService).recordChange(EntityChange.saved(updated));
             verify(dataStorageService).saveData();
+            verify(dataStorageService).inTransaction(any());
         }
 
         @Test
@@ -163,6 +209,7 @@ public class PersonRepositoryTest {
             Person newPerson = ObjectFactoryTest.createPerson("Alice", "Smith", "Somewhere", "456", "City", "Zip", "alice@mail.com");
             List<Person> persons = new ArrayList<>();
 
+            runTransactionsInline();
             when(dataStorageService.getPersons()).thenReturn(persons);
 
             // Act
@@ -176,6 +223,38 @@ public class PersonRepositoryTest {
         }
     }
 
+    @Nested
+    class SaveAll {
+
+        @Test
+        void shouldReplaceExistingAndAddNewPersons_inOneSave() {
+            // Arrange
+            Person existing = ObjectFactoryTest.createPerson("John", "Doe", "Old Address", "000", "City", "Zip", "old@mail.com");
+            Person other = ObjectFactoryTest.createPerson("Jane", "Smith", "Somewhere", "111", "City", "Zip", "jane@mail.com");
+            Person updated = ObjectFactoryTest.createPerson("JOHN", "doe", "New Address", "123", "City", "Zip", "new@mail.com");
+            Person created = ObjectFactoryTest.createPerson("Alice", "Smith", "Somewhere", "456", "City", "Zip", "alice@mail.com");
+            List<Person> persons = new ArrayList<>(List.of(existing, other));
+            runTransactionsInline();
+            when(dataStorageService.getPersons()).thenReturn(persons);
+
+            // Act
+            Set<String> replaced = personRepository.saveAll(List.of(updated, created));
+
+            // Assert
+            assertThat(replaced).containsExactly("john doe");
+            assertThat(persons).containsExactly(other, updated, created);
+            verify(dataStorageService).recordChange(EntityChange.saved(updated));
+            verify(dataStorageService).recordChange(EntityChange.saved(created));
+            verify(dataStorageService, times(1)).saveData();
+        }
+
+        @Test
+        void shouldThrowException_whenListIsNull() {
+            assertThatThrownBy(() -> personRepository.saveAll(null))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
     @Nested
     class Delete {
 
@@ -184,6 +263,7 @@ public class PersonRepositoryTest {
             // Arrange
             Person person = ObjectFactoryTest.createPerson("Jane", "Doe", "Address", "111", "City", "Zip", "jane@mail.com");
             List<Person> persons = new ArrayList<>(List.of(person));
+            runTransactionsInline();
             when(dataStorageService.getPersons()).thenReturn(persons);
 
             // Act
@@ -191,6 +271,7 @@ public class PersonRepositoryTest {
 
             // Assert
             assertThat(persons).doesNotContain(person);
+            verify(dataStorageService).recordChange(EntityChange.deleted(person));
             verify(dataStorageService).saveData();
         }
 
@@ -200,6 +281,7 @@ public class PersonRepositoryTest {
             Person person1 = ObjectFactoryTest.createPerson("Jane", "Doe", "Address", "111", "City", "Zip", "jane@mail.com");
             Person person2 = ObjectFactoryTest.createPerson("Not", "Exist", "Address", "000", "City", "Zip", "ghost@mail.com");
             List<Person> persons = new ArrayList<>(List.of(person1));
+            runTransactionsInline();
             when(dataStorageService.getPersons()).thenReturn(persons);
 
             // Act
@@ -211,6 +293,46 @@ public class PersonRepositoryTest {
         }
     }
 
+    @Nested
+    class DeleteAllById {
+
+        @Test
+        void shouldDeleteMatchingPersons_inOneSave() {
+            // Arrange
+            Person john = ObjectFactoryTest.createPerson("John", "Doe", "Old Address", "000", "City", "Zip", "old@mail.com");
+            Person jane = ObjectFactoryTest.createPerson("Jane", "Smith", "Somewhere", "111", "City", "Zip", "jane@mail.com");
+            Person alice = ObjectFactoryTest.createPerson("Alice", "Smith", "Somewhere", "456", "City", "Zip", "alice@mail.com");
+            List<Person> persons = new ArrayList<>(List.of(john, jane, alice));
+            runTransactionsInline();
+            when(dataStorageService.getPersons()).thenReturn(persons);
+
+            // Act
+            int deleted = personRepository.deleteAllById(Set.of("john doe", "alice smith", "ghost nobody"));
+
+            // Assert
+            assertThat(deleted).isEqualTo(2);
+            assertThat(persons).containsExactly(jane);
+            verify(dataStorageService).recordChange(EntityChange.deleted(john));
+            verify(dataStorageService).recordChange(EntityChange.deleted(alice));
+            verify(dataStorageService, times(1)).saveData();
+        }
+
+        @Test
+        void shouldNotSave_whenNoPersonMatches() {
+            // Arrange
+            Person jane = ObjectFactoryTest.createPerson("Jane", "Smith", "Somewhere", "111", "City", "Zip", "jane@mail.com");
+            runTransactionsInline();
+            when(dataStorageService.getPersons()).thenReturn(new ArrayList<>(List.of(jane)));
+
+            // Act
+            int deleted = personRepository.deleteAllById(Set.of("ghost nobody"));
+
+            // Assert
+            assertThat(deleted).isZero();
+            verify(dataStorageService, never()).saveData();
+        }
+    }
+
     @Nested
     class FindByAddresses {
 
@@ -264,6 +386,20 @@ public class PersonRepositoryTest {
             // Assert
             assertThat(result).containsExactlyInAnyOrder(p1, p2, p3);
         }
+
+        @Test
+        void shouldMatchSpellingVariants_ofSameAddress() {
+            // Arrange
+            Person p1 = ObjectFactoryTest.createPerson("Alice", "Doe", "123 Main Street", "123", "City", "Zip", "a@a.com");
+            Person p2 = ObjectFactoryTest.createPerson("Bob", "Doe", "124 Main St", "456", "City", "Zip", "b@b.com");
+            when(dataStorageService.getPersons()).thenReturn(List.of(p1, p2));
+
+            // Act
+            List<Person> result = personRepository.findByAddress(" 123  main st. ");
+
+            // Assert
+            assertThat(result).containsExactly(p1);
+        }
     }
 
 }
@@ -0,0 +1,144 @@
+package com.safetynet.AppSafetyNet.repository.columnar;
+
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.Impl.MedicalRecordRepositoryImpl;
+import com.safetynet.AppSafetyNet.repository.Impl.PersonRepositoryImpl;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.columnar.ColumnarList;
+import com.safetynet.AppSafetyNet.repository.data.columnar.MedicalRecordColumns;
+import com.safetynet.AppSafetyNet.repository.data.columnar.PersonColumns;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Vérifie que les vues en colonnes retournent exactement les mêmes résultats, dans le même ordre,
+ * que les repositories parcourant des listes d'objets.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ColumnarPersonRepositoryTest {
+
+    private static final String[] CITIES = {"Culver", "Paris", "Lyon"};
+    private static final String[] LAST_NAMES = {"Boyd", "Zemicks", "Stelzer", "Cadigan"};
+
+    @Mock
+    private DataStorage listStorage;
+
+    @Mock
+    private DataStorage columnarStorage;
+
+    @Mock
+    private PersonRepositoryImpl delegate;
+
+    @Mock
+    private MedicalRecordRepositoryImpl recordDelegate;
+
+    @Test
+    void shouldMatchListRepositories_afterDerivedVersions() {
+        // Given
+        Random random = new Random(3);
+        List<Person> persons = new ArrayList<>();
+        List<MedicalRecord> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            persons.add(person(random, "P" + i, lastName));
+            records.add(ObjectFactoryTest.createMedicalRecord("P" + i, lastName, LocalDate.of(1980, 1, 1), List.of(), List.of()));
+        }
+        ColumnarList<Person> columns = new PersonColumns(persons);
+        ColumnarList<MedicalRecord> recordColumns = new MedicalRecordColumns(records);
+
+        // When : déménagements (réenregistrés en fin de liste) et suppressions, par transactions successives
+        for (int t = 0; t < 40; t++) {
+            Set<String> removed = new HashSet<>();
+            List<Person> added = new ArrayList<>();
+            for (int i = 0; i < 20 && !persons.isEmpty(); i++) {
+                Person person = persons.remove(random.nextInt(persons.size()));
+                removed.add(person.getId().toLowerCase(Locale.ROOT));
+                if (random.nextInt(3) != 0) {
+                    Person moved = person(random, person.getFirstName(), person.getLastName());
+                    added.add(moved);
+                }
+            }
+            persons.addAll(added);
+            records.removeIf(m -> removed.contains(m.getId().toLowerCase(Locale.ROOT))
+                    && added.stream().noneMatch(p -> p.getId().equals(m.getId())));
+            columns = columns.derive(removed, added);
+            Set<String> removedRecords = new HashSet<>(removed);
+            added.forEach(p -> removedRecords.remove(p.getId().toLowerCase(Locale.ROOT)));
+            recordColumns = recordColumns.derive(removedRecords, List.of());
+        }
+        when(listStorage.getPersons()).thenReturn(persons);
+        when(listStorage.getMedicalRecords()).thenReturn(records);
+        when(columnarStorage.getPersons()).thenReturn(columns);
+        when(columnarStorage.getMedicalRecords()).thenReturn(recordColumns);
+        PersonRepositoryImpl listRepository = new PersonRepositoryImpl(listStorage);
+        MedicalRecordRepositoryImpl listRecordRepository = new MedicalRecordRepositoryImpl(listStorage);
+        ColumnarPersonRepository repository = new ColumnarPersonRepository(delegate, columnarStorage);
+        ColumnarMedicalRecordRepository recordRepository = new ColumnarMedicalRecordRepository(recordDelegate, columnarStorage);
+
+        // Then
+        assertThat(columns).containsExactlyElementsOf(persons);
+        for (int q = 0; q < 50; q++) {
+            String city = CITIES[random.nextInt(CITIES.length)].toUpperCase();
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)].toLowerCase();
+            List<String> addresses = List.of(random.nextInt(50) + " MAIN ST", random.nextInt(50) + " main street");
+            String id = "P" + random.nextInt(1000);
+
+            assertThat(repository.findAllByCity(city)).isEqualTo(listRepository.findAllByCity(city));
+            assertThat(repository.findAllByLastName(lastName)).isEqualTo(listRepository.findAllByLastName(lastName));
+            assertThat(repository.findByAddresses(addresses)).isEqualTo(listRepository.findByAddresses(addresses));
+            for (String name : LAST_NAMES) {
+                assertThat(repository.findByFirstNameAndLastName(id, name)).isEqualTo(listRepository.findByFirstNameAndLastName(id, name));
+                assertThat(recordRepository.findByFirstNameAndLastName(id, name)).isEqualTo(listRecordRepository.findByFirstNameAndLastName(id, name));
+            }
+        }
+        verifyNoInteractions(delegate, recordDelegate);
+    }
+
+    @Test
+    void shouldReturnNothing_forUnknownValues() {
+        when(columnarStorage.getPersons()).thenReturn(new PersonColumns(List.of(
+                ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"))));
+        when(columnarStorage.getMedicalRecords()).thenReturn(new MedicalRecordColumns(List.of()));
+        ColumnarPersonRepository repository = new ColumnarPersonRepository(delegate, columnarStorage);
+        ColumnarMedicalRecordRepository recordRepository = new ColumnarMedicalRecordRepository(recordDelegate, columnarStorage);
+
+        assertThat(repository.findAllByCity("Toulouse")).isEmpty();
+        assertThat(repository.findByAddress("1 rue inconnue")).isEmpty();
+        assertThat(repository.findByFirstNameAndLastName("Jane", "Boyd")).isEmpty();
+        assertThatThrownBy(() -> recordRepository.getMedicalRecordByPerson("John", "Boyd"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldDelegate_withinATransaction() {
+        // dans une transaction, le stockage expose le journal de la transaction et non les colonnes
+        Person person = ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+        when(columnarStorage.getPersons()).thenReturn(new ArrayList<>(List.of(person)));
+        when(delegate.findAllByCity("Culver")).thenReturn(List.of(person));
+        ColumnarPersonRepository repository = new ColumnarPersonRepository(delegate, columnarStorage);
+
+        assertThat(repository.findAllByCity("Culver")).containsExactly(person);
+    }
+
+    private static Person person(Random random, String firstName, String lastName) {
+        return ObjectFactoryTest.createPerson(firstName, lastName, random.nextInt(50) + " Main St",
+                CITIES[random.nextInt(CITIES.length)], "97451", "841-874-0000", firstName + "@email.com");
+    }
+}
@@ -0,0 +1,183 @@
+package com.safetynet.AppSafetyNet.repository.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO.Op;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class ChangeLogTest {
+
+    private ChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        changeLog = new ChangeLog(new ObjectMapper().findAndRegisterModules(), 3, 4);
+        changeLog.onDataChanged(new DataChangedEvent(1, List.of(), true));
+    }
+
+    private static Person person(String firstName) {
+        return ObjectFactoryTest.createPerson(firstName, "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+    }
+
+    @Test
+    void read_shouldReturnNumberedChanges_withEntityStateAtTheTimeOfTheChange() {
+        Person john = person("John");
+        FireStation station = ObjectFactoryTest.createFireStation("1509 Culver St.", 3);
+        long start = changeLog.lastSequence();
+
+        changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(john), EntityChange.deleted(station)), false));
+        john.setCity("Modified in place");
+
+        List<ChangeEventDTO> changes = changeLog.read(start, 10);
+        assertThat(changes).extracting(ChangeEventDTO::sequence).containsExactly(start + 1, start + 2);
+        ChangeEventDTO upsert = changes.getFirst();
+        assertThat(upsert.op()).isEqualTo(Op.UPSERT);
+        assertThat(upsert.type()).isEqualTo(EntityType.PERSON);
+        assertThat(upsert.id()).isEqualTo("john boyd");
+        assertThat(upsert.version()).isEqualTo(2);
+        assertThat(upsert.data().get("city").asText()).isEqualTo("Culver");
+        ChangeEventDTO delete = changes.get(1);
+        assertThat(delete.op()).isEqualTo(Op.DELETE);
+        assertThat(delete.id()).isEqualTo(station.getAddressKey());
+        assertThat(delete.data()).isNull();
+    }
+
+    @Test
+    void read_shouldReturnAtMostMaxChanges_andNothingWhenUpToDate() {
+        long start = changeLog.lastSequence();
+        changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(person("A")), EntityChange.saved(person("B"))), false));
+
+        assertThat(changeLog.read(start, 1)).extracting(ChangeEventDTO::id).containsExactly("a boyd");
+        assertThat(changeLog.read(start + 2, 10)).isEmpty();
+    }
+
+    @Test
+    void read_shouldRequireResync_whenChangesAreNoLongerRetained() {
+        long start = changeLog.lastSequence();
+        for (String firstName : List.of("A", "B", "C", "D")) {
+            changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(person(firstName))), false));
+        }
+
+        assertThat(changeLog.read(start + 1, 10)).extracting(ChangeEventDTO::id).containsExactly("b boyd", "c boyd", "d boyd");
+        List<ChangeEventDTO> tooOld = changeLog.read(start, 10);
+        assertThat(tooOld).singleElement().satisfies(event -> {
+            assertThat(event.op()).isEqualTo(Op.RESYNC);
+            assertThat(event.sequence()).isEqualTo(start + 4);
+        });
+    }
+
+    @Test
+    void read_shouldRequireResync_afterReload_orForUnknownSequence() {
+        long start = changeLog.lastSequence();
+        changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(person("A"))), false));
+        changeLog.onDataChanged(new DataChangedEvent(3, List.of(), true));
+
+        assertThat(changeLog.read(start + 1, 10)).extracting(ChangeEventDTO::op).containsExactly(Op.RESYNC);
+        assertThat(changeLog.read(changeLog.lastSequence() + 5, 10)).extracting(ChangeEventDTO::op).containsExactly(Op.RESYNC);
+        assertThat(changeLog.read(changeLog.lastSequence(), 10)).isEmpty();
+    }
+
+    @Test
+    void onDataChanged_shouldKeepOnlyTheLastChanges_ofABatchLargerThanRetention() {
+        long start = changeLog.lastSequence();
+        List<EntityChange> changes = List.of("A", "B", "C", "D", "E").stream()
+                .map(firstName -> EntityChange.saved(person(firstName)))
+                .toList();
+
+        changeLog.onDataChanged(new DataChangedEvent(2, changes, false));
+
+        assertThat(changeLog.lastSequence()).isEqualTo(start + 5);
+        assertThat(changeLog.read(start + 2, 10)).extracting(ChangeEventDTO::id).containsExactly("c boyd", "d boyd", "e boyd");
+    }
+
+    @Test
+    void changesSince_shouldReturnLastChangeOfEachEntity_inOrder() {
+        Person john = person("John");
+        Person jacob = person("Jacob");
+        changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(john), EntityChange.saved(jacob)), false));
+        john.setCity("Paris");
+        changeLog.onDataChanged(new DataChangedEvent(3, List.of(EntityChange.saved(john)), false));
+        changeLog.onDataChanged(new DataChangedEvent(4, List.of(EntityChange.deleted(jacob)), false));
+
+        ChangeLog.Changes changes = changeLog.changesSince(1, 10);
+
+        assertThat(changes.resyncRequired()).isFalse();
+        assertThat(changes.hasMore()).isFalse();
+        assertThat(changes.version()).isEqualTo(4);
+        assertThat(changes.changes()).extracting(ChangeEventDTO::id, ChangeEventDTO::op, ChangeEventDTO::version)
+                .containsExactly(tuple("john boyd", Op.UPSERT, 3L), tuple("jacob boyd", Op.DELETE, 4L));
+        assertThat(changes.changes().getFirst().data().get("city").asText()).isEqualTo("Paris");
+        assertThat(changeLog.changesSince(3, 10).changes()).extracting(ChangeEventDTO::id).containsExactly("jacob boyd");
+        assertThat(changeLog.changesSince(4, 10).changes()).isEmpty();
+    }
+
+    @Test
+    void changesSince_shouldEndPagesOnVersionBoundaries() {
+        changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(person("A")), EntityChange.saved(person("B"))), false));
+        changeLog.onDataChanged(new DataChangedEvent(3, List.of(EntityChange.saved(person("C"))), false));
+
+        ChangeLog.Changes first = changeLog.changesSince(1, 1);
+        ChangeLog.Changes second = changeLog.changesSince(first.version(), 1);
+
+        assertThat(first.changes()).extracting(ChangeEventDTO::id).containsExactly("a boyd", "b boyd");
+        assertThat(first.hasMore()).isTrue();
+        assertThat(first.version()).isEqualTo(2);
+        assertThat(second.changes()).extracting(ChangeEventDTO::id).containsExactly("c boyd");
+        assertThat(second.hasMore()).isFalse();
+        assertThat(second.version()).isEqualTo(3);
+    }
+
+    @Test
+    void changesSince_shouldRequireResync_whenVersionIsBeforeReloadEvictionOrUnknown() {
+        changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(person("A"))), false));
+        changeLog.onDataChanged(new DataChangedEvent(3, List.of(EntityChange.saved(person("B")), EntityChange.saved(person("C"))), false));
+
+        assertThat(changeLog.changesSince(0, 10).resyncRequired()).isTrue();
+        assertThat(changeLog.changesSince(9, 10).resyncRequired()).isTrue();
+        assertThat(changeLog.changesSince(1, 10).changes()).hasSize(3);
+
+        // 4 entités au plus : la personne A, la plus ancienne, est évincée
+        changeLog.onDataChanged(new DataChangedEvent(4, List.of(EntityChange.saved(person("D")), EntityChange.saved(person("E"))), false));
+
+        ChangeLog.Changes tooOld = changeLog.changesSince(1, 10);
+        assertThat(tooOld.resyncRequired()).isTrue();
+        assertThat(tooOld.version()).isEqualTo(4);
+        assertThat(tooOld.changes()).isEmpty();
+        assertThat(changeLog.changesSince(2, 10).changes()).extracting(ChangeEventDTO::id)
+                .containsExactly("b boyd", "c boyd", "d boyd", "e boyd");
+    }
+
+    @Test
+    void await_shouldReturnAsSoonAsAChangeIsRecorded() throws Exception {
+        long start = changeLog.lastSequence();
+        CompletableFuture<List<ChangeEventDTO>> awaited = CompletableFuture.supplyAsync(() -> {
+            try {
+                return changeLog.await(start, 10, Duration.ofSeconds(10));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        changeLog.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(person("A"))), false));
+
+        assertThat(awaited.get(5, TimeUnit.SECONDS)).extracting(ChangeEventDTO::id).containsExactly("a boyd");
+    }
+
+    @Test
+    void await_shouldReturnNothing_whenNoChangeBeforeTimeout() throws InterruptedException {
+        assertThat(changeLog.await(changeLog.lastSequence(), 10, Duration.ofMillis(20))).isEmpty();
+    }
+}
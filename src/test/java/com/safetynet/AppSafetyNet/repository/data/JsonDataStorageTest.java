@@ -0,0 +1,184 @@
+package com.safetynet.AppSafetyNet.repository.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.exception.ConflictException;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.Impl.JsonDataStorageImpl;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class JsonDataStorageTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path tempDir;
+
+    private JsonDataStorageImpl dataStorage;
+    private Path dataFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataStorage = new JsonDataStorageImpl(new ObjectMapper().findAndRegisterModules(), eventPublisher);
+        dataFile = tempDir.resolve("data.json");
+        ReflectionTestUtils.setField(dataStorage, "persistedDataFile", dataFile.toString());
+        ReflectionTestUtils.setField(dataStorage, "baseData", "data.json");
+        dataStorage.initializeDataFile();
+        dataStorage.loadData();
+        clearInvocations(eventPublisher);
+    }
+
+    private static Person person(String firstName) {
+        return ObjectFactoryTest.createPerson(firstName, "Batch", "1 Batch Rd", "Culver", "97451", "841-874-0000", "batch@email.com");
+    }
+
+    @Test
+    void inTransaction_shouldWriteOnceAndPublishOneEvent_withAllChanges() throws IOException {
+        long version = dataStorage.getVersion();
+        Person first = person("First");
+        Person second = person("Second");
+
+        String result = dataStorage.inTransaction(() -> {
+            dataStorage.getPersons().add(first);
+            dataStorage.recordChange(EntityChange.saved(first));
+            dataStorage.saveData();
+            dataStorage.getPersons().add(second);
+            dataStorage.recordChange(EntityChange.saved(second));
+            dataStorage.saveData();
+            // les sauvegardes sont différées : rien n'est encore publié ni écrit
+            verifyNoInteractions(eventPublisher);
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        ArgumentCaptor<DataChangedEvent> event = ArgumentCaptor.forClass(DataChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().version()).isEqualTo(version + 1);
+        assertThat(event.getValue().changes()).containsExactly(EntityChange.saved(first), EntityChange.saved(second));
+        assertThat(Files.readString(dataFile)).contains("\"Second\"");
+    }
+
+    @Test
+    void inTransaction_shouldDiscardItsChangesAndRethrow_whenWorkFails() {
+        long version = dataStorage.getVersion();
+        List<Person> published = dataStorage.getPersons();
+        int persons = published.size();
+        Person first = person("First");
+
+        assertThatThrownBy(() -> dataStorage.inTransaction(() -> {
+            dataStorage.getPersons().add(first);
+            dataStorage.getPersons().removeIf(p -> p != first);
+            dataStorage.recordChange(EntityChange.saved(first));
+            dataStorage.saveData();
+            throw new ConflictException("second operation failed");
+        })).isInstanceOf(ConflictException.class).hasMessage("second operation failed");
+
+        assertThat(dataStorage.getPersons()).isSameAs(published).hasSize(persons).doesNotContain(first);
+        assertThat(dataStorage.getVersion()).isEqualTo(version);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void inTransaction_shouldHideItsChanges_fromOtherThreadsUntilCommitted() {
+        Person first = person("First");
+
+        dataStorage.inTransaction(() -> {
+            dataStorage.getPersons().add(first);
+            dataStorage.recordChange(EntityChange.saved(first));
+            assertThat(readPersonsFromAnotherThread()).doesNotContain(first);
+            return null;
+        });
+
+        assertThat(readPersonsFromAnotherThread()).contains(first);
+    }
+
+    @Test
+    void inTransaction_shouldPublishAllItsChangesAtOnce_withoutTouchingThePublishedList() {
+        List<Person> before = dataStorage.getPersons();
+        Person removed = before.getFirst();
+        Person added = person("Added");
+
+        dataStorage.inTransaction(() -> {
+            dataStorage.getPersons().remove(removed);
+            dataStorage.recordChange(EntityChange.deleted(removed));
+            dataStorage.getPersons().add(added);
+            dataStorage.recordChange(EntityChange.saved(added));
+            assertThat(dataStorage.getPersons()).hasSize(before.size()).contains(added).doesNotContain(removed);
+            return null;
+        });
+
+        // un lecteur qui tenait l'ancienne liste la voit entière, la nouvelle contient toute la transaction
+        assertThat(before).contains(removed).doesNotContain(added);
+        assertThat(dataStorage.getPersons()).isNotSameAs(before).hasSize(before.size())
+                .contains(added).doesNotContain(removed);
+    }
+
+    @Test
+    void writesOutsideATransaction_shouldBeRejected() {
+        Person outside = person("Outside");
+
+        assertThatThrownBy(() -> dataStorage.getPersons().add(outside))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> dataStorage.recordChange(EntityChange.saved(outside)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(dataStorage.getPersons()).doesNotContain(outside);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private List<Person> readPersonsFromAnotherThread() {
+        List<Person> persons = new ArrayList<>();
+        runInAnotherThread(() -> persons.addAll(dataStorage.getPersons()));
+        return persons;
+    }
+
+    private static void runInAnotherThread(Runnable work) {
+        Thread thread = new Thread(work);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void inTransaction_shouldJoinEnclosingTransaction_whenNested() {
+        dataStorage.inTransaction(() -> {
+            dataStorage.saveData();
+            return dataStorage.inTransaction(() -> {
+                dataStorage.saveData();
+                return null;
+            });
+        });
+
+        verify(eventPublisher, times(1)).publishEvent(any(DataChangedEvent.class));
+    }
+
+    @Test
+    void inTransaction_shouldNotWrite_whenNothingWasSaved() {
+        dataStorage.inTransaction(() -> dataStorage.getPersons().size());
+
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,89 @@
+package com.safetynet.AppSafetyNet.repository.data.columnar;
+
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ColumnarListTest {
+
+    @Test
+    void get_shouldMaterializeNewInstance_sharingPooledValues() {
+        PersonColumns list = new PersonColumns(List.of(person(1), person(2)));
+
+        Person first = list.get(0);
+
+        assertThat(list).containsExactly(person(1), person(2));
+        assertThat(first).isNotSameAs(list.get(0));
+        assertThat(first.getCity()).isSameAs(list.get(1).getCity());
+        assertThatThrownBy(() -> list.get(2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.add(person(3))).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void shouldRoundTripMedicalRecords_includingNullValues() {
+        MedicalRecord full = ObjectFactoryTest.createMedicalRecord("Tenley", "Boyd", LocalDate.of(2012, 2, 18),
+                List.of("aznol:350mg", "insuline"), List.of("peanut"));
+        MedicalRecord sparse = new MedicalRecord();
+        sparse.setFirstName("Émile");
+        sparse.setAllergies(Arrays.asList("pollen", null));
+
+        MedicalRecordColumns list = new MedicalRecordColumns(List.of(full, sparse));
+
+        assertThat(list.get(0)).isEqualTo(full);
+        assertThat(list.get(0).getPackedBirthDate()).isEqualTo(full.getPackedBirthDate());
+        assertThat(list.get(1)).isEqualTo(sparse);
+        assertThat(list.findByKey("tenley boyd")).contains(full);
+    }
+
+    @Test
+    void scans_shouldOnlyReturnMatchingRows_inListOrder() {
+        Person moved = ObjectFactoryTest.createPerson("P7", "BOYD", "7 Rue de la Paix", "Paris", "75002",
+                "841-874-0007", "p7@email.com");
+        PersonColumns list = new PersonColumns(List.of(person(1), moved, person(41), person(2)));
+
+        assertThat(list.findAllByLastName("boyd")).containsExactly(person(1), moved, person(41), person(2));
+        assertThat(list.findAllByCityKey("paris")).containsExactly(moved);
+        assertThat(list.findAllByAddressKeys(Set.of(person(41).getAddressKey(), "inconnue"))).containsExactly(person(1), person(41));
+        assertThat(list.findByKey("p2 boyd")).contains(person(2));
+        assertThat(list.findByKey("p3 boyd")).isEmpty();
+        assertThat(list.findAllByCityKey("lyon")).isEmpty();
+    }
+
+    @Test
+    void derive_shouldBuildTheNextList_withoutChangingThisOne() {
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            persons.add(person(i));
+        }
+        PersonColumns list = new PersonColumns(persons);
+        Person updated = person(10);
+        updated.setCity("Paris");
+
+        ColumnarList<Person> derived = list.derive(Set.of("p10 boyd", "p20 boyd", "inconnu"), List.of(updated, person(50)));
+
+        assertThat(list).containsExactlyElementsOf(persons);
+        List<Person> expected = new ArrayList<>(persons);
+        expected.removeIf(p -> p.getFirstName().equals("P10") || p.getFirstName().equals("P20"));
+        expected.addAll(List.of(updated, person(50)));
+        assertThat(derived).isInstanceOf(PersonColumns.class).containsExactlyElementsOf(expected);
+        assertThat(derived.findByKey("p10 boyd")).contains(updated);
+        assertThat(derived.findByKey("p20 boyd")).isEmpty();
+        assertThat(((PersonColumns) derived).findAllByCityKey("paris")).containsExactly(updated);
+        assertThat(list.findAllByCityKey("paris")).isEmpty();
+    }
+
+    private static Person person(int i) {
+        return ObjectFactoryTest.createPerson("P" + i, "Boyd", (i % 40) + " Culver St", "Culver", "97451",
+                "841-874-" + (1000 + i % 9000), "p" + i + "@email.com");
+    }
+}
@@ -0,0 +1,150 @@
+package com.safetynet.AppSafetyNet.repository.data.offheap;
+
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OffHeapListTest {
+
+    @Test
+    void shouldBehaveLikeArrayList_underRandomOperations() {
+        // Given de petits blocs, pour provoquer de nombreux compactages
+        Random random = new Random(11);
+        List<Person> expected = new ArrayList<>();
+        OffHeapList<Person> list = new OffHeapList<>(EntityCodecs.PERSON, 512, List.of());
+
+        // When
+        for (int i = 0; i < 5000; i++) {
+            int operation = random.nextInt(4);
+            if (operation == 0 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                assertThat(list.remove(index)).isEqualTo(expected.remove(index));
+            } else if (operation == 1 && !expected.isEmpty()) {
+                int index = random.nextInt(expected.size());
+                Person person = person(i);
+                assertThat(list.set(index, person)).isEqualTo(expected.set(index, person));
+            } else {
+                int index = random.nextInt(expected.size() + 1);
+                Person person = person(i);
+                expected.add(index, person);
+                list.add(index, person);
+            }
+        }
+        String id = expected.get(expected.size() / 2).getId();
+        expected.removeIf(p -> p.getId().equals(id));
+        list.removeIf(p -> p.getId().equals(id));
+
+        // Then
+        assertThat(list).isEqualTo(expected);
+        for (Person person : expected) {
+            assertThat(list.getByKey(person.getId().toLowerCase())).isEqualTo(person);
+        }
+        assertThat(list.getByKey(id.toLowerCase())).isNull();
+    }
+
+    @Test
+    void refTo_shouldFollowTheElement_acrossRemovalsAndCompactions() {
+        OffHeapList<Person> list = new OffHeapList<>(EntityCodecs.PERSON, 512, List.of());
+        for (int i = 0; i < 200; i++) {
+            list.add(person(i));
+        }
+        Supplier<Person> ref = OffHeapList.refTo(list, person(150));
+
+        // suppressions en bloc suffisantes pour déclencher un compactage
+        assertThat(list.removeIf(p -> p.getFirstName().compareTo("P150") < 0)).isTrue();
+        Person updated = person(150);
+        updated.setCity("Paris");
+        list.set(list.indexOf(person(150)), updated);
+
+        assertThat(ref.get()).isEqualTo(updated);
+        list.removeIf(p -> p.getFirstName().equals("P150"));
+        assertThat(ref.get()).isNull();
+        assertThat(list.removeIf(p -> false)).isFalse();
+    }
+
+    @Test
+    void derive_shouldBuildTheNextList_withoutChangingThisOne() {
+        OffHeapList<Person> list = new OffHeapList<>(EntityCodecs.PERSON, 512, List.of());
+        for (int i = 0; i < 50; i++) {
+            list.add(person(i));
+        }
+        Supplier<Person> kept = OffHeapList.refTo(list, person(10));
+        Supplier<Person> removed = OffHeapList.refTo(list, person(20));
+        Person updated = person(10);
+        updated.setCity("Paris");
+
+        OffHeapList<Person> derived = list.derive(Set.of("p10 boyd", "p20 boyd"), List.of(updated, person(50)));
+
+        // tant que la nouvelle liste n'est pas publiée, l'ancienne reste entière et les accès y lisent
+        assertThat(list).hasSize(50).contains(person(10), person(20));
+        assertThat(kept.get()).isEqualTo(person(10));
+        List<Person> expected = new ArrayList<>(list);
+        expected.removeIf(p -> p.getFirstName().equals("P10") || p.getFirstName().equals("P20"));
+        expected.addAll(List.of(updated, person(50)));
+        assertThat(derived).containsExactlyElementsOf(expected);
+        assertThat(derived.getByKey("p50 boyd")).isEqualTo(person(50));
+
+        derived.publish();
+        assertThat(kept.get()).isEqualTo(updated);
+        assertThat(removed.get()).isNull();
+    }
+
+    @Test
+    void refTo_shouldReturnTheElementItself_forAnOnHeapList() {
+        Person person = person(1);
+
+        assertThat(OffHeapList.refTo(new ArrayList<>(List.of(person)), person).get()).isSameAs(person);
+    }
+
+    @Test
+    void get_shouldDecodeNewInstance_sharingPooledValues() {
+        OffHeapList<Person> list = new OffHeapList<>(EntityCodecs.PERSON, OffHeapList.DEFAULT_CHUNK_SIZE, List.of(person(1), person(2)));
+
+        Person first = list.get(0);
+
+        assertThat(first).isEqualTo(person(1)).isNotSameAs(list.get(0));
+        assertThat(first.getCity()).isSameAs(list.get(1).getCity());
+        assertThat(list.offHeapBytes()).isEqualTo(OffHeapList.DEFAULT_CHUNK_SIZE);
+    }
+
+    @Test
+    void shouldRoundTripMedicalRecords_includingNullValues() {
+        MedicalRecord full = ObjectFactoryTest.createMedicalRecord("Tenley", "Boyd", LocalDate.of(2012, 2, 18),
+                List.of("aznol:350mg", "insuline"), List.of("peanut"));
+        MedicalRecord sparse = new MedicalRecord();
+        sparse.setFirstName("Émile");
+        sparse.setAllergies(Arrays.asList("pollen", null));
+
+        OffHeapList<MedicalRecord> list = new OffHeapList<>(EntityCodecs.MEDICAL_RECORD, 1024, List.of(full, sparse));
+
+        assertThat(list.get(0)).isEqualTo(full);
+        assertThat(list.get(0).getPackedBirthDate()).isEqualTo(full.getPackedBirthDate());
+        assertThat(list.get(1)).isEqualTo(sparse);
+    }
+
+    @Test
+    void shouldRejectInvalidIndexAndNullElements() {
+        OffHeapList<Person> list = new OffHeapList<>(EntityCodecs.PERSON, 1024, List.of(person(1)));
+
+        assertThatThrownBy(() -> list.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.add(3, person(2))).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.add(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Person person(int i) {
+        return ObjectFactoryTest.createPerson("P" + i, "Boyd", (i % 40) + " Culver St", "Culver", "97451",
+                "841-874-" + (1000 + i % 9000), "p" + i + "@email.com");
+    }
+}
@@ -0,0 +1,142 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import com.safetynet.AppSafetyNet.repository.index.AddressResolver.AddressMatch;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AddressResolverTest {
+
+    private static final String[] STREETS = {"Culver St", "Downing Ct", "Gershwin Cir", "Manchester St", "Binoc Ave",
+            "Steppes Pl", "Rose Dr", "15th St", "73rd St", "Main St", "Oak Ave", "Pine Rd"};
+
+    @Mock
+    private DataStorage dataStorage;
+
+    @InjectMocks
+    private AddressResolver resolver;
+
+    private final List<Person> persons = new ArrayList<>();
+    private final List<FireStation> fireStations = new ArrayList<>();
+
+    private void rebuild() {
+        when(dataStorage.getPersons()).thenReturn(persons);
+        when(dataStorage.getFireStations()).thenReturn(fireStations);
+        resolver.rebuild();
+    }
+
+    private void addPerson(String firstName, String address) {
+        persons.add(ObjectFactoryTest.createPerson(firstName, "Boyd", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+    }
+
+    @Test
+    void resolve_shouldReturnKnownSpelling_withFullConfidence_whenKeyMatches() {
+        addPerson("John", "1509 Culver St");
+        rebuild();
+
+        assertThat(resolver.resolve("1509 CULVER STREET")).contains(new AddressMatch("1509 Culver St", 1.0));
+    }
+
+    @Test
+    void resolve_shouldCorrectTypos_andRankClosestAddress() {
+        addPerson("John", "1509 Culver St");
+        addPerson("Tenley", "1590 Culver St");
+        addPerson("Eric", "951 LoneTree Rd");
+        fireStations.add(ObjectFactoryTest.createFireStation("644 Gershwin Cir", 1));
+        rebuild();
+
+        AddressMatch typo = resolver.resolve("1509 Culvr St").orElseThrow();
+        assertThat(typo.address()).isEqualTo("1509 Culver St");
+        assertThat(typo.confidence()).isGreaterThan(0.9).isLessThan(1.0);
+
+        assertThat(resolver.resolve("644 Gershwn Circle")).map(AddressMatch::address).contains("644 Gershwin Cir");
+        assertThat(resolver.resolve("951 Lonetre Rd")).map(AddressMatch::address).contains("951 LoneTree Rd");
+    }
+
+    @Test
+    void resolve_shouldNotCorrectHouseNumbers() {
+        addPerson("John", "1509 Culver St");
+        rebuild();
+
+        assertThat(resolver.resolve("1510 Culver St")).isEmpty();
+        assertThat(resolver.resolve("1509 Culvre St")).map(AddressMatch::address).contains("1509 Culver St");
+    }
+
+    @Test
+    void resolve_shouldReturnEmpty_whenNoAddressIsCloseEnough() {
+        addPerson("John", "1509 Culver St");
+        rebuild();
+
+        assertThat(resolver.resolve("12 Rue de la Paix")).isEmpty();
+        assertThat(resolver.resolve("...")).isEmpty();
+        assertThatThrownBy(() -> resolver.resolve(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void onDataChanged_shouldForgetAddresses_noLongerUsed() {
+        addPerson("John", "1509 Culver St");
+        fireStations.add(ObjectFactoryTest.createFireStation("29 15th St", 2));
+        rebuild();
+        Person john = persons.getFirst();
+        FireStation station = fireStations.getFirst();
+
+        // When John déménage et la caserne est supprimée
+        john.setAddress("892 Downing Ct");
+        resolver.onDataChanged(new DataChangedEvent(1, List.of(EntityChange.saved(john)), false));
+        fireStations.clear();
+        resolver.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.deleted(station)), false));
+
+        // Then
+        assertThat(resolver.resolve("1509 Culver St")).isEmpty();
+        assertThat(resolver.resolve("29 15th St")).isEmpty();
+        assertThat(resolver.resolve("892 Downing Ct")).contains(new AddressMatch("892 Downing Ct", 1.0));
+    }
+
+    @Test
+    void resolve_shouldFindTypoedAddress_amongManyAddresses() {
+        // Given de nombreuses adresses très proches les unes des autres
+        Random random = new Random(11);
+        for (int number = 1; number <= 20000; number++) {
+            addPerson("P" + number, number + " " + STREETS[number % STREETS.length]);
+        }
+        rebuild();
+
+        for (int q = 0; q < 200; q++) {
+            int number = 1000 + random.nextInt(19000);
+            String address = number + " " + STREETS[number % STREETS.length];
+            // supprime une lettre du nom de la voie (les chiffres ne sont jamais corrigés)
+            int typo = address.indexOf(' ') + 2;
+            while (Character.isDigit(address.charAt(typo))) {
+                typo++;
+            }
+            String typed = address.substring(0, typo) + address.substring(typo + 1);
+
+            assertThat(resolver.resolve(typed)).as(typed).map(AddressMatch::address).contains(address);
+        }
+    }
+
+    @Test
+    void distance_shouldCountEdits() {
+        assertThat(AddressResolver.distance("culver", "culver")).isZero();
+        assertThat(AddressResolver.distance("culver", "culvr")).isEqualTo(1);
+        assertThat(AddressResolver.distance("1509", "1590")).isEqualTo(2);
+        assertThat(AddressResolver.distance("", "abc")).isEqualTo(3);
+    }
+}
@@ -0,0 +1,159 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import com.safetynet.AppSafetyNet.utils.MutableClock;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AgeHistogramIndexTest {
+
+    @Mock
+    private DataStorage dataStorage;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-08-01T12:00:00Z"));
+    private final AgeClock ageClock = new AgeClock(clock);
+
+    private AgeHistogramIndex index;
+
+    private final List<Person> persons = new ArrayList<>();
+    private final List<MedicalRecord> records = new ArrayList<>();
+    private final List<FireStation> fireStations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new AgeHistogramIndex(dataStorage, ageClock);
+        setToday("2025-08-01");
+        fireStations.add(ObjectFactoryTest.createFireStation("1509 Culver St", 3));
+        fireStations.add(ObjectFactoryTest.createFireStation("29 15th St", 2));
+        resident("John", "Boyd", "1509 Culver St", LocalDate.of(1984, 3, 6));       // 19-64
+        resident("Roger", "Boyd", "1509 Culver St", LocalDate.of(2019, 8, 2));      // 5 ans, 6 le lendemain
+        resident("Eric", "Cadigan", "29 15th St", LocalDate.of(1945, 8, 6));        // 65+
+        persons.add(ObjectFactoryTest.createPerson("Jonanathan", "Marrack", "29 15th St", "Culver", "97451", "841-874-6513", "drk@email.com"));
+        when(dataStorage.getPersons()).thenReturn(persons);
+        when(dataStorage.getMedicalRecords()).thenReturn(records);
+        when(dataStorage.getFireStations()).thenReturn(fireStations);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_shouldCountResidentsByBracket_perStationAndAddress() {
+        assertThat(index.getStations()).containsExactly(2, 3);
+        assertThat(counts(3)).containsExactly(1, 0, 0, 1, 0, 0);
+        assertThat(counts(2)).containsExactly(0, 0, 0, 0, 1, 1);
+        assertThat(index.getStationCounts(3).orElseThrow().addresses().get("1509 Culver St")).containsExactly(1, 0, 0, 1, 0, 0);
+        assertThat(index.getStationCounts(1)).isEmpty();
+    }
+
+    @Test
+    void shouldMoveResidents_whenTheyChangeBracketAtMidnight() {
+        setToday("2025-08-02");
+
+        index.onBirthdayRollover(ageClock.today());
+
+        assertThat(counts(3)).containsExactly(0, 1, 0, 1, 0, 0);
+    }
+
+    @Test
+    void shouldCatchUp_whenRolloverWasMissed() {
+        setToday("2032-08-02");
+
+        assertThat(counts(3)).containsExactly(0, 0, 1, 1, 0, 0);
+    }
+
+    @Nested
+    class DataChanges {
+
+        @Test
+        void shouldMoveResident_whenAddressUpdatedInPlace() {
+            Person john = persons.getFirst();
+            john.setAddress("29 15th St");
+
+            apply(EntityChange.saved(john));
+
+            assertThat(counts(3)).containsExactly(1, 0, 0, 0, 0, 0);
+            assertThat(counts(2)).containsExactly(0, 0, 0, 1, 1, 1);
+        }
+
+        @Test
+        void shouldChangeBracket_whenBirthDateUpdated() {
+            MedicalRecord john = records.getFirst();
+            john.setBirthDate(LocalDate.of(1950, 1, 1));
+
+            apply(EntityChange.saved(john));
+
+            assertThat(counts(3)).containsExactly(1, 0, 0, 0, 1, 0);
+        }
+
+        @Test
+        void shouldCountResidentAsUnknown_whenMedicalRecordDeleted() {
+            apply(EntityChange.deleted(records.getFirst()));
+
+            assertThat(counts(3)).containsExactly(1, 0, 0, 0, 0, 1);
+        }
+
+        @Test
+        void shouldRemoveResident_whenPersonDeleted() {
+            apply(EntityChange.deleted(persons.get(1)));
+
+            assertThat(counts(3)).containsExactly(0, 0, 0, 1, 0, 0);
+        }
+
+        @Test
+        void shouldMoveAddressCounts_whenFireStationUpdatedInPlace() {
+            FireStation culver = fireStations.getFirst();
+            culver.setStation(2);
+
+            apply(EntityChange.saved(culver));
+
+            assertThat(index.getStations()).containsExactly(2);
+            assertThat(counts(2)).containsExactly(1, 0, 0, 1, 1, 1);
+        }
+
+        @Test
+        void shouldDropStation_whenItsLastAddressIsDeleted() {
+            FireStation culver = fireStations.removeFirst();
+
+            apply(EntityChange.deleted(culver));
+
+            assertThat(index.getStations()).containsExactly(2);
+        }
+    }
+
+    private void apply(EntityChange change) {
+        index.onDataChanged(new DataChangedEvent(2, List.of(change), false));
+    }
+
+    private int[] counts(int station) {
+        return index.getStationCounts(station).orElseThrow().counts();
+    }
+
+    private void resident(String firstName, String lastName, String address, LocalDate birthDate) {
+        persons.add(ObjectFactoryTest.createPerson(firstName, lastName, address, "Culver", "97451", "841-874-6512", "mail@email.com"));
+        records.add(ObjectFactoryTest.createMedicalRecord(firstName, lastName, birthDate, List.of(), List.of()));
+    }
+
+    private void setToday(String date) {
+        clock.setToday(date);
+        ageClock.refresh();
+    }
+}
@@ -0,0 +1,158 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import com.safetynet.AppSafetyNet.utils.MutableClock;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class AgeIndexTest {
+
+    @Mock
+    private DataStorage dataStorage;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-08-01T12:00:00Z"));
+    private final AgeClock ageClock = new AgeClock(clock);
+
+    private AgeIndex index;
+
+    private final List<MedicalRecord> records = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new AgeIndex(dataStorage, ageClock);
+        setToday("2025-08-01");
+        records.add(record("Tenley", "Boyd", LocalDate.of(2012, 2, 18)));
+        records.add(record("Zach", "Zemicks", LocalDate.of(2006, 8, 2)));     // 19 ans le 02/08/2025
+        records.add(record("John", "Boyd", LocalDate.of(1984, 3, 6)));
+        when(dataStorage.getMedicalRecords()).thenReturn(records);
+        index.rebuild();
+    }
+
+    @Test
+    void rebuild_shouldPartitionMinorsAndAdults() {
+        assertThat(index.getMinorCount()).isEqualTo(2);
+        assertThat(index.getAdultCount()).isEqualTo(1);
+        assertThat(index.isMinor("Zach", "Zemicks")).isTrue();
+        assertThat(index.isMinor("john", "BOYD")).isFalse();
+    }
+
+    @Test
+    void countMinors_shouldCountOnlyIndexedMinors() {
+        List<Person> persons = List.of(
+                person("Tenley", "Boyd"),
+                person("John", "Boyd"),
+                person("Jonanathan", "Marrack"));   // sans dossier médical
+
+        assertThat(index.countMinors(persons)).isEqualTo(1);
+
+        setToday("2031-02-18");
+        assertThat(index.countMinors(persons)).isZero();
+    }
+
+    @Nested
+    class Rollover {
+
+        @Test
+        void shouldMoveOnlyResidentsTurningMajor() {
+            setToday("2025-08-02");
+
+            index.onBirthdayRollover(ageClock.today());
+
+            assertThat(index.isMinor("Zach", "Zemicks")).isFalse();
+            assertThat(index.isMinor("Tenley", "Boyd")).isTrue();
+            assertThat(index.getMinorCount()).isEqualTo(1);
+            assertThat(index.getAdultCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldCatchUp_whenRolloverWasMissed() {
+            setToday("2031-02-18");
+
+            assertThat(index.getMinorCount()).isZero();
+            assertThat(index.getAdultCount()).isEqualTo(3);
+        }
+
+        @Test
+        void shouldRecompute_whenClockGoesBack() {
+            setToday("2025-08-02");
+            index.onBirthdayRollover(ageClock.today());
+            setToday("2025-08-01");
+
+            assertThat(index.isMinor("Zach", "Zemicks")).isTrue();
+        }
+    }
+
+    @Nested
+    class DataChanges {
+
+        @Test
+        void shouldReclassify_whenBirthDateUpdatedInPlace() {
+            MedicalRecord john = records.get(2);
+            john.setBirthDate(LocalDate.of(2015, 1, 1));
+
+            index.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.saved(john)), false));
+
+            assertThat(index.isMinor("John", "Boyd")).isTrue();
+            assertThat(index.getMinorCount()).isEqualTo(3);
+            assertThat(index.getAdultCount()).isZero();
+        }
+
+        @Test
+        void shouldForgetDeletedRecord() {
+            index.onDataChanged(new DataChangedEvent(2, List.of(EntityChange.deleted(records.get(0))), false));
+
+            assertThat(index.isMinor("Tenley", "Boyd")).isFalse();
+            assertThat(index.getMinorCount()).isEqualTo(1);
+        }
+
+        @Test
+        void shouldIgnoreOtherEntities() {
+            index.onDataChanged(new DataChangedEvent(2,
+                    List.of(EntityChange.deleted(ObjectFactoryTest.createFireStation("1509 Culver St", 3))), false));
+
+            assertThat(index.getMinorCount()).isEqualTo(2);
+        }
+
+        @Test
+        void shouldRebuild_onReload() {
+            records.clear();
+
+            index.onDataChanged(new DataChangedEvent(3, List.of(), true));
+
+            assertThat(index.getMinorCount()).isZero();
+            assertThat(index.getAdultCount()).isZero();
+        }
+    }
+
+    private static Person person(String firstName, String lastName) {
+        return ObjectFactoryTest.createPerson(firstName, lastName, "1509 Culver St", "Culver", "97451", "841-874-6512", "mail@email.com");
+    }
+
+    private static MedicalRecord record(String firstName, String lastName, LocalDate birthDate) {
+        return ObjectFactoryTest.createMedicalRecord(firstName, lastName, birthDate, List.of(), List.of());
+    }
+
+    private void setToday(String date) {
+        clock.setToday(date);
+        ageClock.refresh();
+    }
+}
@@ -0,0 +1,350 @@
+package com.safetynet.AppSafetyNet.repository.index;
+
+import com.safetynet.AppSafetyNet.exception.ConflictException;
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.repository.data.DataChangedEvent;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.data.EntityChange;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ResidentSearchIndexTest {
+
+    private static final String[] CITIES = {"Culver", "Paris", "Lyon"};
+    private static final String[] LAST_NAMES = {"Boyd", "Zemicks", "Stelzer", "Cadigan", "Marrack"};
+    private static final String[] ALLERGIES = {"peanut", "shellfish", "nillacilan"};
+
+    @Mock
+    private DataStorage dataStorage;
+
+    private final AgeClock ageClock = new AgeClock(Clock.fixed(Instant.parse("2025-08-01T12:00:00Z"), ZoneOffset.UTC));
+
+    private ResidentSearchIndex index;
+
+    private final List<Person> persons = new ArrayList<>();
+    private final List<MedicalRecord> records = new ArrayList<>();
+    private final List<FireStation> fireStations = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new ResidentSearchIndex(dataStorage, ageClock);
+        when(dataStorage.getPersons()).thenReturn(persons);
+        when(dataStorage.getMedicalRecords()).thenReturn(records);
+        when(dataStorage.getFireStations()).thenReturn(fireStations);
+    }
+
+    @Test
+    void search_shouldReturnSameResultsAsFullScan() {
+        // Given un jeu de données volumineux, pour exercer intersections et vérifications unitaires
+        Random random = new Random(42);
+        for (int a = 0; a < 200; a++) {
+            fireStations.add(ObjectFactoryTest.createFireStation(a + " Main St", a % 10));
+        }
+        for (int i = 0; i < 5000; i++) {
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            String city = CITIES[random.nextInt(CITIES.length)];
+            persons.add(ObjectFactoryTest.createPerson("P" + i, lastName, random.nextInt(220) + " Main St", city,
+                    city.equals("Paris") ? "75000" : "97451", "841-874-0000", "p" + i + "@email.com"));
+            if (random.nextInt(10) > 0) {
+                LocalDate birthDate = LocalDate.of(1930 + random.nextInt(95), 1 + random.nextInt(12), 1 + random.nextInt(28));
+                records.add(ObjectFactoryTest.createMedicalRecord("P" + i, lastName, birthDate,
+                        List.of("aznol:" + random.nextInt(500) + "mg"), List.of(ALLERGIES[random.nextInt(ALLERGIES.length)])));
+            }
+        }
+        index.rebuild();
+
+        // When / Then
+        for (int q = 0; q < 200; q++) {
+            Integer minAge = random.nextBoolean() ? random.nextInt(80) : null;
+            ResidentQuery query = new ResidentQuery(
+                    random.nextBoolean() ? random.nextInt(12) : null,
+                    random.nextInt(4) == 0 ? random.nextInt(220) + " MAIN st" : null,
+                    random.nextBoolean() ? CITIES[random.nextInt(CITIES.length)] : null,
+                    random.nextInt(4) == 0 ? "97451" : null,
+                    random.nextBoolean() ? LAST_NAMES[random.nextInt(LAST_NAMES.length)] : null,
+                    minAge,
+                    random.nextBoolean() ? (minAge == null ? 0 : minAge) + random.nextInt(40) : null,
+                    random.nextInt(5) == 0 ? "Aznol" : null,
+                    random.nextBoolean() ? ALLERGIES[random.nextInt(ALLERGIES.length)] : null);
+
+            assertThat(ids(index.search(query))).as(query.toString()).isEqualTo(fullScan(query));
+        }
+    }
+
+    @Test
+    void findByStations_shouldFollowDataOrder_afterUpdatesAndCompaction() {
+        // Given
+        Random random = new Random(7);
+        for (int a = 0; a < 50; a++) {
+            fireStations.add(ObjectFactoryTest.createFireStation(a + " Main St", a % 7));
+        }
+        for (int i = 0; i < 3000; i++) {
+            persons.add(ObjectFactoryTest.createPerson("P" + i, "Boyd", random.nextInt(60) + " Main St", "Culver",
+                    "97451", "841-874-0000", "p" + i + "@email.com"));
+        }
+        index.rebuild();
+
+        // When des personnes déménagent (réenregistrées en fin de liste, comme le fait le repository) ou sont supprimées
+        for (int i = 0; i < 2500; i++) {
+            Person person = persons.remove(random.nextInt(persons.size()));
+            if (random.nextInt(3) == 0) {
+                index.onDataChanged(new DataChangedEvent(i, List.of(EntityChange.deleted(person)), false));
+            } else {
+                person.setAddress(random.nextInt(60) + " MAIN ST");
+                persons.add(person);
+                index.onDataChanged(new DataChangedEvent(i, List.of(EntityChange.saved(person)), false));
+            }
+        }
+
+        // Then
+        for (int q = 0; q < 50; q++) {
+            List<Integer> stations = List.of(random.nextInt(8), random.nextInt(8));
+            List<String> expected = persons.stream()
+                    .filter(p -> fireStations.stream().anyMatch(fs -> fs.getAddress().equalsIgnoreCase(p.getAddress())
+                            && stations.contains(fs.getStation())))
+                    .map(Person::getId)
+                    .toList();
+            assertThat(ids(index.findByStations(stations))).as(stations.toString()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void findPhonesByStations_shouldReturnDistinctPhones_inFirstOccurrenceOrder() {
+        // Given
+        fireStations.add(ObjectFactoryTest.createFireStation("1509 Culver St", 3));
+        fireStations.add(ObjectFactoryTest.createFireStation("29 15th St", 2));
+        fireStations.add(ObjectFactoryTest.createFireStation("892 Downing Ct", 1));
+        persons.add(ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+        persons.add(ObjectFactoryTest.createPerson("Jonanathan", "Marrack", "29 15th St", "Culver", "97451", "841-874-6513", "drk@email.com"));
+        persons.add(ObjectFactoryTest.createPerson("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "drk@email.com"));
+        persons.add(ObjectFactoryTest.createPerson("Sophia", "Zemicks", "1509 Culver St", "Culver", "97451", "poste 12", "soph@email.com"));
+        persons.add(ObjectFactoryTest.createPerson("Warren", "Zemicks", "29 15th St", "Culver", "97451", "poste 12", "ward@email.com"));
+        persons.add(ObjectFactoryTest.createPerson("Eric", "Cadigan", "892 Downing Ct", "Culver", "97451", "841-874-7458", "gramps@email.com"));
+        index.rebuild();
+
+        // When
+        List<String> phones = index.findPhonesByStations(List.of(2, 3));
+
+        // Then
+        assertThat(phones).containsExactly("841-874-6512", "841-874-6513", "poste 12");
+        assertThat(index.findPhonesByStations(List.of(4))).isEmpty();
+    }
+
+    @Nested
+    class Pagination {
+
+        @Test
+        void pageByStation_shouldVisitEveryResidentOnce_acrossPages() {
+            // Given
+            for (int a = 0; a < 10; a++) {
+                fireStations.add(ObjectFactoryTest.createFireStation(a + " Main St", a % 2));
+            }
+            for (int i = 0; i < 95; i++) {
+                persons.add(ObjectFactoryTest.createPerson("P" + i, "Boyd", (i % 10) + " Main St", "Culver", "97451", "841-874-0000", "p" + i + "@email.com"));
+            }
+            index.rebuild();
+            when(dataStorage.getEpoch()).thenReturn("run1");
+
+            // When
+            List<String> visited = new ArrayList<>();
+            ResidentSearchIndex.ResidentPage page = index.pageByStation(1, null, 20);
+            visited.addAll(ids(page.matches()));
+            while (page.next() != null) {
+                assertThat(page.matches()).hasSize(20);
+                page = index.pageByStation(1, PageCursor.decode(page.next().encode()), 20);
+                visited.addAll(ids(page.matches()));
+            }
+
+            // Then
+            assertThat(visited).isEqualTo(ids(index.findByStations(List.of(1))));
+            assertThat(visited).hasSize(47).doesNotHaveDuplicates();
+        }
+
+        @Test
+        void pageDistinctEmailsByCity_shouldKeepFirstResidentOfEachEmail() {
+            // Given un email partagé dans la ville et un email partagé avec une autre ville
+            persons.add(ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+            persons.add(ObjectFactoryTest.createPerson("Zach", "Zemicks", "892 Downing Ct", "Paris", "75000", "841-874-7512", "zarc@email.com"));
+            persons.add(ObjectFactoryTest.createPerson("Jacob", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6513", "jaboyd@email.com"));
+            persons.add(ObjectFactoryTest.createPerson("Warren", "Zemicks", "892 Downing Ct", "CULVER", "97451", "841-874-7512", "zarc@email.com"));
+            persons.add(ObjectFactoryTest.createPerson("Tenley", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "tenz@email.com"));
+            persons.add(ObjectFactoryTest.createPerson("Roger", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "tenz@email.com"));
+            index.rebuild();
+            when(dataStorage.getEpoch()).thenReturn("run1");
+
+            // When
+            ResidentSearchIndex.ResidentPage first = index.pageDistinctEmailsByCity("culver", null, 2);
+            ResidentSearchIndex.ResidentPage second = index.pageDistinctEmailsByCity("culver", first.next(), 2);
+
+            // Then
+            assertThat(ids(first.matches())).containsExactly("John Boyd", "Warren Zemicks");
+            assertThat(ids(second.matches())).containsExactly("Tenley Boyd");
+            assertThat(second.next()).isNull();
+        }
+
+        @Test
+        void page_shouldRejectCursor_afterDataChangeOrRestart() {
+            // Given
+            persons.add(ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+            persons.add(ObjectFactoryTest.createPerson("Tenley", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "tenz@email.com"));
+            index.rebuild();
+            when(dataStorage.getEpoch()).thenReturn("run1");
+            ResidentSearchIndex.ResidentPage first = index.pageByLastName("BOYD", null, 1);
+            assertThat(first.next()).isNotNull();
+            PageCursor beforeRestart = new PageCursor("run0", first.next().version(), first.next().position());
+            assertThatThrownBy(() -> index.pageByLastName("Boyd", beforeRestart, 1)).isInstanceOf(ConflictException.class);
+
+            // When
+            Person eric = ObjectFactoryTest.createPerson("Eric", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-7458", "gramps@email.com");
+            persons.add(eric);
+            index.onDataChanged(new DataChangedEvent(1, List.of(EntityChange.saved(eric)), false));
+
+            // Then
+            assertThatThrownBy(() -> index.pageByLastName("Boyd", first.next(), 1)).isInstanceOf(ConflictException.class);
+            assertThatThrownBy(() -> index.pageByLastName("Boyd", null, PageCursor.MAX_PAGE_SIZE + 1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> PageCursor.decode("not a cursor")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    class DataChanges {
+
+        @BeforeEach
+        void setUpData() {
+            fireStations.add(ObjectFactoryTest.createFireStation("1509 Culver St", 3));
+            fireStations.add(ObjectFactoryTest.createFireStation("892 Downing Ct", 2));
+            persons.add(ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com"));
+            persons.add(ObjectFactoryTest.createPerson("Tenley", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "tenz@email.com"));
+            records.add(ObjectFactoryTest.createMedicalRecord("John", "Boyd", LocalDate.of(1984, 3, 6), List.of("aznol:350mg"), List.of("nillacilan")));
+            records.add(ObjectFactoryTest.createMedicalRecord("Tenley", "Boyd", LocalDate.of(2012, 2, 18), List.of(), List.of("peanut")));
+            index.rebuild();
+        }
+
+        @Test
+        void shouldFollowPersonUpdatedInPlace() {
+            Person john = persons.getFirst();
+            john.setAddress("892 Downing Ct");
+
+            apply(EntityChange.saved(john));
+
+            assertThat(ids(index.search(station(3)))).containsExactly("Tenley Boyd");
+            assertThat(ids(index.search(station(2)))).containsExactly("John Boyd");
+        }
+
+        @Test
+        void shouldForgetDeletedPerson_andAppendSavedPerson() {
+            apply(EntityChange.deleted(persons.removeFirst()));
+            Person eric = ObjectFactoryTest.createPerson("Eric", "Cadigan", "1509 Culver St", "Culver", "97451", "841-874-7458", "gramps@email.com");
+            persons.add(eric);
+            apply(EntityChange.saved(eric));
+
+            assertThat(ids(index.search(station(3)))).containsExactly("Tenley Boyd", "Eric Cadigan");
+        }
+
+        @Test
+        void shouldUseUpdatedBirthDateAndTreatments() {
+            MedicalRecord tenley = records.get(1);
+            tenley.setBirthDate(LocalDate.of(1950, 1, 1));
+            tenley.setAllergies(List.of("shellfish"));
+
+            apply(EntityChange.saved(tenley));
+
+            ResidentQuery seniors = new ResidentQuery(3, null, null, null, null, 65, null, null, "SHELLFISH");
+            assertThat(ids(index.search(seniors))).containsExactly("Tenley Boyd");
+        }
+
+        @Test
+        void shouldIndexMedicationsByName_andFollowUpdates() {
+            ResidentQuery aznol = new ResidentQuery(null, null, null, null, null, null, null, "Aznol", null);
+            assertThat(ids(index.search(aznol))).containsExactly("John Boyd");
+
+            MedicalRecord john = records.getFirst();
+            john.setMedications(List.of("insulin:10ui"));
+            apply(EntityChange.saved(john));
+
+            assertThat(index.search(aznol)).isEmpty();
+            ResidentQuery insulin = new ResidentQuery(3, null, null, null, null, null, null, " INSULIN ", null);
+            assertThat(ids(index.search(insulin))).containsExactly("John Boyd");
+        }
+
+        @Test
+        void shouldForgetTreatments_whenMedicalRecordDeleted() {
+            apply(EntityChange.deleted(records.removeFirst()));
+
+            assertThat(index.search(new ResidentQuery(null, null, null, null, null, null, null, null, "nillacilan"))).isEmpty();
+            assertThat(index.search(new ResidentQuery(null, null, null, null, null, 0, null, null, null))).hasSize(1);
+        }
+
+        @Test
+        void shouldFollowFireStationUpdatedInPlace() {
+            fireStations.getFirst().setStation(2);
+
+            apply(EntityChange.saved(fireStations.getFirst()));
+
+            assertThat(index.search(station(3))).isEmpty();
+            assertThat(index.search(station(2))).hasSize(2);
+            assertThat(index.findByStations(List.of(3))).isEmpty();
+            assertThat(ids(index.findByStations(List.of(2)))).containsExactly("John Boyd", "Tenley Boyd");
+        }
+
+        private ResidentQuery station(int station) {
+            return new ResidentQuery(station, null, null, null, null, null, null, null, null);
+        }
+
+        private void apply(EntityChange change) {
+            index.onDataChanged(new DataChangedEvent(2, List.of(change), false));
+        }
+    }
+
+    private List<String> fullScan(ResidentQuery query) {
+        Map<String, MedicalRecord> recordsById = new HashMap<>();
+        records.forEach(r -> recordsById.put(r.getId(), r));
+        List<String> ids = new ArrayList<>();
+        for (Person person : persons) {
+            MedicalRecord mr = recordsById.get(person.getId());
+            boolean matches = (query.station() == null || fireStations.stream()
+                    .anyMatch(fs -> fs.getAddress().equalsIgnoreCase(person.getAddress()) && fs.getStation().equals(query.station())))
+                    && (query.address() == null || person.getAddress().equalsIgnoreCase(query.address()))
+                    && (query.city() == null || person.getCity().equalsIgnoreCase(query.city()))
+                    && (query.zip() == null || person.getZip().equalsIgnoreCase(query.zip()))
+                    && (query.lastName() == null || person.getLastName().equalsIgnoreCase(query.lastName()))
+                    && (query.minAge() == null || (mr != null && mr.getAge(ageClock) >= query.minAge()))
+                    && (query.maxAge() == null || (mr != null && mr.getAge(ageClock) <= query.maxAge()))
+                    && (query.medication() == null || (mr != null && mr.getMedications().stream()
+                    .anyMatch(m -> MedicalTerms.normalize(m).equals(MedicalTerms.normalize(query.medication())))))
+                    && (query.allergy() == null || (mr != null && mr.getAllergies().contains(query.allergy())));
+            if (matches) {
+                ids.add(person.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> ids(List<ResidentMatch> matches) {
+        return matches.stream().map(match -> match.person().getId()).toList();
+    }
+}
@@ -0,0 +1,47 @@
+package com.safetynet.AppSafetyNet.scheduler;
+
+import com.safetynet.AppSafetyNet.cache.ResponseCache;
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.repository.index.BirthdayRolloverListener;
+import com.safetynet.AppSafetyNet.utils.MutableClock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+public class BirthdayRolloverSchedulerTest {
+
+    @Mock
+    private BirthdayRolloverListener firstIndex;
+
+    @Mock
+    private BirthdayRolloverListener secondIndex;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Test
+    void rollover_shouldRefreshToday_thenUpdateEveryIndex_thenClearCachedResponses() {
+        MutableClock clock = new MutableClock(Instant.parse("2025-08-01T23:59:59Z"));
+        AgeClock ageClock = new AgeClock(clock);
+        BirthdayRolloverScheduler scheduler = new BirthdayRolloverScheduler(ageClock, List.of(firstIndex, secondIndex), responseCache);
+        clock.advance(Duration.ofSeconds(2));
+
+        scheduler.rollover();
+
+        InOrder order = inOrder(firstIndex, secondIndex, responseCache);
+        order.verify(firstIndex).onBirthdayRollover(20250802);
+        order.verify(secondIndex).onBirthdayRollover(20250802);
+        order.verify(responseCache).invalidateAll();
+        assertThat(ageClock.today()).isEqualTo(20250802);
+    }
+}
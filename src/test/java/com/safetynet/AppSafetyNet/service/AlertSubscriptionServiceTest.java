@@ -0,0 +1,179 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.safetynet.AppSafetyNet.cache.DataVersion;
+import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.AlertQueryDTO;
+import com.safetynet.AppSafetyNet.model.dto.AlertUpdateDTO;
+import com.safetynet.AppSafetyNet.model.dto.AlertUpdateDTO.Type;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO.Op;
+import com.safetynet.AppSafetyNet.repository.FireStationRepository;
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.ChangeLog;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.service.Impl.AlertSubscriptionServiceImpl;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AlertSubscriptionServiceTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(50);
+    private static final String ADDRESS = "1509 Culver St";
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private PersonService personService;
+
+    @Mock
+    private FireStationService fireStationService;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private FireStationRepository fireStationRepository;
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private DataStorage dataStorage;
+
+    @Mock
+    private DataVersion dataVersion;
+
+    private AlertSubscriptionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AlertSubscriptionServiceImpl(personService, fireStationService, personRepository, fireStationRepository,
+                changeLog, dataStorage, dataVersion, mapper, HEARTBEAT.toMillis());
+    }
+
+    private static Person person(String firstName, String address) {
+        return ObjectFactoryTest.createPerson(firstName, "Boyd", address, "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+    }
+
+    private ChangeEventDTO upsert(long sequence, Person person) {
+        return new ChangeEventDTO(sequence, 3, Op.UPSERT, EntityType.PERSON, person.getId().toLowerCase(), mapper.valueToTree(person));
+    }
+
+    private void stubPhoneAlertDependencies() {
+        when(fireStationRepository.findAddressByNumberStation(3)).thenReturn(List.of(ADDRESS));
+        when(personRepository.findByAddresses(List.of(ADDRESS))).thenReturn(List.of(person("John", ADDRESS)));
+        when(changeLog.lastSequence()).thenReturn(5L);
+        when(dataStorage.versionToken(anyLong())).thenAnswer(invocation -> "run1-" + invocation.getArgument(0));
+    }
+
+    @Test
+    void subscribe_shouldSendSnapshot_thenOnlyChangedRows_whenAChangeAffectsTheQuery() throws InterruptedException {
+        stubPhoneAlertDependencies();
+        when(dataStorage.getVersion()).thenReturn(2L, 3L);
+        when(dataVersion.current()).thenReturn("1-2-0", "1-2-0", "1-3-0");
+        when(personService.getPhoneNumbersByFireStation(3)).thenReturn(List.of("a", "b"), List.of("b", "c"));
+        when(changeLog.await(5, ChangeService.READ_BATCH_SIZE, HEARTBEAT)).thenReturn(List.of(upsert(6, person("John", ADDRESS))));
+
+        List<AlertUpdateDTO> updates = service.subscribe(List.of(AlertQueryDTO.phoneAlert(3)), 2).toList();
+
+        assertEquals(List.of(
+                new AlertUpdateDTO(Type.SNAPSHOT, "/phoneAlert?numberFireStation=3", "run1-2",
+                        Map.of("a", TextNode.valueOf("a"), "b", TextNode.valueOf("b")), List.of(), null),
+                new AlertUpdateDTO(Type.DIFF, "/phoneAlert?numberFireStation=3", "run1-3",
+                        Map.of("c", TextNode.valueOf("c")), List.of("a"), null)
+        ), updates);
+    }
+
+    @Test
+    void subscribe_shouldNotRecompute_whenAChangeDoesNotAffectTheQuery_andProduceHeartbeat() throws InterruptedException {
+        stubPhoneAlertDependencies();
+        when(dataStorage.getVersion()).thenReturn(2L, 3L);
+        when(dataVersion.current()).thenReturn("1-2-0");
+        when(personService.getPhoneNumbersByFireStation(3)).thenReturn(List.of("a"));
+        when(changeLog.await(5, ChangeService.READ_BATCH_SIZE, HEARTBEAT)).thenReturn(List.of(upsert(6, person("Other", "29 15th St"))));
+        when(changeLog.await(6, ChangeService.READ_BATCH_SIZE, HEARTBEAT)).thenReturn(List.of());
+
+        List<AlertUpdateDTO> updates = service.subscribe(List.of(AlertQueryDTO.phoneAlert(3)), null).limit(2).toList();
+
+        assertEquals(Type.SNAPSHOT, updates.getFirst().type());
+        assertEquals(new AlertUpdateDTO(Type.HEARTBEAT, null, "run1-3", null, null, null), updates.get(1));
+        verify(personService, times(1)).getPhoneNumbersByFireStation(3);
+    }
+
+    @Test
+    void subscribe_shouldComputeOnce_whenSeveralSubscriptionsFollowTheSameQuery() {
+        stubPhoneAlertDependencies();
+        when(dataStorage.getVersion()).thenReturn(2L);
+        when(dataVersion.current()).thenReturn("1-2-0");
+        when(personService.getPhoneNumbersByFireStation(3)).thenReturn(List.of("a"));
+
+        List<AlertUpdateDTO> snapshots = service.subscribe(List.of(AlertQueryDTO.phoneAlert(3), AlertQueryDTO.phoneAlert(3)), 2).toList();
+        AlertUpdateDTO other = service.subscribe(List.of(AlertQueryDTO.phoneAlert(3)), 1).findFirst().orElseThrow();
+
+        assertEquals(2, snapshots.size());
+        assertEquals(snapshots.getFirst(), snapshots.get(1));
+        assertEquals(snapshots.getFirst(), other);
+        verify(personService, times(1)).getPhoneNumbersByFireStation(3);
+    }
+
+    @Test
+    void subscribe_shouldResendSnapshot_whenARecomputeFailed() throws InterruptedException {
+        stubPhoneAlertDependencies();
+        when(dataStorage.getVersion()).thenReturn(2L, 3L);
+        when(dataVersion.current()).thenReturn("1-2-0", "1-2-0", "1-3-0");
+        when(personService.getPhoneNumbersByFireStation(3))
+                .thenReturn(List.of("a", "b"))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(List.of("b", "c"));
+        when(changeLog.await(5, ChangeService.READ_BATCH_SIZE, HEARTBEAT)).thenReturn(List.of(upsert(6, person("John", ADDRESS))));
+        when(changeLog.await(6, ChangeService.READ_BATCH_SIZE, HEARTBEAT)).thenReturn(List.of());
+
+        List<AlertUpdateDTO> updates = service.subscribe(List.of(AlertQueryDTO.phoneAlert(3)), 2).toList();
+
+        assertEquals(new AlertUpdateDTO(Type.SNAPSHOT, "/phoneAlert?numberFireStation=3", "run1-3",
+                Map.of("b", TextNode.valueOf("b"), "c", TextNode.valueOf("c")), List.of(), null), updates.get(1));
+    }
+
+    @Test
+    void subscribe_shouldSendEmptySnapshot_whenStationIsUnknown() {
+        when(dataStorage.getVersion()).thenReturn(2L);
+        when(dataStorage.versionToken(2L)).thenReturn("run1-2");
+        when(dataVersion.current()).thenReturn("1-2-0");
+        when(fireStationRepository.findAddressByNumberStation(9)).thenReturn(List.of());
+        when(personRepository.findByAddresses(List.of())).thenReturn(List.of());
+        when(fireStationService.getPersonCoveredByNumberStation(9))
+                .thenThrow(new NotFoundException("Aucune FireStation avec le numéro de station : 9"));
+
+        AlertUpdateDTO snapshot = service.subscribe(List.of(AlertQueryDTO.fireStation(9)), 1).findFirst().orElseThrow();
+
+        assertEquals(new AlertUpdateDTO(Type.SNAPSHOT, "/firestation?stationNumber=9", "run1-2", Map.of(), List.of(), null), snapshot);
+    }
+
+    @Test
+    void subscribe_shouldThrowIllegalArgument_whenQueriesOrLimitAreInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(List.of(), null));
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(Collections.nCopies(AlertSubscriptionService.MAX_QUERIES + 1, AlertQueryDTO.phoneAlert(1)), null));
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(List.of(AlertQueryDTO.fire(" ")), null));
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(List.of(AlertQueryDTO.flood(List.of(1, 0))), null));
+        assertThrows(IllegalArgumentException.class, () -> service.subscribe(List.of(AlertQueryDTO.phoneAlert(1)), 0));
+        verifyNoInteractions(changeLog, dataStorage, personService);
+    }
+}
@@ -0,0 +1,121 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.exception.ConflictException;
+import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.FireStation;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.BatchOperationDTO;
+import com.safetynet.AppSafetyNet.model.dto.BatchOperationDTO.Op;
+import com.safetynet.AppSafetyNet.model.dto.BatchResultDTO;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.service.Impl.BatchServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchServiceTest {
+
+    @InjectMocks
+    private BatchServiceImpl service;
+
+    @Mock
+    private PersonService personService;
+
+    @Mock
+    private MedicalRecordService medicalRecordService;
+
+    @Mock
+    private FireStationService fireStationService;
+
+    @Mock
+    private DataStorage dataStorage;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private BatchOperationDTO operation(Op op, EntityType type, Map<String, Object> data) {
+        return new BatchOperationDTO(op, type, objectMapper.valueToTree(data));
+    }
+
+    private void runTransactions() {
+        when(dataStorage.inTransaction(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+    }
+
+    @Test
+    void apply_shouldRunAllOperationsInOrder_insideOneTransaction() {
+        runTransactions();
+        when(dataStorage.getVersion()).thenReturn(7L);
+        when(dataStorage.versionToken(7L)).thenReturn("run-7");
+        List<BatchOperationDTO> operations = List.of(
+                operation(Op.CREATE, EntityType.PERSON, Map.of("firstName", "Zikon", "lastName", "Neodal", "address", "892 Downing Ct", "city", "Culver")),
+                operation(Op.CREATE, EntityType.MEDICALRECORD, Map.of("firstName", "Zikon", "lastName", "Neodal", "birthdate", "03/06/1984")),
+                operation(Op.UPDATE, EntityType.FIRESTATION, Map.of("address", "892 Downing Ct", "station", 4)),
+                operation(Op.DELETE, EntityType.PERSON, Map.of("firstName", "John", "lastName", "Boyd")));
+
+        BatchResultDTO result = service.apply(operations);
+
+        assertEquals(new BatchResultDTO(4, "run-7"), result);
+        InOrder order = inOrder(dataStorage, personService, medicalRecordService, fireStationService);
+        order.verify(dataStorage).inTransaction(any());
+        ArgumentCaptor<MedicalRecord> medicalRecord = ArgumentCaptor.forClass(MedicalRecord.class);
+        order.verify(personService).addPerson(any(Person.class));
+        order.verify(medicalRecordService).saveMedicalRecord(medicalRecord.capture());
+        order.verify(fireStationService).updateFireStation(any(FireStation.class));
+        order.verify(personService).removePerson("John", "Boyd");
+        assertEquals(LocalDate.of(1984, 3, 6), medicalRecord.getValue().getBirthDate());
+    }
+
+    @Test
+    void apply_shouldRethrowWithOperationIndex_whenAnOperationFails() {
+        runTransactions();
+        doThrow(new ConflictException("Medical record for this person already exists"))
+                .when(medicalRecordService).saveMedicalRecord(any());
+        List<BatchOperationDTO> operations = List.of(
+                operation(Op.CREATE, EntityType.PERSON, Map.of("firstName", "Zikon", "lastName", "Neodal")),
+                operation(Op.CREATE, EntityType.MEDICALRECORD, Map.of("firstName", "Zikon", "lastName", "Neodal")),
+                operation(Op.DELETE, EntityType.FIRESTATION, Map.of("address", "892 Downing Ct")));
+
+        ConflictException ex = assertThrows(ConflictException.class, () -> service.apply(operations));
+
+        assertEquals("Operation 1 failed: Medical record for this person already exists", ex.getMessage());
+        verifyNoInteractions(fireStationService);
+    }
+
+    @Test
+    void apply_shouldKeepExceptionType_forNotFoundAndInvalidOperations() {
+        runTransactions();
+        doThrow(new NotFoundException("FireStation does not exist")).when(fireStationService).updateFireStation(any());
+
+        NotFoundException notFound = assertThrows(NotFoundException.class, () -> service.apply(List.of(
+                operation(Op.UPDATE, EntityType.FIRESTATION, Map.of("address", "nowhere", "station", 1)))));
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class, () -> service.apply(List.of(
+                new BatchOperationDTO(Op.CREATE, EntityType.PERSON, null))));
+
+        assertEquals("Operation 0 failed: FireStation does not exist", notFound.getMessage());
+        assertEquals("Operation 0 failed: Entity 'data' is required", invalid.getMessage());
+    }
+
+    @Test
+    void apply_shouldThrowIllegalArgument_whenBatchIsEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> service.apply(List.of()));
+        verifyNoInteractions(dataStorage);
+    }
+}
@@ -0,0 +1,136 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO;
+import com.safetynet.AppSafetyNet.model.dto.ChangeEventDTO.Op;
+import com.safetynet.AppSafetyNet.model.dto.ChangesDTO;
+import com.safetynet.AppSafetyNet.repository.data.ChangeLog;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.service.Impl.ChangeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ChangeServiceTest {
+
+    private static final Duration HEARTBEAT = Duration.ofMillis(50);
+
+    @Mock
+    private ChangeLog changeLog;
+
+    @Mock
+    private DataStorage dataStorage;
+
+    private ChangeServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ChangeServiceImpl(changeLog, dataStorage, HEARTBEAT.toMillis());
+    }
+
+    private static ChangeEventDTO upsert(long sequence) {
+        return new ChangeEventDTO(sequence, 2, Op.UPSERT, EntityType.PERSON, "john boyd", null);
+    }
+
+    @Test
+    void follow_shouldReturnChangesAfterSequence_untilLimit() throws InterruptedException {
+        when(dataStorage.getEpoch()).thenReturn("run");
+        when(changeLog.await(4, 2, HEARTBEAT)).thenReturn(List.of(upsert(5), upsert(6)));
+
+        List<ChangeEventDTO> changes = service.follow("run-4", 2).toList();
+
+        assertEquals(List.of(upsert(5), upsert(6)), changes);
+    }
+
+    @Test
+    void follow_shouldStartFromLastSequence_andProduceHeartbeat_whenNothingChanges() throws InterruptedException {
+        when(changeLog.lastSequence()).thenReturn(9L);
+        when(dataStorage.getVersion()).thenReturn(3L);
+        when(changeLog.await(9, 1, HEARTBEAT)).thenReturn(List.of(), List.of(upsert(10)));
+
+        List<ChangeEventDTO> changes = service.follow(null, 1).toList();
+
+        assertEquals(List.of(new ChangeEventDTO(9, 3, Op.HEARTBEAT, null, null, null), upsert(10)), changes);
+    }
+
+    @Test
+    void follow_shouldContinueFromResyncSequence() throws InterruptedException {
+        ChangeEventDTO resync = new ChangeEventDTO(20, 5, Op.RESYNC, null, null, null);
+        when(dataStorage.getEpoch()).thenReturn("run");
+        when(changeLog.await(1, 2, HEARTBEAT)).thenReturn(List.of(resync));
+        when(changeLog.await(20, 1, HEARTBEAT)).thenReturn(List.of(upsert(21)));
+
+        List<ChangeEventDTO> changes = service.follow("run-1", 2).toList();
+
+        assertEquals(List.of(resync, upsert(21)), changes);
+    }
+
+    @Test
+    void follow_shouldResync_whenPositionComesFromAnotherRun() throws InterruptedException {
+        when(dataStorage.getEpoch()).thenReturn("run");
+        when(dataStorage.getVersion()).thenReturn(3L);
+        when(changeLog.lastSequence()).thenReturn(2L);
+        when(changeLog.await(2, 1, HEARTBEAT)).thenReturn(List.of(upsert(3)));
+
+        // la séquence 40 d'une exécution précédente ne désigne pas les changements de celle-ci
+        List<ChangeEventDTO> changes = service.follow("previous-40", 2).toList();
+
+        assertEquals(List.of(new ChangeEventDTO(2, 3, Op.RESYNC, null, null, null), upsert(3)), changes);
+    }
+
+    @Test
+    void cursor_shouldPrefixSequenceWithRun() {
+        when(dataStorage.getEpoch()).thenReturn("run");
+
+        assertEquals("run-7", service.cursor(7));
+    }
+
+    @Test
+    void changesSince_shouldUseDefaultPageSize_whenLimitIsNotGiven() {
+        when(dataStorage.getEpoch()).thenReturn("run");
+        when(dataStorage.versionToken(6)).thenReturn("run-6");
+        when(changeLog.changesSince(4, ChangeService.DEFAULT_PAGE_SIZE)).thenReturn(new ChangeLog.Changes(6, false, false, List.of(upsert(5))));
+
+        assertEquals(new ChangesDTO("run-4", "run-6", false, false, List.of(upsert(5))), service.changesSince("run-4", null));
+    }
+
+    @Test
+    void changesSince_shouldRequireResync_whenVersionComesFromAnotherRun() {
+        when(dataStorage.getEpoch()).thenReturn("run");
+        when(dataStorage.getVersion()).thenReturn(3L);
+        when(dataStorage.versionToken(3)).thenReturn("run-3");
+
+        // la version 40 d'une exécution précédente ne désigne pas les données de celle-ci
+        assertEquals(new ChangesDTO("previous-40", "run-3", true, false, List.of()), service.changesSince("previous-40", null));
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void changesSince_shouldThrowIllegalArgument_whenLimitOrSinceIsInvalid() {
+        when(dataStorage.getEpoch()).thenReturn("run");
+
+        assertThrows(IllegalArgumentException.class, () -> service.changesSince("run-4", ChangeService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> service.changesSince("run--1", null));
+        assertThrows(IllegalArgumentException.class, () -> service.changesSince(" ", null));
+        verifyNoInteractions(changeLog);
+    }
+
+    @Test
+    void follow_shouldThrowIllegalArgument_whenLimitOrAfterIsInvalid() {
+        when(dataStorage.getEpoch()).thenReturn("run");
+
+        assertThrows(IllegalArgumentException.class, () -> service.follow("run-1", 0));
+        assertThrows(IllegalArgumentException.class, () -> service.follow("run--1", null));
+        assertThrows(IllegalArgumentException.class, () -> service.follow("run-x", null));
+        verifyNoInteractions(changeLog);
+    }
+}
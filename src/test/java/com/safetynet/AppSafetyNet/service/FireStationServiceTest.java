@@ -6,26 +6,38 @@ import com.safetynet.AppSafetyNet.exception.NotFoundException;
 import com.safetynet.AppSafetyNet.model.FireStation;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.PageDTO;
 import com.safetynet.AppSafetyNet.model.dto.PersonCoveredDTO;
 import com.safetynet.AppSafetyNet.repository.FireStationRepository;
 import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.index.AgeIndex;
+import com.safetynet.AppSafetyNet.repository.index.PageCursor;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentPage;
 import com.safetynet.AppSafetyNet.service.Impl.FireStationServiceImpl;
 import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -43,6 +55,12 @@ public class FireStationServiceTest {
     @Mock
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Mock
+    private ResidentSearchIndex residentSearchIndex;
+
+    @Mock
+    private AgeIndex ageIndex;
+
     private FireStation fireStation;
     @BeforeEach
     void setUp() {
@@ -85,6 +103,37 @@ public class FireStationServiceTest {
         }
     }
 
+    @Nested
+    class ImportFireStations {
+        @Test
+        void shouldSaveBatch_andReportReplacedAddressAsUpdated() {
+            FireStation moved = ObjectFactoryTest.createFireStation("123 main street", 2);
+            FireStation created = ObjectFactoryTest.createFireStation("10 Rue Lafayette", 3);
+            List<FireStation> fireStations = List.of(moved, created);
+            when(fireStationRepository.saveAll(fireStations)).thenReturn(Set.of(fireStation.getAddressKey()));
+
+            BulkImportDTO result = service.importFireStations(fireStations);
+
+            assertEquals(1, result.updated());
+            assertEquals(1, result.created());
+            assertEquals(BulkImportDTO.Status.UPDATED, result.items().get(0).status());
+        }
+
+        @Test
+        void shouldRejectBatch_whenStationIsMissingOrAddressDuplicated() {
+            FireStation noStation = ObjectFactoryTest.createFireStation("10 Rue Lafayette", null);
+            FireStation duplicate = ObjectFactoryTest.createFireStation("123 MAIN ST", 4);
+            List<FireStation> fireStations = List.of(fireStation, noStation, duplicate);
+
+            BulkImportDTO result = service.importFireStations(fireStations);
+
+            assertEquals(2, result.invalid());
+            assertEquals("Station number must be positive", result.items().get(1).error());
+            assertEquals("Duplicate of item 0", result.items().get(2).error());
+            verify(fireStationRepository, never()).saveAll(any());
+        }
+    }
+
     @Nested
     class PutFireStation {
         @Test
@@ -96,8 +145,12 @@ public class FireStationServiceTest {
 
             service.updateFireStation(updated);
 
-            verify(fireStationRepository).saveFireStation(fireStation);
-            assertEquals(5, fireStation.getStation());
+            // la caserne enregistrée n'est pas modifiée sur place : une nouvelle instance la remplace
+            ArgumentCaptor<FireStation> saved = ArgumentCaptor.forClass(FireStation.class);
+            verify(fireStationRepository).saveFireStation(saved.capture());
+            assertEquals(fireStation.getAddress(), saved.getValue().getAddress());
+            assertEquals(5, saved.getValue().getStation());
+            assertNotEquals(5, fireStation.getStation());
         }
 
         @Test
@@ -154,12 +207,12 @@ public class FireStationServiceTest {
         void getPersonCoveredByNumberStation_shouldReturnDTO_whenDataExists() {
 
             Person person = ObjectFactoryTest.createPerson("John", "Doe", fireStation.getAddress(), "City", "00000", "1234567890", "john@example.com");
-            MedicalRecord mr = Mockito.mock(MedicalRecord.class);
-            when(mr.isMajor()).thenReturn(true);  // simulons que John est majeur
+            MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("John", "Doe", LocalDate.of(1980, 1, 1), List.of(), List.of());
 
             when(fireStationRepository.findAddressByNumberStation(fireStation.getStation())).thenReturn(List.of(fireStation.getAddress()));
             when(personRepository.findByAddresses(List.of(fireStation.getAddress()))).thenReturn(List.of(person));
             when(medicalRecordRepository.findByFirstNameAndLastName("John", "Doe")).thenReturn(Optional.of(mr));
+            when(ageIndex.countMinors(List.of(person))).thenReturn(0);  // John est majeur
 
             PersonCoveredDTO result = service.getPersonCoveredByNumberStation(fireStation.getStation());
 
@@ -203,5 +256,71 @@ public class FireStationServiceTest {
             assertThrows(ErrorSystemException.class, () -> service.getPersonCoveredByNumberStation(stationNumber));
         }
     }
-}
 
+    @Nested
+    class StreamPersonByNumberFireStation {
+
+        @Test
+        void streamPersonCoveredByNumberStation_shouldReadIndexLazily_addressByAddress() {
+            Person john = ObjectFactoryTest.createPerson("John", "Doe", "1 Main St", "City", "00000", "1234567890", "john@example.com");
+            Person jane = ObjectFactoryTest.createPerson("Jane", "Doe", "2 Main St", "City", "00000", "0987654321", "jane@example.com");
+            MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("John", "Doe", LocalDate.of(1980, 1, 1), List.of(), List.of());
+            when(fireStationRepository.findAddressByNumberStation(1)).thenReturn(List.of("1 Main St", "2 Main St"));
+
+            Stream<ResidentMatch> stream = service.streamPersonCoveredByNumberStation(1);
+
+            verifyNoInteractions(residentSearchIndex);
+            when(residentSearchIndex.findByAddress("1 Main St")).thenReturn(List.of(new ResidentMatch(john, mr, List.of(1))));
+            when(residentSearchIndex.findByAddress("2 Main St")).thenReturn(List.of(new ResidentMatch(jane, mr, List.of(1))));
+            assertEquals(List.of(john, jane), stream.map(ResidentMatch::person).toList());
+        }
+
+        @Test
+        void streamPersonCoveredByNumberStation_shouldThrowNotFoundException_beforeStreaming() {
+            when(fireStationRepository.findAddressByNumberStation(99)).thenReturn(Collections.emptyList());
+
+            assertThrows(NotFoundException.class, () -> service.streamPersonCoveredByNumberStation(99));
+        }
+
+        @Test
+        void streamPersonCoveredByNumberStation_shouldThrowErrorSystemException_whenMedicalRecordMissing() {
+            Person jane = ObjectFactoryTest.createPerson("Jane", "Doe", "1 Main St", "City", "00000", "0987654321", "jane@example.com");
+            when(fireStationRepository.findAddressByNumberStation(1)).thenReturn(List.of("1 Main St"));
+            when(residentSearchIndex.findByAddress("1 Main St")).thenReturn(List.of(new ResidentMatch(jane, null, List.of(1))));
+
+            Stream<ResidentMatch> stream = service.streamPersonCoveredByNumberStation(1);
+
+            assertThrows(ErrorSystemException.class, stream::toList);
+        }
+    }
+
+    @Nested
+    class PagePersonByNumberFireStation {
+
+        @Test
+        void getPersonCoveredByNumberStationPage_shouldCheckStationOnFirstPageOnly() {
+            Person john = ObjectFactoryTest.createPerson("John", "Doe", "1 Main St", "City", "00000", "1234567890", "john@example.com");
+            MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("John", "Doe", LocalDate.of(1980, 1, 1), List.of(), List.of());
+            PageCursor next = new PageCursor("run1", 3, 7);
+            when(fireStationRepository.findAddressByNumberStation(1)).thenReturn(List.of("1 Main St"));
+            when(residentSearchIndex.pageByStation(1, null, 1)).thenReturn(new ResidentPage(List.of(new ResidentMatch(john, mr, List.of(1))), next));
+            when(residentSearchIndex.pageByStation(1, next, 1)).thenReturn(new ResidentPage(List.of(), null));
+
+            PageDTO<PersonCoveredDTO.PersonInfoDTO> first = service.getPersonCoveredByNumberStation(1, null, 1);
+            PageDTO<PersonCoveredDTO.PersonInfoDTO> last = service.getPersonCoveredByNumberStation(1, first.nextCursor(), 1);
+
+            assertEquals("John", first.items().getFirst().firstName());
+            assertEquals(List.of(), last.items());
+            assertNull(last.nextCursor());
+            verify(fireStationRepository, times(1)).findAddressByNumberStation(1);
+        }
+
+        @Test
+        void getPersonCoveredByNumberStationPage_shouldThrowNotFoundException_whenStationUnknown() {
+            when(fireStationRepository.findAddressByNumberStation(99)).thenReturn(Collections.emptyList());
+
+            assertThrows(NotFoundException.class, () -> service.getPersonCoveredByNumberStation(99, null, 10));
+            verifyNoInteractions(residentSearchIndex);
+        }
+    }
+}
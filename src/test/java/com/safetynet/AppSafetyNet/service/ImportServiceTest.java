@@ -0,0 +1,222 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.safetynet.AppSafetyNet.model.EntityType;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO.ItemResult;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO.Status;
+import com.safetynet.AppSafetyNet.model.dto.ImportProgressDTO;
+import com.safetynet.AppSafetyNet.model.dto.ImportProgressDTO.RowError;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.service.ImportService.Format;
+import com.safetynet.AppSafetyNet.service.Impl.ImportServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportServiceTest {
+
+    @InjectMocks
+    private ImportServiceImpl service;
+
+    @Mock
+    private PersonService personService;
+
+    @Mock
+    private MedicalRecordService medicalRecordService;
+
+    @Mock
+    private FireStationService fireStationService;
+
+    @Mock
+    private DataStorage dataStorage;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private static BufferedReader file(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+
+    private static BulkImportDTO applied(int created) {
+        return new BulkImportDTO(created, true, created, 0, 0, List.of());
+    }
+
+    // exécute la transaction directement sur le thread appelant, comme DataStorage
+    private void runTransactionsInline() {
+        when(dataStorage.inTransaction(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
+    @Test
+    void importFile_shouldReadCsvLazily_andSaveTheBatchesOfACheckpointInOneTransaction() {
+        String csv = """
+                firstName,lastName,address,city,zip,phone,email
+                John,Boyd,"1509 Culver St, Apt 2",Culver,97451,841-874-6512,jaboyd@email.com
+                Jacob,Boyd,1509 Culver St,Culver,97451,841-874-6513,drk@email.com
+
+                Tenley,Boyd,"1509 ""Culver"" St",Culver,97451,841-874-6512,tenz@email.com
+                """;
+        runTransactionsInline();
+        when(personService.importPersons(anyList())).thenReturn(applied(2), applied(1));
+
+        Stream<ImportProgressDTO> progress = service.importFile(EntityType.PERSON, Format.CSV, file(csv), 0, 2);
+        verifyNoInteractions(personService);
+        List<ImportProgressDTO> checkpoints = progress.toList();
+
+        assertEquals(List.of(new ImportProgressDTO(3, 3, 0, 0, true, List.of())), checkpoints);
+        verify(dataStorage, times(1)).inTransaction(any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Person>> captor = ArgumentCaptor.forClass(List.class);
+        verify(personService, times(2)).importPersons(captor.capture());
+        assertEquals("1509 Culver St, Apt 2", captor.getAllValues().get(0).get(0).getAddress());
+        assertEquals("1509 \"Culver\" St", captor.getAllValues().get(1).get(0).getAddress());
+    }
+
+    @Test
+    void importFile_shouldReportInvalidRows_andApplyTheRestOfTheBatch() {
+        String csv = """
+                firstName,lastName,address,city,zip,phone,email
+                John,Boyd,1509 Culver St,Culver,97451,841-874-6512,jaboyd@email.com
+                Jacob,Boyd,1509 Culver St
+                ,Nameless,1509 Culver St,Culver,97451,841-874-6513,drk@email.com
+                JOHN,boyd,1509 Culver St,Culver,97451,841-874-6512,jaboyd@email.com
+                """;
+        BulkImportDTO rejected = new BulkImportDTO(3, false, 0, 0, 2, List.of(
+                new ItemResult(0, "John Boyd", Status.VALID, null, null),
+                new ItemResult(1, "null Nameless", Status.INVALID, "First name and last name are required", null),
+                new ItemResult(2, "JOHN boyd", Status.INVALID, "Duplicate of item 0", 0)));
+        runTransactionsInline();
+        when(personService.importPersons(anyList())).thenReturn(rejected, applied(1));
+
+        List<ImportProgressDTO> batches = service.importFile(EntityType.PERSON, Format.CSV, file(csv), 0, 10).toList();
+
+        ImportProgressDTO last = batches.getFirst();
+        assertTrue(last.done());
+        assertEquals(1, last.created());
+        assertEquals(3, last.invalid());
+        assertEquals(List.of(
+                new RowError(2, "Expected 7 fields, found 3"),
+                new RowError(3, "First name and last name are required"),
+                new RowError(4, "Duplicate of row 1")), last.errors());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Person>> captor = ArgumentCaptor.forClass(List.class);
+        verify(personService, times(2)).importPersons(captor.capture());
+        assertEquals(1, captor.getAllValues().get(1).size());
+    }
+
+    @Test
+    void importFile_shouldSkipRowsAlreadyImported_whenResuming() {
+        String ndjson = """
+                {"firstName":"John","lastName":"Boyd","birthdate":"03/06/1984","medications":["aznol:350mg"],"allergies":["nillacilan"]}
+                {"firstName":"Jacob","lastName":"Boyd","birthdate":"03/06/1989","medications":[],"allergies":[]}
+                not json
+                """;
+        runTransactionsInline();
+        when(medicalRecordService.importMedicalRecords(anyList())).thenReturn(applied(1));
+
+        List<ImportProgressDTO> batches = service.importFile(EntityType.MEDICALRECORD, Format.NDJSON, file(ndjson), 1, 10).toList();
+
+        assertEquals(3, batches.getFirst().checkpoint());
+        assertEquals(1, batches.getFirst().errors().size());
+        assertEquals(3, batches.getFirst().errors().getFirst().row());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MedicalRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(medicalRecordService).importMedicalRecords(captor.capture());
+        MedicalRecord record = captor.getValue().getFirst();
+        assertEquals("Jacob", record.getFirstName());
+        assertEquals(LocalDate.of(1989, 3, 6), record.getBirthDate());
+    }
+
+    @Test
+    void importFile_shouldSplitListColumns_inCsv() {
+        String csv = """
+                firstName,lastName,birthdate,medications,allergies
+                John,Boyd,03/06/1984,aznol:350mg|hydrapermazol:100mg,
+                """;
+        runTransactionsInline();
+        when(medicalRecordService.importMedicalRecords(anyList())).thenReturn(applied(1));
+
+        service.importFile(EntityType.MEDICALRECORD, Format.CSV, file(csv), 0, 10).toList();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MedicalRecord>> captor = ArgumentCaptor.forClass(List.class);
+        verify(medicalRecordService).importMedicalRecords(captor.capture());
+        MedicalRecord record = captor.getValue().getFirst();
+        assertEquals(List.of("aznol:350mg", "hydrapermazol:100mg"), record.getMedications());
+        assertEquals(List.of(), record.getAllergies());
+    }
+
+    @Test
+    void importFile_shouldStartANewCheckpoint_afterTheConfiguredNumberOfBatches() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i <= ImportService.BATCHES_PER_CHECKPOINT; i++) {
+            ndjson.append("{\"address\":\"").append(i).append(" Import Rd\",\"station\":\"1\"}\n");
+        }
+        runTransactionsInline();
+        when(fireStationService.importFireStations(anyList())).thenReturn(applied(1));
+
+        List<ImportProgressDTO> checkpoints = service.importFile(EntityType.FIRESTATION, Format.NDJSON,
+                file(ndjson.toString()), 0, 1).toList();
+
+        assertEquals(2, checkpoints.size());
+        assertEquals(new ImportProgressDTO(ImportService.BATCHES_PER_CHECKPOINT, ImportService.BATCHES_PER_CHECKPOINT, 0, 0, false, List.of()),
+                checkpoints.get(0));
+        assertTrue(checkpoints.get(1).done());
+        verify(dataStorage, times(2)).inTransaction(any());
+    }
+
+    @Test
+    void importFile_shouldRefuseDuplicatesAcrossBatches_andRowsSkippedOnResume() {
+        String csv = """
+                firstName,lastName,address,city,zip,phone,email
+                John,Boyd,1509 Culver St,Culver,97451,841-874-6512,jaboyd@email.com
+                Jacob,Boyd,1509 Culver St,Culver,97451,841-874-6513,drk@email.com
+                JOHN,boyd,2 Other St,Culver,97451,841-874-6512,jaboyd@email.com
+                jacob,BOYD,2 Other St,Culver,97451,841-874-6513,drk@email.com
+                """;
+        runTransactionsInline();
+        when(personService.importPersons(anyList())).thenReturn(applied(1));
+
+        // la ligne 1 a été importée avant l'interruption : ses doublons restent refusés à la reprise
+        ImportProgressDTO last = service.importFile(EntityType.PERSON, Format.CSV, file(csv), 1, 1)
+                .reduce((first, second) -> second).orElseThrow();
+
+        assertEquals(1, last.created());
+        assertEquals(List.of(
+                new RowError(3, "Duplicate of an earlier row"),
+                new RowError(4, "Duplicate of an earlier row")), last.errors());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Person>> captor = ArgumentCaptor.forClass(List.class);
+        verify(personService, times(1)).importPersons(captor.capture());
+        assertEquals("Jacob", captor.getValue().getFirst().getFirstName());
+    }
+
+    @Test
+    void importFile_shouldThrowIllegalArgument_whenBatchSizeOutOfRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.importFile(EntityType.FIRESTATION, Format.CSV, file(""), 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.importFile(EntityType.FIRESTATION, Format.CSV, file(""), -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> EntityType.fromName("unknown"));
+        verifyNoInteractions(fireStationService);
+    }
+}
@@ -2,22 +2,29 @@ package com.safetynet.AppSafetyNet.service;
 
 import com.safetynet.AppSafetyNet.exception.ConflictException;
 import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.AgeClock;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.dto.BulkImportDTO;
 import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.service.Impl.MedicalRecordServiceImpl;
 import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +36,9 @@ public class MedicalRecordServiceTest {
     @Mock
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Spy
+    private AgeClock ageClock = new AgeClock(Clock.systemDefaultZone());
+
     @Nested
     class PutMedicalRecord {
         @Test
@@ -57,6 +67,35 @@ public class MedicalRecordServiceTest {
         }
     }
 
+    @Nested
+    class ImportMedicalRecords {
+        @Test
+        void shouldSaveBatch_whenAllRecordsAreValid() {
+            List<MedicalRecord> records = List.of(
+                    ObjectFactoryTest.createMedicalRecord("John", "Doe", LocalDate.of(1990, 1, 1), List.of(), List.of()));
+            when(medicalRecordRepository.saveAll(records)).thenReturn(Set.of());
+
+            BulkImportDTO result = service.importMedicalRecords(records);
+
+            assertEquals(1, result.created());
+            verify(medicalRecordRepository).saveAll(records);
+        }
+
+        @Test
+        void shouldRejectBatch_whenBirthdateIsMissingOrInFuture() {
+            List<MedicalRecord> records = List.of(
+                    ObjectFactoryTest.createMedicalRecord("John", "Doe", null, List.of(), List.of()),
+                    ObjectFactoryTest.createMedicalRecord("Jane", "Doe", LocalDate.now().plusYears(1), List.of(), List.of()));
+
+            BulkImportDTO result = service.importMedicalRecords(records);
+
+            assertFalse(result.applied());
+            assertEquals("Birthdate is required", result.items().get(0).error());
+            assertEquals("Birthdate must not be in the future", result.items().get(1).error());
+            verify(medicalRecordRepository, never()).saveAll(any());
+        }
+    }
+
     @Nested
     class UpdateMedicalRecordTests {
 
@@ -69,10 +108,13 @@ public class MedicalRecordServiceTest {
 
             service.updateMedicalRecord(updatedRecord);
 
-            verify(medicalRecordRepository).saveOrUpdateMedicalRecord(existingRecord);
-            assertEquals(updatedRecord.getBirthDate(), existingRecord.getBirthDate());
-            assertEquals(updatedRecord.getMedications(), existingRecord.getMedications());
-            assertEquals(updatedRecord.getAllergies(), existingRecord.getAllergies());
+            // le dossier enregistré n'est pas modifié sur place : une nouvelle instance le remplace
+            ArgumentCaptor<MedicalRecord> saved = ArgumentCaptor.forClass(MedicalRecord.class);
+            verify(medicalRecordRepository).saveOrUpdateMedicalRecord(saved.capture());
+            assertEquals(updatedRecord.getBirthDate(), saved.getValue().getBirthDate());
+            assertEquals(updatedRecord.getMedications(), saved.getValue().getMedications());
+            assertEquals(updatedRecord.getAllergies(), saved.getValue().getAllergies());
+            assertEquals(LocalDate.of(1990, 1, 1), existingRecord.getBirthDate());
         }
 
         @Test
@@ -2,6 +2,7 @@ package com.safetynet.AppSafetyNet.service;
 
 import com.safetynet.AppSafetyNet.exception.ErrorSystemException;
 import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.AgeClock;
 import com.safetynet.AppSafetyNet.model.FireStation;
 import com.safetynet.AppSafetyNet.model.MedicalRecord;
 import com.safetynet.AppSafetyNet.model.dto.*;
@@ -10,21 +11,35 @@ import com.safetynet.AppSafetyNet.model.Person;
 import com.safetynet.AppSafetyNet.repository.FireStationRepository;
 import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
 import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.index.AddressResolver;
+import com.safetynet.AppSafetyNet.repository.index.AddressResolver.AddressMatch;
+import com.safetynet.AppSafetyNet.repository.index.AgeIndex;
+import com.safetynet.AppSafetyNet.repository.index.PageCursor;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentPage;
 import com.safetynet.AppSafetyNet.service.Impl.PersonServiceImpl;
 import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -44,6 +59,19 @@ public class PersonServiceTest {
     @Mock
     private MedicalRecordRepository medicalRecordRepository;
 
+    @Mock
+    private ResidentSearchIndex residentSearchIndex;
+
+    @Mock
+    private AddressResolver addressResolver;
+
+    @Mock
+    private AgeIndex ageIndex;
+
+    // les âges attendus sont calculés au 01/08/2025
+    @Spy
+    private AgeClock ageClock = new AgeClock(Clock.fixed(Instant.parse("2025-08-01T12:00:00Z"), ZoneOffset.UTC));
+
     // ----------------------------------------------------------------------------------
     // #region: CRUD Operations
     // ----------------------------------------------------------------------------------
@@ -87,7 +115,12 @@ public class PersonServiceTest {
 
             service.updatePerson(input);
 
-            verify(personRepository).save(existing);
+            // la personne enregistrée n'est pas modifiée sur place : une nouvelle instance la remplace
+            ArgumentCaptor<Person> saved = ArgumentCaptor.forClass(Person.class);
+            verify(personRepository).save(saved.capture());
+            assertNotSame(existing, saved.getValue());
+            assertEquals(input, saved.getValue());
+            assertEquals("Old Addr", existing.getAddress());
         }
 
         @Test
@@ -105,6 +138,56 @@ public class PersonServiceTest {
         }
     }
 
+    @Nested
+    class ImportPersons {
+        @Test
+        void shouldSaveWholeBatchOnce_andReportCreatedAndUpdated() {
+            Person existing = ObjectFactoryTest.createPerson("Steve", "Wonder", "New Addr", "City", "00000", "999", "email@example.com");
+            Person created = ObjectFactoryTest.createPerson("Ray", "Charles", "1 Road", "City", "00000", "111", "ray@example.com");
+            List<Person> persons = List.of(existing, created);
+            when(personRepository.saveAll(persons)).thenReturn(Set.of("steve wonder"));
+
+            BulkImportDTO result = service.importPersons(persons);
+
+            assertTrue(result.applied());
+            assertEquals(1, result.created());
+            assertEquals(1, result.updated());
+            assertEquals(List.of(BulkImportDTO.Status.UPDATED, BulkImportDTO.Status.CREATED),
+                    result.items().stream().map(BulkImportDTO.ItemResult::status).toList());
+            verify(personRepository, times(1)).saveAll(persons);
+        }
+
+        @Test
+        void shouldRejectWholeBatch_whenAnItemIsInvalid() {
+            Person valid = ObjectFactoryTest.createPerson("Steve", "Wonder", "New Addr", "City", "00000", "999", "email@example.com");
+            Person noAddress = ObjectFactoryTest.createPerson("Ray", "Charles", " ", "City", "00000", "111", "ray@example.com");
+            Person duplicate = ObjectFactoryTest.createPerson("STEVE", "wonder", "Other Addr", "City", "00000", "999", "email@example.com");
+            List<Person> persons = new ArrayList<>(List.of(valid, noAddress, duplicate));
+            persons.add(null);
+
+            BulkImportDTO result = service.importPersons(persons);
+
+            assertFalse(result.applied());
+            assertEquals(4, result.received());
+            assertEquals(3, result.invalid());
+            assertEquals(0, result.created());
+            assertEquals(BulkImportDTO.Status.VALID, result.items().get(0).status());
+            assertEquals("Address and city are required", result.items().get(1).error());
+            assertEquals("Duplicate of item 0", result.items().get(2).error());
+            assertEquals("Item must not be null", result.items().get(3).error());
+            verify(personRepository, never()).saveAll(any());
+        }
+
+        @Test
+        void shouldNotSave_whenBatchIsEmpty() {
+            BulkImportDTO result = service.importPersons(List.of());
+
+            assertTrue(result.applied());
+            assertEquals(0, result.received());
+            verify(personRepository, never()).saveAll(any());
+        }
+    }
+
     @Nested
     class RemovePerson {
         @Test
@@ -170,6 +253,7 @@ public class PersonServiceTest {
             doReturn(Optional.of(mr))
                     .when(medicalRecordRepository)
                     .findByFirstNameAndLastName("John", "Doe");
+            when(ageIndex.isMinor("John", "Doe")).thenReturn(false);
 
             List<ChildAlertDTO> result = service.getChildrenByAddress("100 Street City");
 
@@ -191,11 +275,16 @@ public class PersonServiceTest {
                     .thenReturn(Optional.of(childMr));
             Mockito.when(medicalRecordRepository.findByFirstNameAndLastName("John", "Doe"))
                     .thenReturn(Optional.of(parentMr));
+            when(ageIndex.isMinor("Alice", "Doe")).thenReturn(true);
+            when(ageIndex.isMinor("John", "Doe")).thenReturn(false);
 
             List<ChildAlertDTO> result = service.getChildrenByAddress("100 Street City");
 
             assertEquals(1, result.size());
             assertEquals("Alice", result.getFirst().firstName());
+            assertEquals(List.of("John Doe"), result.getFirst().personsInSameHouse());
+            // un seul accès au dossier médical par personne
+            verify(medicalRecordRepository).findByFirstNameAndLastName("Alice", "Doe");
         }
 
         @Test
@@ -217,6 +306,24 @@ public class PersonServiceTest {
         }
     }
 
+    @Nested
+    class ResolveAddress {
+
+        @Test
+        void resolveAddress_shouldReturnResolverMatch() {
+            AddressMatch match = new AddressMatch("1509 Culver St", 0.93);
+            when(addressResolver.resolve("1509 Culvr St")).thenReturn(Optional.of(match));
+
+            assertEquals(Optional.of(new ResolvedAddressDTO("1509 Culver St", 0.93)), service.resolveAddress("1509 Culvr St"));
+        }
+
+        @Test
+        void resolveAddress_shouldThrowException_whenAddressIsBlank() {
+            assertThrows(IllegalArgumentException.class, () -> service.resolveAddress(" "));
+            verifyNoInteractions(addressResolver);
+        }
+    }
+
     // ----------------------------------------------------------------------------------
     // #region: PhonesNumbersByFireStation
     // ----------------------------------------------------------------------------------
@@ -227,12 +334,11 @@ public class PersonServiceTest {
         void getPhoneNumbersByFireStation_shouldReturnPhones() {
             Integer stationNumber = 1;
             List<String> addresses = List.of("1 Rue de Paris");
-            List<Person> persons = List.of(ObjectFactoryTest.createPerson("Steve", "Wonder", "100 Street City", "00000", "Miami", "999-999-666", "steve_wonder@gmail.com"));
 
             when(fireStationRepository.findAddressByNumberStation(stationNumber))
                     .thenReturn(addresses);
-            when(personRepository.findByAddresses(addresses))
-                    .thenReturn(persons);
+            when(residentSearchIndex.findPhonesByStations(List.of(stationNumber)))
+                    .thenReturn(List.of("999-999-666"));
 
             List<String> result = service.getPhoneNumbersByFireStation(stationNumber);
 
@@ -268,7 +374,7 @@ public class PersonServiceTest {
 
             when(fireStationRepository.findAddressByNumberStation(stationNumber))
                     .thenReturn(addresses);
-            when(personRepository.findByAddresses(addresses))
+            when(residentSearchIndex.findPhonesByStations(List.of(stationNumber)))
                     .thenReturn(Collections.emptyList());
 
             List<String> result = service.getPhoneNumbersByFireStation(stationNumber);
@@ -368,8 +474,7 @@ public class PersonServiceTest {
             MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("John", "Doe", LocalDate.of(2000, 1, 1), List.of("med1"), List.of("all1"));
 
             when(fireStationRepository.findAddressByNumberStation(stationNumber)).thenReturn(List.of(address));
-            when(personRepository.findByAddresses(List.of(address))).thenReturn(List.of(person));
-            when(medicalRecordRepository.findByFirstNameAndLastName("John", "Doe")).thenReturn(Optional.of(mr));
+            when(residentSearchIndex.findByStations(List.of(stationNumber))).thenReturn(List.of(new ResidentMatch(person, mr, List.of(stationNumber))));
 
             List<FloodResponseDTO> result = service.getPersonnesAndAddressByNumberFireStation(List.of(stationNumber));
 
@@ -380,7 +485,7 @@ public class PersonServiceTest {
 
             FloodResponseDTO.PersonInfoDTO info = dto.personInfo().getFirst();
             assertEquals("0123456789", info.numberPhone());
-            assertEquals(mr.getAge(), info.age());
+            assertEquals(mr.getAge(ageClock), info.age());
 
             List<String> expectedInfoList = List.of(
                     "John", "Doe",
@@ -404,13 +509,15 @@ public class PersonServiceTest {
 
             when(fireStationRepository.findAddressByNumberStation(1)).thenReturn(List.of(address1));
             when(fireStationRepository.findAddressByNumberStation(2)).thenReturn(List.of(address2));
-            when(personRepository.findByAddresses(List.of(address1, address2))).thenReturn(List.of(person1, person2));
-            when(medicalRecordRepository.findByFirstNameAndLastName("Alice", "Smith")).thenReturn(Optional.of(mr1));
-            when(medicalRecordRepository.findByFirstNameAndLastName("Bob", "Jones")).thenReturn(Optional.of(mr2));
+            when(residentSearchIndex.findByStations(stations)).thenReturn(List.of(
+                    new ResidentMatch(person1, mr1, List.of(1)),
+                    new ResidentMatch(person2, mr2, List.of(2))));
 
             List<FloodResponseDTO> result = service.getPersonnesAndAddressByNumberFireStation(stations);
 
             assertEquals(2, result.size());
+            assertEquals("Alice", result.getFirst().personInfo().getFirst().infoNameAndMedicationsAndAllergies().getFirst());
+            assertEquals("Bob", result.get(1).personInfo().getFirst().infoNameAndMedicationsAndAllergies().getFirst());
         }
 
         @Test
@@ -441,11 +548,40 @@ public class PersonServiceTest {
             Person person = ObjectFactoryTest.createPerson("Jane", "Doe", address, "City", "75000", "0123456789", "jane@example.com");
 
             when(fireStationRepository.findAddressByNumberStation(1)).thenReturn(List.of(address));
-            when(personRepository.findByAddresses(List.of(address))).thenReturn(List.of(person));
-            when(medicalRecordRepository.findByFirstNameAndLastName("Jane", "Doe")).thenReturn(Optional.empty());
+            when(residentSearchIndex.findByStations(List.of(1))).thenReturn(List.of(new ResidentMatch(person, null, List.of(1))));
 
             assertThrows(ErrorSystemException.class, () -> service.getPersonnesAndAddressByNumberFireStation(List.of(1)));
         }
+
+        @Test
+        void streamPersonnesAndAddressByNumberFireStation_shouldBuildHouseholds_onlyWhenConsumed() {
+            String address1 = "1 Rue Alpha";
+            String address2 = "2 Rue Beta";
+            Person person1 = ObjectFactoryTest.createPerson("Alice", "Smith", address1, "City", "00000", "0101010101", "alice@email.com");
+            MedicalRecord mr1 = ObjectFactoryTest.createMedicalRecord("Alice", "Smith", LocalDate.of(2010, 5, 5), List.of("aspirin"), List.of());
+
+            when(fireStationRepository.findAddressByNumberStation(1)).thenReturn(List.of(address1, address2));
+
+            Stream<FloodResponseDTO> stream = service.streamPersonnesAndAddressByNumberFireStation(List.of(1));
+            verifyNoInteractions(residentSearchIndex);
+
+            when(residentSearchIndex.findByAddress(address1)).thenReturn(List.of(new ResidentMatch(person1, mr1, List.of(1))));
+            when(residentSearchIndex.findByAddress(address2)).thenReturn(List.of());
+            List<FloodResponseDTO> result = stream.toList();
+
+            assertEquals(2, result.size());
+            assertEquals(address1, result.getFirst().address());
+            assertEquals("Alice", result.getFirst().personInfo().getFirst().infoNameAndMedicationsAndAllergies().getFirst());
+            assertTrue(result.get(1).personInfo().isEmpty());
+        }
+
+        @Test
+        void streamPersonnesAndAddressByNumberFireStation_shouldThrowNotFoundException_beforeStreaming() {
+            when(fireStationRepository.findAddressByNumberStation(1)).thenReturn(Collections.emptyList());
+
+            assertThrows(NotFoundException.class, () -> service.streamPersonnesAndAddressByNumberFireStation(List.of(1)));
+            assertThrows(IllegalArgumentException.class, () -> service.streamPersonnesAndAddressByNumberFireStation(List.of()));
+        }
     }
 
     // ----------------------------------------------------------------------------------
@@ -503,6 +639,34 @@ public class PersonServiceTest {
         void getPersonsByLastName_shouldThrowIllegalArgument_whenInputIsNull() {
             assertThrows(IllegalArgumentException.class, () -> service.getPersonsByLastName(null));
         }
+
+        @Test
+        void getPersonsByLastNamePage_shouldMapPage_andEncodeNextCursor() {
+            Person person = ObjectFactoryTest.createPerson("Steve", "Wonder", "100 Street City", "Miami", "00000", "999-999-666", "steve_wonder@gmail.com");
+            MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("Steve", "Wonder", LocalDate.of(1980, 3, 3), List.of("med1"), List.of("pollen"));
+            PageCursor next = new PageCursor("run1", 4, 12);
+            when(residentSearchIndex.pageByLastName("Wonder", null, 1))
+                    .thenReturn(new ResidentPage(List.of(new ResidentMatch(person, mr, List.of())), next));
+
+            PageDTO<PersonInfosLastNameDTO> page = service.getPersonsByLastName("Wonder", null, 1);
+
+            assertEquals(1, page.items().size());
+            assertEquals("steve_wonder@gmail.com", page.items().getFirst().mail());
+            assertEquals(next, PageCursor.decode(page.nextCursor()));
+            verifyNoInteractions(personRepository, medicalRecordRepository);
+        }
+
+        @Test
+        void getPersonsByLastNamePage_shouldThrowNotFound_onlyWhenFirstPageIsEmpty() {
+            PageCursor cursor = new PageCursor("run1", 4, 12);
+            when(residentSearchIndex.pageByLastName("Unknown", null, 10)).thenReturn(new ResidentPage(List.of(), null));
+            when(residentSearchIndex.pageByLastName("Unknown", cursor, 10)).thenReturn(new ResidentPage(List.of(), null));
+
+            assertThrows(NotFoundException.class, () -> service.getPersonsByLastName("Unknown", null, 10));
+            PageDTO<PersonInfosLastNameDTO> last = service.getPersonsByLastName("Unknown", cursor.encode(), 10);
+            assertTrue(last.items().isEmpty());
+            assertNull(last.nextCursor());
+        }
     }
 
     // ----------------------------------------------------------------------------------
@@ -518,7 +682,7 @@ public class PersonServiceTest {
             Person p2 = ObjectFactoryTest.createPerson("Jane", "Doe", "2 Rue B", "Paris", "75000", "0202020202", "jane@example.com");
             Person p3 = ObjectFactoryTest.createPerson("Jack", "Smith", "3 Rue C", "Lyon", "69000", "0303030303", "jack@example.com");
 
-            when(personRepository.getAll()).thenReturn(List.of(p1, p2, p3));
+            when(personRepository.findAllByCity("Paris")).thenReturn(List.of(p1, p2));
 
             // When
             List<String> emails = service.getMailByCity("Paris");
@@ -533,7 +697,7 @@ public class PersonServiceTest {
         void getMailByCity_shouldIgnoreCase_whenMatchingCity() {
             Person p = ObjectFactoryTest.createPerson("John", "Doe", "1 Rue A", "PARIS", "75000", "0101010101", "john@example.com");
 
-            when(personRepository.getAll()).thenReturn(List.of(p));
+            when(personRepository.findAllByCity("paris")).thenReturn(List.of(p));
 
             List<String> emails = service.getMailByCity("paris");
 
@@ -542,8 +706,7 @@ public class PersonServiceTest {
 
         @Test
         void getMailByCity_shouldThrowNotFoundException_whenNoneFound() {
-            when(personRepository.getAll())
-                    .thenReturn(List.of(ObjectFactoryTest.createPerson("Steve", "Wonder", "100 Street City", "00000", "Miami", "999-999-666", "steve_wonder@gmail.com")));
+            when(personRepository.findAllByCity("Miami")).thenReturn(List.of());
 
             assertThrows(NotFoundException.class, () -> service.getMailByCity("Miami"));
         }
@@ -558,12 +721,30 @@ public class PersonServiceTest {
             Person p1 = ObjectFactoryTest.createPerson("John", "Doe", "1 Rue A", "Paris", "75000", "0101010101", "same@example.com");
             Person p2 = ObjectFactoryTest.createPerson("Jane", "Doe", "2 Rue B", "Paris", "75000", "0202020202", "same@example.com");
 
-            when(personRepository.getAll()).thenReturn(List.of(p1, p2));
+            when(personRepository.findAllByCity("Paris")).thenReturn(List.of(p1, p2));
 
             List<String> emails = service.getMailByCity("Paris");
 
             assertEquals(1, emails.size());
             assertEquals("same@example.com", emails.getFirst());
         }
+
+        @Test
+        void getMailByCityPage_shouldReturnEmailsOfIndexPage() {
+            Person p1 = ObjectFactoryTest.createPerson("John", "Doe", "1 Rue A", "Paris", "75000", "0101010101", "john@example.com");
+            when(residentSearchIndex.pageDistinctEmailsByCity("Paris", null, 50))
+                    .thenReturn(new ResidentPage(List.of(new ResidentMatch(p1, null, List.of())), null));
+
+            PageDTO<String> page = service.getMailByCity("Paris", null, 50);
+
+            assertEquals(List.of("john@example.com"), page.items());
+            assertNull(page.nextCursor());
+        }
+
+        @Test
+        void getMailByCityPage_shouldRejectMalformedCursor() {
+            assertThrows(IllegalArgumentException.class, () -> service.getMailByCity("Paris", "%%%", 50));
+            verifyNoInteractions(residentSearchIndex);
+        }
     }
 }
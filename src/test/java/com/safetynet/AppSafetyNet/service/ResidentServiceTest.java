@@ -0,0 +1,145 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.model.AgeClock;
+import com.safetynet.AppSafetyNet.model.MedicalRecord;
+import com.safetynet.AppSafetyNet.model.Person;
+import com.safetynet.AppSafetyNet.model.dto.ResidentDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentIdDTO;
+import com.safetynet.AppSafetyNet.model.dto.ResidentRemovalDTO;
+import com.safetynet.AppSafetyNet.repository.MedicalRecordRepository;
+import com.safetynet.AppSafetyNet.repository.PersonRepository;
+import com.safetynet.AppSafetyNet.repository.data.DataStorage;
+import com.safetynet.AppSafetyNet.repository.index.ResidentQuery;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex;
+import com.safetynet.AppSafetyNet.repository.index.ResidentSearchIndex.ResidentMatch;
+import com.safetynet.AppSafetyNet.service.Impl.ResidentServiceImpl;
+import com.safetynet.AppSafetyNet.utils.ObjectFactoryTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ResidentServiceTest {
+
+    @InjectMocks
+    private ResidentServiceImpl service;
+
+    @Mock
+    private ResidentSearchIndex residentSearchIndex;
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Mock
+    private DataStorage dataStorage;
+
+    @Spy
+    private AgeClock ageClock = new AgeClock(Clock.systemDefaultZone());
+
+    @Test
+    void search_shouldMapMatchesToDTO() {
+        ResidentQuery query = new ResidentQuery(3, null, null, null, null, null, null, null, "peanut");
+        Person person = ObjectFactoryTest.createPerson("Tenley", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "tenz@email.com");
+        MedicalRecord mr = ObjectFactoryTest.createMedicalRecord("Tenley", "Boyd", LocalDate.of(2012, 2, 18), List.of(), List.of("peanut"));
+        when(residentSearchIndex.search(query)).thenReturn(List.of(new ResidentMatch(person, mr, List.of(3))));
+
+        List<ResidentDTO> result = service.search(query);
+
+        assertEquals(1, result.size());
+        ResidentDTO dto = result.getFirst();
+        assertEquals("Tenley", dto.firstName());
+        assertEquals(mr.getAge(ageClock), dto.age());
+        assertEquals(List.of("peanut"), dto.allergies());
+        assertEquals(List.of(3), dto.stations());
+    }
+
+    @Test
+    void search_shouldLeaveMedicalFieldsEmpty_whenNoMedicalRecord() {
+        ResidentQuery query = new ResidentQuery(5, null, null, null, null, null, null, null, null);
+        Person person = ObjectFactoryTest.createPerson("Daniel", "SansDossierMedical", "100 tour eiffel", "Paris", "75000", "000", "d@email.com");
+        when(residentSearchIndex.search(query)).thenReturn(List.of(new ResidentMatch(person, null, List.of(5))));
+
+        ResidentDTO dto = service.search(query).getFirst();
+
+        assertNull(dto.age());
+        assertNull(dto.medications());
+    }
+
+    @Test
+    void search_shouldThrow_whenNoCriteria() {
+        ResidentQuery query = new ResidentQuery(null, null, null, null, null, null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.search(query));
+        verifyNoInteractions(residentSearchIndex);
+    }
+
+    @Test
+    void getResidentsByMedicalTerm_shouldSearchByTermAndStation() {
+        ResidentQuery expected = new ResidentQuery(3, null, null, null, null, null, null, "insulin", null);
+        Person person = ObjectFactoryTest.createPerson("John", "Boyd", "1509 Culver St", "Culver", "97451", "841-874-6512", "jaboyd@email.com");
+        when(residentSearchIndex.search(expected)).thenReturn(List.of(new ResidentMatch(person, null, List.of(3))));
+
+        List<ResidentDTO> result = service.getResidentsByMedicalTerm("insulin", " ", 3);
+
+        assertEquals(1, result.size());
+        assertEquals("John", result.getFirst().firstName());
+    }
+
+    @Test
+    void getResidentsByMedicalTerm_shouldThrow_whenNoTerm() {
+        assertThrows(IllegalArgumentException.class, () -> service.getResidentsByMedicalTerm(null, "", 3));
+        verifyNoInteractions(residentSearchIndex);
+    }
+
+    @Test
+    void removeResidents_shouldDeletePersonsAndMedicalRecords_insideOneTransaction() {
+        when(dataStorage.inTransaction(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        Set<String> ids = Set.of("john boyd", "jacob boyd");
+        when(personRepository.deleteAllById(ids)).thenReturn(2);
+        when(medicalRecordRepository.deleteAllById(ids)).thenReturn(1);
+        when(dataStorage.getVersion()).thenReturn(5L);
+        when(dataStorage.versionToken(5L)).thenReturn("run-5");
+
+        ResidentRemovalDTO result = service.removeResidents(List.of(
+                new ResidentIdDTO("John", "Boyd"), new ResidentIdDTO("Jacob", "Boyd"), new ResidentIdDTO("JOHN", "boyd")));
+
+        assertEquals(new ResidentRemovalDTO(2, 2, 1, "run-5"), result);
+        InOrder order = inOrder(dataStorage, personRepository, medicalRecordRepository);
+        order.verify(dataStorage).inTransaction(any());
+        order.verify(personRepository).deleteAllById(ids);
+        order.verify(medicalRecordRepository).deleteAllById(ids);
+    }
+
+    @Test
+    void removeResidents_shouldThrowIllegalArgument_whenNameIsMissing() {
+        List<ResidentIdDTO> residents = List.of(new ResidentIdDTO("John", " "));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> service.removeResidents(residents));
+
+        assertEquals("Last name is required", ex.getMessage());
+        verifyNoInteractions(dataStorage);
+    }
+
+    @Test
+    void removeResidents_shouldThrowIllegalArgument_whenListIsEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> service.removeResidents(List.of()));
+        verifyNoInteractions(dataStorage, personRepository, medicalRecordRepository);
+    }
+}
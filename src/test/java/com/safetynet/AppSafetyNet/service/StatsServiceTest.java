@@ -0,0 +1,71 @@
+package com.safetynet.AppSafetyNet.service;
+
+import com.safetynet.AppSafetyNet.exception.NotFoundException;
+import com.safetynet.AppSafetyNet.model.dto.StationStatsDTO;
+import com.safetynet.AppSafetyNet.repository.index.AgeHistogramIndex;
+import com.safetynet.AppSafetyNet.repository.index.AgeHistogramIndex.StationCounts;
+import com.safetynet.AppSafetyNet.service.Impl.StatsServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatsServiceTest {
+
+    @InjectMocks
+    private StatsServiceImpl service;
+
+    @Mock
+    private AgeHistogramIndex ageHistogramIndex;
+
+    private static StationCounts station(int number) {
+        int[] counts = {1, 0, 2, 3, 0, 1};
+        return new StationCounts(number, counts, Map.of("1509 Culver St", counts));
+    }
+
+    @Test
+    void getStationStats_shouldReturnAllStations_whenNoneRequested() {
+        when(ageHistogramIndex.getStations()).thenReturn(List.of(1, 3));
+        when(ageHistogramIndex.getStationCounts(1)).thenReturn(Optional.of(station(1)));
+        when(ageHistogramIndex.getStationCounts(3)).thenReturn(Optional.of(station(3)));
+
+        List<StationStatsDTO> result = service.getStationStats(null);
+
+        assertEquals(2, result.size());
+        StationStatsDTO first = result.getFirst();
+        assertEquals(1, first.station());
+        assertEquals(7, first.residents().total());
+        assertEquals(1, first.residents().unknown());
+        assertEquals(List.of("0-5", "6-12", "13-18", "19-64", "65+"), List.copyOf(first.residents().brackets().keySet()));
+        assertEquals(2, first.residents().brackets().get("13-18"));
+        assertEquals("1509 Culver St", first.addresses().getFirst().address());
+    }
+
+    @Test
+    void getStationStats_shouldReturnRequestedStations_withoutDuplicates() {
+        when(ageHistogramIndex.getStationCounts(3)).thenReturn(Optional.of(station(3)));
+
+        List<StationStatsDTO> result = service.getStationStats(Arrays.asList(3, 3));
+
+        assertEquals(1, result.size());
+        verify(ageHistogramIndex, never()).getStations();
+    }
+
+    @Test
+    void getStationStats_shouldThrowNotFound_whenStationDoesNotExist() {
+        when(ageHistogramIndex.getStationCounts(42)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> service.getStationStats(List.of(42)));
+    }
+}
@@ -0,0 +1,47 @@
+package com.safetynet.AppSafetyNet.utils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Horloge UTC de test, déplaçable pour simuler un changement de jour.
+ */
+public final class MutableClock extends Clock {
+
+    private final AtomicReference<Instant> now;
+
+    public MutableClock(Instant start) {
+        this.now = new AtomicReference<>(start);
+    }
+
+    /**
+     * Place l'horloge à midi du jour donné.
+     * @param date le jour au format {@code aaaa-mm-jj}.
+     */
+    public void setToday(String date) {
+        now.set(Instant.parse(date + "T12:00:00Z"));
+    }
+
+    public void advance(Duration duration) {
+        now.updateAndGet(instant -> instant.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return now.get();
+    }
+}